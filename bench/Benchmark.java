@@ -0,0 +1,26 @@
+package jOpendaylight;
+
+/*
+ * One benchmarked operation, measured by BenchmarkRunner.
+ * setUp and tearDown run once around all iterations and are not measured.
+ */
+public abstract class Benchmark {
+	private String name;
+
+	public Benchmark(String name){
+		this.name = name;
+	}
+
+	public String getName(){
+		return name;
+	}
+
+	public void setUp() throws Exception{
+	}
+
+	//	the measured operation, its result is consumed so it cannot be optimized away
+	public abstract Object run() throws Exception;
+
+	public void tearDown() throws Exception{
+	}
+}
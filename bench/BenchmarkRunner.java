@@ -0,0 +1,220 @@
+package jOpendaylight;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/*
+ * Benchmark harness for the client hot paths, run against an embedded StubControllerServer.
+ * Each benchmark runs timed warmup iterations, then timed measurement iterations, on one thread.
+ * Reports throughput, latency percentiles of single operations and bytes allocated per
+ * operation by the benchmark thread (the stub's own allocations are not counted).
+ *
+ * Usage:
+ *   javac -cp "lib/*" -d out src/*.java bench/*.java
+ *   java -cp "out:lib/*" jOpendaylight.BenchmarkRunner [-entries 1000] [-warmup 3] [-iterations 5]
+ *        [-time 1000] [-recordings dir] [regex]
+ */
+public class BenchmarkRunner {
+	private final static int defaultEntries = 1000;
+	private final static int defaultWarmupIterations = 3;
+	private final static int defaultMeasurementIterations = 5;
+	private final static long defaultIterationMillis = 1000;
+
+	//	latency samples kept per benchmark, later operations are counted but not sampled
+	private final static int maxSamples = 1 << 21;
+
+	//	results are folded in here so the JIT cannot drop the measured work
+	private static volatile int sink;
+
+	private int warmupIterations;
+	private int measurementIterations;
+	private long iterationMillis;
+	private com.sun.management.ThreadMXBean threads;
+
+	//	latency samples of the running benchmark
+	private long[] samples;
+	private int sampleCount;
+
+	public BenchmarkRunner(int warmupIterations, int measurementIterations, long iterationMillis){
+		this.warmupIterations = warmupIterations;
+		this.measurementIterations = measurementIterations;
+		this.iterationMillis = iterationMillis;
+		this.threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		this.threads.setThreadAllocatedMemoryEnabled(true);
+	}
+
+	public static void main(String[] args) throws Exception{
+		int entries = defaultEntries;
+		int warmup = defaultWarmupIterations;
+		int iterations = defaultMeasurementIterations;
+		long time = defaultIterationMillis;
+		File recordings = null;
+		Pattern filter = Pattern.compile(".*");
+
+		for(int i = 0; i < args.length; i++){
+			if(args[i].equals("-entries")){
+				entries = Integer.parseInt(args[++i]);
+			}
+			else if(args[i].equals("-warmup")){
+				warmup = Integer.parseInt(args[++i]);
+			}
+			else if(args[i].equals("-iterations")){
+				iterations = Integer.parseInt(args[++i]);
+			}
+			else if(args[i].equals("-time")){
+				time = Long.parseLong(args[++i]);
+			}
+			else if(args[i].equals("-recordings")){
+				recordings = new File(args[++i]);
+			}
+			else{
+				filter = Pattern.compile(args[i]);
+			}
+		}
+
+		StubControllerServer server = new StubControllerServer(0, entries, recordings);
+		server.start();
+
+		try{
+			BenchmarkRunner runner = new BenchmarkRunner(warmup, iterations, time);
+			List<Benchmark> benchmarks = Benchmarks.create(server, entries);
+
+			System.out.println(String.format(Locale.ROOT, "%-40s %14s %10s %10s %10s %10s %14s",
+					"Benchmark", "ops/s", "p50 us", "p99 us", "p99.9 us", "max us", "alloc B/op"));
+
+			for(Benchmark benchmark: benchmarks){
+				if(filter.matcher(benchmark.getName()).find()){
+					System.out.println(runner.run(benchmark));
+				}
+			}
+		}
+		finally{
+			server.stop();
+		}
+	}
+
+	public Result run(Benchmark benchmark) throws Exception{
+		long operations = 0;
+		long measuredNanos = 0;
+		long allocatedBytes = 0;
+		long threadId = Thread.currentThread().getId();
+
+		samples = new long[1024];
+		sampleCount = 0;
+
+		benchmark.setUp();
+		try{
+			for(int i = 0; i < warmupIterations; i++){
+				runIteration(benchmark, false);
+			}
+
+			for(int i = 0; i < measurementIterations; i++){
+				long allocatedAtStart = threads.getThreadAllocatedBytes(threadId);
+				long start = System.nanoTime();
+
+				operations += runIteration(benchmark, true);
+				measuredNanos += System.nanoTime() - start;
+				allocatedBytes += threads.getThreadAllocatedBytes(threadId) - allocatedAtStart;
+			}
+		}
+		finally{
+			benchmark.tearDown();
+		}
+
+		Arrays.sort(samples, 0, sampleCount);
+		return new Result(benchmark.getName(), operations, measuredNanos, allocatedBytes, samples, sampleCount);
+	}
+
+	//	run the benchmark for one iteration, returns the number of operations
+	private long runIteration(Benchmark benchmark, boolean sample) throws Exception{
+		long deadline = System.nanoTime() + iterationMillis * 1000000L;
+		long operations = 0;
+		long now = System.nanoTime();
+		int hash = 0;
+
+		while(now < deadline){
+			long start = now;
+			Object result = benchmark.run();
+
+			now = System.nanoTime();
+			hash += (result != null) ? result.hashCode() : 0;
+			operations++;
+
+			if(sample && sampleCount < maxSamples){
+				if(sampleCount == samples.length){
+					samples = Arrays.copyOf(samples, Math.min(maxSamples, samples.length * 2));
+				}
+				samples[sampleCount++] = now - start;
+			}
+		}
+
+		sink += hash;
+		return operations;
+	}
+
+	public static class Result {
+		private String name;
+		private double opsPerSecond;
+		private double allocatedPerOp;
+		private long p50;
+		private long p99;
+		private long p999;
+		private long max;
+
+		Result(String name, long operations, long nanos, long allocatedBytes, long[] sortedSamples, int sampleCount){
+			this.name = name;
+			this.opsPerSecond = (nanos > 0) ? operations * 1e9 / nanos : 0;
+			this.allocatedPerOp = (operations > 0) ? (double) allocatedBytes / operations : 0;
+			this.p50 = percentile(sortedSamples, sampleCount, 0.5);
+			this.p99 = percentile(sortedSamples, sampleCount, 0.99);
+			this.p999 = percentile(sortedSamples, sampleCount, 0.999);
+			this.max = (sampleCount > 0) ? sortedSamples[sampleCount - 1] : 0;
+		}
+
+		private static long percentile(long[] sortedSamples, int sampleCount, double quantile){
+			if(sampleCount == 0){
+				return 0;
+			}
+			return sortedSamples[Math.min(sampleCount - 1, (int) Math.ceil(quantile * sampleCount) - 1)];
+		}
+
+		public String getName(){
+			return name;
+		}
+
+		public double getOpsPerSecond(){
+			return opsPerSecond;
+		}
+
+		public double getAllocatedPerOp(){
+			return allocatedPerOp;
+		}
+
+		//	latency percentiles in nanoseconds
+		public long getP50(){
+			return p50;
+		}
+
+		public long getP99(){
+			return p99;
+		}
+
+		public long getP999(){
+			return p999;
+		}
+
+		public long getMax(){
+			return max;
+		}
+
+		@Override
+		public String toString() {
+			return String.format(Locale.ROOT, "%-40s %14.1f %10.2f %10.2f %10.2f %10.2f %14.1f",
+					name, opsPerSecond, p50 / 1e3, p99 / 1e3, p999 / 1e3, max / 1e3, allocatedPerOp);
+		}
+	}
+}
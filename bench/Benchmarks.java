@@ -0,0 +1,208 @@
+package jOpendaylight;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/*
+ * The benchmarked hot paths.
+ * Transport benchmarks go through the stub over loopback, so they measure client overhead
+ * plus one local round trip; the serialization ones make no HTTP call.
+ */
+public class Benchmarks {
+	private final static String STATISTICS = "/controller/nb/v2/statistics/default/";
+	private final static String FLOW_PROGRAMMER = "/controller/nb/v2/flowprogrammer/default/node/OF/00:00:00:00:00:00:00:01/staticFlow/";
+
+	public static List<Benchmark> create(StubControllerServer server, final int entries) throws Exception{
+		List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+		final String prefix = "http://127.0.0.1:" + server.getPort();
+		final ObjectMapper mapper = new ObjectMapper();
+		final String flowStatistics = StubControllerServer.synthesizeFlowStatistics(entries);
+		final String portStatistics = StubControllerServer.synthesizePortStatistics(entries);
+		final String flowBody = "{\"name\":\"flow1\",\"node\":{\"id\":\"00:00:00:00:00:00:00:01\",\"type\":\"OF\"},\"actions\":[\"OUTPUT=2\"],\"priority\":\"500\"}";
+		final OpendaylightClient client = new OpendaylightClient("127.0.0.1", Integer.toString(server.getPort()), "admin", "admin", "default");
+		final List<String> actions = new ArrayList<String>();
+		final Map<String, String> otherParaMap = new HashMap<String, String>();
+		final FlowConfig flowConfig = new FlowConfig.Builder("flow1", "00:00:00:00:00:00:00:01")
+				.priority(500)
+				.match(new Match.Builder().etherType("0x800").nwSrc("10.0.0.1").nwDst("10.0.0.2").build())
+				.action(Action.output(2))
+				.build();
+
+		actions.add("OUTPUT=2");
+		otherParaMap.put("priority", "500");
+		otherParaMap.put("etherType", "0x800");
+		otherParaMap.put("nwSrc", "10.0.0.1");
+		otherParaMap.put("nwDst", "10.0.0.2");
+
+		//	-------------------
+		//	RestUtils verbs
+		//	-------------------
+		benchmarks.add(new Benchmark("RestUtils.doGet small"){
+			@Override
+			public Object run() throws Exception {
+				return RestUtils.doGet(prefix + "/controller/nb/v2/topology/default", "admin", "admin");
+			}
+		});
+		benchmarks.add(new Benchmark("RestUtils.doGet flowStatistics"){
+			@Override
+			public Object run() throws Exception {
+				return RestUtils.doGet(prefix + STATISTICS + "flow", "admin", "admin");
+			}
+		});
+		benchmarks.add(new Benchmark("RestUtils.doPut"){
+			@Override
+			public Object run() throws Exception {
+				return RestUtils.doPut(prefix + FLOW_PROGRAMMER + "flow1", flowBody, "admin", "admin");
+			}
+		});
+		benchmarks.add(new Benchmark("RestUtils.doPost"){
+			@Override
+			public Object run() throws Exception {
+				return RestUtils.doPost(prefix + FLOW_PROGRAMMER + "flow1", flowBody, "admin", "admin");
+			}
+		});
+		benchmarks.add(new Benchmark("RestUtils.doDelete"){
+			@Override
+			public Object run() throws Exception {
+				return RestUtils.doDelete(prefix + FLOW_PROGRAMMER + "flow1", "admin", "admin");
+			}
+		});
+
+		//	-------------------
+		//	OpendaylightClient
+		//	-------------------
+		benchmarks.add(new Benchmark("Client.getFlowStatistics"){
+			@Override
+			public Object run() throws Exception {
+				return client.getFlowStatistics();
+			}
+		});
+		benchmarks.add(new Benchmark("Client.addOrModifyFlowEntry map"){
+			@Override
+			public Object run() throws Exception {
+				return client.addOrModifyFlowEntry("flow1", "OF", "00:00:00:00:00:00:00:01", actions, otherParaMap);
+			}
+		});
+		benchmarks.add(new Benchmark("Client.addOrModifyFlowEntry FlowConfig"){
+			@Override
+			public Object run() throws Exception {
+				return client.addOrModifyFlowEntry(flowConfig);
+			}
+		});
+
+		//	-------------------
+		//	Serialization
+		//	-------------------
+		benchmarks.add(new Benchmark("Json.readTree flowStatistics"){
+			@Override
+			public Object run() throws Exception {
+				return mapper.readTree(flowStatistics);
+			}
+		});
+		benchmarks.add(new Benchmark("Json.roundTrip flowStatistics"){
+			private JsonNode tree;
+
+			@Override
+			public void setUp() throws Exception {
+				tree = mapper.readTree(flowStatistics);
+			}
+
+			@Override
+			public Object run() throws Exception {
+				return mapper.readTree(mapper.writeValueAsString(tree));
+			}
+		});
+		benchmarks.add(new Benchmark("Json.readTree portStatistics"){
+			@Override
+			public Object run() throws Exception {
+				return mapper.readTree(portStatistics);
+			}
+		});
+		benchmarks.add(new Benchmark("Json.roundTrip portStatistics"){
+			private JsonNode tree;
+
+			@Override
+			public void setUp() throws Exception {
+				tree = mapper.readTree(portStatistics);
+			}
+
+			@Override
+			public Object run() throws Exception {
+				return mapper.readTree(mapper.writeValueAsString(tree));
+			}
+		});
+		benchmarks.add(new Benchmark("Snapshot.roundTrip portStatistics"){
+			private JsonNode tree;
+			private File file;
+
+			@Override
+			public void setUp() throws Exception {
+				tree = mapper.readTree(portStatistics);
+				file = File.createTempFile("snapshot", ".bin");
+				file.deleteOnExit();
+			}
+
+			@Override
+			public Object run() throws Exception {
+				SnapshotWriter writer = new SnapshotWriter();
+				writer.add("portStatistics", tree);
+				writer.write(file);
+
+				SnapshotReader reader = new SnapshotReader(file);
+				try{
+					return reader.getSection("portStatistics").toJsonNode();
+				}
+				finally{
+					reader.close();
+				}
+			}
+		});
+
+		//	the request body built the way addOrModifyFlowEntry does, without the PUT
+		benchmarks.add(new Benchmark("FlowRequest.map"){
+			@Override
+			public Object run() throws Exception {
+				Map<String, String> nodeMap = new HashMap<String, String>();
+				Map<String, Object> requestMap = new HashMap<String, Object>();
+
+				nodeMap.put("id", "00:00:00:00:00:00:00:01");
+				nodeMap.put("type", "OF");
+				requestMap.put("name", "flow1");
+				requestMap.put("node", nodeMap);
+				requestMap.put("actions", actions);
+				requestMap.putAll(otherParaMap);
+
+				return mapper.writeValueAsString(requestMap);
+			}
+		});
+		benchmarks.add(new Benchmark("FlowRequest.FlowConfig"){
+			private ObjectWriter writer = mapper.writerWithType(FlowConfig.class);
+
+			@Override
+			public Object run() throws Exception {
+				return writer.writeValueAsString(flowConfig);
+			}
+		});
+
+		//	-------------------
+		//	Model
+		//	-------------------
+		benchmarks.add(new Benchmark("SimpleNodeConnector.toString"){
+			private SimpleNodeConnector connector = new SimpleNodeConnector("00:00:00:00:00:00:00:01", 2);
+
+			@Override
+			public Object run() throws Exception {
+				return connector.toString();
+			}
+		});
+
+		return benchmarks;
+	}
+}
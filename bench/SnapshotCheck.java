@@ -0,0 +1,73 @@
+package jOpendaylight;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/*
+ * Writes sections which are easy to get wrong to a snapshot and checks that each one reads
+ * back exactly, field order included. Exits with 1 on the first section which does not.
+ *
+ * Usage:
+ *   javac -cp "lib/*" -d out src/*.java bench/*.java
+ *   java -cp "out:lib/*" jOpendaylight.SnapshotCheck [-entries 1000]
+ */
+public class SnapshotCheck {
+	private final static int defaultEntries = 1000;
+
+	public static void main(String[] args) throws Exception {
+		int entries = defaultEntries;
+		ObjectMapper mapper = new ObjectMapper();
+		Map<String, JsonNode> sections = new LinkedHashMap<String, JsonNode>();
+
+		for(int i = 0; i < args.length; i++){
+			if(args[i].equals("-entries") && i + 1 < args.length){
+				entries = Integer.parseInt(args[++i]);
+			}
+		}
+
+		//	equal arrays of which only the second can be a table, its rows have their fields in the same order
+		sections.put("mixed", mapper.readTree("[{\"x\":1,\"y\":2},{\"y\":4,\"x\":3}]"));
+		sections.put("table", mapper.readTree("[{\"x\":1,\"y\":2},{\"x\":3,\"y\":4}]"));
+		//	equal objects, in other field orders
+		sections.put("objects", mapper.readTree("[{\"a\":{\"x\":1,\"y\":2}},{\"a\":{\"y\":2,\"x\":1}},{\"b\":[1,{\"y\":2,\"x\":1}]}]"));
+		sections.put("reordered", mapper.readTree("{\"y\":2,\"x\":1}"));
+		sections.put("ordered", mapper.readTree("{\"x\":1,\"y\":2}"));
+		sections.put("scalars", mapper.readTree("[null,true,false,0,-1,9223372036854775807,1.5,\"\",\"s\",{},[]]"));
+		sections.put("portStatistics", mapper.readTree(StubControllerServer.synthesizePortStatistics(entries)));
+		sections.put("flowStatistics", mapper.readTree(StubControllerServer.synthesizeFlowStatistics(entries)));
+
+		File file = File.createTempFile("snapshot", ".bin");
+		file.deleteOnExit();
+
+		SnapshotWriter writer = new SnapshotWriter();
+		for(Map.Entry<String, JsonNode> section: sections.entrySet()){
+			writer.add(section.getKey(), section.getValue());
+		}
+		writer.write(file);
+
+		SnapshotReader reader = new SnapshotReader(file);
+		try{
+			for(Map.Entry<String, JsonNode> section: sections.entrySet()){
+				String expected = section.getValue().toString();
+				String read = reader.getSection(section.getKey()).toJsonNode().toString();
+
+				if(!read.equals(expected)){
+					System.out.println("FAILED " + section.getKey() + ": wrote " + abbreviate(expected) + ", read " + abbreviate(read));
+					System.exit(1);
+				}
+				System.out.println("ok " + section.getKey());
+			}
+		}
+		finally{
+			reader.close();
+		}
+	}
+
+	private static String abbreviate(String json){
+		return (json.length() <= 200) ? json : json.substring(0, 200) + "...";
+	}
+}
@@ -0,0 +1,196 @@
+package jOpendaylight;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/*
+ * Embedded HTTP stub serving canned controller JSON, so the benchmarks need no live controller.
+ * GETs answer the recorded body of the longest matching mount point, other verbs answer "Success".
+ * Bodies are synthesized with a configurable number of entries, or loaded from a directory
+ * of recorded responses where the file name is the mount point with '/' replaced by '_'
+ * (e.g. _controller_nb_v2_statistics_default_flow.json).
+ */
+public class StubControllerServer {
+	private HttpServer server;
+	private Map<String, byte[]> bodies;
+
+	public StubControllerServer(int port, int entries, File recordings) throws IOException{
+		bodies = new HashMap<String, byte[]>();
+		bodies.put("/controller/nb/v2/statistics/default/flow", synthesizeFlowStatistics(entries).getBytes("UTF-8"));
+		bodies.put("/controller/nb/v2/statistics/default/port", synthesizePortStatistics(entries).getBytes("UTF-8"));
+		bodies.put("/controller/nb/v2/topology/default", "{\"edgeProperties\":[]}".getBytes("UTF-8"));
+
+		if(recordings != null && recordings.isDirectory()){
+			for(File file: recordings.listFiles()){
+				if(file.getName().endsWith(".json")){
+					String mountPoint = file.getName().substring(0, file.getName().length() - 5).replace('_', '/');
+					bodies.put(mountPoint, readFile(file));
+				}
+			}
+		}
+
+		//	TCP_NODELAY on the server side, otherwise small responses wait for delayed ACKs
+		System.setProperty("sun.net.httpserver.nodelay", "true");
+
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 128);
+		server.setExecutor(Executors.newFixedThreadPool(8, new DaemonThreadFactory("StubControllerServer")));
+		server.createContext("/", new HttpHandler(){
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				handleRequest(exchange);
+			}
+		});
+	}
+
+	public void start(){
+		server.start();
+	}
+
+	public void stop(){
+		server.stop(0);
+	}
+
+	public int getPort(){
+		return server.getAddress().getPort();
+	}
+
+	public int getBodySize(String mountPoint){
+		return bodies.get(mountPoint).length;
+	}
+
+	private void handleRequest(HttpExchange exchange) throws IOException{
+		InputStream requestBody = exchange.getRequestBody();
+		byte[] buffer = new byte[8192];
+		byte[] body;
+
+		//	drain the request so the connection can be kept alive
+		while(requestBody.read(buffer) >= 0){
+		}
+
+		if(exchange.getRequestMethod().equals("GET")){
+			body = findBody(exchange.getRequestURI().getPath());
+			if(body == null){
+				body = "{}".getBytes("UTF-8");
+			}
+		}
+		else{
+			body = "Success".getBytes("UTF-8");
+		}
+
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, body.length);
+
+		OutputStream responseBody = exchange.getResponseBody();
+		responseBody.write(body);
+		responseBody.close();
+	}
+
+	private byte[] findBody(String path){
+		while(path.length() > 0){
+			byte[] body = bodies.get(path);
+
+			if(body != null){
+				return body;
+			}
+			path = path.substring(0, Math.max(0, path.lastIndexOf('/')));
+		}
+
+		return null;
+	}
+
+	private static byte[] readFile(File file) throws IOException{
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		InputStream in = new FileInputStream(file);
+		byte[] buffer = new byte[8192];
+		int length;
+
+		try{
+			while((length = in.read(buffer)) >= 0){
+				result.write(buffer, 0, length);
+			}
+		}
+		finally{
+			in.close();
+		}
+
+		return result.toByteArray();
+	}
+
+	//	flow statistics of entries flows spread over 100 switches
+	static String synthesizeFlowStatistics(int entries){
+		StringBuilder json = new StringBuilder(entries * 400);
+		int nodes = Math.max(1, Math.min(100, entries));
+
+		json.append("{\"flowStatistics\":[");
+		for(int n = 0; n < nodes; n++){
+			if(n > 0){
+				json.append(',');
+			}
+			json.append("{\"node\":{\"id\":\"").append(nodeId(n)).append("\",\"type\":\"OF\"},\"flowStatistic\":[");
+
+			for(int f = n; f < entries; f += nodes){
+				if(f >= nodes){
+					json.append(',');
+				}
+				json.append("{\"flow\":{\"match\":{\"matchField\":[")
+					.append("{\"type\":\"DL_TYPE\",\"value\":\"2048\"},")
+					.append("{\"type\":\"NW_SRC\",\"value\":\"10.").append((f >> 16) & 255).append('.').append((f >> 8) & 255).append('.').append(f & 255).append("\"},")
+					.append("{\"type\":\"NW_DST\",\"value\":\"10.0.0.1\"}]},")
+					.append("\"actions\":[{\"type\":\"OUTPUT\",\"port\":{\"node\":{\"id\":\"").append(nodeId(n)).append("\",\"type\":\"OF\"},\"id\":\"1\",\"type\":\"OF\"}}],")
+					.append("\"priority\":500,\"idleTimeout\":0,\"hardTimeout\":0,\"id\":0},")
+					.append("\"tableId\":0,\"durationSeconds\":").append(f)
+					.append(",\"durationNanoseconds\":0,\"packetCount\":").append(f * 7L)
+					.append(",\"byteCount\":").append(f * 1000L).append('}');
+			}
+			json.append("]}");
+		}
+		json.append("]}");
+
+		return json.toString();
+	}
+
+	//	port statistics of entries ports spread over 100 switches
+	static String synthesizePortStatistics(int entries){
+		StringBuilder json = new StringBuilder(entries * 400);
+		int nodes = Math.max(1, Math.min(100, entries));
+
+		json.append("{\"portStatistics\":[");
+		for(int n = 0; n < nodes; n++){
+			if(n > 0){
+				json.append(',');
+			}
+			json.append("{\"node\":{\"id\":\"").append(nodeId(n)).append("\",\"type\":\"OF\"},\"portStatistic\":[");
+
+			for(int p = n; p < entries; p += nodes){
+				if(p >= nodes){
+					json.append(',');
+				}
+				json.append("{\"nodeConnector\":{\"node\":{\"id\":\"").append(nodeId(n)).append("\",\"type\":\"OF\"},\"id\":\"").append(p / nodes + 1).append("\",\"type\":\"OF\"},")
+					.append("\"receivePackets\":").append(p * 3L).append(",\"transmitPackets\":").append(p * 5L)
+					.append(",\"receiveBytes\":").append(p * 300L).append(",\"transmitBytes\":").append(p * 500L)
+					.append(",\"receiveDrops\":0,\"transmitDrops\":0,\"receiveErrors\":0,\"transmitErrors\":0")
+					.append(",\"receiveFrameError\":0,\"receiveOverRunError\":0,\"receiveCrcError\":0,\"collisionCount\":0}");
+			}
+			json.append("]}");
+		}
+		json.append("]}");
+
+		return json.toString();
+	}
+
+	static String nodeId(int n){
+		return String.format("00:00:00:00:00:00:%02x:%02x", (n >> 8) & 255, n & 255);
+	}
+}
@@ -0,0 +1,84 @@
+package jOpendaylight;
+
+//	One action of a static flow, e.g. OUTPUT=2 or DROP.
+//	Immutable, the wire form is built once at construction.
+public class Action {
+	public final static String OUTPUT = "OUTPUT";
+	public final static String DROP = "DROP";
+	public final static String FLOOD = "FLOOD";
+	public final static String CONTROLLER = "CONTROLLER";
+	public final static String SET_VLAN_ID = "SET_VLAN_ID";
+	public final static String SET_DL_SRC = "SET_DL_SRC";
+	public final static String SET_DL_DST = "SET_DL_DST";
+	public final static String SET_NW_SRC = "SET_NW_SRC";
+	public final static String SET_NW_DST = "SET_NW_DST";
+	public final static String SET_TP_SRC = "SET_TP_SRC";
+	public final static String SET_TP_DST = "SET_TP_DST";
+	
+	private final static Action dropAction = new Action(DROP, null);
+	private final static Action floodAction = new Action(FLOOD, null);
+	private final static Action controllerAction = new Action(CONTROLLER, null);
+	
+	private final String type;
+	private final String value;
+	private final String text;
+	
+	//	value may be null for actions without argument
+	public Action(String type, String value){
+		this.type = type;
+		this.value = value;
+		this.text = (value == null) ? type : type + "=" + value;
+	}
+	
+	public static Action output(int port){
+		return new Action(OUTPUT, Integer.toString(port));
+	}
+	
+	public static Action drop(){
+		return dropAction;
+	}
+	
+	public static Action flood(){
+		return floodAction;
+	}
+	
+	public static Action controller(){
+		return controllerAction;
+	}
+	
+	//	parse the wire form, e.g. "OUTPUT=2"
+	public static Action parse(String text){
+		int separator = text.indexOf('=');
+		
+		if(separator < 0){
+			return new Action(text, null);
+		}
+		else{
+			return new Action(text.substring(0, separator), text.substring(separator + 1));
+		}
+	}
+	
+	public String getType(){
+		return type;
+	}
+	
+	public String getValue(){
+		return value;
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		return (obj instanceof Action) && text.equals(((Action) obj).text);
+	}
+	
+	@Override
+	public int hashCode() {
+		return text.hashCode();
+	}
+	
+	//	wire form used in the "actions" list of a flow
+	@Override
+	public String toString() {
+		return text;
+	}
+}
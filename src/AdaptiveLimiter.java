@@ -0,0 +1,295 @@
+package jOpendaylight;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * Adaptive limit on the requests in flight to one controller (AIMD).
+ * The limit grows by one per limit successful requests while it is in use,
+ * and is cut by backoffRatio, at most once per round trip, when a request fails with
+ * a 5xx, 429 or no response, or when the latency of the last few requests to an endpoint
+ * goes over latencyTolerance times its long-term average (queueing at the controller).
+ * Latencies are only compared within an endpoint, a slow statistics call says nothing
+ * of a flow install.
+ * Requests over the limit wait in priority order, at most maxWaitMillis, then fail
+ * with a ConcurrencyLimitException. Reads and deletes (HIGH) go before POSTs (NORMAL),
+ * which go before flow installs and other PUTs (LOW).
+ */
+public class AdaptiveLimiter {
+	public final static int HIGH = 0;
+	public final static int NORMAL = 1;
+	public final static int LOW = 2;
+
+	private final static int defaultInitialLimit = 20;
+	private final static int defaultMinLimit = 1;
+	private final static int defaultMaxLimit = 200;
+	private final static long defaultMaxWaitMillis = 30000;
+	private final static double defaultBackoffRatio = 0.9;
+	private final static double defaultLatencyTolerance = 2.0;
+	//	weights of a new latency sample in the short and long-term averages
+	private final static double shortWeight = 0.1;
+	private final static double longWeight = 0.002;
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final long maxWaitNanos;
+	private volatile double backoffRatio;
+	private volatile double latencyTolerance;
+
+	private final ReentrantLock lock;
+	private final ArrayDeque<Waiter>[] waiters;
+	private double limit;
+	private int inFlight;
+	private int queued;
+	private long lastDecrease;
+	private long rejectedCount;
+
+	//	endpoint -> average latency over the last few and the last several hundred requests
+	private final Map<String, double[]> latencies;
+
+	//	constructor with nothing
+	public AdaptiveLimiter(){
+		this(defaultInitialLimit, defaultMinLimit, defaultMaxLimit, defaultMaxWaitMillis);
+	}
+
+	//	base constructor
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, long maxWaitMillis){
+		this.minLimit = Math.max(1, minLimit);
+		this.maxLimit = Math.max(this.minLimit, maxLimit);
+		this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+		this.backoffRatio = defaultBackoffRatio;
+		this.latencyTolerance = defaultLatencyTolerance;
+		this.lock = new ReentrantLock();
+		this.waiters = new ArrayDeque[LOW + 1];
+		this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+		this.latencies = new HashMap<String, double[]>();
+
+		for(int i = 0; i <= LOW; i++){
+			waiters[i] = new ArrayDeque<Waiter>();
+		}
+	}
+
+	//	multiplier applied to the limit on overload, e.g. 0.9
+	public void setBackoffRatio(double backoffRatio){
+		this.backoffRatio = backoffRatio;
+	}
+
+	//	a short-term latency over tolerance x the long-term one counts as overload
+	public void setLatencyTolerance(double latencyTolerance){
+		this.latencyTolerance = latencyTolerance;
+	}
+
+	//	GET and DELETE are HIGH, POST is NORMAL, PUT is LOW
+	public static int priority(String method){
+		if(method.equals("PUT")){
+			return LOW;
+		}
+		else if(method.equals("POST")){
+			return NORMAL;
+		}
+		else{
+			return HIGH;
+		}
+	}
+
+	//	-------------------
+	//	Permits
+	//	-------------------
+
+	//	Wait for a slot, returns the token to hand back to release(...)
+	public long acquire(int priority) throws IOException{
+		return acquire(priority, maxWaitNanos);
+	}
+
+	//	base method
+	//	waits at most the shorter of maxWaitNanos and the limiter's max wait
+	public long acquire(int priority, long maxWaitNanos) throws IOException{
+		Waiter waiter;
+
+		lock.lock();
+		try{
+			if(queued == 0 && inFlight < (int) limit){
+				inFlight++;
+				return System.nanoTime();
+			}
+
+			waiter = new Waiter(lock.newCondition());
+			waiters[priority].addLast(waiter);
+			queued++;
+			grant();
+
+			long remaining = Math.min(maxWaitNanos, this.maxWaitNanos);
+			while(!waiter.granted){
+				if(remaining <= 0){
+					waiters[priority].remove(waiter);
+					queued--;
+					rejectedCount++;
+					throw new ConcurrencyLimitException("No slot to the controller within " + TimeUnit.NANOSECONDS.toMillis(Math.min(maxWaitNanos, this.maxWaitNanos))
+							+ " ms, limit " + (int) limit + ", " + queued + " queued", (int) limit);
+				}
+
+				try{
+					remaining = waiter.condition.awaitNanos(remaining);
+				}
+				catch(InterruptedException e){
+					if(waiter.granted){
+						//	give the slot to the next one
+						inFlight--;
+						grant();
+					}
+					else{
+						waiters[priority].remove(waiter);
+						queued--;
+					}
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("Interrupted while waiting for a slot to the controller");
+				}
+			}
+
+			return System.nanoTime();
+		}
+		finally{
+			lock.unlock();
+		}
+	}
+
+	//	Give back a slot with the outcome of its request, its latency is not tracked
+	public void release(int priority, long token, boolean overloaded){
+		release(priority, null, token, overloaded);
+	}
+
+	//	base method
+	//	Give back a slot with the outcome of its request
+	//	endpoint: what the latency is compared with, e.g. RestMetrics.endpointName(...), null for none
+	//	overloaded: the controller answered 5xx or 429, or did not answer
+	public void release(int priority, String endpoint, long token, boolean overloaded){
+		long now = System.nanoTime();
+		long latency = now - token;
+
+		lock.lock();
+		try{
+			boolean congested = (endpoint != null && updateLatency(endpoint, latency)) || overloaded;
+
+			if(congested){
+				//	at most once per round trip, the requests in flight saw the same overload
+				if(now - lastDecrease > Math.min(latency, 1000000000L)){
+					limit = Math.max(minLimit, limit * backoffRatio);
+					lastDecrease = now;
+				}
+			}
+			else if(inFlight * 2 >= (int) limit){
+				//	only grow a limit which is actually used
+				limit = Math.min(maxLimit, limit + 1 / limit);
+			}
+
+			inFlight--;
+			grant();
+		}
+		finally{
+			lock.unlock();
+		}
+	}
+
+	//	lock held
+	private void grant(){
+		for(int priority = HIGH; priority <= LOW && inFlight < (int) limit; priority++){
+			Waiter waiter;
+
+			while(inFlight < (int) limit && (waiter = waiters[priority].pollFirst()) != null){
+				waiter.granted = true;
+				queued--;
+				inFlight++;
+				waiter.condition.signal();
+			}
+		}
+	}
+
+	//	lock held, true if the latency rises
+	//	the long-term average follows a controller that got slower for good
+	private boolean updateLatency(String endpoint, long latency){
+		//	{short-term, long-term}
+		double[] average = latencies.get(endpoint);
+
+		if(average == null){
+			latencies.put(endpoint, new double[]{latency, latency});
+			return false;
+		}
+
+		average[0] += (latency - average[0]) * shortWeight;
+		average[1] += (latency - average[1]) * longWeight;
+
+		return average[0] > average[1] * latencyTolerance;
+	}
+
+	//	-------------------
+	//	State
+	//	-------------------
+
+	public int getLimit(){
+		lock.lock();
+		try{
+			return (int) limit;
+		}
+		finally{
+			lock.unlock();
+		}
+	}
+
+	public int getInFlight(){
+		lock.lock();
+		try{
+			return inFlight;
+		}
+		finally{
+			lock.unlock();
+		}
+	}
+
+	public int getQueued(){
+		lock.lock();
+		try{
+			return queued;
+		}
+		finally{
+			lock.unlock();
+		}
+	}
+
+	//	requests which gave up waiting
+	public long getRejectedCount(){
+		lock.lock();
+		try{
+			return rejectedCount;
+		}
+		finally{
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public String toString() {
+		lock.lock();
+		try{
+			return "limit=" + (int) limit + " inFlight=" + inFlight + " queued=" + queued + " rejected=" + rejectedCount;
+		}
+		finally{
+			lock.unlock();
+		}
+	}
+
+	private static class Waiter {
+		final Condition condition;
+		boolean granted;
+
+		Waiter(Condition condition){
+			this.condition = condition;
+		}
+	}
+}
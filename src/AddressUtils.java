@@ -0,0 +1,90 @@
+package jOpendaylight;
+
+//	Packing of IPv4 and MAC addresses into primitives, for the in-memory tables.
+class AddressUtils {
+	//	"10.0.0.1" -> 0x0a000001
+	//	throws IllegalArgumentException if the text is not a dotted quad
+	static int parseIpv4(String address){
+		int result = 0;
+		int octet = -1;
+		int octets = 0;
+		
+		for(int i = 0, length = address.length(); i <= length; i++){
+			char c = (i < length) ? address.charAt(i) : '.';
+			
+			if(c >= '0' && c <= '9'){
+				octet = ((octet < 0) ? 0 : octet * 10) + (c - '0');
+				if(octet > 255){
+					throw new IllegalArgumentException("Not an IPv4 address: " + address);
+				}
+			}
+			else if(c == '.' && octet >= 0 && octets < 4){
+				result = (result << 8) | octet;
+				octet = -1;
+				octets++;
+			}
+			else{
+				throw new IllegalArgumentException("Not an IPv4 address: " + address);
+			}
+		}
+		
+		if(octets != 4){
+			throw new IllegalArgumentException("Not an IPv4 address: " + address);
+		}
+		return result;
+	}
+	
+	//	true if parseIpv4 would accept the text
+	static boolean isIpv4(String address){
+		try{
+			parseIpv4(address);
+			return true;
+		}
+		catch(IllegalArgumentException e){
+			return false;
+		}
+	}
+	
+	static String formatIpv4(int address){
+		return ((address >>> 24) & 255) + "." + ((address >>> 16) & 255) + "." + ((address >>> 8) & 255) + "." + (address & 255);
+	}
+	
+	//	"00:00:00:00:00:01" -> 0x000000000001, '-' separators are accepted too
+	//	throws IllegalArgumentException if the text is not six hex bytes
+	static long parseMac(String address){
+		long result = 0;
+		int digits = 0;
+		
+		for(int i = 0, length = address.length(); i < length; i++){
+			char c = address.charAt(i);
+			int digit = Character.digit(c, 16);
+			
+			if(digit >= 0){
+				result = (result << 4) | digit;
+				digits++;
+			}
+			else if((c != ':' && c != '-') || digits % 2 != 0){
+				throw new IllegalArgumentException("Not a MAC address: " + address);
+			}
+		}
+		
+		if(digits != 12){
+			throw new IllegalArgumentException("Not a MAC address: " + address);
+		}
+		return result;
+	}
+	
+	static String formatMac(long address){
+		StringBuilder result = new StringBuilder(17);
+		
+		for(int shift = 40; shift >= 0; shift -= 8){
+			if(result.length() > 0){
+				result.append(':');
+			}
+			result.append(Character.forDigit((int) (address >>> (shift + 4)) & 15, 16));
+			result.append(Character.forDigit((int) (address >>> shift) & 15, 16));
+		}
+		
+		return result.toString();
+	}
+}
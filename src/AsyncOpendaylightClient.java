@@ -0,0 +1,1283 @@
+package jOpendaylight;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/*
+ * Non-blocking facade over OpendaylightClient.
+ * Every northbound call is run on a bounded executor and returns a CompletableFuture,
+ * so callers can keep many requests in flight without holding a thread each.
+ * Failures (IOException, HTTP errors) complete the future exceptionally.
+ */
+public class AsyncOpendaylightClient {
+	private final static int defaultThreads = 32;
+	private final static int defaultQueueSize = 10000;
+	
+	private OpendaylightClient client;
+	private ExecutorService executor;
+	private boolean ownExecutor;
+	
+	//	constructor with the default bounded executor
+	public AsyncOpendaylightClient(OpendaylightClient client){
+		this(client, defaultThreads, defaultQueueSize);
+	}
+	
+	//	constructor with a bounded executor of the given size, sized as told in BatchExecutor
+	public AsyncOpendaylightClient(OpendaylightClient client, int threads, int queueSize){
+		this(client, createExecutor(threads, queueSize));
+		this.ownExecutor = true;
+	}
+	
+	//	base constructor, on an executor of the caller (see BatchExecutor)
+	public AsyncOpendaylightClient(OpendaylightClient client, ExecutorService executor){
+		this.client = client;
+		this.executor = executor;
+		this.ownExecutor = false;
+	}
+	
+	public OpendaylightClient getClient(){
+		return client;
+	}
+	
+	//	Stop the executor if it was created here, the underlying client stays open
+	public void shutdown(){
+		if(ownExecutor){
+			executor.shutdown();
+		}
+	}
+	
+	private static ExecutorService createExecutor(int threads, int queueSize){
+		ThreadPoolExecutor pool;
+		
+		pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, 
+				new ArrayBlockingQueue<Runnable>(queueSize), new DaemonThreadFactory("AsyncOpendaylightClient"));
+		pool.allowCoreThreadTimeOut(true);
+		
+		return pool;
+	}
+	
+	//	Run the call on the executor, a rejected submission fails the future instead of throwing
+	private <T> CompletableFuture<T> submit(final Callable<T> call){
+		final CompletableFuture<T> future = new CompletableFuture<T>();
+		
+		try{
+			executor.execute(new Runnable(){
+				@Override
+				public void run() {
+					try{
+						future.complete(call.call());
+					}
+					catch(Throwable t){
+						future.completeExceptionally(t);
+					}
+				}
+			});
+		}
+		catch(RuntimeException e){
+			future.completeExceptionally(e);
+		}
+		
+		return future;
+	}
+	
+	//	---------------------------
+	//		API implementation
+	//	---------------------------
+	
+	//	--------------------------
+	//		Topology REST APIs
+	//	--------------------------
+	
+	//	Retrieve the Topology
+	public CompletableFuture<JsonNode> getTopology(){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getTopology();
+			}
+		});
+	}
+	
+	public CompletableFuture<JsonNode> getTopology(final String containerName){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getTopology(containerName);
+			}
+		});
+	}
+	
+	//	Retrieve the user configured links
+	public CompletableFuture<JsonNode> getUserLinks(){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getUserLinks();
+			}
+		});
+	}
+	
+	public CompletableFuture<JsonNode> getUserLinks(final String containerName){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getUserLinks(containerName);
+			}
+		});
+	}
+	
+	//	Add an User Link
+	public CompletableFuture<String> addOpenFlowUserLink(final String name, final String srcId, final int srcPort, final String dstId, final int dstPort){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.addOpenFlowUserLink(name, srcId, srcPort, dstId, dstPort);
+			}
+		});
+	}
+	
+	//	Add an User Link
+	public CompletableFuture<String> addUserLink(final String containerName, final String name, final String type, final String srcId, final int srcPort, final String dstId, final int dstPort){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.addUserLink(containerName, name, type, srcId, srcPort, dstId, dstPort);
+			}
+		});
+	}
+	
+	public CompletableFuture<String> addUserLink(final String name, final Map<String, String> paraMap){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.addUserLink(name, paraMap);
+			}
+		});
+	}
+	
+	public CompletableFuture<String> addUserLink(final String containerName, final String name, final Map<String, String> paraMap){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.addUserLink(containerName, name, paraMap);
+			}
+		});
+	}
+	
+	//	Delete an User Link
+	public CompletableFuture<String> deleteUserLink(final String name){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.deleteUserLink(name);
+			}
+		});
+	}
+	
+	public CompletableFuture<String> deleteUserLink(final String containerName, final String name){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.deleteUserLink(containerName, name);
+			}
+		});
+	}
+	
+	//	-----------------------------
+	//		Host Tracker REST API
+	//	-----------------------------
+	
+	//	Returns a host that matches the IP Address value passed as parameter.
+	public CompletableFuture<JsonNode> getHostDetails(final String networkAddress){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getHostDetails(networkAddress);
+			}
+		});
+	}
+	
+	public CompletableFuture<JsonNode> getHostDetails(final String containerName, final String networkAddress){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getHostDetails(containerName, networkAddress);
+			}
+		});
+	}
+	
+	//	Add a Static Host configuration.
+	public CompletableFuture<String> addOpenFlowStaticHost(final String networkAddress, final String dataLayerAddress, final String nodeId, final int nodePort, final int vlanId){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.addOpenFlowStaticHost(networkAddress, dataLayerAddress, nodeId, nodePort, vlanId);
+			}
+		});
+	}
+	
+	//	Add a Static Host configuration.
+	public CompletableFuture<String> addStaticHost(final String networkAddress, final String dataLayerAddress, final String type, final String nodeId, final int nodePort, final int vlanId){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.addStaticHost(networkAddress, dataLayerAddress, type, nodeId, nodePort, vlanId);
+			}
+		});
+	}
+	
+	public CompletableFuture<String> addStaticHost(final String containerName, final String networkAddress, final String dataLayerAddress, final String type, final String nodeId, final int nodePort, final int vlanId){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.addStaticHost(containerName, networkAddress, dataLayerAddress, type, nodeId, nodePort, vlanId);
+			}
+		});
+	}
+	
+	public CompletableFuture<String> addStaticHost(final String networkAddress, final Map<String, String> paraMap){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.addStaticHost(networkAddress, paraMap);
+			}
+		});
+	}
+	
+	public CompletableFuture<String> addStaticHost(final String containerName, final String networkAddress, final Map<String, String> paraMap){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.addStaticHost(containerName, networkAddress, paraMap);
+			}
+		});
+	}
+	
+	//	Delete a Static Host configuration
+	public CompletableFuture<String> deleteStaticHost(final String networkAddress){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.deleteStaticHost(networkAddress);
+			}
+		});
+	}
+	
+	public CompletableFuture<String> deleteStaticHost(final String containerName, final String networkAddress){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.deleteStaticHost(containerName, networkAddress);
+			}
+		});
+	}
+	
+	//	Returns a list of all Hosts
+	public CompletableFuture<JsonNode> getActiveHosts(){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getActiveHosts();
+			}
+		});
+	}
+	
+	public CompletableFuture<JsonNode> getActiveHosts(final String containerName){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getActiveHosts(containerName);
+			}
+		});
+	}
+	
+	//	Returns a list of Hosts that are statically configured
+	public CompletableFuture<JsonNode> getInactiveHosts(){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getInactiveHosts();
+			}
+		});
+	}
+	
+	public CompletableFuture<JsonNode> getInactiveHosts(final String containerName){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getInactiveHosts(containerName);
+			}
+		});
+	}
+	
+	//	-----------------------------------------
+	//		Flow Configuration Northbound API
+	//	-----------------------------------------
+	
+	//	Returns a list of Flows configured on the given container
+	public CompletableFuture<JsonNode> getAllStaticFlowEntries(){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getAllStaticFlowEntries();
+			}
+		});
+	}
+	
+	public CompletableFuture<JsonNode> getAllStaticFlowEntries(final String containerName){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getAllStaticFlowEntries(containerName);
+			}
+		});
+	}
+	
+	//	Returns a list of Flows configured on a Node in a given container
+	public CompletableFuture<JsonNode> getOpenFlowStaticFlowEntries(final String nodeId){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getOpenFlowStaticFlowEntries(nodeId);
+			}
+		});
+	}
+	
+	//	Returns a list of Flows configured on a Node in a given container
+	public CompletableFuture<JsonNode> getStaticFlowEntries(final String nodeType, final String nodeId){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getStaticFlowEntries(nodeType, nodeId);
+			}
+		});
+	}
+	
+	public CompletableFuture<JsonNode> getStaticFlowEntries(final String containerName, final String nodeType, final String nodeId){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getStaticFlowEntries(containerName, nodeType, nodeId);
+			}
+		});
+	}
+	
+	//	Returns the flow configuration matching a human-readable name and nodeId on a given Container.
+	public CompletableFuture<JsonNode> getOpenFlowStaticFlowEntry(final String nodeId, final String name){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getOpenFlowStaticFlowEntry(nodeId, name);
+			}
+		});
+	}
+	
+	//	Returns the flow configuration matching a human-readable name and nodeId on a given Container.
+	public CompletableFuture<JsonNode> getStaticFlowEntry(final String nodeType, final String nodeId, final String name){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getStaticFlowEntry(nodeType, nodeId, name);
+			}
+		});
+	}
+	
+	public CompletableFuture<JsonNode> getStaticFlowEntry(final String containerName, final String nodeType, final String nodeId, final String name){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getStaticFlowEntry(containerName, nodeType, nodeId, name);
+			}
+		});
+	}
+	
+	//	Add or Modify a simple OpenFlow IPv4 flow configuration.
+	public CompletableFuture<String> addOrModifySimpleFlowEntry(final String name, final String nodeId, final String srcIp, final String dstIp, final int outputPort, final Map<String, String> otherParaMap){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.addOrModifySimpleFlowEntry(name, nodeId, srcIp, dstIp, outputPort, otherParaMap);
+			}
+		});
+	}
+	
+	//	Add or Modify a flow configuration.
+	public CompletableFuture<String> addOrModifyOpenFlowFlowEntry(final String name, final String nodeId, final List<String> actionList, final Map<String, String> otherParaMap){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.addOrModifyOpenFlowFlowEntry(name, nodeId, actionList, otherParaMap);
+			}
+		});
+	}
+	
+	//	Add or Modify a flow configuration.
+	public CompletableFuture<String> addOrModifyFlowEntry(final String name, final String nodeType, final String nodeId, final List<String> actionList, final Map<String, String> otherParaMap){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.addOrModifyFlowEntry(name, nodeType, nodeId, actionList, otherParaMap);
+			}
+		});
+	}
+	
+	public CompletableFuture<String> addOrModifyFlowEntry(final String containerName, final String name, final String nodeType, final String nodeId, final List<String> actionList, final Map<String, String> otherParaMap){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.addOrModifyFlowEntry(containerName, name, nodeType, nodeId, actionList, otherParaMap);
+			}
+		});
+	}
+	
+	//	Delete a Flow configuration
+	public CompletableFuture<String> deleteOpenFlowFlowEntry(final String name, final String nodeId){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.deleteOpenFlowFlowEntry(name, nodeId);
+			}
+		});
+	}
+	
+	//	Delete a Flow configuration
+	public CompletableFuture<String> deleteFlowEntry(final String name, final String nodeType, final String nodeId){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.deleteFlowEntry(name, nodeType, nodeId);
+			}
+		});
+	}
+	
+	public CompletableFuture<String> deleteFlowEntry(final String containerName, final String name, final String nodeType, final String nodeId){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.deleteFlowEntry(containerName, name, nodeType, nodeId);
+			}
+		});
+	}
+	
+	//	Toggle a Flow configuration
+	public CompletableFuture<String> toggleOpenFlowFlowEntry(final String nodeId, final String name){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.toggleOpenFlowFlowEntry(nodeId, name);
+			}
+		});
+	}
+	
+	//	Toggle a Flow configuration
+	public CompletableFuture<String> toggleFlowEntry(final String nodeType, final String nodeId, final String name){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.toggleFlowEntry(nodeType, nodeId, name);
+			}
+		});
+	}
+	
+	public CompletableFuture<String> toggleFlowEntry(final String containerName, final String nodeType, final String nodeId, final String name){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.toggleFlowEntry(containerName, nodeType, nodeId, name);
+			}
+		});
+	}
+	
+	//	-------------------------------------
+	//		Static Routing Northbound API
+	//	-------------------------------------
+	
+	//	Get a list of static routes present on the given container.
+	public CompletableFuture<JsonNode> getStaticRoutes(){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getStaticRoutes();
+			}
+		});
+	}
+	
+	public CompletableFuture<JsonNode> getStaticRoutes(final String containerName){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getStaticRoutes(containerName);
+			}
+		});
+	}
+	
+	//	Returns the static route for the provided configuration name on a given container
+	public CompletableFuture<JsonNode> getStaticRoute(final String routeName){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getStaticRoute(routeName);
+			}
+		});
+	}
+	
+	public CompletableFuture<JsonNode> getStaticRoute(final String containerName, final String routeName){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getStaticRoute(containerName, routeName);
+			}
+		});
+	}
+	
+	//	Add a new Static Route.
+	public CompletableFuture<String> addStaticRoute(final String routeName, final String prefix, final String nextHop){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.addStaticRoute(routeName, prefix, nextHop);
+			}
+		});
+	}
+	
+	public CompletableFuture<String> addStaticRoute(final String containerName, final String routeName, final String prefix, final String nextHop){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.addStaticRoute(containerName, routeName, prefix, nextHop);
+			}
+		});
+	}
+	
+	public CompletableFuture<String> addStaticRoute(final String routeName, final Map<String, String> staticRouteData){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.addStaticRoute(routeName, staticRouteData);
+			}
+		});
+	}
+	
+	public CompletableFuture<String> addStaticRoute(final String containerName, final String routeName, final Map<String, String> staticRouteData){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.addStaticRoute(containerName, routeName, staticRouteData);
+			}
+		});
+	}
+	
+	//	Delete a Static Route
+	public CompletableFuture<String> removeStaticRoute(final String routeName){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.removeStaticRoute(routeName);
+			}
+		});
+	}
+	
+	public CompletableFuture<String> removeStaticRoute(final String containerName, final String routeName){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.removeStaticRoute(containerName, routeName);
+			}
+		});
+	}
+	
+	//	----------------------------
+	//		Statistics REST APIs
+	//	----------------------------
+	
+	//	Returns a list of all Flow Statistics from all the Nodes.
+	public CompletableFuture<JsonNode> getFlowStatistics(){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getFlowStatistics();
+			}
+		});
+	}
+	
+	public CompletableFuture<JsonNode> getFlowStatistics(final String containerName){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getFlowStatistics(containerName);
+			}
+		});
+	}
+	
+	//	Returns a list of all the Port Statistics across all the NodeConnectors on all the Nodes.
+	public CompletableFuture<JsonNode> getPortStatistics(){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getPortStatistics();
+			}
+		});
+	}
+	
+	public CompletableFuture<JsonNode> getPortStatistics(final String containerName){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getPortStatistics(containerName);
+			}
+		});
+	}
+	
+	//	Returns a list of all the Table Statistics on all Nodes.
+	public CompletableFuture<JsonNode> getTableStatistics(){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getTableStatistics();
+			}
+		});
+	}
+	
+	public CompletableFuture<JsonNode> getTableStatistics(final String containerName){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getTableStatistics(containerName);
+			}
+		});
+	}
+	
+	//	Returns a list of Flow Statistics for a given Node.
+	public CompletableFuture<JsonNode> getOpenFlowFlowStatistics(final String nodeId){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getOpenFlowFlowStatistics(nodeId);
+			}
+		});
+	}
+	
+	//	Returns a list of Flow Statistics for a given Node.
+	public CompletableFuture<JsonNode> getFlowStatistics(final String nodeType, final String nodeId){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getFlowStatistics(nodeType, nodeId);
+			}
+		});
+	}
+	
+	public CompletableFuture<JsonNode> getFlowStatistics(final String containerName, final String nodeType, final String nodeId){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getFlowStatistics(containerName, nodeType, nodeId);
+			}
+		});
+	}
+	
+	//	Returns a list of all the Port Statistics across all the NodeConnectors in a given Node.
+	public CompletableFuture<JsonNode> getOpenFlowPortStatistics(final String nodeId){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getOpenFlowPortStatistics(nodeId);
+			}
+		});
+	}
+	
+	//	Returns a list of all the Port Statistics across all the NodeConnectors in a given Node.
+	public CompletableFuture<JsonNode> getPortStatistics(final String nodeType, final String nodeId){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getPortStatistics(nodeType, nodeId);
+			}
+		});
+	}
+	
+	public CompletableFuture<JsonNode> getPortStatistics(final String containerName, final String nodeType, final String nodeId){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getPortStatistics(containerName, nodeType, nodeId);
+			}
+		});
+	}
+	
+	//	Returns a list of all the Table Statistics on a specific node.
+	public CompletableFuture<JsonNode> getOpenFlowTableStatistics(final String nodeId){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getOpenFlowTableStatistics(nodeId);
+			}
+		});
+	}
+	
+	//	Returns a list of all the Table Statistics on a specific node.
+	public CompletableFuture<JsonNode> getTableStatistics(final String nodeType, final String nodeId){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getTableStatistics(nodeType, nodeId);
+			}
+		});
+	}
+	
+	public CompletableFuture<JsonNode> getTableStatistics(final String containerName, final String nodeType, final String nodeId){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getTableStatistics(containerName, nodeType, nodeId);
+			}
+		});
+	}
+	
+	//	-------------------------
+	//		Subnets REST APIs
+	//	-------------------------
+	
+	//	List all the subnets in a given container
+	public CompletableFuture<JsonNode> listSubnets(){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.listSubnets();
+			}
+		});
+	}
+	
+	public CompletableFuture<JsonNode> listSubnets(final String containerName){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.listSubnets(containerName);
+			}
+		});
+	}
+	
+	//	List the configuration of a subnet in a given container
+	public CompletableFuture<JsonNode> listSubnet(final String subnetName){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.listSubnet(subnetName);
+			}
+		});
+	}
+	
+	public CompletableFuture<JsonNode> listSubnet(final String containerName, final String subnetName){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.listSubnet(containerName, subnetName);
+			}
+		});
+	}
+	
+	//	Add a subnet into the specified container context, node connectors are optional
+	public CompletableFuture<String> addSubnet(final String subnetName, final String subnetAddress){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.addSubnet(subnetName, subnetAddress);
+			}
+		});
+	}
+	
+	public CompletableFuture<String> addSubnet(final String subnetName, final String subnetAddress, final List<String> nodeConnectors){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.addSubnet(subnetName, subnetAddress, nodeConnectors);
+			}
+		});
+	}
+	
+	public CompletableFuture<String> addSubnet(final String containerName, final String subnetName, final String subnetAddress, final List<String> nodeConnectors){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.addSubnet(containerName, subnetName, subnetAddress, nodeConnectors);
+			}
+		});
+	}
+	
+	//	Delete a subnet from the specified container context
+	public CompletableFuture<String> removeSubnet(final String subnetName){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.removeSubnet(subnetName);
+			}
+		});
+	}
+	
+	public CompletableFuture<String> removeSubnet(final String containerName, final String subnetName){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.removeSubnet(containerName, subnetName);
+			}
+		});
+	}
+	
+	//	Modify a subnet. Replace the existing subnet with the new specified one.
+	public CompletableFuture<String> modifySubnet(final String subnetName, final String subnetAddress, final List<String> nodeConnectors){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.modifySubnet(subnetName, subnetAddress, nodeConnectors);
+			}
+		});
+	}
+	
+	public CompletableFuture<String> modifySubnet(final String containerName, final String subnetName, final String subnetAddress, final List<String> nodeConnectors){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.modifySubnet(containerName, subnetName, subnetAddress, nodeConnectors);
+			}
+		});
+	}
+	
+	//	--------------------------------
+	//		Switch Manager REST APIs
+	//	--------------------------------
+	
+	//	Retrieve a list of all the nodes and their properties in the network
+	public CompletableFuture<JsonNode> getNodePropertiesOfContainer(){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getNodePropertiesOfContainer();
+			}
+		});
+	}
+	
+	public CompletableFuture<JsonNode> getNodePropertiesOfContainer(final String containerName){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getNodePropertiesOfContainer(containerName);
+			}
+		});
+	}
+	
+	//	Save the current switch configurations
+	public CompletableFuture<String> saveSwitchConfig(){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.saveSwitchConfig();
+			}
+		});
+	}
+	
+	public CompletableFuture<String> saveSwitchConfig(final String containerName){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.saveSwitchConfig(containerName);
+			}
+		});
+	}
+	
+	//	Retrieve a list of all the nodeconnectors and their properties in a given node
+	public CompletableFuture<JsonNode> getOpenFlowNodeConnectors(final String nodeId){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getOpenFlowNodeConnectors(nodeId);
+			}
+		});
+	}
+	
+	//	Retrieve a list of all the nodeconnectors and their properties in a given node
+	public CompletableFuture<JsonNode> getNodeConnectors(final String nodeType, final String nodeId){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getNodeConnectors(nodeType, nodeId);
+			}
+		});
+	}
+	
+	public CompletableFuture<JsonNode> getNodeConnectors(final String containerName, final String nodeType, final String nodeId){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getNodeConnectors(containerName, nodeType, nodeId);
+			}
+		});
+	}
+	
+	//	Delete a property of a node
+	public CompletableFuture<String> deleteOpenFlowNodeProperty(final String nodeId, final String propertyName){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.deleteOpenFlowNodeProperty(nodeId, propertyName);
+			}
+		});
+	}
+	
+	//	Delete a property of a node
+	public CompletableFuture<String> deleteNodeProperty(final String nodeType, final String nodeId, final String propertyName){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.deleteNodeProperty(nodeType, nodeId, propertyName);
+			}
+		});
+	}
+	
+	public CompletableFuture<String> deleteNodeProperty(final String containerName, final String nodeType, final String nodeId, final String propertyName){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.deleteNodeProperty(containerName, nodeType, nodeId, propertyName);
+			}
+		});
+	}
+	
+	//	Add a Description, Tier and Forwarding mode property to a node.
+	public CompletableFuture<String> addOpenFlowNodeProperty(final String nodeId, final String propertyName, final String propertyValue){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.addOpenFlowNodeProperty(nodeId, propertyName, propertyValue);
+			}
+		});
+	}
+	
+	//	Add a Description, Tier and Forwarding mode property to a node.
+	public CompletableFuture<String> addNodeProperty(final String nodeType, final String nodeId, final String propertyName, final String propertyValue){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.addNodeProperty(nodeType, nodeId, propertyName, propertyValue);
+			}
+		});
+	}
+	
+	public CompletableFuture<String> addNodeProperty(final String containerName, final String nodeType, final String nodeId, final String propertyName, final String propertyValue){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.addNodeProperty(containerName, nodeType, nodeId, propertyName, propertyValue);
+			}
+		});
+	}
+	
+	//	Delete a property of a node connector
+	public CompletableFuture<String> deleteOpenFlowNodeConnectorBandwidth(final String nodeId, final int nodeConnectorId){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.deleteOpenFlowNodeConnectorBandwidth(nodeId, nodeConnectorId);
+			}
+		});
+	}
+	
+	//	Delete a property of a node connector
+	public CompletableFuture<String> deleteOpenFlowNodeConnectorProperty(final String nodeId, final int nodeConnectorId, final String propertyName){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.deleteOpenFlowNodeConnectorProperty(nodeId, nodeConnectorId, propertyName);
+			}
+		});
+	}
+	
+	//	Delete a property of a node connector
+	public CompletableFuture<String> deleteNodeConnectorProperty(final String nodeType, final String nodeId, final String nodeConnectorType, final int nodeConnectorId, final String propertyName){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.deleteNodeConnectorProperty(nodeType, nodeId, nodeConnectorType, nodeConnectorId, propertyName);
+			}
+		});
+	}
+	
+	public CompletableFuture<String> deleteNodeConnectorProperty(final String containerName, final String nodeType, final String nodeId, final String nodeConnectorType, final int nodeConnectorId, final String propertyName){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.deleteNodeConnectorProperty(containerName, nodeType, nodeId, nodeConnectorType, nodeConnectorId, propertyName);
+			}
+		});
+	}
+	
+	//	Add node-connector property to a node connector.
+	public CompletableFuture<String> addOpenFlowNodeConnectorBandwidth(final String nodeId, final int nodeConnectorId, final long bandwidthValue){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.addOpenFlowNodeConnectorBandwidth(nodeId, nodeConnectorId, bandwidthValue);
+			}
+		});
+	}
+	
+	//	Add node-connector property to a node connector.
+	public CompletableFuture<String> addOpenFlowNodeConnectorProperty(final String nodeId, final int nodeConnectorId, final String propertyName, final String propertyValue){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.addOpenFlowNodeConnectorProperty(nodeId, nodeConnectorId, propertyName, propertyValue);
+			}
+		});
+	}
+	
+	//	Add node-connector property to a node connector.
+	public CompletableFuture<String> addNodeConnectorProperty(final String nodeType, final String nodeId, final String nodeConnectorType, final int nodeConnectorId, final String propertyName, final String propertyValue){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.addNodeConnectorProperty(nodeType, nodeId, nodeConnectorType, nodeConnectorId, propertyName, propertyValue);
+			}
+		});
+	}
+	
+	public CompletableFuture<String> addNodeConnectorProperty(final String containerName, final String nodeType, final String nodeId, final String nodeConnectorType, final int nodeConnectorId, final String propertyName, final String propertyValue){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.addNodeConnectorProperty(containerName, nodeType, nodeId, nodeConnectorType, nodeConnectorId, propertyName, propertyValue);
+			}
+		});
+	}
+	
+	//	-----------------------------------
+	//		Container Manager REST APIs
+	//	-----------------------------------
+	
+	//	Get all the containers configured in the system
+	public CompletableFuture<JsonNode> viewAllContainers(){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.viewAllContainers();
+			}
+		});
+	}
+	
+	//	Get the container configuration for container name requested
+	public CompletableFuture<JsonNode> viewContainer(final String container){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.viewContainer(container);
+			}
+		});
+	}
+	
+	//	Create a container
+	public CompletableFuture<String> createContainer(final String containerName){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.createContainer(containerName);
+			}
+		});
+	}
+	
+	public CompletableFuture<String> createContainer(final String containerName, final int staticVlan){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.createContainer(containerName, staticVlan);
+			}
+		});
+	}
+	
+	public CompletableFuture<String> createContainer(final String containerName, final int staticVlan, final List<String> nodeConnectors){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.createContainer(containerName, staticVlan, nodeConnectors);
+			}
+		});
+	}
+	
+	public CompletableFuture<String> createContainer(final String containerName, final Map<String, Object> paraMap){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.createContainer(containerName, paraMap);
+			}
+		});
+	}
+	
+	//	Delete a container
+	public CompletableFuture<String> removeContainer(final String containerName){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.removeContainer(containerName);
+			}
+		});
+	}
+	
+	//	Get all the flowspec in a given container
+	public CompletableFuture<JsonNode> viewContainerFlowSpecs(final String containerName){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.viewContainerFlowSpecs(containerName);
+			}
+		});
+	}
+	
+	//	Add a node connector to a container
+	public CompletableFuture<String> addNodeConnector(final String containerName, final String nodeConnector){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.addNodeConnector(containerName, nodeConnector);
+			}
+		});
+	}
+	
+	//	Add node connectors to a container
+	public CompletableFuture<String> addNodeConnectors(final String containerName, final List<String> nodeConnectors){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.addNodeConnectors(containerName, nodeConnectors);
+			}
+		});
+	}
+	
+	//	Remove a node connector from a container
+	public CompletableFuture<String> removeNodeConnector(final String containerName, final String nodeConnector){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.removeNodeConnector(containerName, nodeConnector);
+			}
+		});
+	}
+	
+	//	Remove node connectors from a container
+	public CompletableFuture<String> removeNodeConnectors(final String containerName, final List<String> nodeConnectors){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.removeNodeConnectors(containerName, nodeConnectors);
+			}
+		});
+	}
+	
+	//	Get flowspec within a given container
+	public CompletableFuture<JsonNode> viewContainerFlowSpec(final String containerName, final String flowspecName){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.viewContainerFlowSpec(containerName, flowspecName);
+			}
+		});
+	}
+	
+	//	Add flowspec to a container
+	public CompletableFuture<String> createFlowSpec(final String containerName, final String flowspecName, final Map<String, String> paraMap){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.createFlowSpec(containerName, flowspecName, paraMap);
+			}
+		});
+	}
+	
+	//	Remove flowspec from a container
+	public CompletableFuture<String> removeFlowSpec(final String containerName, final String flowspecName){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.removeFlowSpec(containerName, flowspecName);
+			}
+		});
+	}
+	
+	//	------------------------------------
+	//		Connection Manager REST APIs
+	//	------------------------------------
+	
+	//	Retrieve a list of all the nodes connected to a given controller in the cluster.
+	public CompletableFuture<JsonNode> getNodesOfController(){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getNodesOfController();
+			}
+		});
+	}
+	
+	public CompletableFuture<JsonNode> getNodesOfController(final String controllerAddress){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.getNodesOfController(controllerAddress);
+			}
+		});
+	}
+	
+	//	Disconnect an existing Connection.
+	public CompletableFuture<String> disconnectOpenFlowNode(final String nodeId){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.disconnectOpenFlowNode(nodeId);
+			}
+		});
+	}
+	
+	//	Disconnect an existing Connection.
+	public CompletableFuture<String> disconnect(final String nodeType, final String nodeId){
+		return submit(new Callable<String>(){
+			@Override
+			public String call() throws Exception {
+				return client.disconnect(nodeType, nodeId);
+			}
+		});
+	}
+	
+	//	Connect to the management session of a node
+	public CompletableFuture<JsonNode> connect(final String nodeId, final String ipAddress, final int port){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.connect(nodeId, ipAddress, port);
+			}
+		});
+	}
+	
+	//	Connect to the management session of a node
+	public CompletableFuture<JsonNode> connectOpenFlowNode(final String nodeId, final String ipAddress, final int port){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.connectOpenFlowNode(nodeId, ipAddress, port);
+			}
+		});
+	}
+	
+	//	Connect to the management session of a node
+	public CompletableFuture<JsonNode> connect(final String nodeType, final String nodeId, final String ipAddress, final int port){
+		return submit(new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return client.connect(nodeType, nodeId, ipAddress, port);
+			}
+		});
+	}
+}
@@ -0,0 +1,264 @@
+package jOpendaylight;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+ * Runs a batch of independent operations concurrently.
+ * Items are split into partitions (for example one per switch) and each partition
+ * is drained by at most parallelismPerPartition workers, so that a single node
+ * never sees more than that many requests at once while all nodes proceed in parallel.
+ * With a Deadline, the operations run with it bound to their thread, and the items
+ * not done when it expires are reported as timed out. Their operations may still be
+ * running then; a Workers passed to execute(...) tells when they are over.
+ * execute(...) runs Operations, which return the response of a northbound write;
+ * run(...) runs TypedOperations, which return any result, e.g. a parsed read.
+ *
+ * The classes which run their calls on an executor (BulkFlowProgrammer and the others built
+ * on this class, and AsyncOpendaylightClient) share two rules. An executor they create should
+ * have no more threads than the max connections per route of the client's transport, the
+ * others would only wait for a connection. An executor passed in belongs to the caller and is
+ * not shut down by them.
+ */
+public class BatchExecutor {
+	//	One kind of operation applied to every item of a batch, with a result of type R
+	public interface TypedOperation<T, R> {
+		//	items with the same key share the per-partition parallelism
+		public String partitionKey(T item);
+		
+		//	returns the result of the call, throws on failure
+		public R apply(T item) throws Exception;
+	}
+	
+	//	An operation returning the response of the call, as the OpendaylightClient writes do
+	public interface Operation<T> extends TypedOperation<T, String> {
+	}
+	
+	//	Gets the outcome of each item as soon as it is done, from the worker which did it.
+	//	Not called for the items which timed out
+	public interface Listener<T, R> {
+		public void onOutcome(Outcome<T, R> outcome);
+	}
+	
+	//	Outcome of one item of a run(...), with a result or the Throwable it failed with
+	public static class Outcome<T, R> {
+		private final T item;
+		private final R result;
+		private final Throwable error;
+		
+		Outcome(T item, R result, Throwable error){
+			this.item = item;
+			this.result = result;
+			this.error = error;
+		}
+		
+		public T getItem(){
+			return item;
+		}
+		
+		public boolean isSuccess(){
+			return error == null;
+		}
+		
+		//	null if the item failed
+		public R getResult(){
+			return result;
+		}
+		
+		//	null if the item succeeded
+		public Throwable getError(){
+			return error;
+		}
+		
+		//	not done before the deadline of the batch
+		public boolean isTimedOut(){
+			return error instanceof DeadlineExceededException;
+		}
+	}
+	
+	//	Counts the running workers of the batches it is passed to
+	public static class Workers {
+		private int running;
+		
+		synchronized void started(){
+			running++;
+		}
+		
+		synchronized void exited(){
+			if(--running == 0){
+				notifyAll();
+			}
+		}
+		
+		public synchronized int getRunning(){
+			return running;
+		}
+		
+		//	Wait until every worker exited, or timeoutMillis passed, 0 waits for as long as it takes
+		//	true if none is left
+		public synchronized boolean await(long timeoutMillis) throws InterruptedException{
+			long end = System.currentTimeMillis() + timeoutMillis;
+			
+			while(running > 0){
+				long remaining = end - System.currentTimeMillis();
+				
+				if(timeoutMillis <= 0){
+					wait();
+				}
+				else if(remaining > 0){
+					wait(remaining);
+				}
+				else{
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+	
+	private Executor executor;
+	
+	public BatchExecutor(Executor executor){
+		this.executor = executor;
+	}
+	
+	//	Apply the operation to all items, results are in the same order as the items
+	public <T> List<BatchResult<T>> execute(Collection<T> items, Operation<T> operation, int parallelismPerPartition) throws InterruptedException{
+		return execute(items, operation, parallelismPerPartition, null);
+	}
+	
+	//	returns when all items are done or the deadline expired, whichever comes first
+	public <T> List<BatchResult<T>> execute(Collection<T> items, Operation<T> operation, int parallelismPerPartition, Deadline deadline) throws InterruptedException{
+		return execute(items, operation, parallelismPerPartition, deadline, null);
+	}
+	
+	//	workers, if not null, counts the workers of this batch until they exit
+	public <T> List<BatchResult<T>> execute(Collection<T> items, Operation<T> operation, int parallelismPerPartition, Deadline deadline, Workers workers) throws InterruptedException{
+		List<Outcome<T, String>> outcomes = run(items, operation, parallelismPerPartition, deadline, workers, null);
+		List<BatchResult<T>> results = new ArrayList<BatchResult<T>>(outcomes.size());
+		
+		for(Outcome<T, String> outcome: outcomes){
+			if(outcome.isSuccess()){
+				results.add(BatchResult.success(outcome.getItem(), outcome.getResult()));
+			}
+			else{
+				results.add(BatchResult.failure(outcome.getItem(), outcome.getError()));
+			}
+		}
+		return results;
+	}
+	
+	//	base method
+	//	Apply the operation to all items, outcomes are in the same order as the items.
+	//	Returns when all items are done or the deadline expired, whichever comes first;
+	//	workers and listener may be null
+	public <T, R> List<Outcome<T, R>> run(Collection<T> items, final TypedOperation<T, R> operation, int parallelismPerPartition, final Deadline deadline, final Workers workers, final Listener<T, R> listener) throws InterruptedException{
+		final List<T> itemList = new ArrayList<T>(items);
+		//	a late worker must not overwrite the timed out outcome of its item
+		final AtomicReferenceArray<Outcome<T, R>> outcomes = new AtomicReferenceArray<Outcome<T, R>>(itemList.size());
+		final CountDownLatch done = new CountDownLatch(itemList.size());
+		Map<String, Queue<Integer>> partitions;
+		
+		//	group item indexes by partition
+		partitions = new LinkedHashMap<String, Queue<Integer>>();
+		for(int i = 0; i < itemList.size(); i++){
+			String key = operation.partitionKey(itemList.get(i));
+			Queue<Integer> partition = partitions.get(key);
+			
+			if(partition == null){
+				partition = new ConcurrentLinkedQueue<Integer>();
+				partitions.put(key, partition);
+			}
+			partition.add(i);
+		}
+		
+		//	start the workers of every partition
+		for(final Queue<Integer> partition: partitions.values()){
+			int partitionWorkers = Math.min(Math.max(1, parallelismPerPartition), partition.size());
+			
+			for(int i = 0; i < partitionWorkers; i++){
+				Runnable worker = new Runnable(){
+					@Override
+					public void run() {
+						Integer index;
+						Deadline previous = (deadline != null) ? deadline.bind() : null;
+						
+						try{
+							while((index = partition.poll()) != null){
+								T item = itemList.get(index);
+								Outcome<T, R> outcome;
+								
+								try{
+									if(deadline != null){
+										deadline.check("item " + index + " of the batch");
+									}
+									outcome = new Outcome<T, R>(item, operation.apply(item), null);
+								}
+								catch(Throwable t){
+									outcome = new Outcome<T, R>(item, null, t);
+								}
+								
+								try{
+									if(outcomes.compareAndSet(index, null, outcome) && listener != null){
+										listener.onOutcome(outcome);
+									}
+								}
+								catch(Throwable t){
+									//	a failing listener does not stop the rest of the batch
+								}
+								finally{
+									done.countDown();
+								}
+							}
+						}
+						finally{
+							if(deadline != null){
+								Deadline.restore(previous);
+							}
+							if(workers != null){
+								workers.exited();
+							}
+						}
+					}
+				};
+				
+				if(workers != null){
+					workers.started();
+				}
+				try{
+					executor.execute(worker);
+				}
+				catch(RejectedExecutionException e){
+					//	executor is saturated, drain this partition in the caller
+					worker.run();
+				}
+			}
+		}
+		
+		if(deadline == null){
+			done.await();
+		}
+		else if(!done.await(Math.max(0, deadline.remainingNanos()), TimeUnit.NANOSECONDS)){
+			//	the items still queued or running
+			for(int i = 0; i < itemList.size(); i++){
+				outcomes.compareAndSet(i, null, new Outcome<T, R>(itemList.get(i), null, new DeadlineExceededException("Deadline exceeded before item " + i + " of the batch was done")));
+			}
+		}
+		
+		List<Outcome<T, R>> outcomeList = new ArrayList<Outcome<T, R>>(itemList.size());
+		for(int i = 0; i < itemList.size(); i++){
+			outcomeList.add(outcomes.get(i));
+		}
+		return outcomeList;
+	}
+}
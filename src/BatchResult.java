@@ -0,0 +1,81 @@
+package jOpendaylight;
+
+//	Outcome of one operation of a batch.
+//	Failures are reported here instead of being thrown, so one bad item
+//	does not stop the rest of the batch.
+public class BatchResult<T> {
+	private T item;
+	private boolean success;
+	private String response;
+	private int statusCode;
+	private String errorBody;
+	private Throwable error;
+	
+	private BatchResult(T item, boolean success, String response, int statusCode, String errorBody, Throwable error){
+		this.item = item;
+		this.success = success;
+		this.response = response;
+		this.statusCode = statusCode;
+		this.errorBody = errorBody;
+		this.error = error;
+	}
+	
+	static <T> BatchResult<T> success(T item, String response){
+		return new BatchResult<T>(item, true, response, -1, null, null);
+	}
+	
+	static <T> BatchResult<T> failure(T item, Throwable error){
+		if(error instanceof RestException){
+			RestException restError = (RestException) error;
+			return new BatchResult<T>(item, false, null, restError.getStatusCode(), restError.getResponseBody(), error);
+		}
+		else{
+			return new BatchResult<T>(item, false, null, -1, error.getMessage(), error);
+		}
+	}
+	
+	public T getItem(){
+		return item;
+	}
+	
+	public boolean isSuccess(){
+		return success;
+	}
+	
+	//	response of a successful operation, as returned by OpendaylightClient
+	public String getResponse(){
+		return response;
+	}
+	
+	//	HTTP status code of a failed operation, -1 if it did not fail with an HTTP error
+	public int getStatusCode(){
+		return statusCode;
+	}
+	
+	//	error body sent by the controller, or the error message if there was none
+	public String getErrorBody(){
+		return errorBody;
+	}
+	
+	public Throwable getError(){
+		return error;
+	}
+	
+	//	not done before the deadline of the batch
+	public boolean isTimedOut(){
+		return error instanceof DeadlineExceededException;
+	}
+	
+	@Override
+	public String toString() {
+		if(success){
+			return "Success: " + item;
+		}
+		else if(isTimedOut()){
+			return "Timed out: " + item;
+		}
+		else{
+			return "Failed(" + statusCode + "): " + item + " - " + errorBody;
+		}
+	}
+}
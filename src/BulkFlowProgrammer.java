@@ -0,0 +1,119 @@
+package jOpendaylight;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*
+ * Programs many static flows at once through the flowprogrammer northbound.
+ * Flows are pushed concurrently, with at most parallelismPerNode requests
+ * in flight for any single switch, and every flow gets its own BatchResult
+ * instead of the whole batch failing on the first error.
+ */
+public class BulkFlowProgrammer {
+	private final static int defaultThreads = 32;
+	private final static int defaultParallelismPerNode = 4;
+	
+	private OpendaylightClient client;
+	private ExecutorService executor;
+	private BatchExecutor batchExecutor;
+	private int parallelismPerNode;
+	private boolean ownExecutor;
+	
+	//	constructor with default threads and per node parallelism
+	public BulkFlowProgrammer(OpendaylightClient client){
+		this(client, defaultThreads, defaultParallelismPerNode);
+	}
+	
+	//	constructor with its own executor, sized as told in BatchExecutor
+	public BulkFlowProgrammer(OpendaylightClient client, int threads, int parallelismPerNode){
+		this(client, Executors.newFixedThreadPool(threads, new DaemonThreadFactory("BulkFlowProgrammer")), parallelismPerNode);
+		this.ownExecutor = true;
+	}
+	
+	//	base constructor, on an executor of the caller (see BatchExecutor)
+	public BulkFlowProgrammer(OpendaylightClient client, ExecutorService executor, int parallelismPerNode){
+		this.client = client;
+		this.executor = executor;
+		this.batchExecutor = new BatchExecutor(executor);
+		this.parallelismPerNode = parallelismPerNode;
+		this.ownExecutor = false;
+	}
+	
+	public void shutdown(){
+		if(ownExecutor){
+			executor.shutdown();
+		}
+	}
+	
+	//	Add or modify all flows, see OpendaylightClient.addOrModifyFlowEntry(...)
+	public List<BatchResult<FlowEntry>> addOrModifyFlowEntries(Collection<FlowEntry> flows) throws InterruptedException{
+		return addOrModifyFlowEntries(flows, null);
+	}
+	
+	//	flows not done by the deadline are reported as timed out, see BatchResult.isTimedOut()
+	public List<BatchResult<FlowEntry>> addOrModifyFlowEntries(Collection<FlowEntry> flows, Deadline deadline) throws InterruptedException{
+		return batchExecutor.execute(flows, new FlowOperation(){
+			@Override
+			public String apply(FlowEntry flow) throws Exception {
+				if(flow.getFlowConfig() != null){
+					return client.addOrModifyFlowEntry(flow.getContainerName(), flow.getFlowConfig());
+				}
+				else{
+					return client.addOrModifyFlowEntry(flow.getContainerName(), flow.getName(), flow.getNodeType(), flow.getNodeId(), flow.getActionList(), flow.getOtherParaMap());
+				}
+			}
+		}, parallelismPerNode, deadline);
+	}
+	
+	//	Add or modify typed flows of one container
+	public List<BatchResult<FlowEntry>> addOrModifyFlowConfigs(String containerName, Collection<FlowConfig> flows) throws InterruptedException{
+		List<FlowEntry> entries = new ArrayList<FlowEntry>(flows.size());
+		
+		for(FlowConfig flow: flows){
+			entries.add(new FlowEntry(containerName, flow));
+		}
+		
+		return addOrModifyFlowEntries(entries);
+	}
+	
+	//	Delete all flows, see OpendaylightClient.deleteFlowEntry(...)
+	public List<BatchResult<FlowEntry>> deleteFlowEntries(Collection<FlowEntry> flows) throws InterruptedException{
+		return deleteFlowEntries(flows, null);
+	}
+	
+	//	flows not done by the deadline are reported as timed out, see BatchResult.isTimedOut()
+	public List<BatchResult<FlowEntry>> deleteFlowEntries(Collection<FlowEntry> flows, Deadline deadline) throws InterruptedException{
+		return batchExecutor.execute(flows, new FlowOperation(){
+			@Override
+			public String apply(FlowEntry flow) throws Exception {
+				return client.deleteFlowEntry(flow.getContainerName(), flow.getName(), flow.getNodeType(), flow.getNodeId());
+			}
+		}, parallelismPerNode, deadline);
+	}
+	
+	//	Toggle all flows active <-> inactive, see OpendaylightClient.toggleFlowEntry(...)
+	public List<BatchResult<FlowEntry>> toggleFlowEntries(Collection<FlowEntry> flows) throws InterruptedException{
+		return toggleFlowEntries(flows, null);
+	}
+	
+	//	flows not done by the deadline are reported as timed out, see BatchResult.isTimedOut()
+	public List<BatchResult<FlowEntry>> toggleFlowEntries(Collection<FlowEntry> flows, Deadline deadline) throws InterruptedException{
+		return batchExecutor.execute(flows, new FlowOperation(){
+			@Override
+			public String apply(FlowEntry flow) throws Exception {
+				return client.toggleFlowEntry(flow.getContainerName(), flow.getNodeType(), flow.getNodeId(), flow.getName());
+			}
+		}, parallelismPerNode, deadline);
+	}
+	
+	//	flows of the same node share one partition
+	private static abstract class FlowOperation implements BatchExecutor.Operation<FlowEntry> {
+		@Override
+		public String partitionKey(FlowEntry flow) {
+			return flow.getNodeType() + "|" + flow.getNodeId();
+		}
+	}
+}
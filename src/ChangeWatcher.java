@@ -0,0 +1,422 @@
+package jOpendaylight;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/*
+ * Polls the topology, the active hosts or the static flows of a container and tells
+ * listeners which edges, hosts or flows were added, removed or changed.
+ * The work of a poll follows what changed, not the size of the network:
+ * - the body is hashed as it is read, an unchanged body is not parsed at all;
+ * - otherwise each element is hashed on its raw bytes, and only the elements whose
+ *   hash was not in the last poll are turned into a JsonNode and compared by key.
+ */
+public class ChangeWatcher {
+	//	What is watched, its list field, and what identifies an element
+	public enum Kind {
+		TOPOLOGY("edgeProperties"),
+		HOSTS("hostConfig"),
+		FLOWS("flowConfig");
+
+		private final String listField;
+
+		private Kind(String listField){
+			this.listField = listField;
+		}
+
+		//	edge: "OF|00:..:01/1>OF|00:..:02/3", host: network address, flow: "OF|00:..:01/name"
+		String key(JsonNode element){
+			switch(this){
+			case TOPOLOGY:
+				JsonNode edge = element.get("edge");
+				return nodeConnector(edge, "tailNodeConnector") + ">" + nodeConnector(edge, "headNodeConnector");
+			case HOSTS:
+				return JsonUtils.text(element, "networkAddress");
+			default:
+				return JsonUtils.text(element, "node", "type") + "|" + JsonUtils.text(element, "node", "id") + "/" + JsonUtils.text(element, "name");
+			}
+		}
+
+		private static String nodeConnector(JsonNode edge, String field){
+			return JsonUtils.text(edge, field, "node", "type") + "|" + JsonUtils.text(edge, field, "node", "id") + "/" + JsonUtils.text(edge, field, "id");
+		}
+	}
+
+	//	ADDED has no old value, REMOVED has no new value
+	public enum ChangeType {
+		ADDED, REMOVED, CHANGED
+	}
+
+	//	Gets the changes of every poll that found some
+	public interface Listener {
+		public void onChanges(Kind kind, String containerName, List<Change> changes);
+
+		//	a poll failed, the last known state is kept
+		public void onError(Kind kind, String containerName, Exception error);
+	}
+
+	private OpendaylightClient client;
+	private ObjectMapper mapper;
+	private JsonFactory factory;
+	private ScheduledExecutorService scheduler;
+	private ConcurrentHashMap<String, Watch> watches;
+	private List<Listener> listeners;
+	private List<ScheduledFuture<?>> scheduledPolls;
+
+	public ChangeWatcher(OpendaylightClient client){
+		this.client = client;
+		this.mapper = new ObjectMapper();
+		this.factory = mapper.getFactory();
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("ChangeWatcher"));
+		this.watches = new ConcurrentHashMap<String, Watch>();
+		this.listeners = new CopyOnWriteArrayList<Listener>();
+		this.scheduledPolls = new CopyOnWriteArrayList<ScheduledFuture<?>>();
+	}
+
+	public void addListener(Listener listener){
+		listeners.add(listener);
+	}
+
+	public void removeListener(Listener listener){
+		listeners.remove(listener);
+	}
+
+	//	Poll every periodMillis, the first poll reports every element as ADDED
+	public void schedule(final Kind kind, final String containerName, long periodMillis){
+		scheduledPolls.add(scheduler.scheduleWithFixedDelay(new Runnable(){
+			@Override
+			public void run() {
+				try{
+					poll(kind, containerName);
+				}
+				catch(Exception e){
+					for(Listener listener: listeners){
+						listener.onError(kind, containerName, e);
+					}
+				}
+			}
+		}, 0, periodMillis, TimeUnit.MILLISECONDS));
+	}
+
+	//	Stop all scheduled polls
+	public void shutdown(){
+		for(ScheduledFuture<?> scheduledPoll: scheduledPolls){
+			scheduledPoll.cancel(false);
+		}
+		scheduler.shutdown();
+	}
+
+	//	Poll once now, returns the changes, which are also given to the listeners
+	public List<Change> poll(Kind kind, String containerName) throws IOException{
+		Watch watch = watch(kind, containerName);
+		Body body;
+
+		switch(kind){
+		case TOPOLOGY:
+			body = client.getTopology(containerName, BODY_READER);
+			break;
+		case HOSTS:
+			body = client.getActiveHosts(containerName, BODY_READER);
+			break;
+		default:
+			body = client.getAllStaticFlowEntries(containerName, BODY_READER);
+			break;
+		}
+
+		List<Change> changes = update(watch, body);
+
+		if(!changes.isEmpty()){
+			for(Listener listener: listeners){
+				listener.onChanges(kind, containerName, changes);
+			}
+		}
+
+		return changes;
+	}
+
+	//	Current elements by key, as of the last poll
+	public Map<String, JsonNode> getElements(Kind kind, String containerName){
+		Watch watch = watches.get(kind.name() + "/" + containerName);
+		Map<String, JsonNode> result = new HashMap<String, JsonNode>();
+
+		if(watch != null){
+			synchronized(watch){
+				for(Element element: watch.byKey.values()){
+					result.put(element.key, element.node);
+				}
+			}
+		}
+		return result;
+	}
+
+	//	polls whose body was not parsed, for monitoring
+	public long getSkippedPollCount(){
+		long count = 0;
+
+		for(Watch watch: watches.values()){
+			count += watch.skippedPolls;
+		}
+		return count;
+	}
+
+	private Watch watch(Kind kind, String containerName){
+		String name = kind.name() + "/" + containerName;
+		Watch watch = watches.get(name);
+
+		if(watch == null){
+			Watch newWatch = new Watch(kind);
+
+			watch = watches.putIfAbsent(name, newWatch);
+			if(watch == null){
+				watch = newWatch;
+			}
+		}
+		return watch;
+	}
+
+	//	-------------------
+	//	Diff
+	//	-------------------
+
+	//	synchronized per watch, a manual poll may race a scheduled one
+	private List<Change> update(Watch watch, Body body) throws IOException{
+		synchronized(watch){
+			if(watch.bodyHash == body.hash && watch.bodyLength == body.length){
+				watch.skippedPolls++;
+				return Collections.emptyList();
+			}
+
+			List<Change> changes = new ArrayList<Change>();
+			Map<Long, Element> byHash = new HashMap<Long, Element>(watch.byHash.size() * 4 / 3 + 16);
+			Map<String, Element> byKey = new HashMap<String, Element>(watch.byKey.size() * 4 / 3 + 16);
+			JsonParser parser = factory.createParser(body.bytes, 0, body.length);
+
+			try{
+				if(seekList(parser, watch.kind.listField)){
+					boolean single = parser.getCurrentToken() == JsonToken.START_OBJECT;
+
+					//	the controller sends a single object instead of an array of one
+					while(single || parser.nextToken() == JsonToken.START_OBJECT){
+						int start = find(body.bytes, offset(parser.getTokenLocation()), '{');
+						parser.skipChildren();
+						int end = find(body.bytes, offset(parser.getCurrentLocation()), '}') + 1;
+						long hash = hash(body.bytes, start, end);
+						Element element = watch.byHash.get(hash);
+
+						if(element == null){
+							//	new or changed, the only elements turned into trees
+							//	createParser(bytes, offset, length) of this Jackson version misreads a non zero offset
+							JsonNode node = mapper.readTree(new ByteArrayInputStream(body.bytes, start, end - start));
+							element = new Element(watch.kind.key(node), node);
+						}
+
+						byHash.put(hash, element);
+						byKey.put(element.key, element);
+						if(single){
+							break;
+						}
+					}
+				}
+			}
+			finally{
+				parser.close();
+			}
+
+			for(Element element: byKey.values()){
+				Element previous = watch.byKey.get(element.key);
+
+				if(previous == null){
+					changes.add(new Change(ChangeType.ADDED, watch.kind, element.key, null, element.node));
+				}
+				else if(previous != element && !previous.node.equals(element.node)){
+					//	a different hash may only be a different layout of the same element
+					changes.add(new Change(ChangeType.CHANGED, watch.kind, element.key, previous.node, element.node));
+				}
+			}
+			for(Element previous: watch.byKey.values()){
+				if(!byKey.containsKey(previous.key)){
+					changes.add(new Change(ChangeType.REMOVED, watch.kind, previous.key, previous.node, null));
+				}
+			}
+
+			watch.byHash = byHash;
+			watch.byKey = byKey;
+			watch.bodyHash = body.hash;
+			watch.bodyLength = body.length;
+			return changes;
+		}
+	}
+
+	//	Move the parser to the value of the top level list field, false if there is none
+	private static boolean seekList(JsonParser parser, String listField) throws IOException{
+		if(parser.nextToken() != JsonToken.START_OBJECT){
+			return false;
+		}
+
+		while(parser.nextToken() == JsonToken.FIELD_NAME){
+			JsonToken value = parser.nextToken();
+
+			if(listField.equals(parser.getCurrentName()) && (value == JsonToken.START_ARRAY || value == JsonToken.START_OBJECT)){
+				return true;
+			}
+			parser.skipChildren();
+		}
+		return false;
+	}
+
+	//	position in the body, a parser over bytes counts its "chars" in bytes
+	private static int offset(JsonLocation location){
+		long offset = location.getByteOffset();
+		return (int) ((offset >= 0) ? offset : location.getCharOffset());
+	}
+
+	//	the locations of this Jackson version may stop before the separator and white space
+	//	preceding a token, the token itself is the first of its kind from there
+	private static int find(byte[] bytes, int from, char token){
+		int i = Math.max(0, from);
+
+		while(bytes[i] != token){
+			i++;
+		}
+		return i;
+	}
+
+	//	64-bit FNV-1a
+	private static long hash(byte[] bytes, int start, int end){
+		long hash = 0xcbf29ce484222325L;
+
+		for(int i = start; i < end; i++){
+			hash ^= bytes[i] & 0xff;
+			hash *= 0x100000001b3L;
+		}
+		return hash;
+	}
+
+	private final static EntityReader<Body> BODY_READER = new BodyReader();
+
+	//	Reads the whole body and hashes it on the way
+	private static class BodyReader implements EntityReader<Body>, EntityReader.Replayable {
+		@Override
+		public Body read(InputStream content) throws IOException {
+			byte[] bytes = new byte[8192];
+			int length = 0;
+			int count;
+
+			while((count = content.read(bytes, length, bytes.length - length)) >= 0){
+				length += count;
+				if(length == bytes.length){
+					byte[] larger = new byte[bytes.length * 2];
+					System.arraycopy(bytes, 0, larger, 0, length);
+					bytes = larger;
+				}
+			}
+
+			return new Body(bytes, length, hash(bytes, 0, length));
+		}
+	}
+
+	private static class Body {
+		final byte[] bytes;
+		final int length;
+		final long hash;
+
+		Body(byte[] bytes, int length, long hash){
+			this.bytes = bytes;
+			this.length = length;
+			this.hash = hash;
+		}
+	}
+
+	//	State of one kind in one container
+	private static class Watch {
+		final Kind kind;
+		long bodyHash;
+		int bodyLength = -1;
+		Map<Long, Element> byHash = new HashMap<Long, Element>();
+		Map<String, Element> byKey = new HashMap<String, Element>();
+		volatile long skippedPolls;
+
+		Watch(Kind kind){
+			this.kind = kind;
+		}
+	}
+
+	private static class Element {
+		final String key;
+		final JsonNode node;
+
+		Element(String key, JsonNode node){
+			this.key = key;
+			this.node = node;
+		}
+	}
+
+	//	One edge, host or flow that was added, removed or changed
+	public static class Change {
+		private final ChangeType type;
+		private final Kind kind;
+		private final String key;
+		private final JsonNode oldValue;
+		private final JsonNode newValue;
+
+		Change(ChangeType type, Kind kind, String key, JsonNode oldValue, JsonNode newValue){
+			this.type = type;
+			this.kind = kind;
+			this.key = key;
+			this.oldValue = oldValue;
+			this.newValue = newValue;
+		}
+
+		public ChangeType getType(){
+			return type;
+		}
+
+		public Kind getKind(){
+			return kind;
+		}
+
+		//	see Kind
+		public String getKey(){
+			return key;
+		}
+
+		//	the element of the last poll, null if ADDED, must not be modified
+		public JsonNode getOldValue(){
+			return oldValue;
+		}
+
+		//	the element of this poll, null if REMOVED, must not be modified
+		public JsonNode getNewValue(){
+			return newValue;
+		}
+
+		//	the flow of a FLOWS change, from the new value or the removed one
+		public FlowConfig getFlowConfig(){
+			return (kind == Kind.FLOWS) ? FlowConfig.fromJson((newValue != null) ? newValue : oldValue) : null;
+		}
+
+		@Override
+		public String toString() {
+			return type + " " + kind + " " + key;
+		}
+	}
+}
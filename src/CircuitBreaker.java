@@ -0,0 +1,137 @@
+package jOpendaylight;
+
+/*
+ * Circuit breaker over the outcomes of the last windowSize calls of one endpoint.
+ * It opens when at least failureRatio of them failed, with minCalls recorded;
+ * while open every call fails fast with a CircuitOpenException.
+ * After openMillis a single trial call goes through (half-open):
+ * its success closes the circuit, its failure opens it again.
+ * acquire() hands out a token which the outcome is recorded with. Only the outcomes of
+ * calls let through since the last change of state count, so a call sent before the
+ * circuit opened cannot decide the trial. A trial whose outcome says nothing of the
+ * controller (see release(...)) gives its place to the next call.
+ */
+public class CircuitBreaker {
+	public final static int CLOSED = 0;
+	public final static int OPEN = 1;
+	public final static int HALF_OPEN = 2;
+
+	private final String name;
+	private final double failureRatio;
+	private final int minCalls;
+	private final long openMillis;
+
+	//	ring of the last outcomes, true for a failure
+	private final boolean[] outcomes;
+	private int position;
+	private int calls;
+	private int failures;
+
+	private int state;
+	private long openedAt;
+	private boolean trialInFlight;
+	//	bumped on every change of state and every trial, tokens of earlier ones are stale
+	private long epoch;
+
+	public CircuitBreaker(String name, double failureRatio, int windowSize, int minCalls, long openMillis){
+		this.name = name;
+		this.failureRatio = failureRatio;
+		this.minCalls = Math.min(minCalls, windowSize);
+		this.openMillis = openMillis;
+		this.outcomes = new boolean[windowSize];
+		this.state = CLOSED;
+	}
+
+	//	Let a call through or throw
+	//	returns the token to hand to record(...) or release(...)
+	public synchronized long acquire() throws CircuitOpenException{
+		if(state == CLOSED){
+			return epoch;
+		}
+
+		long waited = System.currentTimeMillis() - openedAt;
+		if((state == OPEN && waited >= openMillis) || (state == HALF_OPEN && !trialInFlight)){
+			state = HALF_OPEN;
+			trialInFlight = true;
+			return ++epoch;
+		}
+
+		throw new CircuitOpenException(name, (state == OPEN) ? openMillis - waited : 0);
+	}
+
+	//	Outcome of a call let through by acquire(), ignored if the state changed since
+	//	failure: the controller did not answer or answered a server error
+	public synchronized void record(long token, boolean failure){
+		if(token != epoch){
+			return;
+		}
+
+		if(state == HALF_OPEN){
+			if(failure){
+				open();
+			}
+			else{
+				close();
+			}
+			return;
+		}
+
+		if(calls == outcomes.length){
+			if(outcomes[position]){
+				failures--;
+			}
+		}
+		else{
+			calls++;
+		}
+		outcomes[position] = failure;
+		position = (position + 1) % outcomes.length;
+		if(failure){
+			failures++;
+		}
+
+		if(state == CLOSED && calls >= minCalls && failures >= failureRatio * calls){
+			open();
+		}
+	}
+
+	//	End of a call let through by acquire() whose outcome says nothing of the controller,
+	//	e.g. it ran out of its deadline or was refused by the client. Not counted; a trial
+	//	lets the next call be the trial instead
+	public synchronized void release(long token){
+		if(token == epoch && state == HALF_OPEN){
+			trialInFlight = false;
+		}
+	}
+
+	private void open(){
+		state = OPEN;
+		openedAt = System.currentTimeMillis();
+		trialInFlight = false;
+		epoch++;
+	}
+
+	private void close(){
+		state = CLOSED;
+		trialInFlight = false;
+		epoch++;
+		calls = 0;
+		failures = 0;
+		position = 0;
+	}
+
+	public String getName(){
+		return name;
+	}
+
+	//	CLOSED, OPEN or HALF_OPEN
+	public synchronized int getState(){
+		return state;
+	}
+
+	@Override
+	public synchronized String toString() {
+		String[] states = {"closed", "open", "half-open"};
+		return name + " " + states[state] + " " + failures + "/" + calls + " failed" + (trialInFlight ? ", trial in flight" : "");
+	}
+}
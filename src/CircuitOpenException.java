@@ -0,0 +1,26 @@
+package jOpendaylight;
+
+import java.io.IOException;
+
+//	Thrown without calling the controller while the circuit breaker of an endpoint is open.
+public class CircuitOpenException extends IOException {
+	private static final long serialVersionUID = 1L;
+
+	private String endpoint;
+	private long retryAfterMillis;
+
+	public CircuitOpenException(String endpoint, long retryAfterMillis){
+		super("Circuit open for " + endpoint + ", next try in " + retryAfterMillis + " ms");
+		this.endpoint = endpoint;
+		this.retryAfterMillis = retryAfterMillis;
+	}
+
+	public String getEndpoint(){
+		return endpoint;
+	}
+
+	//	time left before a trial request is let through
+	public long getRetryAfterMillis(){
+		return retryAfterMillis;
+	}
+}
@@ -0,0 +1,1593 @@
+package jOpendaylight;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.conn.ConnectTimeoutException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/*
+ * Client for a cluster of controllers, with one OpendaylightClient per member.
+ * The owner of each switch is learned from getNodesOfController(controllerAddress) of every member.
+ * Flow programmer and connection manager writes go to the owner of the node,
+ * other writes go to the first healthy member and reads are spread round-robin over healthy members.
+ *
+ * A member that fails to answer (connection failure or HTTP 5xx) is skipped for retryMillis;
+ * a timeout, an unreadable response or a request held back by the member's own client does not
+ * count against it. Reads then fail over to the next healthy member. Writes only fail over when
+ * the request could not have reached the member (connection refused or timed out, or held back
+ * by a circuit breaker or the concurrency limit), so a write is never sent twice.
+ * An expired deadline or an unreadable response fails the call at once.
+ */
+public class ClusterOpendaylightClient {
+	private final static long defaultRetryMillis = 5000;
+	private final static long minOwnershipRefreshMillis = 1000;
+	
+	//	One northbound call, run against the member chosen by the cluster client
+	public interface Call<T> {
+		public T call(OpendaylightClient member) throws IOException;
+	}
+	
+	private List<Member> members;
+	private long retryMillis;
+	private AtomicInteger nextRead;
+	
+	//	node id -> owner, replaced as a whole on refresh
+	private volatile Map<String, Member> owners;
+	private volatile long lastOwnershipRefresh;
+	private ScheduledExecutorService scheduler;
+	
+	//	constructor with the controller addresses taken from the members
+	public ClusterOpendaylightClient(List<OpendaylightClient> members){
+		this(members, controllerIps(members), defaultRetryMillis);
+	}
+	
+	//	base constructor
+	//	controllerAddresses[i] is the cluster address of members[i], as known by the connection manager
+	public ClusterOpendaylightClient(List<OpendaylightClient> members, List<String> controllerAddresses, long retryMillis){
+		if(members.isEmpty() || members.size() != controllerAddresses.size()){
+			throw new IllegalArgumentException("One controller address is needed per member");
+		}
+		
+		this.members = new ArrayList<Member>(members.size());
+		for(int i = 0; i < members.size(); i++){
+			this.members.add(new Member(members.get(i), controllerAddresses.get(i)));
+		}
+		
+		this.retryMillis = retryMillis;
+		this.nextRead = new AtomicInteger();
+		this.owners = Collections.emptyMap();
+	}
+	
+	private static List<String> controllerIps(List<OpendaylightClient> members){
+		List<String> result = new ArrayList<String>(members.size());
+		for(OpendaylightClient member: members){
+			result.add(member.getControllerIp());
+		}
+		return result;
+	}
+	
+	//	Refresh the ownership every periodMillis in the background
+	public synchronized void startOwnershipRefresh(long periodMillis){
+		if(scheduler == null){
+			scheduler = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("ClusterOpendaylightClient"));
+			scheduler.scheduleWithFixedDelay(new Runnable(){
+				@Override
+				public void run() {
+					refreshOwnership();
+				}
+			}, 0, periodMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+	
+	//	Stop the background refresh, the member clients stay open
+	public synchronized void shutdown(){
+		if(scheduler != null){
+			scheduler.shutdownNow();
+			scheduler = null;
+		}
+	}
+	
+	public List<OpendaylightClient> getMembers(){
+		List<OpendaylightClient> result = new ArrayList<OpendaylightClient>(members.size());
+		for(Member member: members){
+			result.add(member.client);
+		}
+		return result;
+	}
+	
+	public List<OpendaylightClient> getHealthyMembers(){
+		List<OpendaylightClient> result = new ArrayList<OpendaylightClient>(members.size());
+		long now = System.currentTimeMillis();
+		
+		for(Member member: members){
+			if(member.isHealthy(now)){
+				result.add(member.client);
+			}
+		}
+		return result;
+	}
+	
+	//	Owner of a node as of the last refresh, null if unknown
+	public OpendaylightClient getOwner(String nodeId){
+		Member owner = owners.get(nodeId);
+		return (owner != null) ? owner.client : null;
+	}
+	
+	//	Ask every healthy member for the nodes connected to it
+	//	Returns the number of nodes with a known owner
+	public synchronized int refreshOwnership(){
+		Map<String, Member> result = new HashMap<String, Member>();
+		long now = System.currentTimeMillis();
+		
+		for(Member member: members){
+			if(!member.isHealthy(now)){
+				continue;
+			}
+			
+			try{
+				JsonNode nodes = member.client.getNodesOfController(member.address);
+				List<JsonNode> elements = JsonUtils.elements(nodes, "node");
+				
+				if(elements.isEmpty()){
+					elements = JsonUtils.elements(nodes, "nodes");
+				}
+				for(JsonNode node: elements){
+					String nodeId = JsonUtils.text(node, "id");
+					
+					if(nodeId != null){
+						result.put(nodeId, member);
+					}
+				}
+			}
+			catch(IOException e){
+				member.markUnhealthy(retryMillis);
+			}
+			catch(RestException e){
+				if(e.getStatusCode() >= 500){
+					member.markUnhealthy(retryMillis);
+				}
+			}
+		}
+		
+		owners = result;
+		lastOwnershipRefresh = System.currentTimeMillis();
+		
+		return result.size();
+	}
+	
+	//	-------------------
+	//	Routing
+	//	-------------------
+	
+	//	Run a read on the next healthy member, failing over to the others
+	public <T> T read(Call<T> call) throws IOException{
+		int start = nextRead.getAndIncrement() & Integer.MAX_VALUE;
+		return execute(pick(start), null, call, true);
+	}
+	
+	//	Run a write on the first healthy member
+	public <T> T write(Call<T> call) throws IOException{
+		return execute(pick(0), null, call, false);
+	}
+	
+	//	Run a write on the owner of the node, or on the first healthy member if it is unknown
+	public <T> T writeToOwner(String nodeId, Call<T> call) throws IOException{
+		return execute(ownerOrFirst(nodeId), nodeId, call, false);
+	}
+	
+	//	a connected node is owned by the member it was connected through
+	private <T> T connectNode(final String nodeId, final Call<T> call) throws IOException{
+		return execute(ownerOrFirst(nodeId), nodeId, new Call<T>(){
+			@Override
+			public T call(OpendaylightClient member) throws IOException {
+				T result = call.call(member);
+				setOwner(nodeId, member);
+				return result;
+			}
+		}, false);
+	}
+	
+	private <T> T disconnectNode(String nodeId, Call<T> call) throws IOException{
+		try{
+			return writeToOwner(nodeId, call);
+		}
+		finally{
+			forgetOwner(nodeId);
+		}
+	}
+	
+	private <T> T execute(Member member, String nodeId, Call<T> call, boolean idempotent) throws IOException{
+		List<Member> tried = new ArrayList<Member>(members.size());
+		Exception failure;
+		
+		while(true){
+			tried.add(member);
+			
+			try{
+				return call.call(member.client);
+			}
+			catch(DeadlineExceededException e){
+				//	no time left for another member
+				throw e;
+			}
+			catch(JsonProcessingException e){
+				//	the member answered, another one is not expected to answer better
+				throw e;
+			}
+			catch(IOException e){
+				failure = e;
+			}
+			catch(RestException e){
+				//	the member answered, the request itself was refused
+				if(e.getStatusCode() < 500){
+					throw e;
+				}
+				failure = e;
+			}
+			
+			if(isMemberFailure(failure)){
+				member.markUnhealthy(retryMillis);
+			}
+			
+			//	a write that may have reached the member is not sent again
+			if(!idempotent && !isNotSent(failure)){
+				break;
+			}
+			
+			//	the node may have moved to another member
+			if(nodeId != null){
+				forgetOwner(nodeId);
+				member = lookupOwner(nodeId);
+				if(member == null || tried.contains(member) || !member.isHealthy(System.currentTimeMillis())){
+					member = nextHealthy(tried);
+				}
+			}
+			else{
+				member = nextHealthy(tried);
+			}
+			
+			if(member == null){
+				break;
+			}
+		}
+		
+		if(failure instanceof IOException){
+			throw (IOException) failure;
+		}
+		throw (RuntimeException) failure;
+	}
+	
+	//	nothing was sent, the connection failed or the member's own client held the request back
+	private static boolean isNotSent(Exception failure){
+		return failure instanceof ConnectException || failure instanceof ConnectTimeoutException
+				|| failure instanceof CircuitOpenException || failure instanceof ConcurrencyLimitException;
+	}
+	
+	//	the member could not be reached or failed to answer: a connection failure or a 5xx.
+	//	Timeouts and requests held back by the member's own client say nothing of its health
+	private static boolean isMemberFailure(Exception failure){
+		if(failure instanceof RestException){
+			return true;
+		}
+		if(failure instanceof CircuitOpenException || failure instanceof ConcurrencyLimitException){
+			return false;
+		}
+		//	a connect timeout is an InterruptedIOException too
+		if(failure instanceof InterruptedIOException){
+			return failure instanceof ConnectTimeoutException;
+		}
+		return true;
+	}
+	
+	//	healthy member from start on, or the one closest to its retry time if none is healthy
+	private Member pick(int start){
+		long now = System.currentTimeMillis();
+		Member soonest = null;
+		
+		for(int i = 0; i < members.size(); i++){
+			Member member = members.get((start + i) % members.size());
+			
+			if(member.isHealthy(now)){
+				return member;
+			}
+			if(soonest == null || member.unhealthyUntil < soonest.unhealthyUntil){
+				soonest = member;
+			}
+		}
+		
+		return soonest;
+	}
+	
+	private Member nextHealthy(List<Member> tried){
+		long now = System.currentTimeMillis();
+		
+		for(Member member: members){
+			if(!tried.contains(member) && member.isHealthy(now)){
+				return member;
+			}
+		}
+		return null;
+	}
+	
+	private Member ownerOrFirst(String nodeId){
+		Member owner = lookupOwner(nodeId);
+		
+		if(owner != null && owner.isHealthy(System.currentTimeMillis())){
+			return owner;
+		}
+		return pick(0);
+	}
+	
+	//	unknown node, look it up again unless that was just done
+	private Member lookupOwner(String nodeId){
+		Member owner = owners.get(nodeId);
+		
+		if(owner == null && System.currentTimeMillis() - lastOwnershipRefresh >= minOwnershipRefreshMillis){
+			refreshOwnership();
+			owner = owners.get(nodeId);
+		}
+		return owner;
+	}
+	
+	private synchronized void setOwner(String nodeId, OpendaylightClient client){
+		Map<String, Member> updated = new HashMap<String, Member>(owners);
+		
+		for(Member member: members){
+			if(member.client == client){
+				updated.put(nodeId, member);
+			}
+		}
+		owners = updated;
+	}
+	
+	private synchronized void forgetOwner(String nodeId){
+		if(owners.containsKey(nodeId)){
+			Map<String, Member> updated = new HashMap<String, Member>(owners);
+			updated.remove(nodeId);
+			owners = updated;
+		}
+	}
+	
+	private static class Member {
+		final OpendaylightClient client;
+		final String address;
+		volatile long unhealthyUntil;
+		
+		Member(OpendaylightClient client, String address){
+			this.client = client;
+			this.address = address;
+		}
+		
+		boolean isHealthy(long now){
+			return unhealthyUntil <= now;
+		}
+		
+		void markUnhealthy(long retryMillis){
+			unhealthyUntil = System.currentTimeMillis() + retryMillis;
+		}
+	}
+	
+	//	---------------------------
+	//		API implementation
+	//	---------------------------
+	
+	//	--------------------------
+	//		Topology REST APIs
+	//	--------------------------
+	
+	//	Retrieve the Topology
+	public JsonNode getTopology() throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getTopology();
+			}
+		});
+	}
+	
+	public JsonNode getTopology(final String containerName) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getTopology(containerName);
+			}
+		});
+	}
+	
+	//	Retrieve the user configured links
+	public JsonNode getUserLinks() throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getUserLinks();
+			}
+		});
+	}
+	
+	public JsonNode getUserLinks(final String containerName) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getUserLinks(containerName);
+			}
+		});
+	}
+	
+	//	Add an User Link
+	public String addOpenFlowUserLink(final String name, final String srcId, final int srcPort, final String dstId, final int dstPort) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.addOpenFlowUserLink(name, srcId, srcPort, dstId, dstPort);
+			}
+		});
+	}
+	
+	//	Add an User Link
+	public String addUserLink(final String containerName, final String name, final String type, final String srcId, final int srcPort, final String dstId, final int dstPort) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.addUserLink(containerName, name, type, srcId, srcPort, dstId, dstPort);
+			}
+		});
+	}
+	
+	public String addUserLink(final String name, final Map<String, String> paraMap) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.addUserLink(name, paraMap);
+			}
+		});
+	}
+	
+	public String addUserLink(final String containerName, final String name, final Map<String, String> paraMap) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.addUserLink(containerName, name, paraMap);
+			}
+		});
+	}
+	
+	//	Delete an User Link
+	public String deleteUserLink(final String name) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.deleteUserLink(name);
+			}
+		});
+	}
+	
+	public String deleteUserLink(final String containerName, final String name) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.deleteUserLink(containerName, name);
+			}
+		});
+	}
+	
+	//	-----------------------------
+	//		Host Tracker REST API
+	//	-----------------------------
+	
+	//	Returns a host that matches the IP Address value passed as parameter.
+	public JsonNode getHostDetails(final String networkAddress) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getHostDetails(networkAddress);
+			}
+		});
+	}
+	
+	public JsonNode getHostDetails(final String containerName, final String networkAddress) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getHostDetails(containerName, networkAddress);
+			}
+		});
+	}
+	
+	//	Add a Static Host configuration.
+	public String addOpenFlowStaticHost(final String networkAddress, final String dataLayerAddress, final String nodeId, final int nodePort, final int vlanId) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.addOpenFlowStaticHost(networkAddress, dataLayerAddress, nodeId, nodePort, vlanId);
+			}
+		});
+	}
+	
+	//	Add a Static Host configuration.
+	public String addStaticHost(final String networkAddress, final String dataLayerAddress, final String type, final String nodeId, final int nodePort, final int vlanId) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.addStaticHost(networkAddress, dataLayerAddress, type, nodeId, nodePort, vlanId);
+			}
+		});
+	}
+	
+	public String addStaticHost(final String containerName, final String networkAddress, final String dataLayerAddress, final String type, final String nodeId, final int nodePort, final int vlanId) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.addStaticHost(containerName, networkAddress, dataLayerAddress, type, nodeId, nodePort, vlanId);
+			}
+		});
+	}
+	
+	public String addStaticHost(final String networkAddress, final Map<String, String> paraMap) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.addStaticHost(networkAddress, paraMap);
+			}
+		});
+	}
+	
+	public String addStaticHost(final String containerName, final String networkAddress, final Map<String, String> paraMap) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.addStaticHost(containerName, networkAddress, paraMap);
+			}
+		});
+	}
+	
+	//	Delete a Static Host configuration
+	public String deleteStaticHost(final String networkAddress) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.deleteStaticHost(networkAddress);
+			}
+		});
+	}
+	
+	public String deleteStaticHost(final String containerName, final String networkAddress) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.deleteStaticHost(containerName, networkAddress);
+			}
+		});
+	}
+	
+	//	Returns a list of all Hosts
+	public JsonNode getActiveHosts() throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getActiveHosts();
+			}
+		});
+	}
+	
+	public JsonNode getActiveHosts(final String containerName) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getActiveHosts(containerName);
+			}
+		});
+	}
+	
+	//	Returns a list of Hosts that are statically configured
+	public JsonNode getInactiveHosts() throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getInactiveHosts();
+			}
+		});
+	}
+	
+	public JsonNode getInactiveHosts(final String containerName) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getInactiveHosts(containerName);
+			}
+		});
+	}
+	
+	//	-----------------------------------------
+	//		Flow Configuration Northbound API
+	//	-----------------------------------------
+	
+	//	Returns a list of Flows configured on the given container
+	public JsonNode getAllStaticFlowEntries() throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getAllStaticFlowEntries();
+			}
+		});
+	}
+	
+	public JsonNode getAllStaticFlowEntries(final String containerName) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getAllStaticFlowEntries(containerName);
+			}
+		});
+	}
+	
+	//	Returns a list of Flows configured on a Node in a given container
+	public JsonNode getOpenFlowStaticFlowEntries(final String nodeId) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getOpenFlowStaticFlowEntries(nodeId);
+			}
+		});
+	}
+	
+	//	Returns a list of Flows configured on a Node in a given container
+	public JsonNode getStaticFlowEntries(final String nodeType, final String nodeId) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getStaticFlowEntries(nodeType, nodeId);
+			}
+		});
+	}
+	
+	public JsonNode getStaticFlowEntries(final String containerName, final String nodeType, final String nodeId) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getStaticFlowEntries(containerName, nodeType, nodeId);
+			}
+		});
+	}
+	
+	//	Returns the flow configuration matching a human-readable name and nodeId on a given Container.
+	public JsonNode getOpenFlowStaticFlowEntry(final String nodeId, final String name) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getOpenFlowStaticFlowEntry(nodeId, name);
+			}
+		});
+	}
+	
+	//	Returns the flow configuration matching a human-readable name and nodeId on a given Container.
+	public JsonNode getStaticFlowEntry(final String nodeType, final String nodeId, final String name) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getStaticFlowEntry(nodeType, nodeId, name);
+			}
+		});
+	}
+	
+	public JsonNode getStaticFlowEntry(final String containerName, final String nodeType, final String nodeId, final String name) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getStaticFlowEntry(containerName, nodeType, nodeId, name);
+			}
+		});
+	}
+	
+	//	Add or Modify a simple OpenFlow IPv4 flow configuration.
+	public String addOrModifySimpleFlowEntry(final String name, final String nodeId, final String srcIp, final String dstIp, final int outputPort, final Map<String, String> otherParaMap) throws IOException{
+		return writeToOwner(nodeId, new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.addOrModifySimpleFlowEntry(name, nodeId, srcIp, dstIp, outputPort, otherParaMap);
+			}
+		});
+	}
+	
+	//	Add or Modify a flow configuration.
+	public String addOrModifyOpenFlowFlowEntry(final String name, final String nodeId, final List<String> actionList, final Map<String, String> otherParaMap) throws IOException{
+		return writeToOwner(nodeId, new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.addOrModifyOpenFlowFlowEntry(name, nodeId, actionList, otherParaMap);
+			}
+		});
+	}
+	
+	//	Add or Modify a flow configuration.
+	public String addOrModifyFlowEntry(final String name, final String nodeType, final String nodeId, final List<String> actionList, final Map<String, String> otherParaMap) throws IOException{
+		return writeToOwner(nodeId, new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.addOrModifyFlowEntry(name, nodeType, nodeId, actionList, otherParaMap);
+			}
+		});
+	}
+	
+	public String addOrModifyFlowEntry(final String containerName, final String name, final String nodeType, final String nodeId, final List<String> actionList, final Map<String, String> otherParaMap) throws IOException{
+		return writeToOwner(nodeId, new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.addOrModifyFlowEntry(containerName, name, nodeType, nodeId, actionList, otherParaMap);
+			}
+		});
+	}
+	
+	public String addOrModifyFlowEntry(final FlowConfig flow) throws IOException{
+		return writeToOwner(flow.getNodeId(), new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.addOrModifyFlowEntry(flow);
+			}
+		});
+	}
+	
+	public String addOrModifyFlowEntry(final String containerName, final FlowConfig flow) throws IOException{
+		return writeToOwner(flow.getNodeId(), new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.addOrModifyFlowEntry(containerName, flow);
+			}
+		});
+	}
+	
+	//	Delete a Flow configuration
+	public String deleteOpenFlowFlowEntry(final String name, final String nodeId) throws IOException{
+		return writeToOwner(nodeId, new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.deleteOpenFlowFlowEntry(name, nodeId);
+			}
+		});
+	}
+	
+	//	Delete a Flow configuration
+	public String deleteFlowEntry(final String name, final String nodeType, final String nodeId) throws IOException{
+		return writeToOwner(nodeId, new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.deleteFlowEntry(name, nodeType, nodeId);
+			}
+		});
+	}
+	
+	public String deleteFlowEntry(final String containerName, final String name, final String nodeType, final String nodeId) throws IOException{
+		return writeToOwner(nodeId, new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.deleteFlowEntry(containerName, name, nodeType, nodeId);
+			}
+		});
+	}
+	
+	//	Toggle a Flow configuration
+	public String toggleOpenFlowFlowEntry(final String nodeId, final String name) throws IOException{
+		return writeToOwner(nodeId, new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.toggleOpenFlowFlowEntry(nodeId, name);
+			}
+		});
+	}
+	
+	//	Toggle a Flow configuration
+	public String toggleFlowEntry(final String nodeType, final String nodeId, final String name) throws IOException{
+		return writeToOwner(nodeId, new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.toggleFlowEntry(nodeType, nodeId, name);
+			}
+		});
+	}
+	
+	public String toggleFlowEntry(final String containerName, final String nodeType, final String nodeId, final String name) throws IOException{
+		return writeToOwner(nodeId, new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.toggleFlowEntry(containerName, nodeType, nodeId, name);
+			}
+		});
+	}
+	
+	//	-------------------------------------
+	//		Static Routing Northbound API
+	//	-------------------------------------
+	
+	//	Get a list of static routes present on the given container.
+	public JsonNode getStaticRoutes() throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getStaticRoutes();
+			}
+		});
+	}
+	
+	public JsonNode getStaticRoutes(final String containerName) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getStaticRoutes(containerName);
+			}
+		});
+	}
+	
+	//	Returns the static route for the provided configuration name on a given container
+	public JsonNode getStaticRoute(final String routeName) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getStaticRoute(routeName);
+			}
+		});
+	}
+	
+	public JsonNode getStaticRoute(final String containerName, final String routeName) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getStaticRoute(containerName, routeName);
+			}
+		});
+	}
+	
+	//	Add a new Static Route.
+	public String addStaticRoute(final String routeName, final String prefix, final String nextHop) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.addStaticRoute(routeName, prefix, nextHop);
+			}
+		});
+	}
+	
+	public String addStaticRoute(final String containerName, final String routeName, final String prefix, final String nextHop) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.addStaticRoute(containerName, routeName, prefix, nextHop);
+			}
+		});
+	}
+	
+	public String addStaticRoute(final String routeName, final Map<String, String> staticRouteData) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.addStaticRoute(routeName, staticRouteData);
+			}
+		});
+	}
+	
+	public String addStaticRoute(final String containerName, final String routeName, final Map<String, String> staticRouteData) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.addStaticRoute(containerName, routeName, staticRouteData);
+			}
+		});
+	}
+	
+	//	Delete a Static Route
+	public String removeStaticRoute(final String routeName) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.removeStaticRoute(routeName);
+			}
+		});
+	}
+	
+	public String removeStaticRoute(final String containerName, final String routeName) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.removeStaticRoute(containerName, routeName);
+			}
+		});
+	}
+	
+	//	----------------------------
+	//		Statistics REST APIs
+	//	----------------------------
+	
+	//	Returns a list of all Flow Statistics from all the Nodes.
+	public JsonNode getFlowStatistics() throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getFlowStatistics();
+			}
+		});
+	}
+	
+	public JsonNode getFlowStatistics(final String containerName) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getFlowStatistics(containerName);
+			}
+		});
+	}
+	
+	//	Returns a list of all the Port Statistics across all the NodeConnectors on all the Nodes.
+	public JsonNode getPortStatistics() throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getPortStatistics();
+			}
+		});
+	}
+	
+	public JsonNode getPortStatistics(final String containerName) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getPortStatistics(containerName);
+			}
+		});
+	}
+	
+	//	Returns a list of all the Table Statistics on all Nodes.
+	public JsonNode getTableStatistics() throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getTableStatistics();
+			}
+		});
+	}
+	
+	public JsonNode getTableStatistics(final String containerName) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getTableStatistics(containerName);
+			}
+		});
+	}
+	
+	//	Returns a list of Flow Statistics for a given Node.
+	public JsonNode getOpenFlowFlowStatistics(final String nodeId) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getOpenFlowFlowStatistics(nodeId);
+			}
+		});
+	}
+	
+	//	Returns a list of Flow Statistics for a given Node.
+	public JsonNode getFlowStatistics(final String nodeType, final String nodeId) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getFlowStatistics(nodeType, nodeId);
+			}
+		});
+	}
+	
+	public JsonNode getFlowStatistics(final String containerName, final String nodeType, final String nodeId) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getFlowStatistics(containerName, nodeType, nodeId);
+			}
+		});
+	}
+	
+	//	Returns a list of all the Port Statistics across all the NodeConnectors in a given Node.
+	public JsonNode getOpenFlowPortStatistics(final String nodeId) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getOpenFlowPortStatistics(nodeId);
+			}
+		});
+	}
+	
+	//	Returns a list of all the Port Statistics across all the NodeConnectors in a given Node.
+	public JsonNode getPortStatistics(final String nodeType, final String nodeId) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getPortStatistics(nodeType, nodeId);
+			}
+		});
+	}
+	
+	public JsonNode getPortStatistics(final String containerName, final String nodeType, final String nodeId) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getPortStatistics(containerName, nodeType, nodeId);
+			}
+		});
+	}
+	
+	//	Returns a list of all the Table Statistics on a specific node.
+	public JsonNode getOpenFlowTableStatistics(final String nodeId) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getOpenFlowTableStatistics(nodeId);
+			}
+		});
+	}
+	
+	//	Returns a list of all the Table Statistics on a specific node.
+	public JsonNode getTableStatistics(final String nodeType, final String nodeId) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getTableStatistics(nodeType, nodeId);
+			}
+		});
+	}
+	
+	public JsonNode getTableStatistics(final String containerName, final String nodeType, final String nodeId) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getTableStatistics(containerName, nodeType, nodeId);
+			}
+		});
+	}
+	
+	//	-------------------------
+	//		Subnets REST APIs
+	//	-------------------------
+	
+	//	List all the subnets in a given container
+	public JsonNode listSubnets() throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.listSubnets();
+			}
+		});
+	}
+	
+	public JsonNode listSubnets(final String containerName) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.listSubnets(containerName);
+			}
+		});
+	}
+	
+	//	List the configuration of a subnet in a given container
+	public JsonNode listSubnet(final String subnetName) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.listSubnet(subnetName);
+			}
+		});
+	}
+	
+	public JsonNode listSubnet(final String containerName, final String subnetName) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.listSubnet(containerName, subnetName);
+			}
+		});
+	}
+	
+	//	Add a subnet into the specified container context, node connectors are optional
+	public String addSubnet(final String subnetName, final String subnetAddress) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.addSubnet(subnetName, subnetAddress);
+			}
+		});
+	}
+	
+	public String addSubnet(final String subnetName, final String subnetAddress, final List<String> nodeConnectors) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.addSubnet(subnetName, subnetAddress, nodeConnectors);
+			}
+		});
+	}
+	
+	public String addSubnet(final String containerName, final String subnetName, final String subnetAddress, final List<String> nodeConnectors) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.addSubnet(containerName, subnetName, subnetAddress, nodeConnectors);
+			}
+		});
+	}
+	
+	//	Delete a subnet from the specified container context
+	public String removeSubnet(final String subnetName) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.removeSubnet(subnetName);
+			}
+		});
+	}
+	
+	public String removeSubnet(final String containerName, final String subnetName) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.removeSubnet(containerName, subnetName);
+			}
+		});
+	}
+	
+	//	Modify a subnet. Replace the existing subnet with the new specified one.
+	public String modifySubnet(final String subnetName, final String subnetAddress, final List<String> nodeConnectors) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.modifySubnet(subnetName, subnetAddress, nodeConnectors);
+			}
+		});
+	}
+	
+	public String modifySubnet(final String containerName, final String subnetName, final String subnetAddress, final List<String> nodeConnectors) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.modifySubnet(containerName, subnetName, subnetAddress, nodeConnectors);
+			}
+		});
+	}
+	
+	//	--------------------------------
+	//		Switch Manager REST APIs
+	//	--------------------------------
+	
+	//	Retrieve a list of all the nodes and their properties in the network
+	public JsonNode getNodePropertiesOfContainer() throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getNodePropertiesOfContainer();
+			}
+		});
+	}
+	
+	public JsonNode getNodePropertiesOfContainer(final String containerName) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getNodePropertiesOfContainer(containerName);
+			}
+		});
+	}
+	
+	//	Save the current switch configurations
+	public String saveSwitchConfig() throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.saveSwitchConfig();
+			}
+		});
+	}
+	
+	public String saveSwitchConfig(final String containerName) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.saveSwitchConfig(containerName);
+			}
+		});
+	}
+	
+	//	Retrieve a list of all the nodeconnectors and their properties in a given node
+	public JsonNode getOpenFlowNodeConnectors(final String nodeId) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getOpenFlowNodeConnectors(nodeId);
+			}
+		});
+	}
+	
+	//	Retrieve a list of all the nodeconnectors and their properties in a given node
+	public JsonNode getNodeConnectors(final String nodeType, final String nodeId) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getNodeConnectors(nodeType, nodeId);
+			}
+		});
+	}
+	
+	public JsonNode getNodeConnectors(final String containerName, final String nodeType, final String nodeId) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getNodeConnectors(containerName, nodeType, nodeId);
+			}
+		});
+	}
+	
+	//	Delete a property of a node
+	public String deleteOpenFlowNodeProperty(final String nodeId, final String propertyName) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.deleteOpenFlowNodeProperty(nodeId, propertyName);
+			}
+		});
+	}
+	
+	//	Delete a property of a node
+	public String deleteNodeProperty(final String nodeType, final String nodeId, final String propertyName) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.deleteNodeProperty(nodeType, nodeId, propertyName);
+			}
+		});
+	}
+	
+	public String deleteNodeProperty(final String containerName, final String nodeType, final String nodeId, final String propertyName) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.deleteNodeProperty(containerName, nodeType, nodeId, propertyName);
+			}
+		});
+	}
+	
+	//	Add a Description, Tier and Forwarding mode property to a node.
+	public String addOpenFlowNodeProperty(final String nodeId, final String propertyName, final String propertyValue) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.addOpenFlowNodeProperty(nodeId, propertyName, propertyValue);
+			}
+		});
+	}
+	
+	//	Add a Description, Tier and Forwarding mode property to a node.
+	public String addNodeProperty(final String nodeType, final String nodeId, final String propertyName, final String propertyValue) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.addNodeProperty(nodeType, nodeId, propertyName, propertyValue);
+			}
+		});
+	}
+	
+	public String addNodeProperty(final String containerName, final String nodeType, final String nodeId, final String propertyName, final String propertyValue) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.addNodeProperty(containerName, nodeType, nodeId, propertyName, propertyValue);
+			}
+		});
+	}
+	
+	//	Delete a property of a node connector
+	public String deleteOpenFlowNodeConnectorBandwidth(final String nodeId, final int nodeConnectorId) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.deleteOpenFlowNodeConnectorBandwidth(nodeId, nodeConnectorId);
+			}
+		});
+	}
+	
+	//	Delete a property of a node connector
+	public String deleteOpenFlowNodeConnectorProperty(final String nodeId, final int nodeConnectorId, final String propertyName) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.deleteOpenFlowNodeConnectorProperty(nodeId, nodeConnectorId, propertyName);
+			}
+		});
+	}
+	
+	//	Delete a property of a node connector
+	public String deleteNodeConnectorProperty(final String nodeType, final String nodeId, final String nodeConnectorType, final int nodeConnectorId, final String propertyName) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.deleteNodeConnectorProperty(nodeType, nodeId, nodeConnectorType, nodeConnectorId, propertyName);
+			}
+		});
+	}
+	
+	public String deleteNodeConnectorProperty(final String containerName, final String nodeType, final String nodeId, final String nodeConnectorType, final int nodeConnectorId, final String propertyName) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.deleteNodeConnectorProperty(containerName, nodeType, nodeId, nodeConnectorType, nodeConnectorId, propertyName);
+			}
+		});
+	}
+	
+	//	Add node-connector property to a node connector.
+	public String addOpenFlowNodeConnectorBandwidth(final String nodeId, final int nodeConnectorId, final long bandwidthValue) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.addOpenFlowNodeConnectorBandwidth(nodeId, nodeConnectorId, bandwidthValue);
+			}
+		});
+	}
+	
+	//	Add node-connector property to a node connector.
+	public String addOpenFlowNodeConnectorProperty(final String nodeId, final int nodeConnectorId, final String propertyName, final String propertyValue) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.addOpenFlowNodeConnectorProperty(nodeId, nodeConnectorId, propertyName, propertyValue);
+			}
+		});
+	}
+	
+	//	Add node-connector property to a node connector.
+	public String addNodeConnectorProperty(final String nodeType, final String nodeId, final String nodeConnectorType, final int nodeConnectorId, final String propertyName, final String propertyValue) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.addNodeConnectorProperty(nodeType, nodeId, nodeConnectorType, nodeConnectorId, propertyName, propertyValue);
+			}
+		});
+	}
+	
+	public String addNodeConnectorProperty(final String containerName, final String nodeType, final String nodeId, final String nodeConnectorType, final int nodeConnectorId, final String propertyName, final String propertyValue) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.addNodeConnectorProperty(containerName, nodeType, nodeId, nodeConnectorType, nodeConnectorId, propertyName, propertyValue);
+			}
+		});
+	}
+	
+	//	-----------------------------------
+	//		Container Manager REST APIs
+	//	-----------------------------------
+	
+	//	Get all the containers configured in the system
+	public JsonNode viewAllContainers() throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.viewAllContainers();
+			}
+		});
+	}
+	
+	//	Get the container configuration for container name requested
+	public JsonNode viewContainer(final String container) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.viewContainer(container);
+			}
+		});
+	}
+	
+	//	Create a container
+	public String createContainer(final String containerName) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.createContainer(containerName);
+			}
+		});
+	}
+	
+	public String createContainer(final String containerName, final int staticVlan) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.createContainer(containerName, staticVlan);
+			}
+		});
+	}
+	
+	public String createContainer(final String containerName, final int staticVlan, final List<String> nodeConnectors) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.createContainer(containerName, staticVlan, nodeConnectors);
+			}
+		});
+	}
+	
+	public String createContainer(final String containerName, final Map<String, Object> paraMap) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.createContainer(containerName, paraMap);
+			}
+		});
+	}
+	
+	//	Delete a container
+	public String removeContainer(final String containerName) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.removeContainer(containerName);
+			}
+		});
+	}
+	
+	//	Get all the flowspec in a given container
+	public JsonNode viewContainerFlowSpecs(final String containerName) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.viewContainerFlowSpecs(containerName);
+			}
+		});
+	}
+	
+	//	Add a node connector to a container
+	public String addNodeConnector(final String containerName, final String nodeConnector) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.addNodeConnector(containerName, nodeConnector);
+			}
+		});
+	}
+	
+	//	Add node connectors to a container
+	public String addNodeConnectors(final String containerName, final List<String> nodeConnectors) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.addNodeConnectors(containerName, nodeConnectors);
+			}
+		});
+	}
+	
+	//	Remove a node connector from a container
+	public String removeNodeConnector(final String containerName, final String nodeConnector) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.removeNodeConnector(containerName, nodeConnector);
+			}
+		});
+	}
+	
+	//	Remove node connectors from a container
+	public String removeNodeConnectors(final String containerName, final List<String> nodeConnectors) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.removeNodeConnectors(containerName, nodeConnectors);
+			}
+		});
+	}
+	
+	//	Get flowspec within a given container
+	public JsonNode viewContainerFlowSpec(final String containerName, final String flowspecName) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.viewContainerFlowSpec(containerName, flowspecName);
+			}
+		});
+	}
+	
+	//	Add flowspec to a container
+	public String createFlowSpec(final String containerName, final String flowspecName, final Map<String, String> paraMap) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.createFlowSpec(containerName, flowspecName, paraMap);
+			}
+		});
+	}
+	
+	//	Remove flowspec from a container
+	public String removeFlowSpec(final String containerName, final String flowspecName) throws IOException{
+		return write(new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.removeFlowSpec(containerName, flowspecName);
+			}
+		});
+	}
+	
+	//	------------------------------------
+	//		Connection Manager REST APIs
+	//	------------------------------------
+	
+	//	Retrieve a list of all the nodes connected to a given controller in the cluster.
+	public JsonNode getNodesOfController() throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getNodesOfController();
+			}
+		});
+	}
+	
+	public JsonNode getNodesOfController(final String controllerAddress) throws IOException{
+		return read(new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.getNodesOfController(controllerAddress);
+			}
+		});
+	}
+	
+	//	Disconnect an existing Connection.
+	public String disconnectOpenFlowNode(final String nodeId) throws IOException{
+		return disconnectNode(nodeId, new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.disconnectOpenFlowNode(nodeId);
+			}
+		});
+	}
+	
+	//	Disconnect an existing Connection.
+	public String disconnect(final String nodeType, final String nodeId) throws IOException{
+		return disconnectNode(nodeId, new Call<String>(){
+			@Override
+			public String call(OpendaylightClient member) throws IOException {
+				return member.disconnect(nodeType, nodeId);
+			}
+		});
+	}
+	
+	//	Connect to the management session of a node
+	public JsonNode connect(final String nodeId, final String ipAddress, final int port) throws IOException{
+		return connectNode(nodeId, new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.connect(nodeId, ipAddress, port);
+			}
+		});
+	}
+	
+	//	Connect to the management session of a node
+	public JsonNode connectOpenFlowNode(final String nodeId, final String ipAddress, final int port) throws IOException{
+		return connectNode(nodeId, new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.connectOpenFlowNode(nodeId, ipAddress, port);
+			}
+		});
+	}
+	
+	//	Connect to the management session of a node
+	public JsonNode connect(final String nodeType, final String nodeId, final String ipAddress, final int port) throws IOException{
+		return connectNode(nodeId, new Call<JsonNode>(){
+			@Override
+			public JsonNode call(OpendaylightClient member) throws IOException {
+				return member.connect(nodeType, nodeId, ipAddress, port);
+			}
+		});
+	}
+}
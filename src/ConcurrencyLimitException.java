@@ -0,0 +1,21 @@
+package jOpendaylight;
+
+import java.io.IOException;
+
+//	Thrown when a request waited longer than allowed for a slot of the AdaptiveLimiter.
+//	Nothing was sent to the controller.
+public class ConcurrencyLimitException extends IOException {
+	private static final long serialVersionUID = 1L;
+
+	private int limit;
+
+	public ConcurrencyLimitException(String message, int limit){
+		super(message);
+		this.limit = limit;
+	}
+
+	//	concurrency limit when the request gave up
+	public int getLimit(){
+		return limit;
+	}
+}
@@ -0,0 +1,487 @@
+package jOpendaylight;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.http.conn.ConnectTimeoutException;
+
+/*
+ * Provisions tenant containers from a ContainerSpec, all or nothing.
+ * The calls run in stages, the calls of a stage concurrently:
+ *   1. create the container
+ *   2. add its node connectors, create its flowspecs
+ *   3. add its subnets (on the node connectors) and its static flows
+ * If any call fails, the calls that were done are undone in reverse order:
+ * flows, subnets, flowspecs, node connectors, then the container itself.
+ * The rollback first waits for the calls of the failed stage which are still running,
+ * e.g. past the deadline. It then undoes the calls which were done, and those which may
+ * have reached the controller without an answer; a 404 only counts as undone for the former.
+ * Every call is timed, see Report.
+ */
+public class ContainerProvisioner {
+	public final static String CONTAINER = "container";
+	public final static String NODE_CONNECTORS = "nodeConnectors";
+	public final static String FLOW_SPEC = "flowSpec";
+	public final static String SUBNET = "subnet";
+	public final static String FLOW = "flow";
+
+	private final static int defaultThreads = 16;
+	private final static int defaultParallelism = 4;
+
+	private OpendaylightClient client;
+	private ExecutorService executor;
+	private BatchExecutor batchExecutor;
+	private int parallelism;
+	private boolean ownExecutor;
+
+	//	constructor with default threads and parallelism
+	public ContainerProvisioner(OpendaylightClient client){
+		this(client, defaultThreads, defaultParallelism);
+	}
+
+	//	constructor with its own executor, sized as told in BatchExecutor
+	public ContainerProvisioner(OpendaylightClient client, int threads, int parallelism){
+		this(client, Executors.newFixedThreadPool(threads, new DaemonThreadFactory("ContainerProvisioner")), parallelism);
+		this.ownExecutor = true;
+	}
+
+	//	base constructor, on an executor of the caller (see BatchExecutor)
+	//	parallelism bounds the concurrent calls of one kind (flows: of one node) for one container
+	public ContainerProvisioner(OpendaylightClient client, ExecutorService executor, int parallelism){
+		this.client = client;
+		this.executor = executor;
+		this.batchExecutor = new BatchExecutor(executor);
+		this.parallelism = parallelism;
+		this.ownExecutor = false;
+	}
+
+	public void shutdown(){
+		if(ownExecutor){
+			executor.shutdown();
+		}
+	}
+
+	//	-------------------
+	//	Provisioning
+	//	-------------------
+
+	public Report provision(ContainerSpec spec) throws InterruptedException{
+		return provision(spec, null);
+	}
+
+	//	base method
+	//	the calls not done by the deadline fail the container, the rollback itself has no deadline
+	public Report provision(ContainerSpec spec, Deadline deadline) throws InterruptedException{
+		String containerName = spec.getName();
+		List<List<Step>> stages = new ArrayList<List<Step>>();
+		List<List<Step>> done = new ArrayList<List<Step>>();
+		Report report = new Report(containerName);
+		long start = System.nanoTime();
+
+		stages.add(Collections.singletonList(containerStep(spec)));
+		stages.add(new ArrayList<Step>());
+		stages.add(new ArrayList<Step>());
+
+		if(!spec.getNodeConnectors().isEmpty()){
+			stages.get(1).add(nodeConnectorsStep(containerName, spec.getNodeConnectors()));
+		}
+		for(Map.Entry<String, Map<String, String>> flowSpec: spec.getFlowSpecs().entrySet()){
+			stages.get(1).add(flowSpecStep(containerName, flowSpec.getKey(), flowSpec.getValue()));
+		}
+		for(ContainerSpec.Subnet subnet: spec.getSubnets()){
+			stages.get(2).add(subnetStep(containerName, subnet));
+		}
+		for(FlowConfig flow: spec.getFlows()){
+			stages.get(2).add(flowStep(containerName, flow));
+		}
+
+		for(List<Step> stage: stages){
+			if(stage.isEmpty()){
+				continue;
+			}
+
+			List<Step> stageDone = new ArrayList<Step>(stage.size());
+			BatchExecutor.Workers workers = new BatchExecutor.Workers();
+			boolean failed = false;
+
+			List<BatchResult<Step>> results = batchExecutor.execute(stage, APPLY, parallelism, deadline, workers);
+
+			for(BatchResult<Step> result: results){
+				failed |= !result.isSuccess();
+			}
+			if(failed){
+				//	a timed out call may still be running, and succeed after the rollback undid nothing
+				workers.await(0);
+			}
+
+			for(BatchResult<Step> result: results){
+				Step step = result.getItem();
+
+				report.steps.add(new StepResult(step.kind, step.name, result, step.elapsedNanos));
+				if(step.applied || step.uncertain){
+					stageDone.add(step);
+				}
+			}
+
+			done.add(stageDone);
+			if(failed){
+				rollback(done, report);
+				break;
+			}
+		}
+
+		report.elapsedNanos = System.nanoTime() - start;
+		return report;
+	}
+
+	//	Provision many containers, at most concurrentContainers at a time
+	//	reports are in the same order as the specs
+	public List<Report> provisionAll(Collection<ContainerSpec> specs, int concurrentContainers) throws InterruptedException{
+		//	the pipelines wait on the stage calls, they cannot share the executor of the calls
+		ExecutorService pipelines = Executors.newFixedThreadPool(Math.max(1, concurrentContainers), new DaemonThreadFactory("ContainerProvisioner-pipeline"));
+		List<Future<Report>> futures = new ArrayList<Future<Report>>(specs.size());
+		List<Report> reports = new ArrayList<Report>(specs.size());
+
+		try{
+			for(final ContainerSpec spec: specs){
+				futures.add(pipelines.submit(new Callable<Report>(){
+					@Override
+					public Report call() throws Exception {
+						return provision(spec);
+					}
+				}));
+			}
+
+			for(Future<Report> future: futures){
+				try{
+					reports.add(future.get());
+				}
+				catch(ExecutionException e){
+					//	provision(...) reports the failures of the calls, this is a bug
+					throw new IllegalStateException(e.getCause());
+				}
+			}
+		}
+		finally{
+			pipelines.shutdownNow();
+		}
+
+		return reports;
+	}
+
+	//	Undo the done steps, last stage first
+	private void rollback(List<List<Step>> done, Report report) throws InterruptedException{
+		report.rolledBack = true;
+
+		for(int i = done.size() - 1; i >= 0; i--){
+			List<Step> stage = done.get(i);
+
+			if(stage.isEmpty()){
+				continue;
+			}
+
+			for(BatchResult<Step> result: batchExecutor.execute(stage, UNDO, parallelism)){
+				Step step = result.getItem();
+				report.rollbackSteps.add(new StepResult(step.kind, step.name, result, step.elapsedNanos));
+			}
+		}
+	}
+
+	//	-------------------
+	//	Steps
+	//	-------------------
+
+	//	One call of the pipeline and the call undoing it
+	private static abstract class Step {
+		final String kind;
+		final String name;
+		final String partitionKey;
+		//	of the last apply or undo
+		volatile long elapsedNanos;
+		//	apply() returned, even after its result timed out
+		volatile boolean applied;
+		//	apply() failed without an answer, the controller may still do it
+		volatile boolean uncertain;
+
+		Step(String kind, String name, String partitionKey){
+			this.kind = kind;
+			this.name = name;
+			this.partitionKey = partitionKey;
+		}
+
+		abstract String apply() throws Exception;
+
+		abstract String undo() throws Exception;
+	}
+
+	private final static BatchExecutor.Operation<Step> APPLY = new TimedOperation(){
+		@Override
+		String call(Step step) throws Exception {
+			try{
+				String response = step.apply();
+
+				step.applied = true;
+				return response;
+			}
+			catch(IOException e){
+				step.uncertain = !isNotSent(e);
+				throw e;
+			}
+		}
+	};
+
+	//	only run on the steps applied, once their stage's calls are over
+	private final static BatchExecutor.Operation<Step> UNDO = new TimedOperation(){
+		@Override
+		String call(Step step) throws Exception {
+			try{
+				return step.undo();
+			}
+			catch(RestException e){
+				//	already gone, removed by someone else; when the apply got no answer, it may
+				//	only reach the controller later, so it is not known to be undone
+				if(e.getStatusCode() == 404 && step.applied){
+					return null;
+				}
+				throw e;
+			}
+		}
+	};
+
+	//	the request cannot have reached the controller
+	private static boolean isNotSent(IOException e){
+		return e instanceof ConnectException || e instanceof ConnectTimeoutException
+				|| e instanceof CircuitOpenException || e instanceof ConcurrencyLimitException;
+	}
+
+	private static abstract class TimedOperation implements BatchExecutor.Operation<Step> {
+		@Override
+		public String partitionKey(Step step) {
+			return step.partitionKey;
+		}
+
+		@Override
+		public String apply(Step step) throws Exception {
+			long start = System.nanoTime();
+
+			try{
+				return call(step);
+			}
+			finally{
+				step.elapsedNanos = System.nanoTime() - start;
+			}
+		}
+
+		abstract String call(Step step) throws Exception;
+	}
+
+	private Step containerStep(final ContainerSpec spec){
+		return new Step(CONTAINER, spec.getName(), CONTAINER){
+			@Override
+			String apply() throws Exception {
+				return client.createContainer(spec.getName(), spec.getStaticVlan());
+			}
+
+			@Override
+			String undo() throws Exception {
+				return client.removeContainer(spec.getName());
+			}
+		};
+	}
+
+	private Step nodeConnectorsStep(final String containerName, final List<String> nodeConnectors){
+		return new Step(NODE_CONNECTORS, nodeConnectors.size() + " node connectors", NODE_CONNECTORS){
+			@Override
+			String apply() throws Exception {
+				return client.addNodeConnectors(containerName, nodeConnectors);
+			}
+
+			@Override
+			String undo() throws Exception {
+				return client.removeNodeConnectors(containerName, nodeConnectors);
+			}
+		};
+	}
+
+	private Step flowSpecStep(final String containerName, final String flowSpecName, final Map<String, String> paraMap){
+		return new Step(FLOW_SPEC, flowSpecName, FLOW_SPEC){
+			@Override
+			String apply() throws Exception {
+				//	createFlowSpec(...) sets the name in the map
+				return client.createFlowSpec(containerName, flowSpecName, new TreeMap<String, String>(paraMap));
+			}
+
+			@Override
+			String undo() throws Exception {
+				return client.removeFlowSpec(containerName, flowSpecName);
+			}
+		};
+	}
+
+	private Step subnetStep(final String containerName, final ContainerSpec.Subnet subnet){
+		return new Step(SUBNET, subnet.getName(), SUBNET){
+			@Override
+			String apply() throws Exception {
+				return client.addSubnet(containerName, subnet.getName(), subnet.getAddress(), subnet.getNodeConnectors());
+			}
+
+			@Override
+			String undo() throws Exception {
+				return client.removeSubnet(containerName, subnet.getName());
+			}
+		};
+	}
+
+	//	flows of the same node share one partition
+	private Step flowStep(final String containerName, final FlowConfig flow){
+		return new Step(FLOW, flow.getNodeType() + "|" + flow.getNodeId() + "/" + flow.getName(), FLOW + "|" + flow.getNodeType() + "|" + flow.getNodeId()){
+			@Override
+			String apply() throws Exception {
+				return client.addOrModifyFlowEntry(containerName, flow);
+			}
+
+			@Override
+			String undo() throws Exception {
+				return client.deleteFlowEntry(containerName, flow.getName(), flow.getNodeType(), flow.getNodeId());
+			}
+		};
+	}
+
+	//	-------------------
+	//	Reports
+	//	-------------------
+
+	//	Outcome and duration of one call
+	public static class StepResult {
+		private final String kind;
+		private final String name;
+		private final BatchResult<?> result;
+		private final long elapsedNanos;
+
+		private StepResult(String kind, String name, BatchResult<?> result, long elapsedNanos){
+			this.kind = kind;
+			this.name = name;
+			this.result = result;
+			this.elapsedNanos = elapsedNanos;
+		}
+
+		//	CONTAINER, NODE_CONNECTORS, FLOW_SPEC, SUBNET or FLOW
+		public String getKind(){
+			return kind;
+		}
+
+		public String getName(){
+			return name;
+		}
+
+		public boolean isSuccess(){
+			return result.isSuccess();
+		}
+
+		//	status code, error body and exception of a failed call
+		public BatchResult<?> getResult(){
+			return result;
+		}
+
+		//	0 for a call that never started before the deadline
+		public double getElapsedMillis(){
+			return elapsedNanos / 1e6;
+		}
+
+		@Override
+		public String toString() {
+			String outcome = result.isSuccess() ? "ok" : result.isTimedOut() ? "timed out" : "failed(" + result.getStatusCode() + ") " + result.getErrorBody();
+			return kind + " " + name + ": " + outcome + " in " + String.format("%.1f", getElapsedMillis()) + " ms";
+		}
+	}
+
+	//	Outcome of the provisioning of one container
+	public static class Report {
+		private final String containerName;
+		private final List<StepResult> steps = new ArrayList<StepResult>();
+		private final List<StepResult> rollbackSteps = new ArrayList<StepResult>();
+		private boolean rolledBack;
+		private long elapsedNanos;
+
+		private Report(String containerName){
+			this.containerName = containerName;
+		}
+
+		public String getContainerName(){
+			return containerName;
+		}
+
+		//	all calls succeeded, the container is in place
+		public boolean isSuccess(){
+			return !rolledBack;
+		}
+
+		public boolean isRolledBack(){
+			return rolledBack;
+		}
+
+		//	calls of the pipeline, in stage order
+		public List<StepResult> getSteps(){
+			return Collections.unmodifiableList(steps);
+		}
+
+		//	calls undoing the pipeline, in the order they were made
+		public List<StepResult> getRollbackSteps(){
+			return Collections.unmodifiableList(rollbackSteps);
+		}
+
+		public List<StepResult> getFailures(){
+			return failures(steps);
+		}
+
+		//	what could not be undone, and is left on the controller
+		public List<StepResult> getRollbackFailures(){
+			return failures(rollbackSteps);
+		}
+
+		//	time spent in the calls of one kind, summed over the calls
+		public double getElapsedMillis(String kind){
+			double millis = 0;
+
+			for(StepResult step: steps){
+				if(step.getKind().equals(kind)){
+					millis += step.getElapsedMillis();
+				}
+			}
+			return millis;
+		}
+
+		//	wall clock time of the whole provisioning, rollback included
+		public double getElapsedMillis(){
+			return elapsedNanos / 1e6;
+		}
+
+		private static List<StepResult> failures(List<StepResult> results){
+			List<StepResult> failures = new ArrayList<StepResult>();
+
+			for(StepResult step: results){
+				if(!step.isSuccess()){
+					failures.add(step);
+				}
+			}
+			return failures;
+		}
+
+		@Override
+		public String toString() {
+			return containerName + ": " + (rolledBack ? "rolled back, " + getFailures().size() + " failed, " + getRollbackFailures().size() + " not undone" : "provisioned")
+					+ ", " + steps.size() + " calls in " + String.format("%.1f", getElapsedMillis()) + " ms";
+		}
+	}
+}
@@ -0,0 +1,143 @@
+package jOpendaylight;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+//	Everything a tenant container is made of: the container itself, its node connectors,
+//	flowspecs, subnets and static flows. Provisioned in one go by a ContainerProvisioner.
+public class ContainerSpec {
+	private final String name;
+	private final int staticVlan;
+	private final List<String> nodeConnectors;
+	private final Map<String, Map<String, String>> flowSpecs;
+	private final List<Subnet> subnets;
+	private final List<FlowConfig> flows;
+
+	private ContainerSpec(String name, int staticVlan, List<String> nodeConnectors, Map<String, Map<String, String>> flowSpecs, List<Subnet> subnets, List<FlowConfig> flows){
+		this.name = name;
+		this.staticVlan = staticVlan;
+		this.nodeConnectors = nodeConnectors;
+		this.flowSpecs = flowSpecs;
+		this.subnets = subnets;
+		this.flows = flows;
+	}
+
+	public String getName(){
+		return name;
+	}
+
+	//	-1 if none
+	public int getStaticVlan(){
+		return staticVlan;
+	}
+
+	//	use SimpleNodeConnector::toString() to generate them
+	public List<String> getNodeConnectors(){
+		return nodeConnectors;
+	}
+
+	//	flowspec name -> parameters, as given to OpendaylightClient.createFlowSpec(...)
+	public Map<String, Map<String, String>> getFlowSpecs(){
+		return flowSpecs;
+	}
+
+	public List<Subnet> getSubnets(){
+		return subnets;
+	}
+
+	public List<FlowConfig> getFlows(){
+		return flows;
+	}
+
+	@Override
+	public String toString() {
+		return name + ": " + nodeConnectors.size() + " node connectors, " + flowSpecs.size() + " flowspecs, "
+				+ subnets.size() + " subnets, " + flows.size() + " flows";
+	}
+
+	//	One subnet of the container, see OpendaylightClient.addSubnet(...)
+	public static class Subnet {
+		private final String name;
+		private final String address;
+		private final List<String> nodeConnectors;
+
+		public Subnet(String name, String address, List<String> nodeConnectors){
+			this.name = name;
+			this.address = address;
+			this.nodeConnectors = nodeConnectors;
+		}
+
+		public String getName(){
+			return name;
+		}
+
+		//	e.g. "10.0.1.254/24"
+		public String getAddress(){
+			return address;
+		}
+
+		//	null if none
+		public List<String> getNodeConnectors(){
+			return nodeConnectors;
+		}
+
+		@Override
+		public String toString() {
+			return name + " " + address;
+		}
+	}
+
+	public static class Builder {
+		private String name;
+		private int staticVlan = -1;
+		private List<String> nodeConnectors = new ArrayList<String>();
+		private Map<String, Map<String, String>> flowSpecs = new LinkedHashMap<String, Map<String, String>>();
+		private List<Subnet> subnets = new ArrayList<Subnet>();
+		private List<FlowConfig> flows = new ArrayList<FlowConfig>();
+
+		public Builder(String name){
+			this.name = name;
+		}
+
+		//	between 1 and 4095
+		public Builder staticVlan(int staticVlan){
+			this.staticVlan = staticVlan;
+			return this;
+		}
+
+		public Builder nodeConnector(String nodeConnector){
+			nodeConnectors.add(nodeConnector);
+			return this;
+		}
+
+		public Builder nodeConnectors(List<String> nodeConnectors){
+			this.nodeConnectors.addAll(nodeConnectors);
+			return this;
+		}
+
+		public Builder flowSpec(String flowSpecName, Map<String, String> paraMap){
+			flowSpecs.put(flowSpecName, new TreeMap<String, String>(paraMap));
+			return this;
+		}
+
+		public Builder subnet(String subnetName, String subnetAddress, List<String> nodeConnectors){
+			subnets.add(new Subnet(subnetName, subnetAddress, nodeConnectors));
+			return this;
+		}
+
+		public Builder flow(FlowConfig flow){
+			flows.add(flow);
+			return this;
+		}
+
+		public ContainerSpec build(){
+			return new ContainerSpec(name, staticVlan, Collections.unmodifiableList(new ArrayList<String>(nodeConnectors)),
+					Collections.unmodifiableMap(new LinkedHashMap<String, Map<String, String>>(flowSpecs)),
+					Collections.unmodifiableList(new ArrayList<Subnet>(subnets)), Collections.unmodifiableList(new ArrayList<FlowConfig>(flows)));
+		}
+	}
+}
@@ -0,0 +1,21 @@
+package jOpendaylight;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//	Names the worker threads of our executors and keeps them from blocking JVM exit
+class DaemonThreadFactory implements ThreadFactory {
+	private final String prefix;
+	private final AtomicInteger count = new AtomicInteger();
+	
+	DaemonThreadFactory(String prefix){
+		this.prefix = prefix;
+	}
+	
+	@Override
+	public Thread newThread(Runnable r) {
+		Thread thread = new Thread(r, prefix + "-" + count.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	}
+}
@@ -0,0 +1,85 @@
+package jOpendaylight;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Point in time by which a call, or a whole batch of calls, must be done.
+ * A RestTransport applies the time left to its pool wait, connect and read timeouts,
+ * and aborts a request still running when it expires (see OpendaylightClient.withDeadline(...)).
+ * A deadline can also be bound to the current thread, every call made by the thread
+ * until restore(...) then uses it; BatchExecutor does so for the operations of a batch.
+ */
+public final class Deadline {
+	private final static ThreadLocal<Deadline> current = new ThreadLocal<Deadline>();
+
+	private final long deadlineNanos;
+
+	private Deadline(long deadlineNanos){
+		this.deadlineNanos = deadlineNanos;
+	}
+
+	public static Deadline after(long millis){
+		return after(millis, TimeUnit.MILLISECONDS);
+	}
+
+	public static Deadline after(long duration, TimeUnit unit){
+		return new Deadline(System.nanoTime() + unit.toNanos(duration));
+	}
+
+	//	negative once expired
+	public long remainingNanos(){
+		return deadlineNanos - System.nanoTime();
+	}
+
+	public long remainingMillis(){
+		return TimeUnit.NANOSECONDS.toMillis(remainingNanos());
+	}
+
+	public boolean isExpired(){
+		return remainingNanos() <= 0;
+	}
+
+	//	Throw if expired, what names the call for the message
+	public void check(String what) throws DeadlineExceededException{
+		if(isExpired()){
+			throw new DeadlineExceededException("Deadline exceeded before " + what);
+		}
+	}
+
+	//	the earlier of this deadline and another one, which may be null
+	public Deadline earliest(Deadline other){
+		return (other == null || deadlineNanos - other.deadlineNanos <= 0) ? this : other;
+	}
+
+	//	-------------------
+	//	Thread binding
+	//	-------------------
+
+	//	deadline bound to the current thread, null if none
+	public static Deadline current(){
+		return current.get();
+	}
+
+	//	Bind this deadline to the current thread, or keep the bound one if it is earlier
+	//	returns what to hand back to restore(...)
+	public Deadline bind(){
+		Deadline previous = current.get();
+
+		current.set(earliest(previous));
+		return previous;
+	}
+
+	public static void restore(Deadline previous){
+		if(previous == null){
+			current.remove();
+		}
+		else{
+			current.set(previous);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "Deadline in " + remainingMillis() + " ms";
+	}
+}
@@ -0,0 +1,18 @@
+package jOpendaylight;
+
+import java.io.InterruptedIOException;
+
+//	Thrown when a call runs out of its Deadline, before sending or while waiting for the controller.
+//	An InterruptedIOException like the socket timeouts, so existing IOException handling applies.
+public class DeadlineExceededException extends InterruptedIOException {
+	private static final long serialVersionUID = 1L;
+
+	public DeadlineExceededException(String message){
+		super(message);
+	}
+
+	public DeadlineExceededException(String message, Throwable cause){
+		super(message);
+		initCause(cause);
+	}
+}
@@ -0,0 +1,187 @@
+package jOpendaylight;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+//	Calls, errors, bytes and latency of one logical endpoint, e.g. "PUT flowprogrammer/node".
+//	Recording only touches striped counters and the lock-free histogram.
+public class EndpointMetrics implements EndpointMetricsMXBean {
+	private final String endpoint;
+	private final StripedCounter calls;
+	private final StripedCounter errors;
+	private final StripedCounter bytesIn;
+	private final StripedCounter bytesOut;
+	private final ConcurrentHashMap<Integer, AtomicLong> errorsByStatus;
+	private final LatencyHistogram latency;
+
+	EndpointMetrics(String endpoint){
+		this.endpoint = endpoint;
+		this.calls = new StripedCounter();
+		this.errors = new StripedCounter();
+		this.bytesIn = new StripedCounter();
+		this.bytesOut = new StripedCounter();
+		this.errorsByStatus = new ConcurrentHashMap<Integer, AtomicLong>();
+		this.latency = new LatencyHistogram();
+	}
+
+	//	statusCode 0 means no response was received
+	void record(long nanos, int statusCode, long requestBytes, long responseBytes){
+		calls.increment();
+		latency.record(nanos / 1000);
+
+		if(requestBytes > 0){
+			bytesOut.add(requestBytes);
+		}
+		if(responseBytes > 0){
+			bytesIn.add(responseBytes);
+		}
+
+		if(statusCode == 0 || statusCode >= 400){
+			AtomicLong count = errorsByStatus.get(statusCode);
+
+			if(count == null){
+				AtomicLong newCount = new AtomicLong();
+				count = errorsByStatus.putIfAbsent(statusCode, newCount);
+				if(count == null){
+					count = newCount;
+				}
+			}
+			count.incrementAndGet();
+			errors.increment();
+		}
+	}
+
+	public Snapshot snapshot(){
+		Map<Integer, Long> statuses = new TreeMap<Integer, Long>();
+
+		for(Map.Entry<Integer, AtomicLong> entry: errorsByStatus.entrySet()){
+			statuses.put(entry.getKey(), entry.getValue().get());
+		}
+
+		return new Snapshot(endpoint, calls.sum(), errors.sum(), Collections.unmodifiableMap(statuses),
+				bytesIn.sum(), bytesOut.sum(), latency.snapshot());
+	}
+
+	//	-------------------
+	//	MXBean attributes
+	//	-------------------
+
+	@Override
+	public String getEndpoint() {
+		return endpoint;
+	}
+
+	@Override
+	public long getCalls() {
+		return calls.sum();
+	}
+
+	@Override
+	public long getErrors() {
+		return errors.sum();
+	}
+
+	@Override
+	public Map<String, Long> getErrorsByStatus() {
+		Map<String, Long> result = new TreeMap<String, Long>();
+
+		for(Map.Entry<Integer, AtomicLong> entry: errorsByStatus.entrySet()){
+			result.put(entry.getKey().toString(), entry.getValue().get());
+		}
+
+		return result;
+	}
+
+	@Override
+	public long getBytesIn() {
+		return bytesIn.sum();
+	}
+
+	@Override
+	public long getBytesOut() {
+		return bytesOut.sum();
+	}
+
+	@Override
+	public double getMeanMicros() {
+		return latency.snapshot().getMean();
+	}
+
+	@Override
+	public long getP50Micros() {
+		return latency.snapshot().getPercentile(0.5);
+	}
+
+	@Override
+	public long getP99Micros() {
+		return latency.snapshot().getPercentile(0.99);
+	}
+
+	@Override
+	public long getP999Micros() {
+		return latency.snapshot().getPercentile(0.999);
+	}
+
+	@Override
+	public long getMaxMicros() {
+		return latency.snapshot().getMax();
+	}
+
+	//	Values of one endpoint at one point in time
+	public static class Snapshot {
+		private final String endpoint;
+		private final long calls;
+		private final long errors;
+		private final Map<Integer, Long> errorsByStatus;
+		private final long bytesIn;
+		private final long bytesOut;
+		private final LatencyHistogram.Snapshot latency;
+
+		Snapshot(String endpoint, long calls, long errors, Map<Integer, Long> errorsByStatus, long bytesIn, long bytesOut, LatencyHistogram.Snapshot latency){
+			this.endpoint = endpoint;
+			this.calls = calls;
+			this.errors = errors;
+			this.errorsByStatus = errorsByStatus;
+			this.bytesIn = bytesIn;
+			this.bytesOut = bytesOut;
+			this.latency = latency;
+		}
+
+		public String getEndpoint(){
+			return endpoint;
+		}
+
+		public long getCalls(){
+			return calls;
+		}
+
+		public long getErrors(){
+			return errors;
+		}
+
+		//	HTTP status -> count, 0 for calls that got no response
+		public Map<Integer, Long> getErrorsByStatus(){
+			return errorsByStatus;
+		}
+
+		public long getBytesIn(){
+			return bytesIn;
+		}
+
+		public long getBytesOut(){
+			return bytesOut;
+		}
+
+		public LatencyHistogram.Snapshot getLatency(){
+			return latency;
+		}
+
+		@Override
+		public String toString() {
+			return endpoint + ": calls=" + calls + " errors=" + errors + errorsByStatus + " in=" + bytesIn + "B out=" + bytesOut + "B " + latency;
+		}
+	}
+}
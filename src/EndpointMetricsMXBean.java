@@ -0,0 +1,29 @@
+package jOpendaylight;
+
+import java.util.Map;
+
+//	JMX view of the metrics of one endpoint, see RestMetrics.registerMBeans(...)
+public interface EndpointMetricsMXBean {
+	public String getEndpoint();
+	
+	public long getCalls();
+	
+	public long getErrors();
+	
+	//	HTTP status -> count, "0" for calls that got no response
+	public Map<String, Long> getErrorsByStatus();
+	
+	public long getBytesIn();
+	
+	public long getBytesOut();
+	
+	public double getMeanMicros();
+	
+	public long getP50Micros();
+	
+	public long getP99Micros();
+	
+	public long getP999Micros();
+	
+	public long getMaxMicros();
+}
@@ -0,0 +1,17 @@
+package jOpendaylight;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+//	Reads a successful response body directly from the connection stream.
+//	The stream is closed (and the connection given back to the pool) by RestTransport
+//	after read(...) returns, so implementations should not keep a reference to it.
+public interface EntityReader<T> {
+	public T read(InputStream content) throws IOException;
+
+	//	Marks a reader which keeps no state and has no side effect, so it may read the bodies
+	//	of the same request more than once, concurrently: a ResilientTransport streams the body
+	//	of a retried or hedged GET to such a reader, and buffers it for the others
+	public interface Replayable {
+	}
+}
@@ -0,0 +1,281 @@
+package jOpendaylight;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/*
+ * Typed, immutable static flow configuration for the flowprogrammer northbound.
+ * Serialized by FlowConfigSerializer straight to the JSON the controller expects.
+ * A flow can be used as a template: the with...(...) methods return a copy
+ * that shares every unchanged part with the original.
+ * Two flows are equal when every field is; sameDefinition(...) compares
+ * everything but installInHw through a hash computed once at construction.
+ */
+@JsonSerialize(using = FlowConfigSerializer.class)
+public class FlowConfig {
+	private final static String TYPE_OPENFLOW = "OF";
+	
+	private final String name;
+	private final String nodeType;
+	private final String nodeId;
+	private final String installInHw;
+	private final String priority;
+	private final String cookie;
+	private final String idleTimeout;
+	private final String hardTimeout;
+	private final Match match;
+	private final List<Action> actions;
+	private final int definitionHash;
+	
+	private FlowConfig(String name, String nodeType, String nodeId, String installInHw, String priority, 
+			String cookie, String idleTimeout, String hardTimeout, Match match, List<Action> actions){
+		this.name = name;
+		this.nodeType = nodeType;
+		this.nodeId = nodeId;
+		this.installInHw = installInHw;
+		this.priority = priority;
+		this.cookie = cookie;
+		this.idleTimeout = idleTimeout;
+		this.hardTimeout = hardTimeout;
+		this.match = match;
+		this.actions = actions;
+		this.definitionHash = definitionHash();
+	}
+	
+	//	Flow of a flowprogrammer response, e.g. one "flowConfig" element of getAllStaticFlowEntries(...)
+	public static FlowConfig fromJson(JsonNode flowConfig){
+		String[] values = new String[Match.FIELD_NAMES.length];
+		List<Action> actions = new ArrayList<Action>();
+		
+		for(int i = 0; i < values.length; i++){
+			values[i] = JsonUtils.text(flowConfig, Match.FIELD_NAMES[i]);
+		}
+		for(JsonNode action: JsonUtils.elements(flowConfig, "actions")){
+			actions.add(Action.parse(action.asText()));
+		}
+		
+		return new FlowConfig(JsonUtils.text(flowConfig, "name"), JsonUtils.text(flowConfig, "node", "type"), JsonUtils.text(flowConfig, "node", "id"), 
+				JsonUtils.text(flowConfig, "installInHw"), JsonUtils.text(flowConfig, "priority"), JsonUtils.text(flowConfig, "cookie"), 
+				JsonUtils.text(flowConfig, "idleTimeout"), JsonUtils.text(flowConfig, "hardTimeout"), 
+				Match.fromValues(values), Collections.unmodifiableList(actions));
+	}
+	
+	public String getName(){
+		return name;
+	}
+	
+	public String getNodeType(){
+		return nodeType;
+	}
+	
+	public String getNodeId(){
+		return nodeId;
+	}
+	
+	public String getInstallInHw(){
+		return installInHw;
+	}
+	
+	public String getPriority(){
+		return priority;
+	}
+	
+	public String getCookie(){
+		return cookie;
+	}
+	
+	public String getIdleTimeout(){
+		return idleTimeout;
+	}
+	
+	public String getHardTimeout(){
+		return hardTimeout;
+	}
+	
+	public Match getMatch(){
+		return match;
+	}
+	
+	//	unmodifiable
+	public List<Action> getActions(){
+		return actions;
+	}
+	
+	//	the controller installs a flow unless installInHw is "false"
+	public boolean isInstalledInHw(){
+		return !"false".equalsIgnoreCase(installInHw);
+	}
+	
+	//	true if both flows program the same entry, whether installed in hardware or not
+	public boolean sameDefinition(FlowConfig other){
+		return definitionHash == other.definitionHash && equal(name, other.name) && equal(nodeType, other.nodeType) 
+				&& equal(nodeId, other.nodeId) && equal(priority, other.priority) && equal(cookie, other.cookie) 
+				&& equal(idleTimeout, other.idleTimeout) && equal(hardTimeout, other.hardTimeout) 
+				&& match.equals(other.match) && actions.equals(other.actions);
+	}
+	
+	private int definitionHash(){
+		int result = match.hashCode() * 31 + actions.hashCode();
+		
+		for(String value: new String[]{name, nodeType, nodeId, priority, cookie, idleTimeout, hardTimeout}){
+			result = result * 31 + ((value == null) ? 0 : value.hashCode());
+		}
+		
+		return result;
+	}
+	
+	private static boolean equal(String a, String b){
+		return (a == null) ? b == null : a.equals(b);
+	}
+	
+	//	-------------------------
+	//		template copies
+	//	-------------------------
+	
+	public FlowConfig withName(String name){
+		return new FlowConfig(name, nodeType, nodeId, installInHw, priority, cookie, idleTimeout, hardTimeout, match, actions);
+	}
+	
+	public FlowConfig withNode(String nodeType, String nodeId){
+		return new FlowConfig(name, nodeType, nodeId, installInHw, priority, cookie, idleTimeout, hardTimeout, match, actions);
+	}
+	
+	public FlowConfig withMatch(Match match){
+		return new FlowConfig(name, nodeType, nodeId, installInHw, priority, cookie, idleTimeout, hardTimeout, match, actions);
+	}
+	
+	public FlowConfig withNwSrc(String nwSrc){
+		return withMatch(match.withNwSrc(nwSrc));
+	}
+	
+	public FlowConfig withNwDst(String nwDst){
+		return withMatch(match.withNwDst(nwDst));
+	}
+	
+	//	Replace every OUTPUT action by a single one to the given port, other actions are kept
+	public FlowConfig withOutputPort(int outputPort){
+		List<Action> newActions = new ArrayList<Action>(actions.size());
+		boolean replaced = false;
+		
+		for(Action action: actions){
+			if(Action.OUTPUT.equals(action.getType())){
+				if(!replaced){
+					newActions.add(Action.output(outputPort));
+					replaced = true;
+				}
+			}
+			else{
+				newActions.add(action);
+			}
+		}
+		
+		if(!replaced){
+			newActions.add(Action.output(outputPort));
+		}
+		
+		return new FlowConfig(name, nodeType, nodeId, installInHw, priority, cookie, idleTimeout, hardTimeout, match, Collections.unmodifiableList(newActions));
+	}
+	
+	public Builder toBuilder(){
+		Builder builder = new Builder(name, nodeType, nodeId);
+		
+		builder.installInHw = installInHw;
+		builder.priority = priority;
+		builder.cookie = cookie;
+		builder.idleTimeout = idleTimeout;
+		builder.hardTimeout = hardTimeout;
+		builder.match = match;
+		builder.actions.addAll(actions);
+		
+		return builder;
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		return (obj instanceof FlowConfig) && sameDefinition((FlowConfig) obj) && isInstalledInHw() == ((FlowConfig) obj).isInstalledInHw();
+	}
+	
+	@Override
+	public int hashCode() {
+		return definitionHash;
+	}
+	
+	@Override
+	public String toString() {
+		return nodeType + "|" + nodeId + "/" + name + " match[" + match + "] actions" + actions;
+	}
+	
+	public static class Builder {
+		private String name;
+		private String nodeType;
+		private String nodeId;
+		private String installInHw;
+		private String priority;
+		private String cookie;
+		private String idleTimeout;
+		private String hardTimeout;
+		private Match match = Match.empty();
+		private List<Action> actions = new ArrayList<Action>();
+		
+		//	builder of a flow on an OpenFlow node
+		public Builder(String name, String nodeId){
+			this(name, TYPE_OPENFLOW, nodeId);
+		}
+		
+		public Builder(String name, String nodeType, String nodeId){
+			this.name = name;
+			this.nodeType = nodeType;
+			this.nodeId = nodeId;
+		}
+		
+		public Builder installInHw(boolean installInHw){
+			this.installInHw = Boolean.toString(installInHw);
+			return this;
+		}
+		
+		public Builder priority(int priority){
+			this.priority = Integer.toString(priority);
+			return this;
+		}
+		
+		public Builder cookie(long cookie){
+			this.cookie = Long.toString(cookie);
+			return this;
+		}
+		
+		public Builder idleTimeout(int idleTimeout){
+			this.idleTimeout = Integer.toString(idleTimeout);
+			return this;
+		}
+		
+		public Builder hardTimeout(int hardTimeout){
+			this.hardTimeout = Integer.toString(hardTimeout);
+			return this;
+		}
+		
+		public Builder match(Match match){
+			this.match = match;
+			return this;
+		}
+		
+		public Builder action(Action action){
+			actions.add(action);
+			return this;
+		}
+		
+		public Builder actions(List<Action> actions){
+			this.actions.clear();
+			this.actions.addAll(actions);
+			return this;
+		}
+		
+		public FlowConfig build(){
+			return new FlowConfig(name, nodeType, nodeId, installInHw, priority, cookie, idleTimeout, hardTimeout, 
+					match, Collections.unmodifiableList(new ArrayList<Action>(actions)));
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package jOpendaylight;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+//	Writes a FlowConfig field by field with the generator,
+//	no intermediate Map and no reflection.
+public class FlowConfigSerializer extends JsonSerializer<FlowConfig> {
+	@Override
+	public void serialize(FlowConfig flow, JsonGenerator generator, SerializerProvider provider) throws IOException, JsonProcessingException {
+		Match match = flow.getMatch();
+		
+		generator.writeStartObject();
+		generator.writeStringField("name", flow.getName());
+		
+		generator.writeObjectFieldStart("node");
+		generator.writeStringField("id", flow.getNodeId());
+		generator.writeStringField("type", flow.getNodeType());
+		generator.writeEndObject();
+		
+		writeOptionalField(generator, "installInHw", flow.getInstallInHw());
+		writeOptionalField(generator, "priority", flow.getPriority());
+		writeOptionalField(generator, "cookie", flow.getCookie());
+		writeOptionalField(generator, "idleTimeout", flow.getIdleTimeout());
+		writeOptionalField(generator, "hardTimeout", flow.getHardTimeout());
+		
+		for(int i = 0; i < Match.FIELD_NAMES.length; i++){
+			writeOptionalField(generator, Match.FIELD_NAMES[i], match.get(i));
+		}
+		
+		generator.writeArrayFieldStart("actions");
+		for(Action action: flow.getActions()){
+			generator.writeString(action.toString());
+		}
+		generator.writeEndArray();
+		
+		generator.writeEndObject();
+	}
+	
+	private static void writeOptionalField(JsonGenerator generator, String fieldName, String value) throws IOException{
+		if(value != null){
+			generator.writeStringField(fieldName, value);
+		}
+	}
+}
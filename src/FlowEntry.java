@@ -0,0 +1,78 @@
+package jOpendaylight;
+
+import java.util.List;
+import java.util.Map;
+
+//	One static flow of a bulk flowprogrammer operation.
+//	Holds the same values as the arguments of OpendaylightClient.addOrModifyFlowEntry(...)
+public class FlowEntry {
+	private final static String TYPE_OPENFLOW = "OF";
+	
+	private String containerName;
+	private String name;
+	private String nodeType;
+	private String nodeId;
+	private List<String> actionList;
+	private Map<String, String> otherParaMap;
+	private FlowConfig flowConfig;
+	
+	//	constructor for delete and toggle on an OpenFlow node
+	public FlowEntry(String containerName, String name, String nodeId){
+		this(containerName, name, TYPE_OPENFLOW, nodeId, null, null);
+	}
+	
+	//	constructor for add or modify on an OpenFlow node
+	public FlowEntry(String containerName, String name, String nodeId, List<String> actionList, Map<String, String> otherParaMap){
+		this(containerName, name, TYPE_OPENFLOW, nodeId, actionList, otherParaMap);
+	}
+	
+	//	constructor for add or modify with a typed flow
+	public FlowEntry(String containerName, FlowConfig flowConfig){
+		this(containerName, flowConfig.getName(), flowConfig.getNodeType(), flowConfig.getNodeId(), null, null);
+		this.flowConfig = flowConfig;
+	}
+	
+	//	base constructor
+	public FlowEntry(String containerName, String name, String nodeType, String nodeId, List<String> actionList, Map<String, String> otherParaMap){
+		this.containerName = containerName;
+		this.name = name;
+		this.nodeType = nodeType;
+		this.nodeId = nodeId;
+		this.actionList = actionList;
+		this.otherParaMap = otherParaMap;
+	}
+	
+	public String getContainerName(){
+		return containerName;
+	}
+	
+	public String getName(){
+		return name;
+	}
+	
+	public String getNodeType(){
+		return nodeType;
+	}
+	
+	public String getNodeId(){
+		return nodeId;
+	}
+	
+	public List<String> getActionList(){
+		return actionList;
+	}
+	
+	public Map<String, String> getOtherParaMap(){
+		return otherParaMap;
+	}
+	
+	//	null unless built from a FlowConfig
+	public FlowConfig getFlowConfig(){
+		return flowConfig;
+	}
+	
+	@Override
+	public String toString() {
+		return containerName + "/" + nodeType + "|" + nodeId + "/" + name;
+	}
+}
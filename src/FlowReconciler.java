@@ -0,0 +1,224 @@
+package jOpendaylight;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/*
+ * Brings the static flows of a container, or of one node, to a desired set.
+ * The current flows are read once, compared with the desired ones by FlowConfig.sameDefinition(...),
+ * and only the differences are sent through a BulkFlowProgrammer:
+ * a DELETE for each extra flow, a PUT for each missing or changed flow,
+ * and a toggle for each flow that only differs by installInHw.
+ */
+public class FlowReconciler {
+	private OpendaylightClient client;
+	private BulkFlowProgrammer programmer;
+
+	//	constructor with default threads and per node parallelism
+	public FlowReconciler(OpendaylightClient client){
+		this(client, new BulkFlowProgrammer(client));
+	}
+
+	//	constructor with its own executor, sized as told in BatchExecutor
+	public FlowReconciler(OpendaylightClient client, int threads, int parallelismPerNode){
+		this(client, new BulkFlowProgrammer(client, threads, parallelismPerNode));
+	}
+
+	//	constructor on an executor of the caller (see BatchExecutor)
+	public FlowReconciler(OpendaylightClient client, ExecutorService executor, int parallelismPerNode){
+		this(client, new BulkFlowProgrammer(client, executor, parallelismPerNode));
+	}
+
+	//	base constructor
+	public FlowReconciler(OpendaylightClient client, BulkFlowProgrammer programmer){
+		this.client = client;
+		this.programmer = programmer;
+	}
+
+	public void shutdown(){
+		programmer.shutdown();
+	}
+
+	//	-------------------
+	//	Reconciliation
+	//	-------------------
+
+	//	Make the container hold exactly the desired flows, flows of other nodes included
+	public Result reconcile(String containerName, Collection<FlowConfig> desired) throws IOException, InterruptedException{
+		return apply(plan(containerName, client.getAllStaticFlowEntries(containerName), desired));
+	}
+
+	//	Make one node hold exactly the desired flows, the other nodes are left alone
+	public Result reconcile(String containerName, String nodeType, String nodeId, Collection<FlowConfig> desired) throws IOException, InterruptedException{
+		for(FlowConfig flow: desired){
+			if(!nodeType.equals(flow.getNodeType()) || !nodeId.equals(flow.getNodeId())){
+				throw new IllegalArgumentException("Flow " + flow.getName() + " is not on node " + nodeType + "|" + nodeId);
+			}
+		}
+
+		return apply(plan(containerName, client.getStaticFlowEntries(containerName, nodeType, nodeId), desired));
+	}
+
+	//	Changes turning the flows of a getAllStaticFlowEntries(...) or getStaticFlowEntries(...) response
+	//	into the desired ones, nothing is sent
+	public Plan plan(String containerName, JsonNode current, Collection<FlowConfig> desired){
+		List<JsonNode> currentFlows = JsonUtils.elements(current, "flowConfig");
+		Map<String, FlowConfig> installed = new HashMap<String, FlowConfig>(currentFlows.size() * 4 / 3 + 1);
+		Plan plan = new Plan(containerName);
+
+		for(JsonNode flowConfig: currentFlows){
+			FlowConfig flow = FlowConfig.fromJson(flowConfig);
+			installed.put(key(flow), flow);
+		}
+
+		for(FlowConfig flow: desired){
+			FlowConfig existing = installed.remove(key(flow));
+
+			if(existing == null || !existing.sameDefinition(flow)){
+				plan.puts.add(new FlowEntry(containerName, flow));
+			}
+			else if(existing.isInstalledInHw() != flow.isInstalledInHw()){
+				plan.toggles.add(new FlowEntry(containerName, flow.getName(), flow.getNodeType(), flow.getNodeId(), null, null));
+			}
+			else{
+				plan.unchanged++;
+			}
+		}
+
+		//	what is left is not wanted anymore
+		for(FlowConfig flow: installed.values()){
+			plan.deletes.add(new FlowEntry(containerName, flow.getName(), flow.getNodeType(), flow.getNodeId(), null, null));
+		}
+
+		return plan;
+	}
+
+	//	Send the changes of a plan: deletes first to free table space, then puts, then toggles
+	public Result apply(Plan plan) throws InterruptedException{
+		Result result = new Result(plan);
+
+		if(!plan.deletes.isEmpty()){
+			result.deleteResults = programmer.deleteFlowEntries(plan.deletes);
+		}
+		if(!plan.puts.isEmpty()){
+			result.putResults = programmer.addOrModifyFlowEntries(plan.puts);
+		}
+		if(!plan.toggles.isEmpty()){
+			result.toggleResults = programmer.toggleFlowEntries(plan.toggles);
+		}
+
+		return result;
+	}
+
+	private static String key(FlowConfig flow){
+		return flow.getNodeType() + "|" + flow.getNodeId() + "/" + flow.getName();
+	}
+
+	//	Changes needed to reach a desired flow set
+	public static class Plan {
+		private final String containerName;
+		private final List<FlowEntry> puts = new ArrayList<FlowEntry>();
+		private final List<FlowEntry> deletes = new ArrayList<FlowEntry>();
+		private final List<FlowEntry> toggles = new ArrayList<FlowEntry>();
+		private int unchanged;
+
+		private Plan(String containerName){
+			this.containerName = containerName;
+		}
+
+		public String getContainerName(){
+			return containerName;
+		}
+
+		//	missing or changed flows
+		public List<FlowEntry> getPuts(){
+			return Collections.unmodifiableList(puts);
+		}
+
+		//	flows not in the desired set
+		public List<FlowEntry> getDeletes(){
+			return Collections.unmodifiableList(deletes);
+		}
+
+		//	flows only differing by installInHw
+		public List<FlowEntry> getToggles(){
+			return Collections.unmodifiableList(toggles);
+		}
+
+		public int getUnchangedCount(){
+			return unchanged;
+		}
+
+		public int getChangeCount(){
+			return puts.size() + deletes.size() + toggles.size();
+		}
+
+		@Override
+		public String toString() {
+			return containerName + ": " + puts.size() + " puts, " + deletes.size() + " deletes, " + toggles.size() + " toggles, " + unchanged + " unchanged";
+		}
+	}
+
+	//	Outcome of each change of a plan
+	public static class Result {
+		private final Plan plan;
+		private List<BatchResult<FlowEntry>> putResults = Collections.emptyList();
+		private List<BatchResult<FlowEntry>> deleteResults = Collections.emptyList();
+		private List<BatchResult<FlowEntry>> toggleResults = Collections.emptyList();
+
+		private Result(Plan plan){
+			this.plan = plan;
+		}
+
+		public Plan getPlan(){
+			return plan;
+		}
+
+		public List<BatchResult<FlowEntry>> getPutResults(){
+			return putResults;
+		}
+
+		public List<BatchResult<FlowEntry>> getDeleteResults(){
+			return deleteResults;
+		}
+
+		public List<BatchResult<FlowEntry>> getToggleResults(){
+			return toggleResults;
+		}
+
+		public List<BatchResult<FlowEntry>> getFailures(){
+			List<BatchResult<FlowEntry>> failures = new ArrayList<BatchResult<FlowEntry>>();
+
+			addFailures(deleteResults, failures);
+			addFailures(putResults, failures);
+			addFailures(toggleResults, failures);
+
+			return failures;
+		}
+
+		private static void addFailures(List<BatchResult<FlowEntry>> results, List<BatchResult<FlowEntry>> failures){
+			for(BatchResult<FlowEntry> result: results){
+				if(!result.isSuccess()){
+					failures.add(result);
+				}
+			}
+		}
+
+		public boolean isSuccess(){
+			return getFailures().isEmpty();
+		}
+
+		@Override
+		public String toString() {
+			return plan + ", " + getFailures().size() + " failed";
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package jOpendaylight;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//	Counters of one installed flow, as reported by the statistics northbound.
+//	Decoded from the response stream by getFlowStatisticList(...), without a JsonNode tree.
+//	The match is kept as the type and value pairs the controller reports, actions are not kept.
+public class FlowStatistic {
+	private final static String[] noMatchFields = new String[0];
+	
+	String nodeType;
+	String nodeId;
+	int tableId;
+	int priority;
+	int idleTimeout;
+	int hardTimeout;
+	long cookie;
+	//	type, value, type, value...
+	String[] matchFields = noMatchFields;
+	long durationSeconds;
+	long durationNanoseconds;
+	long packetCount;
+	long byteCount;
+	
+	//	filled by StatisticsReader
+	FlowStatistic(){
+	}
+	
+	public String getNodeType(){
+		return nodeType;
+	}
+	
+	public String getNodeId(){
+		return nodeId;
+	}
+	
+	public int getTableId(){
+		return tableId;
+	}
+	
+	public int getPriority(){
+		return priority;
+	}
+	
+	public int getIdleTimeout(){
+		return idleTimeout;
+	}
+	
+	public int getHardTimeout(){
+		return hardTimeout;
+	}
+	
+	//	the "id" of the flow, which is its cookie
+	public long getCookie(){
+		return cookie;
+	}
+	
+	//	value of a match field, e.g. "NW_DST", null if the flow does not match on it
+	public String getMatchField(String type){
+		for(int i = 0; i < matchFields.length; i += 2){
+			if(matchFields[i].equals(type)){
+				return matchFields[i + 1];
+			}
+		}
+		return null;
+	}
+	
+	//	type -> value, in the order reported
+	public Map<String, String> getMatchFields(){
+		Map<String, String> result = new LinkedHashMap<String, String>();
+		
+		for(int i = 0; i < matchFields.length; i += 2){
+			result.put(matchFields[i], matchFields[i + 1]);
+		}
+		return result;
+	}
+	
+	public long getDurationSeconds(){
+		return durationSeconds;
+	}
+	
+	public long getDurationNanoseconds(){
+		return durationNanoseconds;
+	}
+	
+	public long getPacketCount(){
+		return packetCount;
+	}
+	
+	public long getByteCount(){
+		return byteCount;
+	}
+	
+	@Override
+	public String toString() {
+		return nodeType + "|" + nodeId + " table " + tableId + " priority " + priority + " match" + getMatchFields() 
+				+ " " + packetCount + "p/" + byteCount + "B";
+	}
+}
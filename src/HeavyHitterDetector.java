@@ -0,0 +1,586 @@
+package jOpendaylight;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Finds the top K flows by bytes (or packets) per interval, in constant memory
+ * whatever the number of flows, apart from the flows of the poll being read.
+ * - The delta of a flow is its counters minus those of the previous poll, kept in a
+ *   bounded store of fingerprints; a flow not in it (new, or evicted) is counted at its
+ *   rate since install over the interval.
+ * - Deltas go to Count-Min sketches, with conservative update, and the flows whose
+ *   estimate makes the top K are kept in a min-heap of K candidates.
+ * With a decay of 0 the top K is of the last interval only; with a decay in (0, 1)
+ * sketches and candidates are multiplied by it at each interval, so the top K is of an
+ * exponentially weighted history.
+ * poll() makes one interval of a container. To feed it otherwise, e.g. from a NodeFanOut
+ * listener, call startInterval() and then add() for each flow.
+ */
+public class HeavyHitterDetector {
+	public enum Metric {
+		BYTES, PACKETS
+	}
+
+	private final static int defaultK = 20;
+	private final static int defaultSketchWidth = 1 << 12;
+	private final static int defaultSketchDepth = 4;
+	private final static int defaultStoreCapacity = 1 << 16;
+
+	private OpendaylightClient client;
+	private int k;
+	private Metric metric;
+	private double decay;
+
+	private CountMinSketch byteSketch;
+	private CountMinSketch packetSketch;
+	private CounterStore store;
+	private TopK topK;
+
+	private long interval;
+	private long intervalStart;
+	//	seconds between the last two intervals, 0 before the second one
+	private double intervalSeconds;
+	private long fallbackCount;
+
+	//	constructor with the default top 20 by bytes of each interval
+	public HeavyHitterDetector(OpendaylightClient client){
+		this(client, defaultK, Metric.BYTES);
+	}
+
+	//	constructor with the default sketch and store sizes, no decay
+	public HeavyHitterDetector(OpendaylightClient client, int k, Metric metric){
+		this(client, k, metric, 0, defaultSketchWidth, defaultSketchDepth, defaultStoreCapacity);
+	}
+
+	//	base constructor
+	//	sketchWidth and storeCapacity are rounded up to powers of 2; memory is about
+	//	16 * sketchWidth * sketchDepth + 40 * storeCapacity bytes.
+	//	With storeCapacity about twice the number of flows, few of them fall back to their rate since install
+	public HeavyHitterDetector(OpendaylightClient client, int k, Metric metric, double decay, int sketchWidth, int sketchDepth, int storeCapacity){
+		if(k < 1 || decay < 0 || decay >= 1 || sketchWidth < 1 || sketchDepth < 1 || storeCapacity < CounterStore.WAYS){
+			throw new IllegalArgumentException("Invalid heavy hitter parameters");
+		}
+
+		this.client = client;
+		this.k = k;
+		this.metric = metric;
+		this.decay = decay;
+		this.byteSketch = new CountMinSketch(sketchWidth, sketchDepth);
+		this.packetSketch = new CountMinSketch(sketchWidth, sketchDepth);
+		this.store = new CounterStore(storeCapacity);
+		this.topK = new TopK(k);
+	}
+
+	//	-------------------
+	//	Intervals
+	//	-------------------
+
+	//	Poll the flow statistics of a container as one interval, returns the number of flows.
+	//	The response is decoded while it is read, into the fingerprints and counters of its
+	//	flows; the interval is only started, and the flows added, once it was read in full:
+	//	a failed poll leaves the detector as it was, and a retried or hedged read starts over
+	public int poll(String containerName) throws IOException{
+		PolledFlows polled = client.getFlowStatistics(containerName, new PollReader());
+
+		synchronized(this){
+			startInterval();
+			for(int i = 0; i < polled.size; i++){
+				add(polled.flows[i], polled.fingerprints[i]);
+			}
+		}
+		return polled.size;
+	}
+
+	//	Start an interval: the deltas added from now on are ranked together
+	public synchronized void startInterval(){
+		long now = System.nanoTime();
+
+		if(interval > 0){
+			intervalSeconds = (now - intervalStart) / 1e9;
+		}
+		intervalStart = now;
+		interval++;
+
+		byteSketch.decay(decay);
+		packetSketch.decay(decay);
+		topK.decay(decay);
+	}
+
+	//	Add the counters of a flow to the current interval
+	public synchronized void add(FlowStatistic flow){
+		add(flow, fingerprint(flow));
+	}
+
+	//	base method
+	private void add(FlowStatistic flow, long fingerprint){
+		long duration = flow.getDurationSeconds() * 1000000000L + flow.getDurationNanoseconds();
+		long byteDelta;
+		long packetDelta;
+		int slot = store.find(fingerprint);
+
+		if(slot >= 0 && flow.getByteCount() >= store.bytes[slot] && flow.getPacketCount() >= store.packets[slot] && duration >= store.durations[slot]){
+			byteDelta = flow.getByteCount() - store.bytes[slot];
+			packetDelta = flow.getPacketCount() - store.packets[slot];
+		}
+		else{
+			//	not polled before, evicted, or reinstalled: rate since install over the interval
+			double share = (intervalSeconds <= 0 || duration <= intervalSeconds * 1e9) ? 1 : intervalSeconds * 1e9 / duration;
+
+			byteDelta = (long) (flow.getByteCount() * share);
+			packetDelta = (long) (flow.getPacketCount() * share);
+			fallbackCount++;
+		}
+
+		if(slot < 0){
+			slot = store.insert(fingerprint, interval);
+		}
+		if(slot >= 0){
+			store.bytes[slot] = flow.getByteCount();
+			store.packets[slot] = flow.getPacketCount();
+			store.durations[slot] = duration;
+			store.seen[slot] = interval;
+		}
+
+		long bytes = byteSketch.add(fingerprint, byteDelta);
+		long packets = packetSketch.add(fingerprint, packetDelta);
+		topK.offer(fingerprint, flow, bytes, packets, byteDelta, packetDelta, interval, (metric == Metric.BYTES) ? bytes : packets);
+	}
+
+	//	-------------------
+	//	Poll
+	//	-------------------
+
+	//	The flows of one response, with their fingerprints
+	private static class PolledFlows implements StatisticsReader.Sink<FlowStatistic> {
+		FlowStatistic[] flows = new FlowStatistic[256];
+		long[] fingerprints = new long[256];
+		int size;
+
+		@Override
+		public void accept(FlowStatistic flow) {
+			if(size == flows.length){
+				flows = Arrays.copyOf(flows, size * 2);
+				fingerprints = Arrays.copyOf(fingerprints, size * 2);
+			}
+			flows[size] = flow;
+			fingerprints[size] = fingerprint(flow);
+			size++;
+		}
+	}
+
+	//	Decodes each body into flows of its own, so it may read the same request more than once
+	private static class PollReader implements EntityReader<PolledFlows>, EntityReader.Replayable {
+		@Override
+		public PolledFlows read(InputStream content) throws IOException {
+			PolledFlows polled = new PolledFlows();
+
+			StatisticsReader.FLOW.read(content, polled);
+			return polled;
+		}
+	}
+
+	//	-------------------
+	//	Results
+	//	-------------------
+
+	//	The heavy hitters, largest first
+	public synchronized List<HeavyHitter> getHeavyHitters(){
+		List<HeavyHitter> result = new ArrayList<HeavyHitter>(topK.size);
+
+		for(int i = 0; i < topK.size; i++){
+			Candidate candidate = topK.heap[i];
+			boolean current = candidate.interval == interval;
+
+			result.add(new HeavyHitter(candidate.flow, candidate.bytes, candidate.packets,
+					current ? candidate.byteDelta : 0, current ? candidate.packetDelta : 0, current ? intervalSeconds : 0));
+		}
+
+		Collections.sort(result, new Comparator<HeavyHitter>(){
+			@Override
+			public int compare(HeavyHitter a, HeavyHitter b) {
+				return (metric == Metric.BYTES) ? Long.compare(b.bytes, a.bytes) : Long.compare(b.packets, a.packets);
+			}
+		});
+		return result;
+	}
+
+	public int getK(){
+		return k;
+	}
+
+	public synchronized long getIntervalCount(){
+		return interval;
+	}
+
+	//	length of the last interval, 0 before the second one
+	public synchronized long getIntervalMillis(){
+		return (long) (intervalSeconds * 1000);
+	}
+
+	//	flows counted at their rate since install, as their previous counters were not known
+	public synchronized long getFallbackCount(){
+		return fallbackCount;
+	}
+
+	//	flows whose previous counters were dropped, or not stored, as the store was full
+	public synchronized long getEvictionCount(){
+		return store.evictions;
+	}
+
+	//	64-bit FNV-1a of what identifies a flow on a switch: table, priority and match
+	private static long fingerprint(FlowStatistic flow){
+		long hash = 0xcbf29ce484222325L;
+
+		hash = hash(hash, flow.getNodeType());
+		hash = hash(hash, flow.getNodeId());
+		hash = hash(hash, (flow.getTableId() << 16) | (flow.getPriority() & 0xffff));
+		for(String matchField: flow.matchFields){
+			hash = hash(hash, matchField);
+		}
+		//	FNV-1a ends with a multiply, its low bits are weak: mix them in (MurmurHash3 finalizer)
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		//	0 marks a free slot of the store
+		return (hash == 0) ? 1 : hash;
+	}
+
+	private static long hash(long hash, String value){
+		if(value != null){
+			for(int i = 0; i < value.length(); i++){
+				hash = hash(hash, value.charAt(i));
+			}
+		}
+		//	separator, so that "ab", "c" and "a", "bc" differ
+		hash ^= 0xff;
+		return hash * 0x100000001b3L;
+	}
+
+	private static long hash(long hash, int value){
+		for(int i = 0; i < 4; i++){
+			hash ^= (value >>> (i * 8)) & 0xff;
+			hash *= 0x100000001b3L;
+		}
+		return hash;
+	}
+
+	private static int powerOf2(int n){
+		int power = 1;
+
+		while(power < n){
+			power <<= 1;
+		}
+		return power;
+	}
+
+	//	-------------------
+	//	Heavy hitter
+	//	-------------------
+
+	public static class HeavyHitter {
+		private final FlowStatistic flow;
+		private final long bytes;
+		private final long packets;
+		private final long byteDelta;
+		private final long packetDelta;
+		private final double intervalSeconds;
+
+		HeavyHitter(FlowStatistic flow, long bytes, long packets, long byteDelta, long packetDelta, double intervalSeconds){
+			this.flow = flow;
+			this.bytes = bytes;
+			this.packets = packets;
+			this.byteDelta = byteDelta;
+			this.packetDelta = packetDelta;
+			this.intervalSeconds = intervalSeconds;
+		}
+
+		//	the statistics of the flow when it last entered or moved in the top K
+		public FlowStatistic getFlow(){
+			return flow;
+		}
+
+		//	estimated bytes of the interval, or of the decayed history; never under the deltas added
+		public long getBytes(){
+			return bytes;
+		}
+
+		public long getPackets(){
+			return packets;
+		}
+
+		//	delta of the last interval, 0 if the flow was not seen in it
+		public long getByteDelta(){
+			return byteDelta;
+		}
+
+		public long getPacketDelta(){
+			return packetDelta;
+		}
+
+		//	bytes per second over the last interval, 0 if unknown
+		public double getByteRate(){
+			return (intervalSeconds > 0) ? byteDelta / intervalSeconds : 0;
+		}
+
+		@Override
+		public String toString() {
+			return flow.getNodeType() + "|" + flow.getNodeId() + " priority " + flow.getPriority() + " match" + flow.getMatchFields()
+					+ " " + bytes + "B/" + packets + "p (+" + byteDelta + "B/+" + packetDelta + "p)";
+		}
+	}
+
+	//	-------------------
+	//	Count-Min sketch
+	//	-------------------
+
+	private static class CountMinSketch {
+		private final long[][] counts;
+		private final int mask;
+
+		CountMinSketch(int width, int depth){
+			int size = powerOf2(width);
+
+			this.counts = new long[depth][size];
+			this.mask = size - 1;
+		}
+
+		//	conservative update: rows are only raised to the new estimate, returns it
+		long add(long fingerprint, long delta){
+			int h1 = (int) fingerprint;
+			int h2 = (int) (fingerprint >>> 32) | 1;
+			long estimate = Long.MAX_VALUE;
+
+			for(int row = 0; row < counts.length; row++){
+				estimate = Math.min(estimate, counts[row][(h1 + row * h2) & mask]);
+			}
+
+			estimate += delta;
+			for(int row = 0; row < counts.length; row++){
+				int column = (h1 + row * h2) & mask;
+
+				if(counts[row][column] < estimate){
+					counts[row][column] = estimate;
+				}
+			}
+			return estimate;
+		}
+
+		void decay(double factor){
+			for(long[] row: counts){
+				if(factor == 0){
+					Arrays.fill(row, 0);
+				}
+				else{
+					for(int i = 0; i < row.length; i++){
+						row[i] = (long) (row[i] * factor);
+					}
+				}
+			}
+		}
+	}
+
+	//	-------------------
+	//	Previous counters
+	//	-------------------
+
+	//	Set associative table of fingerprints: a flow may be in one of the WAYS slots of its
+	//	bucket, when all are taken the least recently seen one is replaced, unless it was
+	//	seen in the current interval: the flows already stored are not made to thrash
+	private static class CounterStore {
+		final static int WAYS = 8;
+
+		final long[] fingerprints;
+		final long[] bytes;
+		final long[] packets;
+		final long[] durations;
+		final long[] seen;
+		private final int bucketMask;
+		long evictions;
+
+		CounterStore(int capacity){
+			int size = powerOf2(capacity);
+
+			this.fingerprints = new long[size];
+			this.bytes = new long[size];
+			this.packets = new long[size];
+			this.durations = new long[size];
+			this.seen = new long[size];
+			this.bucketMask = size / WAYS - 1;
+		}
+
+		//	slot of the fingerprint, -1 if absent
+		int find(long fingerprint){
+			int first = bucket(fingerprint);
+
+			for(int slot = first; slot < first + WAYS; slot++){
+				if(fingerprints[slot] == fingerprint){
+					return slot;
+				}
+			}
+			return -1;
+		}
+
+		//	slot given to the fingerprint, -1 if the bucket is full of current flows
+		int insert(long fingerprint, long interval){
+			int first = bucket(fingerprint);
+			int oldest = first;
+
+			for(int slot = first; slot < first + WAYS; slot++){
+				if(fingerprints[slot] == 0){
+					oldest = slot;
+					break;
+				}
+				if(seen[slot] < seen[oldest]){
+					oldest = slot;
+				}
+			}
+
+			evictions += (fingerprints[oldest] != 0) ? 1 : 0;
+			if(fingerprints[oldest] != 0 && seen[oldest] == interval){
+				return -1;
+			}
+			fingerprints[oldest] = fingerprint;
+			return oldest;
+		}
+
+		private int bucket(long fingerprint){
+			return (int) ((fingerprint ^ (fingerprint >>> 32)) & bucketMask) * WAYS;
+		}
+	}
+
+	//	-------------------
+	//	Top K
+	//	-------------------
+
+	private static class Candidate {
+		long fingerprint;
+		FlowStatistic flow;
+		long bytes;
+		long packets;
+		long byteDelta;
+		long packetDelta;
+		long interval;
+		//	bytes or packets, what the heap is ordered by
+		long rank;
+		int position;
+	}
+
+	//	Min-heap of the K largest estimates, indexed by fingerprint
+	private static class TopK {
+		final Candidate[] heap;
+		int size;
+		private final Map<Long, Candidate> index;
+
+		TopK(int k){
+			this.heap = new Candidate[k];
+			this.index = new HashMap<Long, Candidate>(k * 2);
+		}
+
+		void offer(long fingerprint, FlowStatistic flow, long bytes, long packets, long byteDelta, long packetDelta, long interval, long rank){
+			Candidate candidate = index.get(fingerprint);
+
+			if(candidate == null){
+				if(size < heap.length){
+					candidate = new Candidate();
+					candidate.position = size;
+					heap[size++] = candidate;
+				}
+				else if(rank > heap[0].rank){
+					//	replaces the smallest
+					candidate = heap[0];
+					index.remove(candidate.fingerprint);
+				}
+				else{
+					return;
+				}
+				candidate.fingerprint = fingerprint;
+				candidate.interval = 0;
+				index.put(fingerprint, candidate);
+			}
+
+			//	a flow added again in the same interval adds to its deltas
+			if(candidate.interval == interval){
+				byteDelta += candidate.byteDelta;
+				packetDelta += candidate.packetDelta;
+			}
+			candidate.flow = flow;
+			candidate.bytes = bytes;
+			candidate.packets = packets;
+			candidate.byteDelta = byteDelta;
+			candidate.packetDelta = packetDelta;
+			candidate.interval = interval;
+			candidate.rank = rank;
+
+			//	its rank grew, or it is new at the bottom, or it replaced the top
+			siftUp(candidate.position);
+			siftDown(candidate.position);
+		}
+
+		//	a uniform factor keeps the order of the heap
+		void decay(double factor){
+			if(factor == 0){
+				Arrays.fill(heap, null);
+				index.clear();
+				size = 0;
+				return;
+			}
+
+			for(int i = 0; i < size; i++){
+				heap[i].bytes = (long) (heap[i].bytes * factor);
+				heap[i].packets = (long) (heap[i].packets * factor);
+				heap[i].rank = (long) (heap[i].rank * factor);
+			}
+		}
+
+		private void siftUp(int position){
+			Candidate candidate = heap[position];
+
+			while(position > 0){
+				int parent = (position - 1) / 2;
+
+				if(heap[parent].rank <= candidate.rank){
+					break;
+				}
+				move(heap[parent], position);
+				position = parent;
+			}
+			move(candidate, position);
+		}
+
+		private void siftDown(int position){
+			Candidate candidate = heap[position];
+
+			while(true){
+				int child = 2 * position + 1;
+
+				if(child >= size){
+					break;
+				}
+				if(child + 1 < size && heap[child + 1].rank < heap[child].rank){
+					child++;
+				}
+				if(candidate.rank <= heap[child].rank){
+					break;
+				}
+				move(heap[child], position);
+				position = child;
+			}
+			move(candidate, position);
+		}
+
+		private void move(Candidate candidate, int position){
+			heap[position] = candidate;
+			candidate.position = position;
+		}
+	}
+}
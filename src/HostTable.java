@@ -0,0 +1,466 @@
+package jOpendaylight;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/*
+ * In-memory index of the hosts known to the host tracker of one container,
+ * built from getActiveHosts(...) and getInactiveHosts(...).
+ * Hosts are looked up by IPv4 address, MAC address or attachment point without a REST call;
+ * addresses are packed into an int or a long and kept in open addressing tables.
+ * refresh(...) only re-indexes the hosts whose configuration changed since the last refresh.
+ */
+public class HostTable {
+	private OpendaylightClient client;
+	private String containerName;
+	private ScheduledExecutorService scheduler;
+	private ScheduledFuture<?> scheduledRefresh;
+	private volatile Exception lastError;
+
+	//	all hosts, by network address as sent by the controller
+	private Map<String, Host> hosts;
+	private AddressIndex byIp;
+	private AddressIndex byMac;
+	private Map<String, List<Host>> byNodeConnector;
+	private boolean sharedMacs;		//	set once two hosts had the same MAC
+
+	private ReentrantReadWriteLock lock;
+
+	public HostTable(OpendaylightClient client, String containerName){
+		this.client = client;
+		this.containerName = containerName;
+		this.hosts = new HashMap<String, Host>();
+		this.byIp = new AddressIndex();
+		this.byMac = new AddressIndex();
+		this.byNodeConnector = new HashMap<String, List<Host>>();
+		this.lock = new ReentrantReadWriteLock();
+	}
+
+	//	Refresh every periodMillis in the background
+	//	a failed refresh keeps the current hosts, see getLastError()
+	public synchronized void schedule(long periodMillis){
+		if(scheduler == null){
+			scheduler = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("HostTable"));
+		}
+		if(scheduledRefresh != null){
+			scheduledRefresh.cancel(false);
+		}
+
+		scheduledRefresh = scheduler.scheduleWithFixedDelay(new Runnable(){
+			@Override
+			public void run() {
+				try{
+					refresh();
+					lastError = null;
+				}
+				catch(Exception e){
+					lastError = e;
+				}
+			}
+		}, 0, periodMillis, TimeUnit.MILLISECONDS);
+	}
+
+	public synchronized void shutdown(){
+		if(scheduler != null){
+			scheduler.shutdown();
+			scheduler = null;
+			scheduledRefresh = null;
+		}
+	}
+
+	//	error of the last scheduled refresh, null if it succeeded
+	public Exception getLastError(){
+		return lastError;
+	}
+
+	//	Fetch the active and inactive hosts and apply the changes
+	//	returns the number of hosts added, changed or removed
+	public int refresh() throws IOException{
+		return refresh(client.getActiveHosts(containerName), client.getInactiveHosts(containerName));
+	}
+
+	//	Apply the host lists, as returned by getActiveHosts(...) and getInactiveHosts(...)
+	//	returns the number of hosts added, changed or removed
+	public synchronized int refresh(JsonNode activeHosts, JsonNode inactiveHosts){
+		Map<String, Host> seen = new HashMap<String, Host>();
+		List<Host> changed = new ArrayList<Host>();
+		List<Host> removed = new ArrayList<Host>();
+
+		//	diff against the current hosts, only refresh() writes them so no lock is needed to read
+		collect(activeHosts, true, seen, changed);
+		collect(inactiveHosts, false, seen, changed);
+
+		for(Host host: hosts.values()){
+			if(!seen.containsKey(host.networkAddress)){
+				removed.add(host);
+			}
+		}
+
+		if(changed.isEmpty() && removed.isEmpty()){
+			return 0;
+		}
+
+		lock.writeLock().lock();
+		try{
+			for(Host host: removed){
+				unindex(host);
+				hosts.remove(host.networkAddress);
+			}
+			for(Host host: changed){
+				Host previous = hosts.put(host.networkAddress, host);
+
+				if(previous != null){
+					unindex(previous);
+				}
+				index(host);
+			}
+		}
+		finally{
+			lock.writeLock().unlock();
+		}
+
+		return changed.size() + removed.size();
+	}
+
+	private void collect(JsonNode hostList, boolean active, Map<String, Host> seen, List<Host> changed){
+		for(JsonNode config: JsonUtils.elements(hostList, "hostConfig")){
+			String networkAddress = JsonUtils.text(config, "networkAddress");
+
+			if(networkAddress == null || seen.containsKey(networkAddress)){
+				continue;
+			}
+
+			Host current = hosts.get(networkAddress);
+			if(current != null && current.active == active && current.config.equals(config)){
+				seen.put(networkAddress, current);
+			}
+			else{
+				Host host = new Host(config, active);
+				seen.put(networkAddress, host);
+				changed.add(host);
+			}
+		}
+	}
+
+	private void index(Host host){
+		List<Host> attached;
+
+		if(host.hasIp){
+			byIp.put(host.ip & 0xffffffffL, host);
+		}
+		if(host.hasMac){
+			Host previous = byMac.get(host.mac);
+
+			if(previous != null && previous != host){
+				sharedMacs = true;
+			}
+			byMac.put(host.mac, host);
+		}
+
+		attached = byNodeConnector.get(host.nodeConnector);
+		if(attached == null){
+			attached = new ArrayList<Host>(1);
+			byNodeConnector.put(host.nodeConnector, attached);
+		}
+		attached.add(host);
+	}
+
+	private void unindex(Host host){
+		List<Host> attached;
+
+		if(host.hasIp && byIp.get(host.ip & 0xffffffffL) == host){
+			byIp.remove(host.ip & 0xffffffffL);
+		}
+		if(host.hasMac && byMac.get(host.mac) == host){
+			byMac.remove(host.mac);
+
+			//	another host with the same MAC takes its place
+			for(Host other: sharedMacs ? hosts.values() : Collections.<Host>emptyList()){
+				if(other != host && other.hasMac && other.mac == host.mac){
+					byMac.put(other.mac, other);
+					break;
+				}
+			}
+		}
+
+		attached = byNodeConnector.get(host.nodeConnector);
+		if(attached != null){
+			attached.remove(host);
+			if(attached.isEmpty()){
+				byNodeConnector.remove(host.nodeConnector);
+			}
+		}
+	}
+
+	//	-------------------
+	//	Lookups
+	//	-------------------
+
+	//	Host with the given IPv4 address, null if unknown
+	public Host getByIp(String networkAddress){
+		if(!AddressUtils.isIpv4(networkAddress)){
+			lock.readLock().lock();
+			try{
+				return hosts.get(networkAddress);
+			}
+			finally{
+				lock.readLock().unlock();
+			}
+		}
+		return getByIp(AddressUtils.parseIpv4(networkAddress));
+	}
+
+	public Host getByIp(int networkAddress){
+		lock.readLock().lock();
+		try{
+			return byIp.get(networkAddress & 0xffffffffL);
+		}
+		finally{
+			lock.readLock().unlock();
+		}
+	}
+
+	//	Host with the given MAC address, null if unknown
+	//	if several hosts share a MAC address, the last one indexed is returned
+	public Host getByMac(String dataLayerAddress){
+		return getByMac(AddressUtils.parseMac(dataLayerAddress));
+	}
+
+	public Host getByMac(long dataLayerAddress){
+		lock.readLock().lock();
+		try{
+			return byMac.get(dataLayerAddress);
+		}
+		finally{
+			lock.readLock().unlock();
+		}
+	}
+
+	//	Hosts attached to a node connector, e.g. "OF|1@OF|00:00:00:00:00:00:00:01"
+	public List<Host> getByNodeConnector(String nodeConnector){
+		lock.readLock().lock();
+		try{
+			List<Host> attached = byNodeConnector.get(nodeConnector);
+			return (attached != null) ? new ArrayList<Host>(attached) : Collections.<Host>emptyList();
+		}
+		finally{
+			lock.readLock().unlock();
+		}
+	}
+
+	//	Hosts attached to an OpenFlow switch port
+	public List<Host> getByNodeConnector(String nodeId, int port){
+		return getByNodeConnector(new SimpleNodeConnector(nodeId, port).toString());
+	}
+
+	public List<Host> getHosts(){
+		lock.readLock().lock();
+		try{
+			return new ArrayList<Host>(hosts.values());
+		}
+		finally{
+			lock.readLock().unlock();
+		}
+	}
+
+	public int size(){
+		lock.readLock().lock();
+		try{
+			return hosts.size();
+		}
+		finally{
+			lock.readLock().unlock();
+		}
+	}
+
+	//	One host, as configured in the host tracker
+	public static class Host {
+		private final JsonNode config;
+		private final boolean active;
+		private final String networkAddress;
+		private final String dataLayerAddress;
+		private final String nodeConnector;
+		private final int ip;
+		private final boolean hasIp;
+		private final long mac;
+		private final boolean hasMac;
+
+		Host(JsonNode config, boolean active){
+			String nodeType = JsonUtils.text(config, "nodeType");
+			String connectorType = JsonUtils.text(config, "nodeConnectorType");
+
+			this.config = config;
+			this.active = active;
+			this.networkAddress = JsonUtils.text(config, "networkAddress");
+			this.dataLayerAddress = JsonUtils.text(config, "dataLayerAddress");
+			this.nodeConnector = ((connectorType != null) ? connectorType : nodeType) + "|" + JsonUtils.text(config, "nodeConnectorId")
+					+ "@" + nodeType + "|" + JsonUtils.text(config, "nodeId");
+
+			this.hasIp = AddressUtils.isIpv4(networkAddress);
+			this.ip = hasIp ? AddressUtils.parseIpv4(networkAddress) : 0;
+
+			long parsedMac = 0;
+			boolean validMac = false;
+			if(dataLayerAddress != null){
+				try{
+					parsedMac = AddressUtils.parseMac(dataLayerAddress);
+					validMac = true;
+				}
+				catch(IllegalArgumentException e){
+					//	not indexed by MAC
+				}
+			}
+			this.mac = parsedMac;
+			this.hasMac = validMac;
+		}
+
+		public String getNetworkAddress(){
+			return networkAddress;
+		}
+
+		public String getDataLayerAddress(){
+			return dataLayerAddress;
+		}
+
+		public String getNodeType(){
+			return JsonUtils.text(config, "nodeType");
+		}
+
+		public String getNodeId(){
+			return JsonUtils.text(config, "nodeId");
+		}
+
+		public String getNodeConnectorId(){
+			return JsonUtils.text(config, "nodeConnectorId");
+		}
+
+		//	"OF|1@OF|00:00:00:00:00:00:00:01"
+		public String getNodeConnector(){
+			return nodeConnector;
+		}
+
+		public String getVlan(){
+			return JsonUtils.text(config, "vlan");
+		}
+
+		public boolean isStaticHost(){
+			return "true".equals(JsonUtils.text(config, "staticHost"));
+		}
+
+		public boolean isActive(){
+			return active;
+		}
+
+		//	the hostConfig entry it was built from, must not be modified
+		public JsonNode getConfig(){
+			return config;
+		}
+
+		@Override
+		public String toString() {
+			return networkAddress + " " + dataLayerAddress + " at " + nodeConnector + (active ? "" : " (inactive)");
+		}
+	}
+
+	//	Open addressing map from a long key to a host, with linear probing
+	private static class AddressIndex {
+		private long[] keys;
+		private Host[] values;
+		private int size;
+		private int mask;
+
+		AddressIndex(){
+			keys = new long[16];
+			values = new Host[16];
+			mask = 15;
+		}
+
+		Host get(long key){
+			for(int slot = slot(key); values[slot] != null; slot = (slot + 1) & mask){
+				if(keys[slot] == key){
+					return values[slot];
+				}
+			}
+			return null;
+		}
+
+		void put(long key, Host value){
+			int slot = slot(key);
+
+			for(; values[slot] != null; slot = (slot + 1) & mask){
+				if(keys[slot] == key){
+					values[slot] = value;
+					return;
+				}
+			}
+
+			keys[slot] = key;
+			values[slot] = value;
+
+			//	keep the load under one half
+			if(++size * 2 > keys.length){
+				resize(keys.length * 2);
+			}
+		}
+
+		void remove(long key){
+			int slot = slot(key);
+
+			for(; values[slot] != null; slot = (slot + 1) & mask){
+				if(keys[slot] == key){
+					break;
+				}
+			}
+			if(values[slot] == null){
+				return;
+			}
+
+			values[slot] = null;
+			size--;
+
+			//	shift back the entries that probed past the freed slot
+			for(int next = (slot + 1) & mask; values[next] != null; next = (next + 1) & mask){
+				int home = slot(keys[next]);
+
+				if(((next - home) & mask) >= ((next - slot) & mask)){
+					keys[slot] = keys[next];
+					values[slot] = values[next];
+					values[next] = null;
+					slot = next;
+				}
+			}
+		}
+
+		private int slot(long key){
+			long hash = key * 0x9E3779B97F4A7C15L;
+			return (int) (hash ^ (hash >>> 32)) & mask;
+		}
+
+		private void resize(int capacity){
+			long[] oldKeys = keys;
+			Host[] oldValues = values;
+
+			keys = new long[capacity];
+			values = new Host[capacity];
+			mask = capacity - 1;
+			size = 0;
+
+			for(int i = 0; i < oldKeys.length; i++){
+				if(oldValues[i] != null){
+					put(oldKeys[i], oldValues[i]);
+				}
+			}
+		}
+	}
+}
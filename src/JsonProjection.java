@@ -0,0 +1,365 @@
+package jOpendaylight;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/*
+ * Reads only some values of a response: the body is streamed and every subtree
+ * no path goes through is skipped by the parser, without being materialized.
+ * Paths are field names separated by dots, "*" matches any field name. Arrays are
+ * crossed transparently, a path goes through each of their elements, so it does not
+ * matter whether the controller sent a list or a single object.
+ * Two forms:
+ * - paths: the response pruned to the selected values, e.g.
+ *     JsonProjection.paths("portStatistics.node.id", "portStatistics.portStatistic.receiveBytes")
+ * - query: a flat array of records, with only the selected fields of those which pass the filters, e.g.
+ *     new JsonProjection.Builder("portStatistics.portStatistic")
+ *         .filter("nodeConnector.node.id", nodeId).filter("nodeConnector.id", "3")
+ *         .field("receiveBytes").field("transmitBytes").build()
+ * Use it with the OpendaylightClient methods taking an EntityReader.
+ */
+public class JsonProjection implements EntityReader<JsonNode>, EntityReader.Replayable {
+	private final static ObjectMapper mapper = new ObjectMapper();
+	private final static JsonNodeFactory nodes = JsonNodeFactory.instance;
+
+	//	paths to select, or to the records in a query
+	private final Segment root;
+	//	query only, null otherwise
+	private final Segment recordFields;
+	private final String[][] filterPaths;
+	private final String[] filterValues;
+
+	//	base constructor
+	private JsonProjection(Segment root, Segment recordFields, String[][] filterPaths, String[] filterValues){
+		this.root = root;
+		this.recordFields = recordFields;
+		this.filterPaths = filterPaths;
+		this.filterValues = filterValues;
+	}
+
+	//	Select the values at these paths
+	public static JsonProjection paths(String... paths){
+		Segment root = new Segment();
+
+		for(String path: paths){
+			root.add(split(path), 0);
+		}
+		root.expandWildcards();
+		return new JsonProjection(root, null, null, null);
+	}
+
+	@Override
+	public JsonNode read(InputStream content) throws IOException {
+		JsonParser parser = mapper.getFactory().createParser(content);
+
+		try{
+			if(parser.nextToken() == null){
+				return nodes.nullNode();
+			}
+
+			if(recordFields == null){
+				JsonNode result = project(parser, root);
+				return (result == null) ? nodes.objectNode() : result;
+			}
+			else{
+				ArrayNode records = nodes.arrayNode();
+				collect(parser, root, records);
+				return records;
+			}
+		}
+		finally{
+			parser.close();
+		}
+	}
+
+	//	parser on the first token of a value, returns on its last one.
+	//	The value pruned to the paths of segment, null if none of them is in it
+	private JsonNode project(JsonParser parser, Segment segment) throws IOException{
+		if(segment.selected){
+			return mapper.readTree(parser);
+		}
+
+		switch(parser.getCurrentToken()){
+		case START_OBJECT:
+			ObjectNode object = null;
+
+			while(parser.nextToken() == JsonToken.FIELD_NAME){
+				Segment child = segment.child(parser.getCurrentName());
+				String name = parser.getCurrentName();
+
+				parser.nextToken();
+				if(child == null){
+					parser.skipChildren();
+					continue;
+				}
+
+				JsonNode value = project(parser, child);
+				if(value != null){
+					if(object == null){
+						object = nodes.objectNode();
+					}
+					object.put(name, value);
+				}
+			}
+			return object;
+		case START_ARRAY:
+			ArrayNode array = null;
+
+			while(parser.nextToken() != JsonToken.END_ARRAY){
+				JsonNode value = project(parser, segment);
+
+				if(value != null){
+					if(array == null){
+						array = nodes.arrayNode();
+					}
+					array.add(value);
+				}
+			}
+			return array;
+		default:
+			//	a scalar where the paths go further
+			return null;
+		}
+	}
+
+	//	Query: walk down to the records and add those which pass the filters
+	private void collect(JsonParser parser, Segment segment, ArrayNode records) throws IOException{
+		if(segment.selected && parser.getCurrentToken() == JsonToken.START_OBJECT){
+			JsonNode record = project(parser, recordFields);
+
+			if(record != null && accept(record)){
+				records.add(record);
+			}
+			return;
+		}
+
+		switch(parser.getCurrentToken()){
+		case START_OBJECT:
+			while(parser.nextToken() == JsonToken.FIELD_NAME){
+				Segment child = segment.child(parser.getCurrentName());
+
+				parser.nextToken();
+				if(child == null){
+					parser.skipChildren();
+				}
+				else{
+					collect(parser, child, records);
+				}
+			}
+			break;
+		case START_ARRAY:
+			while(parser.nextToken() != JsonToken.END_ARRAY){
+				collect(parser, segment, records);
+			}
+			break;
+		default:
+			parser.skipChildren();
+		}
+	}
+
+	private boolean accept(JsonNode record){
+		for(int i = 0; i < filterPaths.length; i++){
+			if(!matches(record, filterPaths[i], 0, filterValues[i])){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	//	any value at path equals value, arrays crossed as while reading
+	private static boolean matches(JsonNode node, String[] path, int index, String value){
+		if(node == null){
+			return false;
+		}
+
+		if(node.isArray()){
+			for(JsonNode element: node){
+				if(matches(element, path, index, value)){
+					return true;
+				}
+			}
+			return false;
+		}
+
+		if(index == path.length){
+			return !node.isContainerNode() && value.equals(node.asText());
+		}
+
+		if(path[index].equals("*")){
+			for(JsonNode child: node){
+				if(matches(child, path, index + 1, value)){
+					return true;
+				}
+			}
+			return false;
+		}
+		return matches(node.get(path[index]), path, index + 1, value);
+	}
+
+	private static String[] split(String path){
+		String[] names = path.split("\\.", -1);
+
+		for(String name: names){
+			if(name.isEmpty()){
+				throw new IllegalArgumentException("Invalid path: \"" + path + "\"");
+			}
+		}
+		return names;
+	}
+
+	//	-------------------
+	//	Query builder
+	//	-------------------
+
+	public static class Builder {
+		private final String recordPath;
+		private final List<String> fields;
+		private final List<String> filterPaths;
+		private final List<String> filterValues;
+
+		//	recordPath leads to the records, e.g. "portStatistics.portStatistic"
+		public Builder(String recordPath){
+			this.recordPath = recordPath;
+			this.fields = new ArrayList<String>();
+			this.filterPaths = new ArrayList<String>();
+			this.filterValues = new ArrayList<String>();
+		}
+
+		//	Field of the record to keep, a path from the record. With no fields, records are kept whole
+		public Builder field(String path){
+			fields.add(path);
+			return this;
+		}
+
+		//	Keep only records with this value at path, e.g. "nodeConnector.id", "3".
+		//	The value is compared to the text of the field; it is read with the record, and kept in it
+		public Builder filter(String path, String value){
+			filterPaths.add(path);
+			filterValues.add(value);
+			return this;
+		}
+
+		public JsonProjection build(){
+			Segment root = new Segment();
+			Segment recordFields = new Segment();
+			String[][] paths = new String[filterPaths.size()][];
+
+			root.add(split(recordPath), 0);
+			root.expandWildcards();
+
+			if(fields.isEmpty()){
+				recordFields.selected = true;
+			}
+			for(String field: fields){
+				recordFields.add(split(field), 0);
+			}
+			for(int i = 0; i < paths.length; i++){
+				paths[i] = split(filterPaths.get(i));
+				recordFields.add(paths[i], 0);
+			}
+			recordFields.expandWildcards();
+
+			return new JsonProjection(root, recordFields, paths, filterValues.toArray(new String[filterValues.size()]));
+		}
+	}
+
+	//	-------------------
+	//	Path tree
+	//	-------------------
+
+	//	One field name of the paths, with the names which may follow it
+	private static class Segment {
+		//	a path ends here, the whole value is kept
+		boolean selected;
+		Map<String, Segment> children;
+		//	"*"
+		Segment any;
+
+		Segment child(String name){
+			Segment child = (children == null) ? null : children.get(name);
+			return (child == null) ? any : child;
+		}
+
+		void add(String[] path, int index){
+			if(index == path.length){
+				selected = true;
+				return;
+			}
+
+			Segment next;
+			if(path[index].equals("*")){
+				if(any == null){
+					any = new Segment();
+				}
+				next = any;
+			}
+			else{
+				if(children == null){
+					children = new HashMap<String, Segment>();
+				}
+				next = children.get(path[index]);
+				if(next == null){
+					next = new Segment();
+					children.put(path[index], next);
+				}
+			}
+			next.add(path, index + 1);
+		}
+
+		//	A named field is also matched by "*": copy what follows "*" under every name,
+		//	so reading a field only has to look up one segment
+		void expandWildcards(){
+			if(any != null && children != null){
+				for(Segment child: children.values()){
+					child.merge(any);
+				}
+			}
+			if(children != null){
+				for(Segment child: children.values()){
+					child.expandWildcards();
+				}
+			}
+			if(any != null){
+				any.expandWildcards();
+			}
+		}
+
+		//	copies other, never shares its segments
+		private void merge(Segment other){
+			selected |= other.selected;
+
+			if(other.children != null){
+				if(children == null){
+					children = new HashMap<String, Segment>();
+				}
+				for(Map.Entry<String, Segment> entry: other.children.entrySet()){
+					Segment child = children.get(entry.getKey());
+
+					if(child == null){
+						child = new Segment();
+						children.put(entry.getKey(), child);
+					}
+					child.merge(entry.getValue());
+				}
+			}
+			if(other.any != null){
+				if(any == null){
+					any = new Segment();
+				}
+				any.merge(other.any);
+			}
+		}
+	}
+}
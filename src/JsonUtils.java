@@ -0,0 +1,56 @@
+package jOpendaylight;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+//	Helpers to walk northbound JSON responses.
+class JsonUtils {
+	//	Elements of a list field.
+	//	The controller sends a single object instead of an array when a list has one element,
+	//	so both forms are accepted; a missing field gives an empty list.
+	static List<JsonNode> elements(JsonNode parent, String fieldName){
+		JsonNode field;
+		
+		if(parent == null || (field = parent.get(fieldName)) == null || field.isNull()){
+			return Collections.emptyList();
+		}
+		
+		if(field.isArray()){
+			List<JsonNode> result = new ArrayList<JsonNode>(field.size());
+			for(JsonNode element: field){
+				result.add(element);
+			}
+			return result;
+		}
+		else{
+			return Collections.singletonList(field);
+		}
+	}
+	
+	//	Text of a nested field, null if any part of the path is missing
+	static String text(JsonNode node, String... path){
+		for(String fieldName: path){
+			if(node == null){
+				return null;
+			}
+			node = node.get(fieldName);
+		}
+		
+		return (node == null || node.isNull()) ? null : node.asText();
+	}
+	
+	//	Long value of a nested field, 0 if it is missing
+	static long longValue(JsonNode node, String... path){
+		for(String fieldName: path){
+			if(node == null){
+				return 0;
+			}
+			node = node.get(fieldName);
+		}
+		
+		return (node == null) ? 0 : node.asLong();
+	}
+}
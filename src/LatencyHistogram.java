@@ -0,0 +1,139 @@
+package jOpendaylight;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * Lock-free latency histogram in microseconds.
+ * Buckets are log-linear: values below 16 are exact, above that every power of two
+ * is split in 16 buckets, so a percentile is off by at most 1/16 of its value.
+ * Each thread records into its own stripe of buckets (picked like StripedCounter),
+ * stripes are only summed when a snapshot is taken.
+ */
+public class LatencyHistogram {
+	private final static int subBuckets = 16;
+	private final static int subBucketBits = 4;
+	//	largest tracked power of two, 2^40 us is about 12 days
+	private final static int maxExponent = 40;
+	final static int bucketCount = (maxExponent - subBucketBits + 2) * subBuckets;
+	private final static int stripes = Math.min(StripedCounter.stripes, 8);
+
+	private final AtomicLongArray counts;
+	private final StripedCounter sum;
+	private final AtomicLong max;
+
+	public LatencyHistogram(){
+		counts = new AtomicLongArray(stripes * bucketCount);
+		sum = new StripedCounter();
+		max = new AtomicLong();
+	}
+
+	public void record(long micros){
+		if(micros < 0){
+			micros = 0;
+		}
+
+		counts.getAndIncrement((StripedCounter.stripe() & (stripes - 1)) * bucketCount + bucketIndex(micros));
+		sum.add(micros);
+
+		//	the max only moves on new records, the CAS loop is rare
+		long current;
+		while(micros > (current = max.get())){
+			if(max.compareAndSet(current, micros)){
+				break;
+			}
+		}
+	}
+
+	public Snapshot snapshot(){
+		long[] merged = new long[bucketCount];
+		long count = 0;
+
+		for(int s = 0; s < stripes; s++){
+			for(int i = 0; i < bucketCount; i++){
+				long value = counts.get(s * bucketCount + i);
+				merged[i] += value;
+				count += value;
+			}
+		}
+
+		return new Snapshot(merged, count, sum.sum(), max.get());
+	}
+
+	static int bucketIndex(long micros){
+		if(micros < subBuckets){
+			return (int) micros;
+		}
+
+		int exponent = 63 - Long.numberOfLeadingZeros(micros);
+		if(exponent > maxExponent){
+			return bucketCount - 1;
+		}
+
+		int mantissa = (int) (micros >>> (exponent - subBucketBits)) & (subBuckets - 1);
+		return (exponent - subBucketBits + 1) * subBuckets + mantissa;
+	}
+
+	//	highest value falling in the bucket
+	static long bucketUpperBound(int index){
+		if(index < subBuckets){
+			return index;
+		}
+
+		int exponent = index / subBuckets + subBucketBits - 1;
+		long lower = (long) (subBuckets + index % subBuckets) << (exponent - subBucketBits);
+		return lower + (1L << (exponent - subBucketBits)) - 1;
+	}
+
+	//	Counts at one point in time
+	public static class Snapshot {
+		private final long[] counts;
+		private final long count;
+		private final long sum;
+		private final long max;
+
+		Snapshot(long[] counts, long count, long sum, long max){
+			this.counts = counts;
+			this.count = count;
+			this.sum = sum;
+			this.max = max;
+		}
+
+		public long getCount(){
+			return count;
+		}
+
+		public long getMax(){
+			return max;
+		}
+
+		public double getMean(){
+			return (count == 0) ? 0 : (double) sum / count;
+		}
+
+		//	value under which the given fraction of the records fall, e.g. 0.99
+		public long getPercentile(double fraction){
+			long rank = (long) Math.ceil(fraction * count);
+			long seen = 0;
+
+			if(count == 0){
+				return 0;
+			}
+
+			for(int i = 0; i < counts.length; i++){
+				seen += counts[i];
+				if(seen >= rank && counts[i] > 0){
+					return Math.min(bucketUpperBound(i), max);
+				}
+			}
+
+			return max;
+		}
+
+		@Override
+		public String toString() {
+			return "count=" + count + " mean=" + Math.round(getMean()) + "us p50=" + getPercentile(0.5) + "us p99=" + getPercentile(0.99)
+					+ "us p999=" + getPercentile(0.999) + "us max=" + max + "us";
+		}
+	}
+}
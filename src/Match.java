@@ -0,0 +1,204 @@
+package jOpendaylight;
+
+import java.util.Arrays;
+
+//	Match fields of a static flow.
+//	Immutable; values are kept as the strings the flowprogrammer expects,
+//	unset fields are null and left out of the request.
+public class Match {
+	//	field indexes, in the order they are written
+	public final static int INGRESS_PORT = 0;
+	public final static int ETHER_TYPE = 1;
+	public final static int VLAN_ID = 2;
+	public final static int VLAN_PRIORITY = 3;
+	public final static int DL_SRC = 4;
+	public final static int DL_DST = 5;
+	public final static int NW_SRC = 6;
+	public final static int NW_DST = 7;
+	public final static int TOS_BITS = 8;
+	public final static int PROTOCOL = 9;
+	public final static int TP_SRC = 10;
+	public final static int TP_DST = 11;
+	
+	//	JSON names of the fields above
+	final static String[] FIELD_NAMES = {
+		"ingressPort", "etherType", "vlanId", "vlanPriority", "dlSrc", "dlDst",
+		"nwSrc", "nwDst", "tosBits", "protocol", "tpSrc", "tpDst"
+	};
+	
+	private final static Match emptyMatch = new Match(new String[FIELD_NAMES.length]);
+	
+	private final String[] values;
+	private final int hash;
+	
+	private Match(String[] values){
+		this.values = values;
+		this.hash = Arrays.hashCode(values);
+	}
+	
+	public static Match empty(){
+		return emptyMatch;
+	}
+	
+	//	values indexed as the field constants, the array is not copied
+	static Match fromValues(String[] values){
+		return new Match(values);
+	}
+	
+	//	JSON field name -> index, -1 if it is not a match field
+	static int fieldIndex(String fieldName){
+		for(int i = 0; i < FIELD_NAMES.length; i++){
+			if(FIELD_NAMES[i].equals(fieldName)){
+				return i;
+			}
+		}
+		
+		return -1;
+	}
+	
+	public String get(int field){
+		return values[field];
+	}
+	
+	public String getIngressPort(){
+		return values[INGRESS_PORT];
+	}
+	
+	public String getEtherType(){
+		return values[ETHER_TYPE];
+	}
+	
+	public String getNwSrc(){
+		return values[NW_SRC];
+	}
+	
+	public String getNwDst(){
+		return values[NW_DST];
+	}
+	
+	public String getProtocol(){
+		return values[PROTOCOL];
+	}
+	
+	public String getTpSrc(){
+		return values[TP_SRC];
+	}
+	
+	public String getTpDst(){
+		return values[TP_DST];
+	}
+	
+	//	copy with one field replaced, the rest is shared with this match
+	public Match with(int field, String value){
+		String[] copy = values.clone();
+		copy[field] = value;
+		return new Match(copy);
+	}
+	
+	public Match withNwSrc(String nwSrc){
+		return with(NW_SRC, nwSrc);
+	}
+	
+	public Match withNwDst(String nwDst){
+		return with(NW_DST, nwDst);
+	}
+	
+	public Builder toBuilder(){
+		return new Builder(values.clone());
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		return (obj instanceof Match) && hash == ((Match) obj).hash && Arrays.equals(values, ((Match) obj).values);
+	}
+	
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder();
+		
+		for(int i = 0; i < values.length; i++){
+			if(values[i] != null){
+				if(result.length() > 0){
+					result.append(',');
+				}
+				result.append(FIELD_NAMES[i]).append('=').append(values[i]);
+			}
+		}
+		
+		return result.toString();
+	}
+	
+	public static class Builder {
+		private String[] values;
+		
+		public Builder(){
+			this(new String[FIELD_NAMES.length]);
+		}
+		
+		private Builder(String[] values){
+			this.values = values;
+		}
+		
+		public Builder set(int field, String value){
+			values[field] = value;
+			return this;
+		}
+		
+		public Builder ingressPort(int port){
+			return set(INGRESS_PORT, Integer.toString(port));
+		}
+		
+		public Builder etherType(String etherType){
+			return set(ETHER_TYPE, etherType);
+		}
+		
+		public Builder vlanId(int vlanId){
+			return set(VLAN_ID, Integer.toString(vlanId));
+		}
+		
+		public Builder vlanPriority(int vlanPriority){
+			return set(VLAN_PRIORITY, Integer.toString(vlanPriority));
+		}
+		
+		public Builder dlSrc(String dlSrc){
+			return set(DL_SRC, dlSrc);
+		}
+		
+		public Builder dlDst(String dlDst){
+			return set(DL_DST, dlDst);
+		}
+		
+		public Builder nwSrc(String nwSrc){
+			return set(NW_SRC, nwSrc);
+		}
+		
+		public Builder nwDst(String nwDst){
+			return set(NW_DST, nwDst);
+		}
+		
+		public Builder tosBits(int tosBits){
+			return set(TOS_BITS, Integer.toString(tosBits));
+		}
+		
+		public Builder protocol(String protocol){
+			return set(PROTOCOL, protocol);
+		}
+		
+		public Builder tpSrc(int tpSrc){
+			return set(TP_SRC, Integer.toString(tpSrc));
+		}
+		
+		public Builder tpDst(int tpDst){
+			return set(TP_DST, Integer.toString(tpDst));
+		}
+		
+		public Match build(){
+			return new Match(values.clone());
+		}
+	}
+}
@@ -0,0 +1,332 @@
+package jOpendaylight;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/*
+ * Replaces a container wide call, which the controller takes long to build, by the
+ * per node calls: the nodes are listed with getNodePropertiesOfContainer, then queried
+ * by at most parallelism calls at once, on a BatchExecutor.
+ * A Listener gets each node's result as soon as it arrives, on the thread which made the
+ * call, so processing can start before the slowest node answers. The Result holds the
+ * per node results merged in the shape of the container wide response.
+ */
+public class NodeFanOut {
+	//	One per node call, and how the results of the nodes are merged
+	public static abstract class Query<T> {
+		public abstract T get(OpendaylightClient client, String containerName, String nodeType, String nodeId) throws Exception;
+
+		//	results in the order of the nodes, failed nodes left out
+		public abstract T merge(List<T> results);
+	}
+
+	public interface Listener<T> {
+		//	called concurrently, from the threads of the fan-out
+		public void onNode(String containerName, String nodeType, String nodeId, T result);
+
+		public void onError(String containerName, String nodeType, String nodeId, Throwable error);
+	}
+
+	//	{"flowStatistics": [{"node": ..., "flowStatistic": [...]}, ...]}
+	public final static Query<JsonNode> FLOW_STATISTICS = new Query<JsonNode>(){
+		@Override
+		public JsonNode get(OpendaylightClient client, String containerName, String nodeType, String nodeId) throws Exception {
+			return client.getFlowStatistics(containerName, nodeType, nodeId);
+		}
+
+		@Override
+		public JsonNode merge(List<JsonNode> results) {
+			return wrap("flowStatistics", results);
+		}
+	};
+
+	//	{"portStatistics": [{"node": ..., "portStatistic": [...]}, ...]}
+	public final static Query<JsonNode> PORT_STATISTICS = new Query<JsonNode>(){
+		@Override
+		public JsonNode get(OpendaylightClient client, String containerName, String nodeType, String nodeId) throws Exception {
+			return client.getPortStatistics(containerName, nodeType, nodeId);
+		}
+
+		@Override
+		public JsonNode merge(List<JsonNode> results) {
+			return wrap("portStatistics", results);
+		}
+	};
+
+	//	{"tableStatistics": [{"node": ..., "tableStatistic": [...]}, ...]}
+	public final static Query<JsonNode> TABLE_STATISTICS = new Query<JsonNode>(){
+		@Override
+		public JsonNode get(OpendaylightClient client, String containerName, String nodeType, String nodeId) throws Exception {
+			return client.getTableStatistics(containerName, nodeType, nodeId);
+		}
+
+		@Override
+		public JsonNode merge(List<JsonNode> results) {
+			return wrap("tableStatistics", results);
+		}
+	};
+
+	//	{"flowConfig": [...]}, the flows of all the nodes in one list
+	public final static Query<JsonNode> STATIC_FLOWS = new Query<JsonNode>(){
+		@Override
+		public JsonNode get(OpendaylightClient client, String containerName, String nodeType, String nodeId) throws Exception {
+			return client.getStaticFlowEntries(containerName, nodeType, nodeId);
+		}
+
+		@Override
+		public JsonNode merge(List<JsonNode> results) {
+			ObjectNode merged = JsonNodeFactory.instance.objectNode();
+			ArrayNode flows = merged.putArray("flowConfig");
+
+			for(JsonNode result: results){
+				flows.addAll(JsonUtils.elements(result, "flowConfig"));
+			}
+			return merged;
+		}
+	};
+
+	public final static Query<List<FlowStatistic>> FLOW_STATISTIC_LIST = new Query<List<FlowStatistic>>(){
+		@Override
+		public List<FlowStatistic> get(OpendaylightClient client, String containerName, String nodeType, String nodeId) throws Exception {
+			return client.getFlowStatisticList(containerName, nodeType, nodeId);
+		}
+
+		@Override
+		public List<FlowStatistic> merge(List<List<FlowStatistic>> results) {
+			return concat(results);
+		}
+	};
+
+	public final static Query<List<PortStatistic>> PORT_STATISTIC_LIST = new Query<List<PortStatistic>>(){
+		@Override
+		public List<PortStatistic> get(OpendaylightClient client, String containerName, String nodeType, String nodeId) throws Exception {
+			return client.getPortStatisticList(containerName, nodeType, nodeId);
+		}
+
+		@Override
+		public List<PortStatistic> merge(List<List<PortStatistic>> results) {
+			return concat(results);
+		}
+	};
+
+	public final static Query<List<TableStatistic>> TABLE_STATISTIC_LIST = new Query<List<TableStatistic>>(){
+		@Override
+		public List<TableStatistic> get(OpendaylightClient client, String containerName, String nodeType, String nodeId) throws Exception {
+			return client.getTableStatisticList(containerName, nodeType, nodeId);
+		}
+
+		@Override
+		public List<TableStatistic> merge(List<List<TableStatistic>> results) {
+			return concat(results);
+		}
+	};
+
+	private final static int defaultThreads = 16;
+	private final static int defaultParallelism = 8;
+
+	private OpendaylightClient client;
+	private ExecutorService executor;
+	private BatchExecutor batchExecutor;
+	private int parallelism;
+	private boolean ownExecutor;
+
+	//	constructor with default threads and parallelism
+	public NodeFanOut(OpendaylightClient client){
+		this(client, defaultThreads, defaultParallelism);
+	}
+
+	//	constructor with its own executor, sized as told in BatchExecutor
+	public NodeFanOut(OpendaylightClient client, int threads, int parallelism){
+		this(client, Executors.newFixedThreadPool(threads, new DaemonThreadFactory("NodeFanOut")), parallelism);
+		this.ownExecutor = true;
+	}
+
+	//	base constructor, on an executor of the caller (see BatchExecutor)
+	//	parallelism bounds the concurrent per node calls of one fan-out
+	public NodeFanOut(OpendaylightClient client, ExecutorService executor, int parallelism){
+		this.client = client;
+		this.executor = executor;
+		this.batchExecutor = new BatchExecutor(executor);
+		this.parallelism = Math.max(1, parallelism);
+		this.ownExecutor = false;
+	}
+
+	public void shutdown(){
+		if(ownExecutor){
+			executor.shutdown();
+		}
+	}
+
+	//	-------------------
+	//	Fan-out
+	//	-------------------
+
+	public <T> Result<T> execute(String containerName, Query<T> query) throws Exception{
+		return execute(containerName, query, null, null);
+	}
+
+	public <T> Result<T> execute(String containerName, Query<T> query, Listener<T> listener) throws Exception{
+		return execute(containerName, query, listener, null);
+	}
+
+	//	base method
+	//	Throws if the nodes cannot be listed. Returns when every node is done or the deadline
+	//	expired; the nodes not done by then are failures, and are not reported to the listener
+	public <T> Result<T> execute(final String containerName, final Query<T> query, final Listener<T> listener, Deadline deadline) throws Exception{
+		long start = System.nanoTime();
+		List<String[]> nodes = listNodes(containerName, deadline);
+		BatchExecutor.Listener<String[], T> outcomeListener = null;
+
+		if(listener != null){
+			outcomeListener = new BatchExecutor.Listener<String[], T>(){
+				@Override
+				public void onOutcome(BatchExecutor.Outcome<String[], T> outcome) {
+					String[] node = outcome.getItem();
+
+					if(outcome.isSuccess()){
+						listener.onNode(containerName, node[0], node[1], outcome.getResult());
+					}
+					else{
+						listener.onError(containerName, node[0], node[1], outcome.getError());
+					}
+				}
+			};
+		}
+
+		//	one partition, the nodes share the parallelism
+		List<BatchExecutor.Outcome<String[], T>> outcomes = batchExecutor.run(nodes, new BatchExecutor.TypedOperation<String[], T>(){
+			@Override
+			public String partitionKey(String[] node) {
+				return containerName;
+			}
+
+			@Override
+			public T apply(String[] node) throws Exception {
+				return query.get(client, containerName, node[0], node[1]);
+			}
+		}, parallelism, deadline, null, outcomeListener);
+
+		List<T> nodeResults = new ArrayList<T>(nodes.size());
+		Map<String, Throwable> failures = new LinkedHashMap<String, Throwable>();
+		for(BatchExecutor.Outcome<String[], T> outcome: outcomes){
+			if(outcome.isSuccess()){
+				nodeResults.add(outcome.getResult());
+			}
+			else{
+				//	ids are only unique within a node type
+				failures.put(outcome.getItem()[0] + "|" + outcome.getItem()[1], outcome.getError());
+			}
+		}
+
+		return new Result<T>(containerName, nodes.size(), query.merge(nodeResults), failures, System.nanoTime() - start);
+	}
+
+	//	{type, id} of the nodes of the container
+	private List<String[]> listNodes(String containerName, Deadline deadline) throws Exception{
+		Deadline previous = (deadline != null) ? deadline.bind() : null;
+
+		try{
+			List<String[]> nodes = new ArrayList<String[]>();
+
+			for(JsonNode nodeProperties: JsonUtils.elements(client.getNodePropertiesOfContainer(containerName), "nodeProperties")){
+				String nodeType = JsonUtils.text(nodeProperties, "node", "type");
+				String nodeId = JsonUtils.text(nodeProperties, "node", "id");
+
+				if(nodeType != null && nodeId != null){
+					nodes.add(new String[]{nodeType, nodeId});
+				}
+			}
+			return nodes;
+		}
+		finally{
+			if(deadline != null){
+				Deadline.restore(previous);
+			}
+		}
+	}
+
+	private static JsonNode wrap(String listField, List<JsonNode> results){
+		ObjectNode merged = JsonNodeFactory.instance.objectNode();
+
+		merged.putArray(listField).addAll(results);
+		return merged;
+	}
+
+	private static <E> List<E> concat(List<List<E>> results){
+		int size = 0;
+
+		for(List<E> result: results){
+			size += result.size();
+		}
+
+		List<E> merged = new ArrayList<E>(size);
+		for(List<E> result: results){
+			merged.addAll(result);
+		}
+		return merged;
+	}
+
+	//	-------------------
+	//	Result
+	//	-------------------
+
+	public static class Result<T> {
+		private final String containerName;
+		private final int nodeCount;
+		private final T merged;
+		private final Map<String, Throwable> failures;
+		private final long elapsedNanos;
+
+		Result(String containerName, int nodeCount, T merged, Map<String, Throwable> failures, long elapsedNanos){
+			this.containerName = containerName;
+			this.nodeCount = nodeCount;
+			this.merged = merged;
+			this.failures = Collections.unmodifiableMap(failures);
+			this.elapsedNanos = elapsedNanos;
+		}
+
+		public String getContainerName(){
+			return containerName;
+		}
+
+		public int getNodeCount(){
+			return nodeCount;
+		}
+
+		//	the results of the nodes which succeeded
+		public T getMerged(){
+			return merged;
+		}
+
+		//	true if every node succeeded
+		public boolean isComplete(){
+			return failures.isEmpty();
+		}
+
+		//	node type|id, e.g. "OF|00:00:00:00:00:00:00:01" -> failure,
+		//	timed out nodes with a DeadlineExceededException
+		public Map<String, Throwable> getFailures(){
+			return failures;
+		}
+
+		public long getElapsedMillis(){
+			return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+		}
+
+		@Override
+		public String toString() {
+			return containerName + ": " + (nodeCount - failures.size()) + "/" + nodeCount + " nodes in " + getElapsedMillis() + "ms";
+		}
+	}
+}
@@ -0,0 +1,1224 @@
+package jOpendaylight;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/*
+ * In-process stand-in for the controller northbound REST API, for load and latency testing.
+ * Serves the /controller/nb/v2 mount points used by OpendaylightClient from in-memory state:
+ * a synthetic network of switches, links and hosts, plus per-container flows, routes,
+ * subnets, user links and flowspecs. Statistics counters grow with time while flows are installed.
+ *
+ * Every reply is delayed by a configurable latency, without holding a worker thread,
+ * and errors can be injected per module. Containers other than "default" see the part
+ * of the network given by their node connectors.
+ * Authentication is not checked.
+ */
+public class NorthboundSimulator {
+	private final static String TYPE_OPENFLOW = "OF";
+	private final static String DEFAULT_CONTAINER = "default";
+	private final static String PREFIX = "/controller/nb/v2/";
+	private final static int defaultThreads = 16;
+	private final static long defaultSeed = 42;
+	private final static Charset UTF8 = Charset.forName("UTF-8");
+
+	//	OpenFlow match types reported in flow statistics, by FlowConfig field
+	private final static String[][] MATCH_TYPES = {
+		{"ingressPort", "IN_PORT"}, {"etherType", "DL_TYPE"}, {"vlanId", "DL_VLAN"}, {"vlanPriority", "DL_VLAN_PR"},
+		{"dlSrc", "DL_SRC"}, {"dlDst", "DL_DST"}, {"nwSrc", "NW_SRC"}, {"nwDst", "NW_DST"},
+		{"tosBits", "NW_TOS"}, {"protocol", "NW_PROTO"}, {"tpSrc", "TP_SRC"}, {"tpDst", "TP_DST"}
+	};
+
+	private HttpServer server;
+	private ExecutorService workers;
+	private ScheduledExecutorService replies;
+	private ObjectMapper mapper;
+	private Random random;
+	private long startMillis;
+
+	//	network, shared by all containers
+	private Map<String, Switch> switches;
+	private List<Link> links;
+	private Map<String, ObjectNode> hosts;
+	private Set<String> connectedNodes;
+	private String controllerAddress;
+
+	private Map<String, Container> containers;
+
+	//	fault injection
+	private volatile long minLatencyMillis;
+	private volatile long maxLatencyMillis;
+	private volatile double tailProbability;
+	private volatile long tailLatencyMillis;
+	private Map<String, double[]> errorRates;
+	private volatile int capacity;
+	private volatile int overloadStatusCode;
+	private AtomicInteger inFlight;
+
+	private AtomicLong requestCount;
+	private AtomicLong injectedErrorCount;
+
+	//	constructor with nothing
+	public NorthboundSimulator(int port) throws IOException{
+		this(port, defaultThreads, defaultSeed);
+	}
+
+	//	base constructor
+	//	port 0 picks a free port, see getPort()
+	public NorthboundSimulator(int port, int threads, long seed) throws IOException{
+		mapper = new ObjectMapper();
+		random = new Random(seed);
+		startMillis = System.currentTimeMillis();
+
+		switches = new LinkedHashMap<String, Switch>();
+		links = new ArrayList<Link>();
+		hosts = new LinkedHashMap<String, ObjectNode>();
+		connectedNodes = new HashSet<String>();
+		controllerAddress = "127.0.0.1";
+		containers = new LinkedHashMap<String, Container>();
+		containers.put(DEFAULT_CONTAINER, new Container(DEFAULT_CONTAINER));
+
+		errorRates = new ConcurrentHashMap<String, double[]>();
+		inFlight = new AtomicInteger();
+		requestCount = new AtomicLong();
+		injectedErrorCount = new AtomicLong();
+
+		workers = Executors.newFixedThreadPool(threads, new DaemonThreadFactory("NorthboundSimulator"));
+		replies = Executors.newScheduledThreadPool(Math.max(1, threads / 4), new DaemonThreadFactory("NorthboundSimulator-reply"));
+
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024);
+		server.setExecutor(workers);
+		server.createContext(PREFIX, new HttpHandler(){
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				handleExchange(exchange);
+			}
+		});
+	}
+
+	public void start(){
+		server.start();
+	}
+
+	public void stop(){
+		server.stop(0);
+		replies.shutdownNow();
+		workers.shutdownNow();
+	}
+
+	public int getPort(){
+		return server.getAddress().getPort();
+	}
+
+	public long getRequestCount(){
+		return requestCount.get();
+	}
+
+	public long getInjectedErrorCount(){
+		return injectedErrorCount.get();
+	}
+
+	//	-------------------
+	//	Fault injection
+	//	-------------------
+
+	//	Every reply is delayed by a uniform random latency in [minMillis, maxMillis]
+	public void setLatency(long minMillis, long maxMillis){
+		this.minLatencyMillis = minMillis;
+		this.maxLatencyMillis = Math.max(minMillis, maxMillis);
+	}
+
+	//	With the given probability a reply is delayed by millis instead
+	public void setTailLatency(double probability, long millis){
+		this.tailProbability = probability;
+		this.tailLatencyMillis = millis;
+	}
+
+	//	Requests arriving while maxInFlight others are still unanswered fail with statusCode,
+	//	as an overrun controller does; 0 removes the limit
+	public void setCapacity(int maxInFlight, int statusCode){
+		this.capacity = maxInFlight;
+		this.overloadStatusCode = statusCode;
+	}
+
+	//	Requests of every module fail with statusCode at the given probability
+	public void setErrorRate(double probability, int statusCode){
+		setErrorRate("*", probability, statusCode);
+	}
+
+	//	Requests of one module, e.g. "flowprogrammer", fail with statusCode at the given probability
+	//	A module rate takes precedence over the "*" one, probability 0 clears it
+	public void setErrorRate(String module, double probability, int statusCode){
+		if(probability <= 0){
+			errorRates.remove(module);
+		}
+		else{
+			errorRates.put(module, new double[]{probability, statusCode});
+		}
+	}
+
+	//	-------------------
+	//	Synthetic network
+	//	-------------------
+
+	//	rows x columns switches, each linked to its right and lower neighbour
+	public synchronized void buildGridTopology(int rows, int columns, int hostsPerSwitch){
+		clearNetwork();
+		for(int i = 0; i < rows * columns; i++){
+			addSwitch(nodeId(i));
+		}
+		for(int r = 0; r < rows; r++){
+			for(int c = 0; c < columns; c++){
+				if(c + 1 < columns){
+					addLink(nodeId(r * columns + c), nodeId(r * columns + c + 1));
+				}
+				if(r + 1 < rows){
+					addLink(nodeId(r * columns + c), nodeId((r + 1) * columns + c));
+				}
+			}
+		}
+		addHosts(hostsPerSwitch);
+	}
+
+	//	switches on a ring, plus linksPerSwitch random links from each switch
+	public synchronized void buildRandomTopology(int switchCount, int linksPerSwitch, int hostsPerSwitch){
+		Set<String> linked = new HashSet<String>();
+
+		clearNetwork();
+		for(int i = 0; i < switchCount; i++){
+			addSwitch(nodeId(i));
+		}
+		for(int i = 0; i < switchCount && switchCount > 1; i++){
+			int next = (i + 1) % switchCount;
+
+			if(linked.add(Math.min(i, next) + "-" + Math.max(i, next))){
+				addLink(nodeId(i), nodeId(next));
+			}
+			for(int l = 0; l < linksPerSwitch; l++){
+				int peer = random.nextInt(switchCount);
+
+				if(peer != i && linked.add(Math.min(i, peer) + "-" + Math.max(i, peer))){
+					addLink(nodeId(i), nodeId(peer));
+				}
+			}
+		}
+		addHosts(hostsPerSwitch);
+	}
+
+	public synchronized void addSwitch(String nodeId){
+		if(!switches.containsKey(nodeId)){
+			switches.put(nodeId, new Switch(nodeId, System.currentTimeMillis()));
+			connectedNodes.add(nodeId);
+		}
+	}
+
+	//	Link two switches in both directions through two new ports
+	public synchronized void addLink(String srcId, String dstId){
+		Switch src = switches.get(srcId);
+		Switch dst = switches.get(dstId);
+
+		if(src == null || dst == null){
+			throw new IllegalArgumentException("Unknown switch " + ((src == null) ? srcId : dstId));
+		}
+
+		int srcPort = src.addPort();
+		int dstPort = dst.addPort();
+
+		links.add(new Link(srcId, srcPort, dstId, dstPort));
+		links.add(new Link(dstId, dstPort, srcId, srcPort));
+	}
+
+	//	Attach a host to a new port of a switch
+	public synchronized void addHost(String networkAddress, String dataLayerAddress, String nodeId){
+		Switch node = switches.get(nodeId);
+
+		if(node == null){
+			throw new IllegalArgumentException("Unknown switch " + nodeId);
+		}
+
+		hosts.put(networkAddress, hostConfig(networkAddress, dataLayerAddress, nodeId, node.addPort(), false));
+	}
+
+	//	Only these nodes are listed by the connection manager of this controller,
+	//	to simulate a cluster where each controller owns part of the network
+	public synchronized void setConnectedNodes(Collection<String> nodeIds){
+		connectedNodes = new HashSet<String>(nodeIds);
+	}
+
+	public synchronized void setControllerAddress(String controllerAddress){
+		this.controllerAddress = controllerAddress;
+	}
+
+	public synchronized List<String> getNodeIds(){
+		return new ArrayList<String>(switches.keySet());
+	}
+
+	public synchronized int getFlowCount(String containerName){
+		Container container = containers.get(containerName);
+		return (container != null) ? container.flows.size() : 0;
+	}
+
+	private void clearNetwork(){
+		switches.clear();
+		links.clear();
+		hosts.clear();
+		connectedNodes.clear();
+	}
+
+	private void addHosts(int hostsPerSwitch){
+		int h = 0;
+
+		for(String nodeId: new ArrayList<String>(switches.keySet())){
+			for(int i = 0; i < hostsPerSwitch; i++, h++){
+				addHost("10." + ((h >> 16) & 255) + "." + ((h >> 8) & 255) + "." + (h & 255), AddressUtils.formatMac(0x020000000000L + h), nodeId);
+			}
+		}
+	}
+
+	static String nodeId(int index){
+		return "00:00:" + AddressUtils.formatMac(index + 1);
+	}
+
+	//	-------------------
+	//	Request handling
+	//	-------------------
+
+	private void handleExchange(final HttpExchange exchange) throws IOException{
+		final Reply reply;
+		String method = exchange.getRequestMethod();
+		String[] path = exchange.getRequestURI().getPath().substring(PREFIX.length()).split("/");
+		byte[] body = readBody(exchange.getRequestBody());
+		double[] errorRate;
+
+		requestCount.incrementAndGet();
+
+		for(int i = 0; i < path.length; i++){
+			path[i] = URLDecoder.decode(path[i], "UTF-8");
+		}
+
+		errorRate = errorRates.get(path[0]);
+		if(errorRate == null){
+			errorRate = errorRates.get("*");
+		}
+
+		//	given back in send(...)
+		int load = inFlight.incrementAndGet();
+		int maxInFlight = capacity;
+
+		if(maxInFlight > 0 && load > maxInFlight){
+			injectedErrorCount.incrementAndGet();
+			reply = new Reply(overloadStatusCode, "Overloaded");
+		}
+		else if(errorRate != null && random.nextDouble() < errorRate[0]){
+			injectedErrorCount.incrementAndGet();
+			reply = new Reply((int) errorRate[1], "Injected error");
+		}
+		else{
+			Reply handled;
+
+			try{
+				JsonNode request = (body.length > 0) ? mapper.readTree(body) : null;
+
+				synchronized(this){
+					handled = route(method, path, exchange.getRequestURI().getRawQuery(), request);
+					handled.encode();
+				}
+			}
+			catch(IOException e){
+				handled = new Reply(400, "Malformed request body: " + e.getMessage());
+			}
+			catch(RuntimeException e){
+				handled = new Reply(500, String.valueOf(e));
+			}
+			reply = handled;
+		}
+
+		long latency = nextLatency();
+		if(latency <= 0){
+			send(exchange, reply);
+		}
+		else{
+			replies.schedule(new Runnable(){
+				@Override
+				public void run() {
+					try{
+						send(exchange, reply);
+					}
+					catch(IOException e){
+						exchange.close();
+					}
+				}
+			}, latency, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private long nextLatency(){
+		if(tailProbability > 0 && random.nextDouble() < tailProbability){
+			return tailLatencyMillis;
+		}
+		if(maxLatencyMillis > minLatencyMillis){
+			return minLatencyMillis + (long) (random.nextDouble() * (maxLatencyMillis - minLatencyMillis + 1));
+		}
+		return minLatencyMillis;
+	}
+
+	private void send(HttpExchange exchange, Reply reply) throws IOException{
+		byte[] body = reply.body;
+
+		inFlight.decrementAndGet();
+
+		if(reply.status == 204){
+			exchange.sendResponseHeaders(204, -1);
+			exchange.close();
+			return;
+		}
+
+		exchange.getResponseHeaders().set("Content-Type", (reply.result != null) ? "application/json" : "text/plain");
+		exchange.sendResponseHeaders(reply.status, body.length);
+
+		OutputStream out = exchange.getResponseBody();
+		out.write(body);
+		out.close();
+	}
+
+	private static byte[] readBody(InputStream in) throws IOException{
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		byte[] buffer = new byte[4096];
+		int length;
+
+		while((length = in.read(buffer)) >= 0){
+			result.write(buffer, 0, length);
+		}
+		in.close();
+
+		return result.toByteArray();
+	}
+
+	private Reply route(String method, String[] path, String query, JsonNode request) throws IOException{
+		String module = path[0];
+
+		if(module.equals("containermanager")){
+			return containerManager(method, path, request);
+		}
+		else if(module.equals("connectionmanager")){
+			return connectionManager(method, path, query);
+		}
+
+		if(path.length < 2){
+			return notFound();
+		}
+
+		Container container = containers.get(path[1]);
+		if(container == null){
+			return new Reply(404, "Container " + path[1] + " does not exist");
+		}
+
+		if(module.equals("topology")){
+			return topology(method, path, container, request);
+		}
+		else if(module.equals("hosttracker")){
+			return hostTracker(method, path, container, request);
+		}
+		else if(module.equals("flowprogrammer")){
+			return flowProgrammer(method, path, container, request);
+		}
+		else if(module.equals("staticroute")){
+			return staticRoute(method, path, container, request);
+		}
+		else if(module.equals("statistics")){
+			return statistics(method, path, container);
+		}
+		else if(module.equals("subnetservice")){
+			return subnetService(method, path, container, request);
+		}
+		else if(module.equals("switchmanager")){
+			return switchManager(method, path, container);
+		}
+
+		return notFound();
+	}
+
+	//	topology/{container}[/userLinks | /userLink/{name}]
+	private Reply topology(String method, String[] path, Container container, JsonNode request){
+		if(path.length == 2 && method.equals("GET")){
+			ObjectNode result = mapper.createObjectNode();
+			ArrayNode edges = result.putArray("edgeProperties");
+
+			for(Link link: links){
+				if(container.contains(link.srcId, link.srcPort) && container.contains(link.dstId, link.dstPort)){
+					ObjectNode edgeProperty = edges.addObject();
+					ObjectNode edge = edgeProperty.putObject("edge");
+					ObjectNode properties = edgeProperty.putObject("properties");
+
+					putNodeConnector(edge.putObject("tailNodeConnector"), link.srcId, link.srcPort);
+					putNodeConnector(edge.putObject("headNodeConnector"), link.dstId, link.dstPort);
+					properties.putObject("timeStamp").put("value", startMillis).put("name", "creation");
+					properties.putObject("bandwidth").put("value", 10000000000L);
+				}
+			}
+			return new Reply(result);
+		}
+		else if(path.length == 3 && path[2].equals("userLinks") && method.equals("GET")){
+			ObjectNode result = mapper.createObjectNode();
+			addAll(result.putArray("userLinks"), container.userLinks.values());
+			return new Reply(result);
+		}
+		else if(path.length == 4 && path[2].equals("userLink")){
+			return putOrDelete(method, container.userLinks, path[3], request, false);
+		}
+
+		return notFound();
+	}
+
+	//	hosttracker/{container}/address/{networkAddress} | hosttracker/{container}/hosts/{active|inactive}
+	private Reply hostTracker(String method, String[] path, Container container, JsonNode request){
+		if(path.length == 4 && path[2].equals("address")){
+			String networkAddress = path[3];
+			ObjectNode host = hosts.get(networkAddress);
+
+			if(method.equals("GET")){
+				return (host != null && visible(container, host)) ? new Reply(host) : new Reply(404, "Host " + networkAddress + " not found");
+			}
+			else if(method.equals("PUT")){
+				if(host != null){
+					return new Reply(409, "Host " + networkAddress + " already exists");
+				}
+				if(request == null || !request.isObject()){
+					return new Reply(400, "Missing host configuration");
+				}
+				host = ((ObjectNode) request).deepCopy();
+				host.put("networkAddress", networkAddress);
+				host.put("staticHost", "true");
+				hosts.put(networkAddress, host);
+				return created();
+			}
+			else if(method.equals("DELETE")){
+				if(host == null || !"true".equals(JsonUtils.text(host, "staticHost"))){
+					return new Reply(404, "Static host " + networkAddress + " not found");
+				}
+				hosts.remove(networkAddress);
+				return noContent();
+			}
+		}
+		else if(path.length == 4 && path[2].equals("hosts") && method.equals("GET")){
+			boolean active = path[3].equals("active");
+			ObjectNode result = mapper.createObjectNode();
+			ArrayNode hostConfig = result.putArray("hostConfig");
+
+			for(ObjectNode host: hosts.values()){
+				if(visible(container, host) == active){
+					hostConfig.add(host);
+				}
+			}
+			return new Reply(result);
+		}
+
+		return notFound();
+	}
+
+	//	flowprogrammer/{container}[/node/{type}/{id}[/staticFlow/{name}]]
+	private Reply flowProgrammer(String method, String[] path, Container container, JsonNode request){
+		if(path.length == 2 && method.equals("GET")){
+			return new Reply(flowConfigList(container.flows.values(), null));
+		}
+		else if(path.length == 5 && path[2].equals("node") && method.equals("GET")){
+			return new Reply(flowConfigList(container.flows.values(), path[4]));
+		}
+		else if(path.length == 7 && path[2].equals("node") && path[5].equals("staticFlow")){
+			String nodeId = path[4];
+			String key = nodeId + "/" + path[6];
+			Flow flow = container.flows.get(key);
+
+			if(method.equals("GET")){
+				return (flow != null) ? new Reply(flow.config) : new Reply(404, "Flow " + path[6] + " not found");
+			}
+			else if(method.equals("PUT")){
+				if(!switches.containsKey(nodeId)){
+					return new Reply(404, "Node " + nodeId + " not found");
+				}
+				if(request == null || !request.isObject()){
+					return new Reply(400, "Missing flow configuration");
+				}
+
+				ObjectNode config = ((ObjectNode) request).deepCopy();
+				config.put("name", path[6]);
+				if(!config.has("installInHw")){
+					config.put("installInHw", "true");
+				}
+
+				container.flows.put(key, new Flow(nodeId, config, System.currentTimeMillis()));
+				return (flow == null) ? created() : success();
+			}
+			else if(method.equals("DELETE")){
+				return (container.flows.remove(key) != null) ? noContent() : new Reply(404, "Flow " + path[6] + " not found");
+			}
+			else if(method.equals("POST")){
+				if(flow == null){
+					return new Reply(404, "Flow " + path[6] + " not found");
+				}
+				boolean installed = !"false".equals(JsonUtils.text(flow.config, "installInHw"));
+				flow.config.put("installInHw", installed ? "false" : "true");
+				flow.installedAt = System.currentTimeMillis();
+				return success();
+			}
+		}
+
+		return notFound();
+	}
+
+	private ObjectNode flowConfigList(Collection<Flow> flows, String nodeId){
+		ObjectNode result = mapper.createObjectNode();
+		ArrayNode flowConfig = result.putArray("flowConfig");
+
+		for(Flow flow: flows){
+			if(nodeId == null || flow.nodeId.equals(nodeId)){
+				flowConfig.add(flow.config);
+			}
+		}
+
+		return result;
+	}
+
+	//	staticroute/{container}/routes | staticroute/{container}/route/{name}
+	private Reply staticRoute(String method, String[] path, Container container, JsonNode request){
+		if(path.length == 3 && path[2].equals("routes") && method.equals("GET")){
+			ObjectNode result = mapper.createObjectNode();
+			addAll(result.putArray("staticRoute"), container.routes.values());
+			return new Reply(result);
+		}
+		else if(path.length == 4 && path[2].equals("route")){
+			return putOrDelete(method, container.routes, path[3], request, true);
+		}
+
+		return notFound();
+	}
+
+	//	subnetservice/{container}/subnets | subnetservice/{container}/subnet/{name}
+	private Reply subnetService(String method, String[] path, Container container, JsonNode request){
+		if(path.length == 3 && path[2].equals("subnets") && method.equals("GET")){
+			ObjectNode result = mapper.createObjectNode();
+			addAll(result.putArray("subnetConfig"), container.subnets.values());
+			return new Reply(result);
+		}
+		else if(path.length == 4 && path[2].equals("subnet")){
+			if(method.equals("POST")){
+				if(request == null || !request.isObject()){
+					return new Reply(400, "Missing subnet configuration");
+				}
+				container.subnets.put(path[3], ((ObjectNode) request).deepCopy());
+				return success();
+			}
+			return putOrDelete(method, container.subnets, path[3], request, true);
+		}
+
+		return notFound();
+	}
+
+	//	GET, PUT and DELETE of a named configuration
+	private Reply putOrDelete(String method, Map<String, ObjectNode> configs, String name, JsonNode request, boolean conflictOnPut){
+		ObjectNode config = configs.get(name);
+
+		if(method.equals("GET")){
+			return (config != null) ? new Reply(config) : new Reply(404, name + " not found");
+		}
+		else if(method.equals("PUT")){
+			if(config != null && conflictOnPut){
+				return new Reply(409, name + " already exists");
+			}
+			if(request == null || !request.isObject()){
+				return new Reply(400, "Missing configuration");
+			}
+			config = ((ObjectNode) request).deepCopy();
+			config.put("name", name);
+			configs.put(name, config);
+			return created();
+		}
+		else if(method.equals("DELETE")){
+			return (configs.remove(name) != null) ? noContent() : new Reply(404, name + " not found");
+		}
+
+		return notFound();
+	}
+
+	//	statistics/{container}/{flow|port|table}[/node/{type}/{id}]
+	private Reply statistics(String method, String[] path, Container container){
+		if(!method.equals("GET") || path.length < 3){
+			return notFound();
+		}
+
+		String kind = path[2];
+		long now = System.currentTimeMillis();
+
+		if(!kind.equals("flow") && !kind.equals("port") && !kind.equals("table")){
+			return notFound();
+		}
+
+		if(path.length == 6 && path[3].equals("node")){
+			Switch node = switches.get(path[5]);
+
+			if(node == null || !container.contains(node.id)){
+				return new Reply(404, "Node " + path[5] + " not found");
+			}
+			return new Reply(nodeStatistics(kind, container, node, now));
+		}
+		else if(path.length == 3){
+			ObjectNode result = mapper.createObjectNode();
+			ArrayNode list = result.putArray(kind + "Statistics");
+
+			for(Switch node: switches.values()){
+				if(container.contains(node.id)){
+					list.add(nodeStatistics(kind, container, node, now));
+				}
+			}
+			return new Reply(result);
+		}
+
+		return notFound();
+	}
+
+	private ObjectNode nodeStatistics(String kind, Container container, Switch node, long now){
+		ObjectNode result = mapper.createObjectNode();
+		ArrayNode entries;
+
+		putNode(result.putObject("node"), node.id);
+		entries = result.putArray(kind + "Statistic");
+
+		if(kind.equals("port")){
+			for(int port: node.ports.keySet()){
+				if(container.contains(node.id, port)){
+					long seconds = (now - startMillis) / 1000;
+					long rate = 10 + (port * 31 + node.id.hashCode() & 1023);
+					ObjectNode entry = entries.addObject();
+
+					putNodeConnector(entry.putObject("nodeConnector"), node.id, port);
+					entry.put("receivePackets", seconds * rate);
+					entry.put("transmitPackets", seconds * rate * 2);
+					entry.put("receiveBytes", seconds * rate * 800);
+					entry.put("transmitBytes", seconds * rate * 1600);
+					for(String counter: new String[]{"receiveDrops", "transmitDrops", "receiveErrors", "transmitErrors",
+							"receiveFrameError", "receiveOverRunError", "receiveCrcError", "collisionCount"}){
+						entry.put(counter, 0);
+					}
+				}
+			}
+		}
+		else if(kind.equals("flow")){
+			for(Flow flow: container.flows.values()){
+				if(flow.nodeId.equals(node.id) && !"false".equals(JsonUtils.text(flow.config, "installInHw"))){
+					long millis = now - flow.installedAt;
+					long packets = millis / 10;
+					ObjectNode entry = entries.addObject();
+
+					entry.set("flow", statisticsFlow(flow));
+					entry.put("tableId", 0);
+					entry.put("durationSeconds", millis / 1000);
+					entry.put("durationNanoseconds", (millis % 1000) * 1000000);
+					entry.put("packetCount", packets);
+					entry.put("byteCount", packets * 1000);
+				}
+			}
+		}
+		else{
+			ObjectNode entry = entries.addObject();
+			long matched = 0;
+			int active = 0;
+
+			for(Flow flow: container.flows.values()){
+				if(flow.nodeId.equals(node.id)){
+					matched += (now - flow.installedAt) / 10;
+					active++;
+				}
+			}
+
+			ObjectNode nodeTable = entry.putObject("nodeTable");
+			putNode(nodeTable.putObject("node"), node.id);
+			nodeTable.put("id", "0");
+			entry.put("activeCount", active);
+			entry.put("lookupCount", matched + (now - startMillis) / 100);
+			entry.put("matchedCount", matched);
+			entry.put("maximumEntries", 1000);
+		}
+
+		return result;
+	}
+
+	//	the flow of a flow statistic, in the form the statistics API reports it
+	private ObjectNode statisticsFlow(Flow flow){
+		ObjectNode result = mapper.createObjectNode();
+		ArrayNode matchFields = result.putObject("match").putArray("matchField");
+		ArrayNode actions = result.putArray("actions");
+
+		for(String[] matchType: MATCH_TYPES){
+			String value = JsonUtils.text(flow.config, matchType[0]);
+
+			if(value != null){
+				matchFields.addObject().put("type", matchType[1]).put("value", value);
+			}
+		}
+
+		for(JsonNode action: JsonUtils.elements(flow.config, "actions")){
+			String[] parts = action.asText().split("=", 2);
+			ObjectNode entry = actions.addObject();
+
+			entry.put("type", parts[0]);
+			if(parts[0].equals("OUTPUT") && parts.length == 2){
+				putNodeConnector(entry.putObject("port"), flow.nodeId, Integer.parseInt(parts[1].trim()));
+			}
+		}
+
+		result.put("priority", flow.config.path("priority").asInt(500));
+		result.put("idleTimeout", flow.config.path("idleTimeout").asInt(0));
+		result.put("hardTimeout", flow.config.path("hardTimeout").asInt(0));
+		result.put("id", flow.config.path("cookie").asLong(0));
+
+		return result;
+	}
+
+	//	switchmanager/{container}/nodes | /node/{type}/{id}[/property/{name}[/{value}]]
+	//	| /nodeconnector/{type}/{id}/{type}/{port}/property/{name}[/{value}] | /save
+	private Reply switchManager(String method, String[] path, Container container){
+		if(path.length == 3 && path[2].equals("nodes") && method.equals("GET")){
+			ObjectNode result = mapper.createObjectNode();
+			ArrayNode nodeProperties = result.putArray("nodeProperties");
+
+			for(Switch node: switches.values()){
+				if(container.contains(node.id)){
+					ObjectNode entry = nodeProperties.addObject();
+					putNode(entry.putObject("node"), node.id);
+					putProperties(entry.putObject("properties"), node.properties);
+				}
+			}
+			return new Reply(result);
+		}
+		else if(path.length == 3 && path[2].equals("save") && method.equals("POST")){
+			return success();
+		}
+		else if(path.length >= 5 && path[2].equals("node")){
+			Switch node = switches.get(path[4]);
+
+			if(node == null || !container.contains(node.id)){
+				return new Reply(404, "Node " + path[4] + " not found");
+			}
+
+			if(path.length == 5 && method.equals("GET")){
+				ObjectNode result = mapper.createObjectNode();
+				ArrayNode connectors = result.putArray("nodeConnectorProperties");
+
+				for(Map.Entry<Integer, Map<String, String>> port: node.ports.entrySet()){
+					if(container.contains(node.id, port.getKey())){
+						ObjectNode entry = connectors.addObject();
+						putNodeConnector(entry.putObject("nodeconnector"), node.id, port.getKey());
+						putProperties(entry.putObject("properties"), port.getValue());
+					}
+				}
+				return new Reply(result);
+			}
+			return property(method, path, 5, node.properties);
+		}
+		else if(path.length >= 9 && path[2].equals("nodeconnector")){
+			Switch node = switches.get(path[4]);
+			Map<String, String> properties = null;
+
+			try{
+				properties = (node != null) ? node.ports.get(Integer.parseInt(path[6])) : null;
+			}
+			catch(NumberFormatException e){
+			}
+
+			if(properties == null){
+				return new Reply(404, "Node connector " + path[6] + " not found");
+			}
+			return property(method, path, 7, properties);
+		}
+
+		return notFound();
+	}
+
+	//	.../property/{name} DELETE or .../property/{name}/{value} PUT, path[index] is "property"
+	private Reply property(String method, String[] path, int index, Map<String, String> properties){
+		if(path.length == index + 2 && path[index].equals("property") && method.equals("DELETE")){
+			return (properties.remove(path[index + 1]) != null) ? noContent() : new Reply(404, "Property " + path[index + 1] + " not found");
+		}
+		else if(path.length == index + 3 && path[index].equals("property") && method.equals("PUT")){
+			properties.put(path[index + 1], path[index + 2]);
+			return created();
+		}
+
+		return notFound();
+	}
+
+	//	containermanager/containers | /container/{name}[/flowspecs | /flowspec/{name} | /nodeconnector]
+	private Reply containerManager(String method, String[] path, JsonNode request){
+		if(path.length == 2 && path[1].equals("containers") && method.equals("GET")){
+			ObjectNode result = mapper.createObjectNode();
+			ArrayNode containerConfig = result.putArray("containerConfig");
+
+			for(Container container: containers.values()){
+				containerConfig.add(containerConfig(container));
+			}
+			return new Reply(result);
+		}
+
+		if(path.length < 3 || !path[1].equals("container")){
+			return notFound();
+		}
+
+		String name = path[2];
+		Container container = containers.get(name);
+
+		if(path.length == 3){
+			if(method.equals("PUT")){
+				if(container != null){
+					return new Reply(409, "Container " + name + " already exists");
+				}
+				container = new Container(name);
+				if(request != null){
+					container.staticVlan = JsonUtils.text(request, "staticVlan");
+					for(JsonNode nodeConnector: JsonUtils.elements(request, "nodeConnectors")){
+						container.nodeConnectors.add(nodeConnector.asText());
+					}
+				}
+				containers.put(name, container);
+				return created();
+			}
+			else if(container == null){
+				return new Reply(404, "Container " + name + " does not exist");
+			}
+			else if(method.equals("GET")){
+				return new Reply(containerConfig(container));
+			}
+			else if(method.equals("DELETE")){
+				if(name.equals(DEFAULT_CONTAINER)){
+					return new Reply(403, "The default container cannot be removed");
+				}
+				containers.remove(name);
+				return noContent();
+			}
+			return notFound();
+		}
+
+		if(container == null){
+			return new Reply(404, "Container " + name + " does not exist");
+		}
+
+		if(path.length == 4 && path[3].equals("flowspecs") && method.equals("GET")){
+			ObjectNode result = mapper.createObjectNode();
+			addAll(result.putArray("flowSpecConfig"), container.flowSpecs.values());
+			return new Reply(result);
+		}
+		else if(path.length == 5 && path[3].equals("flowspec")){
+			return putOrDelete(method, container.flowSpecs, path[4], request, true);
+		}
+		else if(path.length == 4 && path[3].equals("nodeconnector")){
+			List<JsonNode> nodeConnectors = JsonUtils.elements(request, "nodeConnectors");
+
+			if(method.equals("PUT")){
+				for(JsonNode nodeConnector: nodeConnectors){
+					container.nodeConnectors.add(nodeConnector.asText());
+				}
+				return success();
+			}
+			else if(method.equals("DELETE")){
+				for(JsonNode nodeConnector: nodeConnectors){
+					container.nodeConnectors.remove(nodeConnector.asText());
+				}
+				return noContent();
+			}
+		}
+
+		return notFound();
+	}
+
+	private ObjectNode containerConfig(Container container){
+		ObjectNode result = mapper.createObjectNode();
+		ArrayNode nodeConnectors;
+
+		result.put("container", container.name);
+		if(container.staticVlan != null){
+			result.put("staticVlan", container.staticVlan);
+		}
+		nodeConnectors = result.putArray("nodeConnectors");
+		for(String nodeConnector: container.nodeConnectors){
+			nodeConnectors.add(nodeConnector);
+		}
+		addAll(result.putArray("flowSpecs"), container.flowSpecs.values());
+
+		return result;
+	}
+
+	//	connectionmanager/nodes[?controller=...] | /node/[{type}/]{id}[/address/{ip}/port/{port}]
+	private Reply connectionManager(String method, String[] path, String query){
+		if(path.length == 2 && path[1].equals("nodes") && method.equals("GET")){
+			ObjectNode result = mapper.createObjectNode();
+			ArrayNode nodes = result.putArray("node");
+			String controller = null;
+
+			if(query != null){
+				for(String parameter: query.split("&")){
+					if(parameter.startsWith("controller=")){
+						controller = parameter.substring("controller=".length());
+					}
+				}
+			}
+
+			if(controller == null || controller.equals(controllerAddress)){
+				for(String nodeId: switches.keySet()){
+					if(connectedNodes.contains(nodeId)){
+						putNode(nodes.addObject(), nodeId);
+					}
+				}
+			}
+			return new Reply(result);
+		}
+		else if(path.length == 4 && path[1].equals("node") && method.equals("DELETE")){
+			return connectedNodes.remove(path[3]) ? noContent() : new Reply(404, "Node " + path[3] + " is not connected");
+		}
+		else if((path.length == 7 || path.length == 8) && path[1].equals("node") && method.equals("PUT")){
+			String nodeId = (path.length == 8) ? path[3] : path[2];
+			ObjectNode result = mapper.createObjectNode();
+
+			addSwitch(nodeId);
+			connectedNodes.add(nodeId);
+			putNode(result, nodeId);
+			return new Reply(result);
+		}
+
+		return notFound();
+	}
+
+	//	-------------------
+	//	JSON helpers
+	//	-------------------
+
+	private boolean visible(Container container, ObjectNode host){
+		String nodeId = JsonUtils.text(host, "nodeId");
+		String port = JsonUtils.text(host, "nodeConnectorId");
+		Switch node = (nodeId != null) ? switches.get(nodeId) : null;
+
+		try{
+			return node != null && port != null && node.ports.containsKey(Integer.parseInt(port)) && container.contains(nodeId, Integer.parseInt(port));
+		}
+		catch(NumberFormatException e){
+			return false;
+		}
+	}
+
+	private ObjectNode hostConfig(String networkAddress, String dataLayerAddress, String nodeId, int port, boolean staticHost){
+		ObjectNode host = mapper.createObjectNode();
+
+		host.put("dataLayerAddress", dataLayerAddress);
+		host.put("nodeType", TYPE_OPENFLOW);
+		host.put("nodeId", nodeId);
+		host.put("nodeConnectorType", TYPE_OPENFLOW);
+		host.put("nodeConnectorId", Integer.toString(port));
+		host.put("vlan", "0");
+		host.put("staticHost", Boolean.toString(staticHost));
+		host.put("networkAddress", networkAddress);
+
+		return host;
+	}
+
+	private static void addAll(ArrayNode target, Collection<ObjectNode> values){
+		for(ObjectNode value: values){
+			target.add(value);
+		}
+	}
+
+	private static void putNode(ObjectNode target, String nodeId){
+		target.put("id", nodeId);
+		target.put("type", TYPE_OPENFLOW);
+	}
+
+	private static void putNodeConnector(ObjectNode target, String nodeId, int port){
+		putNode(target.putObject("node"), nodeId);
+		target.put("id", Integer.toString(port));
+		target.put("type", TYPE_OPENFLOW);
+	}
+
+	//	properties are {"name": {"value": ...}}, numeric values are sent as numbers
+	private static void putProperties(ObjectNode target, Map<String, String> properties){
+		for(Map.Entry<String, String> property: properties.entrySet()){
+			ObjectNode value = target.putObject(property.getKey());
+
+			try{
+				value.put("value", Long.parseLong(property.getValue()));
+			}
+			catch(NumberFormatException e){
+				value.put("value", property.getValue());
+			}
+		}
+	}
+
+	private Reply success(){
+		return new Reply(200, "Success");
+	}
+
+	private Reply created(){
+		return new Reply(201, "Success");
+	}
+
+	private Reply noContent(){
+		return new Reply(204, "");
+	}
+
+	private Reply notFound(){
+		return new Reply(404, "Not found");
+	}
+
+	//	-------------------
+	//	State
+	//	-------------------
+
+	private class Reply {
+		final int status;
+		final JsonNode result;
+		byte[] body;
+
+		Reply(int status, String message){
+			this.status = status;
+			this.result = null;
+			this.body = message.getBytes(UTF8);
+		}
+
+		Reply(JsonNode result){
+			this.status = 200;
+			this.result = result;
+		}
+
+		//	serialize while the state it was built from is still locked
+		void encode() throws IOException{
+			if(body == null){
+				body = mapper.writeValueAsBytes(result);
+			}
+		}
+	}
+
+	private static class Switch {
+		final String id;
+		final Map<String, String> properties;
+		final TreeMap<Integer, Map<String, String>> ports;
+
+		Switch(String id, long connectedSince){
+			this.id = id;
+			this.properties = new TreeMap<String, String>();
+			this.ports = new TreeMap<Integer, Map<String, String>>();
+
+			properties.put("timeStamp", Long.toString(connectedSince));
+			properties.put("macAddress", id.substring(6));
+			properties.put("tables", "255");
+			properties.put("buffers", "256");
+			properties.put("description", "None");
+			properties.put("forwarding", "0");
+		}
+
+		//	next free port, numbered from 1
+		int addPort(){
+			int port = ports.isEmpty() ? 1 : ports.lastKey() + 1;
+			Map<String, String> properties = new TreeMap<String, String>();
+
+			properties.put("name", "s" + id.substring(id.length() - 5).replace(":", "") + "-eth" + port);
+			properties.put("state", "1");
+			properties.put("config", "1");
+			properties.put("bandwidth", "10000000000");
+			ports.put(port, properties);
+
+			return port;
+		}
+	}
+
+	private static class Link {
+		final String srcId;
+		final int srcPort;
+		final String dstId;
+		final int dstPort;
+
+		Link(String srcId, int srcPort, String dstId, int dstPort){
+			this.srcId = srcId;
+			this.srcPort = srcPort;
+			this.dstId = dstId;
+			this.dstPort = dstPort;
+		}
+	}
+
+	private static class Flow {
+		final String nodeId;
+		final ObjectNode config;
+		long installedAt;
+
+		Flow(String nodeId, ObjectNode config, long installedAt){
+			this.nodeId = nodeId;
+			this.config = config;
+			this.installedAt = installedAt;
+		}
+	}
+
+	private static class Container {
+		final String name;
+		String staticVlan;
+		final Set<String> nodeConnectors;		//	"OF|port@OF|nodeId", all of them for the default container
+		final Map<String, Flow> flows;			//	by "nodeId/name"
+		final Map<String, ObjectNode> routes;
+		final Map<String, ObjectNode> subnets;
+		final Map<String, ObjectNode> userLinks;
+		final Map<String, ObjectNode> flowSpecs;
+
+		Container(String name){
+			this.name = name;
+			this.nodeConnectors = new HashSet<String>();
+			this.flows = new LinkedHashMap<String, Flow>();
+			this.routes = new LinkedHashMap<String, ObjectNode>();
+			this.subnets = new LinkedHashMap<String, ObjectNode>();
+			this.userLinks = new LinkedHashMap<String, ObjectNode>();
+			this.flowSpecs = new LinkedHashMap<String, ObjectNode>();
+		}
+
+		boolean isDefault(){
+			return name.equals(DEFAULT_CONTAINER);
+		}
+
+		boolean contains(String nodeId, int port){
+			return isDefault() || nodeConnectors.contains(new SimpleNodeConnector(nodeId, port).toString());
+		}
+
+		boolean contains(String nodeId){
+			if(isDefault()){
+				return true;
+			}
+			for(String nodeConnector: nodeConnectors){
+				if(nodeConnector.endsWith("|" + nodeId)){
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+}
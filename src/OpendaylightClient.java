@@ -13,6 +13,7 @@ import org.apache.http.client.ClientProtocolException;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 public class OpendaylightClient {
 	private final static String TYPE_OPENFLOW = "OF";
@@ -32,6 +33,9 @@ public class OpendaylightClient {
 	
 	private String requestPrefix;
 	private ObjectMapper mapper;
+	private ObjectWriter flowConfigWriter;
+	private RestTransport transport;
+	private ResponseCache cache;
 	
 	//	constructor with nothing
 	public OpendaylightClient(){
@@ -46,8 +50,14 @@ public class OpendaylightClient {
 		this(defaultControllerIp, defaultRestPort, account, password, defaultContainerName);
 	}
 
-	//	base constructor
+	//	constructor with its own pooled transport
 	public OpendaylightClient(String ip, String port, String account, String password, String container){
+		this(ip, port, account, password, container, new RestTransport());
+	}
+	
+	//	base constructor
+	//	the given transport keeps the connection pool to this controller
+	public OpendaylightClient(String ip, String port, String account, String password, String container, RestTransport transport){
 		controllerIp = ip;
 		restPort = port;
 		userAccount = account;
@@ -56,6 +66,72 @@ public class OpendaylightClient {
 		
 		requestPrefix = "http://" + controllerIp + ":" + restPort;
 		mapper = new ObjectMapper();
+		flowConfigWriter = mapper.writerWithType(FlowConfig.class);
+		this.transport = transport;
+	}
+	
+	//	Release the pooled connections to the controller
+	public void shutdown(){
+		transport.shutdown();
+	}
+	
+	public RestTransport getTransport(){
+		return transport;
+	}
+
+	//	Client whose calls must all be done by the deadline, they fail with a DeadlineExceededException after it
+	//	shares the transport and response cache of this client, shutdown() of the returned client does nothing
+	public OpendaylightClient withDeadline(Deadline deadline){
+		OpendaylightClient client = new OpendaylightClient(controllerIp, restPort, userAccount, userPassword, currentContainerName, transport.withDeadline(deadline));
+
+		client.setResponseCache(cache);
+		return client;
+	}
+	
+	public String getControllerIp(){
+		return controllerIp;
+	}
+	
+	//	Cache topology, user links, nodes and node connectors reads, null disables caching.
+	//	Writes through this client invalidate the affected entries.
+	public void setResponseCache(ResponseCache cache){
+		this.cache = cache;
+	}
+	
+	public ResponseCache getResponseCache(){
+		return cache;
+	}
+	
+	//	GET through the response cache when there is one
+	private JsonNode doCachedGetJson(String endpoint, String containerName, final String mountPoint) throws IOException{
+		if(cache == null){
+			return transport.doGetJson(requestPrefix + mountPoint, userAccount, userPassword, mapper);
+		}
+		
+		return cache.get(endpoint, containerName, mountPoint, new ResponseCache.Loader(){
+			@Override
+			public JsonNode load() throws IOException {
+				return transport.doGetJson(requestPrefix + mountPoint, userAccount, userPassword, mapper);
+			}
+		});
+	}
+	
+	private void invalidate(String endpoint, String containerName){
+		if(cache != null){
+			cache.invalidate(endpoint, containerName);
+		}
+	}
+	
+	private void invalidateContainer(String containerName){
+		if(cache != null){
+			cache.invalidateContainer(containerName);
+		}
+	}
+	
+	private void invalidateAll(){
+		if(cache != null){
+			cache.invalidateAll();
+		}
 	}
 	
 	//	---------------------------
@@ -77,7 +153,13 @@ public class OpendaylightClient {
 	public JsonNode getTopology(String containerName) throws JsonProcessingException, MalformedURLException, IOException, RuntimeException{
 		String mountPoint = "/controller/nb/v2/topology/" + containerName;
 		
-		return mapper.readTree(RestUtils.doGet(requestPrefix + mountPoint, userAccount, userPassword));
+		return doCachedGetJson(ResponseCache.TOPOLOGY, containerName, mountPoint);
+	}
+	
+	//	Retrieve the Topology, the body is read by reader, bypassing the response cache
+	public <T> T getTopology(String containerName, EntityReader<T> reader) throws ClientProtocolException, IOException{
+		String mountPoint = "/controller/nb/v2/topology/" + containerName;
+		return transport.doGet(requestPrefix + mountPoint, userAccount, userPassword, reader);
 	}
 	
 	//	Retrieve the user configured links
@@ -89,7 +171,7 @@ public class OpendaylightClient {
 	public JsonNode getUserLinks(String containerName) throws JsonProcessingException, MalformedURLException, IOException, RuntimeException{
 		String mountPoint = "/controller/nb/v2/topology/" + containerName + "/userLinks";
 		
-		return mapper.readTree(RestUtils.doGet(requestPrefix + mountPoint, userAccount, userPassword));
+		return doCachedGetJson(ResponseCache.USER_LINKS, containerName, mountPoint);
 	}
 	
 	//	Add an User Link
@@ -120,7 +202,13 @@ public class OpendaylightClient {
 		String mountPoint = "/controller/nb/v2/topology/" + containerName + "/userLink/" + name;
 		
 		paraString = mapper.writeValueAsString(paraMap);	//	Map -> JSON String
-		return RestUtils.doPut(requestPrefix + mountPoint, paraString, userAccount, userPassword);
+		try{
+			return transport.doPut(requestPrefix + mountPoint, paraString, userAccount, userPassword);
+		}
+		finally{
+			invalidate(ResponseCache.TOPOLOGY, containerName);
+			invalidate(ResponseCache.USER_LINKS, containerName);
+		}
 	}
 	
 	//	Delete an User Link
@@ -132,7 +220,13 @@ public class OpendaylightClient {
 	//	If delete OK, returns null
 	public String deleteUserLink(String containerName, String name) throws ClientProtocolException, IOException{
 		String mountPoint = "/controller/nb/v2/topology/" + containerName + "/userLink/" + name;
-		return RestUtils.doDelete(requestPrefix + mountPoint, userAccount, userPassword);
+		try{
+			return transport.doDelete(requestPrefix + mountPoint, userAccount, userPassword);
+		}
+		finally{
+			invalidate(ResponseCache.TOPOLOGY, containerName);
+			invalidate(ResponseCache.USER_LINKS, containerName);
+		}
 	}
 	
 	/*
@@ -153,7 +247,7 @@ public class OpendaylightClient {
 	//	Returns a host that matches the IP Address value passed as parameter.
 	public JsonNode getHostDetails(String containerName, String networkAddress) throws JsonProcessingException, MalformedURLException, IOException, RuntimeException{
 		String mountPoint = "/controller/nb/v2/hosttracker/" + containerName + "/address/"+ networkAddress;
-		return mapper.readTree(RestUtils.doGet(requestPrefix + mountPoint, userAccount, userPassword));
+		return transport.doGetJson(requestPrefix + mountPoint, userAccount, userPassword, mapper);
 	}
 	
 	//	Add a Static Host configuration. 
@@ -205,7 +299,7 @@ public class OpendaylightClient {
 		String mountPoint = "/controller/nb/v2/hosttracker/" + containerName + "/address/"+ networkAddress;
 		
 		paraString = mapper.writeValueAsString(paraMap);	//	Map -> JSON String
-		return RestUtils.doPut(requestPrefix + mountPoint, paraString, userAccount, userPassword);
+		return transport.doPut(requestPrefix + mountPoint, paraString, userAccount, userPassword);
 	}
 	
 	//	Delete a Static Host configuration
@@ -219,7 +313,7 @@ public class OpendaylightClient {
 	//	If delete successed, returns null 
 	public String deleteStaticHost(String containerName, String networkAddress) throws ClientProtocolException, IOException{
 		String mountPoint = "/controller/nb/v2/hosttracker/" + containerName + "/address/"+ networkAddress;
-		return RestUtils.doDelete(requestPrefix + mountPoint, userAccount, userPassword);
+		return transport.doDelete(requestPrefix + mountPoint, userAccount, userPassword);
 	}
 	
 	//	Returns a list of all Hosts : 
@@ -233,7 +327,13 @@ public class OpendaylightClient {
 	//	both configured via PUT API and dynamically learnt on the network.
 	public JsonNode getActiveHosts(String containerName) throws JsonProcessingException, MalformedURLException, IOException, RuntimeException{
 		String mountPoint = "/controller/nb/v2/hosttracker/" + containerName + "/hosts/active";
-		return mapper.readTree(RestUtils.doGet(requestPrefix + mountPoint, userAccount, userPassword));
+		return transport.doGetJson(requestPrefix + mountPoint, userAccount, userPassword, mapper);
+	}
+	
+	//	Returns a list of all Hosts, the body is read by reader
+	public <T> T getActiveHosts(String containerName, EntityReader<T> reader) throws ClientProtocolException, IOException{
+		String mountPoint = "/controller/nb/v2/hosttracker/" + containerName + "/hosts/active";
+		return transport.doGet(requestPrefix + mountPoint, userAccount, userPassword, reader);
 	}
 	
 	//	Returns a list of Hosts that are statically configured 
@@ -247,7 +347,7 @@ public class OpendaylightClient {
 	//	and are connected to a NodeConnector that is down.
 	public JsonNode getInactiveHosts(String containerName) throws JsonProcessingException, MalformedURLException, IOException, RuntimeException{
 		String mountPoint = "/controller/nb/v2/hosttracker/" + containerName + "/hosts/inactive";
-		return mapper.readTree(RestUtils.doGet(requestPrefix + mountPoint, userAccount, userPassword));
+		return transport.doGetJson(requestPrefix + mountPoint, userAccount, userPassword, mapper);
 	}
 	
 	/*
@@ -266,7 +366,13 @@ public class OpendaylightClient {
 	//	Returns a list of Flows configured on the given container
 	public JsonNode getAllStaticFlowEntries(String containerName) throws JsonProcessingException, MalformedURLException, IOException, RuntimeException{
 		String mountPoint = "/controller/nb/v2/flowprogrammer/" + containerName;
-		return mapper.readTree(RestUtils.doGet(requestPrefix + mountPoint, userAccount, userPassword));
+		return transport.doGetJson(requestPrefix + mountPoint, userAccount, userPassword, mapper);
+	}
+	
+	//	Returns a list of Flows configured on the given container, the body is read by reader
+	public <T> T getAllStaticFlowEntries(String containerName, EntityReader<T> reader) throws ClientProtocolException, IOException{
+		String mountPoint = "/controller/nb/v2/flowprogrammer/" + containerName;
+		return transport.doGet(requestPrefix + mountPoint, userAccount, userPassword, reader);
 	}
 	
 	//	Returns a list of Flows configured on a Node in a given container
@@ -283,7 +389,7 @@ public class OpendaylightClient {
 	//	Returns a list of Flows configured on a Node in a given container
 	public JsonNode getStaticFlowEntries(String containerName, String nodeType, String nodeId) throws JsonProcessingException, MalformedURLException, IOException, RuntimeException{
 		String mountPoint = "/controller/nb/v2/flowprogrammer/" + containerName + "/node/" + nodeType + "/" + nodeId;
-		return mapper.readTree(RestUtils.doGet(requestPrefix + mountPoint, userAccount, userPassword));
+		return transport.doGetJson(requestPrefix + mountPoint, userAccount, userPassword, mapper);
 	}
 	
 	//	Returns the flow configuration matching a human-readable name and nodeId on a given Container.
@@ -300,7 +406,7 @@ public class OpendaylightClient {
 	//	Returns the flow configuration matching a human-readable name and nodeId on a given Container.
 	public JsonNode getStaticFlowEntry(String containerName, String nodeType, String nodeId, String name) throws JsonProcessingException, MalformedURLException, IOException, RuntimeException{
 		String mountPoint = "/controller/nb/v2/flowprogrammer/" + containerName + "/node/" + nodeType + "/" + nodeId + "/staticFlow/" + name;
-		return mapper.readTree(RestUtils.doGet(requestPrefix + mountPoint, userAccount, userPassword));
+		return transport.doGetJson(requestPrefix + mountPoint, userAccount, userPassword, mapper);
 	}
 	
 	//	Add or Modify a simple OpenFlow IPv4 flow configuration.
@@ -373,7 +479,26 @@ public class OpendaylightClient {
 		}
 		
 		paraString = mapper.writeValueAsString(requestMap);	//	Map -> JSON String
-		return RestUtils.doPut(requestPrefix + mountPoint, paraString, userAccount, userPassword);
+		return transport.doPut(requestPrefix + mountPoint, paraString, userAccount, userPassword);
+	}
+	
+	//	Add or Modify a typed flow configuration.
+	//	If the flow exists already, it will replace the current flow.
+	//	If operate success, returns String "Success"
+	public String addOrModifyFlowEntry(FlowConfig flow) throws ClientProtocolException, IOException{
+		return addOrModifyFlowEntry(currentContainerName, flow);
+	}
+	
+	//	base method
+	//	Add or Modify a typed flow configuration.
+	//	If the flow exists already, it will replace the current flow.
+	//	If operate success, returns String "Success"
+	public String addOrModifyFlowEntry(String containerName, FlowConfig flow) throws ClientProtocolException, IOException{
+		String paraString;
+		String mountPoint = "/controller/nb/v2/flowprogrammer/" + containerName + "/node/" + flow.getNodeType() + "/" + flow.getNodeId() + "/staticFlow/" + flow.getName();
+		
+		paraString = flowConfigWriter.writeValueAsString(flow);	//	FlowConfig -> JSON String
+		return transport.doPut(requestPrefix + mountPoint, paraString, userAccount, userPassword);
 	}
 	
 	//	Delete a Flow configuration
@@ -393,7 +518,7 @@ public class OpendaylightClient {
 	//	If delete success, returns null
 	public String deleteFlowEntry(String containerName, String name, String nodeType, String nodeId) throws ClientProtocolException, IOException{
 		String mountPoint = "/controller/nb/v2/flowprogrammer/" + containerName + "/node/" + nodeType + "/" + nodeId + "/staticFlow/" + name;
-		return RestUtils.doDelete(requestPrefix + mountPoint, userAccount, userPassword);
+		return transport.doDelete(requestPrefix + mountPoint, userAccount, userPassword);
 	}
 	
 	//	Toggle a Flow configuration
@@ -417,7 +542,7 @@ public class OpendaylightClient {
 	public String toggleFlowEntry(String containerName, String nodeType, String nodeId, String name) throws MalformedURLException, IOException, RuntimeException{
 		String paraString = "";
 		String mountPoint = "/controller/nb/v2/flowprogrammer/" + containerName + "/node/" + nodeType + "/" + nodeId + "/staticFlow/" + name;
-		return RestUtils.doPost(requestPrefix + mountPoint, paraString, userAccount, userPassword);
+		return transport.doPost(requestPrefix + mountPoint, paraString, userAccount, userPassword);
 	}
 	
 	/*
@@ -436,7 +561,7 @@ public class OpendaylightClient {
 	//	Get a list of static routes present on the given container.
 	public JsonNode getStaticRoutes(String containerName) throws JsonProcessingException, MalformedURLException, IOException, RuntimeException{
 		String mountPoint = "/controller/nb/v2/staticroute/" + containerName + "/routes";
-		return mapper.readTree(RestUtils.doGet(requestPrefix + mountPoint, userAccount, userPassword));
+		return transport.doGetJson(requestPrefix + mountPoint, userAccount, userPassword, mapper);
 	}
 	
 	//	Returns the static route for the provided configuration name on a given container
@@ -448,7 +573,7 @@ public class OpendaylightClient {
 	//	Returns the static route for the provided configuration name on a given container
 	public JsonNode getStaticRoute(String containerName, String routeName) throws JsonProcessingException, MalformedURLException, IOException, RuntimeException{
 		String mountPoint = "/controller/nb/v2/staticroute/" + containerName + "/route/" + routeName;
-		return mapper.readTree(RestUtils.doGet(requestPrefix + mountPoint, userAccount, userPassword));
+		return transport.doGetJson(requestPrefix + mountPoint, userAccount, userPassword, mapper);
 	}
 	
 	//	Add a new Static Route. 
@@ -493,7 +618,7 @@ public class OpendaylightClient {
 		String mountPoint = "/controller/nb/v2/staticroute/" + containerName + "/route/" + routeName;
 		
 		paraString = mapper.writeValueAsString(staticRouteData);	//	Map -> JSON String
-		return RestUtils.doPut(requestPrefix + mountPoint, paraString, userAccount, userPassword);
+		return transport.doPut(requestPrefix + mountPoint, paraString, userAccount, userPassword);
 	}
 	
 	//	Delete a Static Route
@@ -507,7 +632,7 @@ public class OpendaylightClient {
 	//	If operate success, return null
 	public String removeStaticRoute(String containerName, String routeName) throws ClientProtocolException, IOException{
 		String mountPoint = "/controller/nb/v2/staticroute/" + containerName + "/route/" + routeName;
-		return RestUtils.doDelete(requestPrefix + mountPoint, userAccount, userPassword);
+		return transport.doDelete(requestPrefix + mountPoint, userAccount, userPassword);
 	}
 	
 	/*
@@ -526,7 +651,14 @@ public class OpendaylightClient {
 	//	Returns a list of all Flow Statistics from all the Nodes.
 	public JsonNode getFlowStatistics(String containerName) throws JsonProcessingException, MalformedURLException, IOException, RuntimeException{
 		String mountPoint = "/controller/nb/v2/statistics/" + containerName + "/flow";
-		return mapper.readTree(RestUtils.doGet(requestPrefix + mountPoint, userAccount, userPassword));
+		return transport.doGetJson(requestPrefix + mountPoint, userAccount, userPassword, mapper);
+	}
+	
+	//	Returns a list of all Flow Statistics from all the Nodes, the body is read by reader,
+	//	e.g. a JsonProjection
+	public <T> T getFlowStatistics(String containerName, EntityReader<T> reader) throws ClientProtocolException, IOException{
+		String mountPoint = "/controller/nb/v2/statistics/" + containerName + "/flow";
+		return transport.doGet(requestPrefix + mountPoint, userAccount, userPassword, reader);
 	}
 	
 	//	Returns a list of all the Port Statistics across all the NodeConnectors on all the Nodes.
@@ -538,7 +670,14 @@ public class OpendaylightClient {
 	//	Returns a list of all the Port Statistics across all the NodeConnectors on all the Nodes.
 	public JsonNode getPortStatistics(String containerName) throws JsonProcessingException, MalformedURLException, IOException, RuntimeException{
 		String mountPoint = "/controller/nb/v2/statistics/" + containerName + "/port";
-		return mapper.readTree(RestUtils.doGet(requestPrefix + mountPoint, userAccount, userPassword));
+		return transport.doGetJson(requestPrefix + mountPoint, userAccount, userPassword, mapper);
+	}
+	
+	//	Returns a list of all the Port Statistics on all the Nodes, the body is read by reader,
+	//	e.g. a JsonProjection
+	public <T> T getPortStatistics(String containerName, EntityReader<T> reader) throws ClientProtocolException, IOException{
+		String mountPoint = "/controller/nb/v2/statistics/" + containerName + "/port";
+		return transport.doGet(requestPrefix + mountPoint, userAccount, userPassword, reader);
 	}
 	
 	//	Returns a list of all the Table Statistics on all Nodes.
@@ -550,7 +689,14 @@ public class OpendaylightClient {
 	//	Returns a list of all the Table Statistics on all Nodes.
 	public JsonNode getTableStatistics(String containerName) throws JsonProcessingException, MalformedURLException, IOException, RuntimeException{
 		String mountPoint = "/controller/nb/v2/statistics/" + containerName + "/table";
-		return mapper.readTree(RestUtils.doGet(requestPrefix + mountPoint, userAccount, userPassword));
+		return transport.doGetJson(requestPrefix + mountPoint, userAccount, userPassword, mapper);
+	}
+	
+	//	Returns a list of all the Table Statistics on all Nodes, the body is read by reader,
+	//	e.g. a JsonProjection
+	public <T> T getTableStatistics(String containerName, EntityReader<T> reader) throws ClientProtocolException, IOException{
+		String mountPoint = "/controller/nb/v2/statistics/" + containerName + "/table";
+		return transport.doGet(requestPrefix + mountPoint, userAccount, userPassword, reader);
 	}
 	
 	//	Returns a list of Flow Statistics for a given Node.
@@ -567,7 +713,7 @@ public class OpendaylightClient {
 	//	Returns a list of Flow Statistics for a given Node.
 	public JsonNode getFlowStatistics(String containerName, String nodeType, String nodeId) throws JsonProcessingException, MalformedURLException, IOException, RuntimeException{
 		String mountPoint = "/controller/nb/v2/statistics/" + containerName + "/flow/node/" + nodeType + "/" + nodeId;
-		return mapper.readTree(RestUtils.doGet(requestPrefix + mountPoint, userAccount, userPassword));
+		return transport.doGetJson(requestPrefix + mountPoint, userAccount, userPassword, mapper);
 	}
 	
 	//	Returns a list of all the Port Statistics across all the NodeConnectors in a given Node.
@@ -584,7 +730,7 @@ public class OpendaylightClient {
 	//	Returns a list of all the Port Statistics across all the NodeConnectors in a given Node.
 	public JsonNode getPortStatistics(String containerName, String nodeType, String nodeId) throws JsonProcessingException, MalformedURLException, IOException, RuntimeException{
 		String mountPoint = "/controller/nb/v2/statistics/" + containerName + "/port/node/" + nodeType + "/" + nodeId;
-		return mapper.readTree(RestUtils.doGet(requestPrefix + mountPoint, userAccount, userPassword));
+		return transport.doGetJson(requestPrefix + mountPoint, userAccount, userPassword, mapper);
 	}
 	
 	//	Returns a list of all the Table Statistics on a specific node.
@@ -601,9 +747,68 @@ public class OpendaylightClient {
 	//	Returns a list of all the Table Statistics on a specific node.
 	public JsonNode getTableStatistics(String containerName, String nodeType, String nodeId) throws JsonProcessingException, MalformedURLException, IOException, RuntimeException{
 		String mountPoint = "/controller/nb/v2/statistics/" + containerName + "/table/node/" + nodeType + "/" + nodeId;
-		return mapper.readTree(RestUtils.doGet(requestPrefix + mountPoint, userAccount, userPassword));
+		return transport.doGetJson(requestPrefix + mountPoint, userAccount, userPassword, mapper);
 	}
-	
+
+	//	Typed statistics, decoded while streaming the body without building a JsonNode tree
+
+	//	Returns the Flow Statistics of all the Nodes.
+	public List<FlowStatistic> getFlowStatisticList() throws ClientProtocolException, IOException{
+		return getFlowStatisticList(currentContainerName);
+	}
+
+	//	base method
+	//	Returns the Flow Statistics of all the Nodes.
+	public List<FlowStatistic> getFlowStatisticList(String containerName) throws ClientProtocolException, IOException{
+		String mountPoint = "/controller/nb/v2/statistics/" + containerName + "/flow";
+		return transport.doGet(requestPrefix + mountPoint, userAccount, userPassword, StatisticsReader.FLOW);
+	}
+
+	//	base method
+	//	Returns the Flow Statistics of a given Node.
+	public List<FlowStatistic> getFlowStatisticList(String containerName, String nodeType, String nodeId) throws ClientProtocolException, IOException{
+		String mountPoint = "/controller/nb/v2/statistics/" + containerName + "/flow/node/" + nodeType + "/" + nodeId;
+		return transport.doGet(requestPrefix + mountPoint, userAccount, userPassword, StatisticsReader.FLOW);
+	}
+
+	//	Returns the Port Statistics of all the NodeConnectors on all the Nodes.
+	public List<PortStatistic> getPortStatisticList() throws ClientProtocolException, IOException{
+		return getPortStatisticList(currentContainerName);
+	}
+
+	//	base method
+	//	Returns the Port Statistics of all the NodeConnectors on all the Nodes.
+	public List<PortStatistic> getPortStatisticList(String containerName) throws ClientProtocolException, IOException{
+		String mountPoint = "/controller/nb/v2/statistics/" + containerName + "/port";
+		return transport.doGet(requestPrefix + mountPoint, userAccount, userPassword, StatisticsReader.PORT);
+	}
+
+	//	base method
+	//	Returns the Port Statistics of all the NodeConnectors in a given Node.
+	public List<PortStatistic> getPortStatisticList(String containerName, String nodeType, String nodeId) throws ClientProtocolException, IOException{
+		String mountPoint = "/controller/nb/v2/statistics/" + containerName + "/port/node/" + nodeType + "/" + nodeId;
+		return transport.doGet(requestPrefix + mountPoint, userAccount, userPassword, StatisticsReader.PORT);
+	}
+
+	//	Returns the Table Statistics of all the Nodes.
+	public List<TableStatistic> getTableStatisticList() throws ClientProtocolException, IOException{
+		return getTableStatisticList(currentContainerName);
+	}
+
+	//	base method
+	//	Returns the Table Statistics of all the Nodes.
+	public List<TableStatistic> getTableStatisticList(String containerName) throws ClientProtocolException, IOException{
+		String mountPoint = "/controller/nb/v2/statistics/" + containerName + "/table";
+		return transport.doGet(requestPrefix + mountPoint, userAccount, userPassword, StatisticsReader.TABLE);
+	}
+
+	//	base method
+	//	Returns the Table Statistics of a given Node.
+	public List<TableStatistic> getTableStatisticList(String containerName, String nodeType, String nodeId) throws ClientProtocolException, IOException{
+		String mountPoint = "/controller/nb/v2/statistics/" + containerName + "/table/node/" + nodeType + "/" + nodeId;
+		return transport.doGet(requestPrefix + mountPoint, userAccount, userPassword, StatisticsReader.TABLE);
+	}
+
 	/*
 	 * Title:    Subnets REST APIs
 	 * Module:   org.opendaylight.controller.subnets.northbound.SubnetsNorthbound
@@ -620,7 +825,7 @@ public class OpendaylightClient {
 	//	List all the subnets in a given container
 	public JsonNode listSubnets(String containerName) throws JsonProcessingException, MalformedURLException, IOException, RuntimeException{
 		String mountPoint = "/controller/nb/v2/subnetservice/" + containerName + "/subnets";
-		return mapper.readTree(RestUtils.doGet(requestPrefix + mountPoint, userAccount, userPassword));
+		return transport.doGetJson(requestPrefix + mountPoint, userAccount, userPassword, mapper);
 	}
 	
 	//	List the configuration of a subnet in a given container
@@ -632,7 +837,7 @@ public class OpendaylightClient {
 	//	List the configuration of a subnet in a given container
 	public JsonNode listSubnet(String containerName, String subnetName) throws JsonProcessingException, MalformedURLException, IOException, RuntimeException{
 		String mountPoint = "/controller/nb/v2/subnetservice/" + containerName + "/subnet/" + subnetName;
-		return mapper.readTree(RestUtils.doGet(requestPrefix + mountPoint, userAccount, userPassword));
+		return transport.doGetJson(requestPrefix + mountPoint, userAccount, userPassword, mapper);
 	}
 	
 	//	Add a subnet into the specified container context, node connectors are optional
@@ -672,7 +877,7 @@ public class OpendaylightClient {
 		
 		
 		paraString = mapper.writeValueAsString(request);	//	Map -> JSON String
-		return RestUtils.doPut(requestPrefix + mountPoint, paraString, userAccount, userPassword);
+		return transport.doPut(requestPrefix + mountPoint, paraString, userAccount, userPassword);
 	}
 	
 	//	Delete a subnet from the specified container context
@@ -686,7 +891,7 @@ public class OpendaylightClient {
 	//	If delete success, return null
 	public String removeSubnet(String containerName, String subnetName) throws ClientProtocolException, IOException{
 		String mountPoint = "/controller/nb/v2/subnetservice/" + containerName + "/subnet/" + subnetName;
-		return RestUtils.doDelete(requestPrefix + mountPoint, userAccount, userPassword);
+		return transport.doDelete(requestPrefix + mountPoint, userAccount, userPassword);
 	}
 	
 	//	Modify a subnet. Replace the existing subnet with the new specified one. 
@@ -722,7 +927,7 @@ public class OpendaylightClient {
 		}
 		
 		paraString = mapper.writeValueAsString(request);	//	Map -> JSON String
-		return RestUtils.doPost(requestPrefix + mountPoint, paraString, userAccount, userPassword);
+		return transport.doPost(requestPrefix + mountPoint, paraString, userAccount, userPassword);
 	}
 	
 	/*
@@ -742,7 +947,7 @@ public class OpendaylightClient {
 	//	Retrieve a list of all the nodes and their properties in the network
 	public JsonNode getNodePropertiesOfContainer(String containerName) throws JsonProcessingException, MalformedURLException, IOException, RuntimeException{
 		String mountPoint = "/controller/nb/v2/switchmanager/" + containerName + "/nodes";
-		return mapper.readTree(RestUtils.doGet(requestPrefix + mountPoint, userAccount, userPassword));
+		return doCachedGetJson(ResponseCache.NODES, containerName, mountPoint);
 	}
 	
 	//	Save the current switch configurations
@@ -757,7 +962,7 @@ public class OpendaylightClient {
 	public String saveSwitchConfig(String containerName) throws MalformedURLException, IOException, RuntimeException{
 		String paraString = "";
 		String mountPoint = "/controller/nb/v2/switchmanager/" + containerName + "/save";
-		return RestUtils.doPost(requestPrefix + mountPoint, paraString, userAccount, userPassword);
+		return transport.doPost(requestPrefix + mountPoint, paraString, userAccount, userPassword);
 	}
 	
 	//	Retrieve a list of all the nodeconnectors and their properties in a given node
@@ -774,7 +979,7 @@ public class OpendaylightClient {
 	//	Retrieve a list of all the nodeconnectors and their properties in a given node
 	public JsonNode getNodeConnectors(String containerName, String nodeType, String nodeId) throws JsonProcessingException, MalformedURLException, IOException, RuntimeException{
 		String mountPoint = "/controller/nb/v2/switchmanager/" + containerName + "/node/" + nodeType + "/" + nodeId;
-		return mapper.readTree(RestUtils.doGet(requestPrefix + mountPoint, userAccount, userPassword));
+		return doCachedGetJson(ResponseCache.NODE_CONNECTORS, containerName, mountPoint);
 	}
 	
 	//	Delete a property of a node
@@ -794,7 +999,12 @@ public class OpendaylightClient {
 	//	If delete success, return null
 	public String deleteNodeProperty(String containerName, String nodeType, String nodeId, String propertyName) throws ClientProtocolException, IOException{
 		String mountPoint = "/controller/nb/v2/switchmanager/" + containerName + "/node/" + nodeType + "/" + nodeId + "/property/" + propertyName;
-		return RestUtils.doDelete(requestPrefix + mountPoint, userAccount, userPassword);
+		try{
+			return transport.doDelete(requestPrefix + mountPoint, userAccount, userPassword);
+		}
+		finally{
+			invalidate(ResponseCache.NODES, containerName);
+		}
 	}
 	
 	//	Add a Description, Tier and Forwarding mode property to a node. 
@@ -818,7 +1028,12 @@ public class OpendaylightClient {
 	public String addNodeProperty(String containerName, String nodeType, String nodeId, String propertyName, String propertyValue) throws ClientProtocolException, IOException{
 		String paraString = "";
 		String mountPoint = "/controller/nb/v2/switchmanager/" + containerName + "/node/" + nodeType + "/" + nodeId + "/property/" + propertyName + "/" + propertyValue;
-		return RestUtils.doPut(requestPrefix + mountPoint, paraString, userAccount, userPassword);
+		try{
+			return transport.doPut(requestPrefix + mountPoint, paraString, userAccount, userPassword);
+		}
+		finally{
+			invalidate(ResponseCache.NODES, containerName);
+		}
 	}
 	
 	//	Delete a property of a node connector
@@ -841,7 +1056,12 @@ public class OpendaylightClient {
 	//	Delete a property of a node connector
 	public String deleteNodeConnectorProperty(String containerName, String nodeType, String nodeId, String nodeConnectorType, int nodeConnectorId, String propertyName) throws ClientProtocolException, IOException{
 		String mountPoint = "/controller/nb/v2/switchmanager/" + containerName + "/nodeconnector/" + nodeType + "/" + nodeId + "/" + nodeConnectorType + "/" + nodeConnectorId + "/property/" + propertyName;
-		return RestUtils.doDelete(requestPrefix + mountPoint, userAccount, userPassword);
+		try{
+			return transport.doDelete(requestPrefix + mountPoint, userAccount, userPassword);
+		}
+		finally{
+			invalidate(ResponseCache.NODE_CONNECTORS, containerName);
+		}
 	}
 	
 	//	Add node-connector property to a node connector. 
@@ -873,7 +1093,12 @@ public class OpendaylightClient {
 	public String addNodeConnectorProperty(String containerName, String nodeType, String nodeId, String nodeConnectorType, int nodeConnectorId, String propertyName, String propertyValue) throws ClientProtocolException, IOException{
 		String paraString = "";
 		String mountPoint = "/controller/nb/v2/switchmanager/" + containerName + "/nodeconnector/" + nodeType + "/" + nodeId + "/" + nodeConnectorType + "/" + nodeConnectorId + "/property/" + propertyName + "/" + propertyValue;
-		return RestUtils.doPut(requestPrefix + mountPoint, paraString, userAccount, userPassword);
+		try{
+			return transport.doPut(requestPrefix + mountPoint, paraString, userAccount, userPassword);
+		}
+		finally{
+			invalidate(ResponseCache.NODE_CONNECTORS, containerName);
+		}
 	}
 	
 	/*
@@ -896,13 +1121,13 @@ public class OpendaylightClient {
 	//	Get all the containers configured in the system
 	public JsonNode viewAllContainers() throws JsonProcessingException, MalformedURLException, IOException, RuntimeException{
 		String mountPoint = "/controller/nb/v2/containermanager/containers";
-		return mapper.readTree(RestUtils.doGet(requestPrefix + mountPoint, userAccount, userPassword));
+		return transport.doGetJson(requestPrefix + mountPoint, userAccount, userPassword, mapper);
 	}
 	
 	//	Get the container configuration for container name requested
 	public JsonNode viewContainer(String container) throws JsonProcessingException, MalformedURLException, IOException, RuntimeException{
 		String mountPoint = "/controller/nb/v2/containermanager/container/" + container;
-		return mapper.readTree(RestUtils.doGet(requestPrefix + mountPoint, userAccount, userPassword));
+		return transport.doGetJson(requestPrefix + mountPoint, userAccount, userPassword, mapper);
 	}
 	
 	//	Create a container
@@ -941,19 +1166,29 @@ public class OpendaylightClient {
 		String mountPoint = "/controller/nb/v2/containermanager/container/" + containerName;
 		
 		paraString = mapper.writeValueAsString(paraMap);	//	Map -> JSON String
-		return RestUtils.doPut(requestPrefix + mountPoint, paraString, userAccount, userPassword);
+		try{
+			return transport.doPut(requestPrefix + mountPoint, paraString, userAccount, userPassword);
+		}
+		finally{
+			invalidateContainer(containerName);
+		}
 	}
 	
 	//	Delete a container
 	public String removeContainer(String containerName) throws ClientProtocolException, IOException{
 		String mountPoint = "/controller/nb/v2/containermanager/container/" + containerName;
-		return RestUtils.doDelete(requestPrefix + mountPoint, userAccount, userPassword);
+		try{
+			return transport.doDelete(requestPrefix + mountPoint, userAccount, userPassword);
+		}
+		finally{
+			invalidateContainer(containerName);
+		}
 	}
 	
 	//	Get all the flowspec in a given container
 	public JsonNode viewContainerFlowSpecs(String containerName) throws JsonProcessingException, MalformedURLException, IOException, RuntimeException{
 		String mountPoint = "/controller/nb/v2/containermanager/container/" + containerName + "/flowspecs";
-		return mapper.readTree(RestUtils.doGet(requestPrefix + mountPoint, userAccount, userPassword));
+		return transport.doGetJson(requestPrefix + mountPoint, userAccount, userPassword, mapper);
 	}
 	
 	//	Add a node connector to a container
@@ -976,7 +1211,12 @@ public class OpendaylightClient {
 		paraMap.put("nodeConnectors", nodeConnectors);
 		
 		paraString = mapper.writeValueAsString(paraMap);	//	Map -> JSON String
-		return RestUtils.doPut(requestPrefix + mountPoint, paraString, userAccount, userPassword);
+		try{
+			return transport.doPut(requestPrefix + mountPoint, paraString, userAccount, userPassword);
+		}
+		finally{
+			invalidateContainer(containerName);
+		}
 	}
 	
 	//	Remove a node connector from a container
@@ -1000,13 +1240,18 @@ public class OpendaylightClient {
 		
 		paraString = mapper.writeValueAsString(paraMap);	//	Map -> JSON String
 		
-		return RestUtils.doDelete(requestPrefix + mountPoint, paraString, userAccount, userPassword);
+		try{
+			return transport.doDelete(requestPrefix + mountPoint, paraString, userAccount, userPassword);
+		}
+		finally{
+			invalidateContainer(containerName);
+		}
 	}
 	
 	//	Get flowspec within a given container
 	public JsonNode viewContainerFlowSpec(String containerName, String flowspecName) throws JsonProcessingException, MalformedURLException, IOException, RuntimeException{
 		String mountPoint = "/controller/nb/v2/containermanager/container/" + containerName + "/flowspec/" + flowspecName;
-		return mapper.readTree(RestUtils.doGet(requestPrefix + mountPoint, userAccount, userPassword));
+		return transport.doGetJson(requestPrefix + mountPoint, userAccount, userPassword, mapper);
 	}
 	
 	//	Add flowspec to a container
@@ -1020,13 +1265,13 @@ public class OpendaylightClient {
 		}
 		
 		paraString = mapper.writeValueAsString(paraMap);	//	Map -> JSON String
-		return RestUtils.doPut(requestPrefix + mountPoint, paraString, userAccount, userPassword);
+		return transport.doPut(requestPrefix + mountPoint, paraString, userAccount, userPassword);
 	}
 	
 	//	Remove flowspec from a container
 	public String removeFlowSpec(String containerName, String flowspecName) throws ClientProtocolException, IOException{
 		String mountPoint = "/controller/nb/v2/containermanager/container/" + containerName + "/flowspec/" + flowspecName;
-		return RestUtils.doDelete(requestPrefix + mountPoint, userAccount, userPassword);
+		return transport.doDelete(requestPrefix + mountPoint, userAccount, userPassword);
 	}
 	
 	//	TODO: test connect(...) and disconnect(...) when migrate switches to other controller
@@ -1049,14 +1294,14 @@ public class OpendaylightClient {
 		
 		if(controllerAddress == null || controllerAddress.equals("")){
 			//	no controllerAddress
-			return mapper.readTree(RestUtils.doGet(requestPrefix + mountPoint, userAccount, userPassword));
+			return transport.doGetJson(requestPrefix + mountPoint, userAccount, userPassword, mapper);
 		}
 		else{
 			Map<String, String> paraMap;
 			paraMap = new TreeMap<String, String>();
 			paraMap.put("controller", controllerAddress);
 			
-			return mapper.readTree(RestUtils.doGet(requestPrefix + mountPoint, paraMap, userAccount, userPassword));
+			return transport.doGetJson(requestPrefix + mountPoint, paraMap, userAccount, userPassword, mapper);
 		}
 	}
 	
@@ -1069,7 +1314,12 @@ public class OpendaylightClient {
 	//	Disconnect an existing Connection.
 	public String disconnect(String nodeType, String nodeId) throws ClientProtocolException, IOException{
 		String mountPoint = "/controller/nb/v2/connectionmanager/node/" + nodeType + "/" + nodeId;
-		return RestUtils.doDelete(requestPrefix + mountPoint, userAccount, userPassword);
+		try{
+			return transport.doDelete(requestPrefix + mountPoint, userAccount, userPassword);
+		}
+		finally{
+			invalidateAll();
+		}
 	}
 	
 	//	If a Network Configuration Service needs a Management Connection 
@@ -1078,7 +1328,12 @@ public class OpendaylightClient {
 	public JsonNode connect(String nodeId, String ipAddress, int port) throws JsonProcessingException, ClientProtocolException, IOException{
 		String paraString = "";
 		String mountPoint = "/controller/nb/v2/connectionmanager/node/" + nodeId+ "/address/" + ipAddress+ "/port/" + port;
-		return mapper.readTree(RestUtils.doPut(requestPrefix + mountPoint, paraString, userAccount, userPassword));
+		try{
+			return mapper.readTree(transport.doPut(requestPrefix + mountPoint, paraString, userAccount, userPassword));
+		}
+		finally{
+			invalidateAll();
+		}
 	}
 	
 	//	If a Network Configuration Service needs a Management Connection, 
@@ -1095,6 +1350,11 @@ public class OpendaylightClient {
 	public JsonNode connect(String nodeType, String nodeId, String ipAddress, int port) throws JsonProcessingException, ClientProtocolException, IOException{
 		String paraString = "";
 		String mountPoint = "/controller/nb/v2/connectionmanager/node/" + nodeType + "/" + nodeId + "/address/" + ipAddress + "/port/" + port;
-		return mapper.readTree(RestUtils.doPut(requestPrefix + mountPoint, paraString, userAccount, userPassword));
+		try{
+			return mapper.readTree(transport.doPut(requestPrefix + mountPoint, paraString, userAccount, userPassword));
+		}
+		finally{
+			invalidateAll();
+		}
 	}
 }
@@ -0,0 +1,97 @@
+package jOpendaylight;
+
+//	Counters of one node connector, as reported by the statistics northbound.
+//	Decoded from the response stream by getPortStatisticList(...), without a JsonNode tree.
+public class PortStatistic {
+	String nodeType;
+	String nodeId;
+	String nodeConnectorType;
+	String nodeConnectorId;
+	long receivePackets;
+	long transmitPackets;
+	long receiveBytes;
+	long transmitBytes;
+	long receiveDrops;
+	long transmitDrops;
+	long receiveErrors;
+	long transmitErrors;
+	long receiveFrameError;
+	long receiveOverRunError;
+	long receiveCrcError;
+	long collisionCount;
+	
+	//	filled by StatisticsReader
+	PortStatistic(){
+	}
+	
+	public String getNodeType(){
+		return nodeType;
+	}
+	
+	public String getNodeId(){
+		return nodeId;
+	}
+	
+	public String getNodeConnectorType(){
+		return nodeConnectorType;
+	}
+	
+	//	port number for OpenFlow
+	public String getNodeConnectorId(){
+		return nodeConnectorId;
+	}
+	
+	public long getReceivePackets(){
+		return receivePackets;
+	}
+	
+	public long getTransmitPackets(){
+		return transmitPackets;
+	}
+	
+	public long getReceiveBytes(){
+		return receiveBytes;
+	}
+	
+	public long getTransmitBytes(){
+		return transmitBytes;
+	}
+	
+	public long getReceiveDrops(){
+		return receiveDrops;
+	}
+	
+	public long getTransmitDrops(){
+		return transmitDrops;
+	}
+	
+	public long getReceiveErrors(){
+		return receiveErrors;
+	}
+	
+	public long getTransmitErrors(){
+		return transmitErrors;
+	}
+	
+	public long getReceiveFrameError(){
+		return receiveFrameError;
+	}
+	
+	public long getReceiveOverRunError(){
+		return receiveOverRunError;
+	}
+	
+	public long getReceiveCrcError(){
+		return receiveCrcError;
+	}
+	
+	public long getCollisionCount(){
+		return collisionCount;
+	}
+	
+	@Override
+	public String toString() {
+		return nodeType + "|" + nodeId + "/" + nodeConnectorId + " rx " + receivePackets + "p/" + receiveBytes + "B tx " 
+				+ transmitPackets + "p/" + transmitBytes + "B";
+	}
+}
@@ -0,0 +1,554 @@
+package jOpendaylight;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.client.ClientProtocolException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+/*
+ * RestTransport which retries, hedges and short-circuits the idempotent calls.
+ * - GET, PUT and DELETE are retried on no response, 429 and 5xx (but 501),
+ *   with full jitter exponential backoff. POST, e.g. a flow toggle, is never retried,
+ *   nor is a call whose answer could not be read.
+ * - A GET still running after the p95 latency of its endpoint (see RestMetrics)
+ *   is sent a second time, the first answer wins.
+ * - Each endpoint has a CircuitBreaker which fails fast while the controller keeps failing.
+ * Use it as the transport of an OpendaylightClient.
+ * Under a Deadline, a retry which cannot wait its backoff in the time left is not made,
+ * and a DeadlineExceededException is neither retried nor counted by the breaker.
+ * A GET with an EntityReader streams the body to the reader, once per attempt, only if the
+ * reader is EntityReader.Replayable; otherwise the body is buffered, and read once when an
+ * attempt got it.
+ */
+public class ResilientTransport extends RestTransport {
+	private final static int defaultMaxAttempts = 3;
+	private final static long defaultBaseBackoffMillis = 50;
+	private final static long defaultMaxBackoffMillis = 2000;
+	private final static double defaultHedgePercentile = 0.95;
+	private final static long defaultMinHedgeSamples = 100;
+	private final static int defaultMaxHedgesInFlight = 8;
+	private final static long hedgeDelayRefreshMillis = 1000;
+	private final static double defaultFailureRatio = 0.5;
+	private final static int defaultBreakerWindow = 20;
+	private final static int defaultBreakerMinCalls = 10;
+	private final static long defaultOpenMillis = 5000;
+	private final static EntityReader<byte[]> BODY_READER = new BodyReader();
+
+	private volatile int maxAttempts;
+	private volatile long baseBackoffMillis;
+	private volatile long maxBackoffMillis;
+	private volatile boolean hedging;
+	private volatile double hedgePercentile;
+	private volatile int maxHedgesInFlight;
+	private volatile double failureRatio;
+	private volatile int breakerWindow;
+	private volatile long openMillis;
+
+	private ExecutorService hedgeExecutor;
+	private ConcurrentHashMap<String, CircuitBreaker> breakers;
+	private ConcurrentHashMap<String, long[]> hedgeDelays;
+	private AtomicInteger hedgesInFlight;
+	private Random random;
+
+	private AtomicLong retryCount;
+	private AtomicLong hedgeCount;
+	private AtomicLong hedgeWinCount;
+	private AtomicLong shortCircuitCount;
+
+	//	constructor with nothing
+	public ResilientTransport(){
+		super();
+		init();
+	}
+
+	//	constructor with pool size only
+	public ResilientTransport(int maxTotalConnections, int maxConnectionsPerRoute){
+		super(maxTotalConnections, maxConnectionsPerRoute);
+		init();
+	}
+
+	//	base constructor, see RestTransport
+	public ResilientTransport(int maxTotalConnections, int maxConnectionsPerRoute, long keepAliveMillis, long idleTimeoutMillis){
+		super(maxTotalConnections, maxConnectionsPerRoute, keepAliveMillis, idleTimeoutMillis);
+		init();
+	}
+
+	//	view constructor, shares the breakers, hedge pool and counters of transport
+	protected ResilientTransport(ResilientTransport transport, Deadline deadline){
+		super(transport, deadline);
+
+		maxAttempts = transport.maxAttempts;
+		baseBackoffMillis = transport.baseBackoffMillis;
+		maxBackoffMillis = transport.maxBackoffMillis;
+		hedging = transport.hedging;
+		hedgePercentile = transport.hedgePercentile;
+		maxHedgesInFlight = transport.maxHedgesInFlight;
+		failureRatio = transport.failureRatio;
+		breakerWindow = transport.breakerWindow;
+		openMillis = transport.openMillis;
+
+		hedgeExecutor = transport.hedgeExecutor;
+		breakers = transport.breakers;
+		hedgeDelays = transport.hedgeDelays;
+		hedgesInFlight = transport.hedgesInFlight;
+		random = transport.random;
+
+		retryCount = transport.retryCount;
+		hedgeCount = transport.hedgeCount;
+		hedgeWinCount = transport.hedgeWinCount;
+		shortCircuitCount = transport.shortCircuitCount;
+	}
+
+	//	settings made on this transport afterwards do not apply to the view
+	@Override
+	public ResilientTransport withDeadline(Deadline deadline){
+		return new ResilientTransport(this, deadline);
+	}
+
+	private void init(){
+		maxAttempts = defaultMaxAttempts;
+		baseBackoffMillis = defaultBaseBackoffMillis;
+		maxBackoffMillis = defaultMaxBackoffMillis;
+		hedging = true;
+		hedgePercentile = defaultHedgePercentile;
+		maxHedgesInFlight = defaultMaxHedgesInFlight;
+		failureRatio = defaultFailureRatio;
+		breakerWindow = defaultBreakerWindow;
+		openMillis = defaultOpenMillis;
+
+		hedgeExecutor = Executors.newCachedThreadPool(new DaemonThreadFactory("ResilientTransport-hedge"));
+		breakers = new ConcurrentHashMap<String, CircuitBreaker>();
+		hedgeDelays = new ConcurrentHashMap<String, long[]>();
+		hedgesInFlight = new AtomicInteger();
+		random = new Random();
+
+		retryCount = new AtomicLong();
+		hedgeCount = new AtomicLong();
+		hedgeWinCount = new AtomicLong();
+		shortCircuitCount = new AtomicLong();
+	}
+
+	@Override
+	public void shutdown(){
+		if(!isView()){
+			hedgeExecutor.shutdownNow();
+		}
+		super.shutdown();
+	}
+
+	//	-------------------
+	//	Settings
+	//	-------------------
+
+	//	maxAttempts counts the first one, 1 disables retries
+	//	the n-th retry waits a random time below min(maxBackoffMillis, baseBackoffMillis * 2^n)
+	public void setRetry(int maxAttempts, long baseBackoffMillis, long maxBackoffMillis){
+		this.maxAttempts = Math.max(1, maxAttempts);
+		this.baseBackoffMillis = baseBackoffMillis;
+		this.maxBackoffMillis = maxBackoffMillis;
+	}
+
+	//	percentile of the endpoint latency after which a GET is sent again, e.g. 0.95
+	//	maxHedgesInFlight bounds the extra load
+	public void setHedging(boolean enabled, double percentile, int maxHedgesInFlight){
+		this.hedging = enabled;
+		this.hedgePercentile = percentile;
+		this.maxHedgesInFlight = maxHedgesInFlight;
+		hedgeDelays.clear();
+	}
+
+	//	applies to the breakers created afterwards
+	public void setCircuitBreaker(double failureRatio, int windowSize, long openMillis){
+		this.failureRatio = failureRatio;
+		this.breakerWindow = windowSize;
+		this.openMillis = openMillis;
+	}
+
+	//	Breaker of an endpoint, e.g. "GET statistics/flow", created on first use
+	public CircuitBreaker getCircuitBreaker(String endpoint){
+		CircuitBreaker breaker = breakers.get(endpoint);
+
+		if(breaker == null){
+			CircuitBreaker newBreaker = new CircuitBreaker(endpoint, failureRatio, breakerWindow, Math.min(defaultBreakerMinCalls, breakerWindow), openMillis);
+
+			breaker = breakers.putIfAbsent(endpoint, newBreaker);
+			if(breaker == null){
+				breaker = newBreaker;
+			}
+		}
+
+		return breaker;
+	}
+
+	public long getRetryCount(){
+		return retryCount.get();
+	}
+
+	public long getHedgeCount(){
+		return hedgeCount.get();
+	}
+
+	//	hedges which answered before the request they backed up
+	public long getHedgeWinCount(){
+		return hedgeWinCount.get();
+	}
+
+	//	calls refused by an open circuit
+	public long getShortCircuitCount(){
+		return shortCircuitCount.get();
+	}
+
+	//	-------------------
+	//	Verbs
+	//	-------------------
+
+	@Override
+	public String doGet(final String urlString, final String account, final String password) throws ClientProtocolException, IOException{
+		return execute("GET", urlString, true, new Attempt<String>(){
+			@Override
+			public String call() throws IOException {
+				return ResilientTransport.super.doGet(urlString, account, password);
+			}
+		});
+	}
+
+	@Override
+	public <T> T doGet(final String urlString, final String account, final String password, final EntityReader<T> reader) throws ClientProtocolException, IOException{
+		if(!(reader instanceof EntityReader.Replayable)){
+			//	the reader may have side effects, it only sees the body of the attempt which got it
+			byte[] body = doGet(urlString, account, password, BODY_READER);
+			return reader.read(new ByteArrayInputStream(body));
+		}
+
+		return execute("GET", urlString, true, new Attempt<T>(){
+			@Override
+			public T call() throws IOException {
+				return ResilientTransport.super.doGet(urlString, account, password, reader);
+			}
+		});
+	}
+
+	@Override
+	public String doPost(final String urlString, final String paraString, final String account, final String password) throws ClientProtocolException, IOException{
+		return execute("POST", urlString, false, new Attempt<String>(){
+			@Override
+			public String call() throws IOException {
+				return ResilientTransport.super.doPost(urlString, paraString, account, password);
+			}
+		});
+	}
+
+	@Override
+	public String doPut(final String urlString, final String paraString, final String account, final String password) throws ClientProtocolException, IOException{
+		return execute("PUT", urlString, true, new Attempt<String>(){
+			@Override
+			public String call() throws IOException {
+				return ResilientTransport.super.doPut(urlString, paraString, account, password);
+			}
+		});
+	}
+
+	@Override
+	public String doDelete(final String urlString, final String account, final String password) throws ClientProtocolException, IOException{
+		return execute("DELETE", urlString, true, new Attempt<String>(){
+			@Override
+			public String call() throws IOException {
+				return ResilientTransport.super.doDelete(urlString, account, password);
+			}
+		});
+	}
+
+	@Override
+	public String doDelete(final String urlString, final String paraString, final String account, final String password) throws ClientProtocolException, IOException{
+		return execute("DELETE", urlString, true, new Attempt<String>(){
+			@Override
+			public String call() throws IOException {
+				return ResilientTransport.super.doDelete(urlString, paraString, account, password);
+			}
+		});
+	}
+
+	//	-------------------
+	//	Retry and breaker
+	//	-------------------
+
+	private interface Attempt<T> {
+		public T call() throws IOException;
+	}
+
+	private <T> T execute(String method, String urlString, boolean idempotent, Attempt<T> attempt) throws IOException{
+		String endpoint = RestMetrics.endpointName(method, urlString);
+		CircuitBreaker breaker = getCircuitBreaker(endpoint);
+		int attempts = idempotent ? maxAttempts : 1;
+
+		for(int i = 1; ; i++){
+			long token;
+			//	whether the outcome tells how the controller does, and if it failed
+			boolean counted = false;
+			boolean failure = false;
+			Exception error;
+
+			try{
+				token = breaker.acquire();
+			}
+			catch(CircuitOpenException e){
+				shortCircuitCount.incrementAndGet();
+				throw e;
+			}
+
+			try{
+				T result;
+
+				if(idempotent && hedging && method.equals("GET")){
+					result = hedged(endpoint, attempt);
+				}
+				else{
+					result = attempt.call();
+				}
+				counted = true;
+				return result;
+			}
+			catch(IOException e){
+				failure = counted = isControllerFailure(e);
+				if(!failure || i >= attempts || !isRetryable(e)){
+					throw e;
+				}
+				error = e;
+			}
+			catch(RestException e){
+				failure = counted = isControllerFailure(e);
+				if(!failure || i >= attempts || !isRetryable(e)){
+					throw e;
+				}
+				error = e;
+			}
+			finally{
+				if(counted){
+					breaker.record(token, failure);
+				}
+				else{
+					//	e.g. out of time, refused by the limiter, a 4xx or an unreadable answer
+					breaker.release(token);
+				}
+			}
+
+			retryCount.incrementAndGet();
+			backoff(i, error);
+		}
+	}
+
+	//	the controller did not answer (see RestTransport.isNoResponse(...)) or answered 429 or a server error.
+	//	Only these are retried and counted by the breaker
+	private static boolean isControllerFailure(Exception e){
+		if(e instanceof RestException){
+			int statusCode = ((RestException) e).getStatusCode();
+			return statusCode >= 500 || statusCode == 429;
+		}
+
+		//	the controller answered, the reader could not make sense of it
+		if(e instanceof JsonProcessingException){
+			return false;
+		}
+		return (e instanceof IOException) && isNoResponse((IOException) e);
+	}
+
+	private static boolean isRetryable(Exception e){
+		if(Thread.currentThread().isInterrupted()){
+			return false;
+		}
+		if(e instanceof RestException){
+			//	not implemented will not get better
+			return ((RestException) e).getStatusCode() != 501;
+		}
+
+		return true;
+	}
+
+	//	full jitter: a random wait below the exponential backoff
+	//	error is the failure of the attempt, the cause if the deadline leaves no time to retry
+	private void backoff(int attempt, Exception error) throws InterruptedIOException{
+		long ceiling = Math.min(maxBackoffMillis, baseBackoffMillis << Math.min(attempt - 1, 30));
+		long millis = (long) (random.nextDouble() * ceiling);
+		Deadline deadline = effectiveDeadline();
+
+		if(deadline != null && deadline.remainingMillis() <= millis){
+			throw new DeadlineExceededException("Deadline exceeded before retry " + attempt + ": " + error.getMessage(), error);
+		}
+
+		try{
+			Thread.sleep(millis);
+		}
+		catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted between retries");
+		}
+	}
+
+	//	-------------------
+	//	Hedging
+	//	-------------------
+
+	private <T> T hedged(String endpoint, final Attempt<T> attempt) throws IOException{
+		long delayMicros = hedgeDelayMicros(endpoint);
+
+		if(delayMicros < 0){
+			return attempt.call();
+		}
+
+		//	the hedge threads do not see the deadline bound to this one
+		Deadline deadline = effectiveDeadline();
+		CompletionService<T> completion = new ExecutorCompletionService<T>(hedgeExecutor);
+		List<Future<T>> pending = new ArrayList<Future<T>>(2);
+		Future<T> hedge = null;
+		AtomicBoolean hedgeSlot = new AtomicBoolean();
+		Exception firstError = null;
+
+		pending.add(completion.submit(callable(attempt, null, deadline)));
+
+		try{
+			Future<T> done = completion.poll(delayMicros, TimeUnit.MICROSECONDS);
+
+			if(done == null && hedgesInFlight.incrementAndGet() <= maxHedgesInFlight){
+				hedgeCount.incrementAndGet();
+				hedgeSlot.set(true);
+				hedge = completion.submit(callable(attempt, hedgeSlot, deadline));
+				pending.add(hedge);
+			}
+			else if(done == null){
+				//	over the hedge budget
+				hedgesInFlight.decrementAndGet();
+			}
+
+			while(!pending.isEmpty()){
+				if(done == null){
+					done = completion.take();
+				}
+				pending.remove(done);
+
+				try{
+					T result = done.get();
+					if(done == hedge){
+						hedgeWinCount.incrementAndGet();
+					}
+					return result;
+				}
+				catch(ExecutionException e){
+					if(firstError == null){
+						firstError = (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+					}
+				}
+				done = null;
+			}
+		}
+		catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for the controller");
+		}
+		finally{
+			//	the loser cannot be aborted mid-request, its answer is dropped
+			for(Future<T> future: pending){
+				future.cancel(true);
+			}
+			//	a hedge cancelled before it started never ran its finally
+			if(hedge != null && hedge.isCancelled()){
+				releaseHedgeSlot(hedgeSlot);
+			}
+		}
+
+		if(firstError instanceof IOException){
+			throw (IOException) firstError;
+		}
+		else if(firstError instanceof RuntimeException){
+			throw (RuntimeException) firstError;
+		}
+		throw new IOException(firstError);
+	}
+
+	//	hedgeSlot is null for the first request, deadline null if none
+	private <T> Callable<T> callable(final Attempt<T> attempt, final AtomicBoolean hedgeSlot, final Deadline deadline){
+		return new Callable<T>(){
+			@Override
+			public T call() throws Exception {
+				Deadline previous = (deadline != null) ? deadline.bind() : null;
+
+				try{
+					return attempt.call();
+				}
+				finally{
+					if(deadline != null){
+						Deadline.restore(previous);
+					}
+					if(hedgeSlot != null){
+						releaseHedgeSlot(hedgeSlot);
+					}
+				}
+			}
+		};
+	}
+
+	//	once per hedge, whichever of the hedge and its canceller gets there first
+	private void releaseHedgeSlot(AtomicBoolean hedgeSlot){
+		if(hedgeSlot.compareAndSet(true, false)){
+			hedgesInFlight.decrementAndGet();
+		}
+	}
+
+	//	p95 latency of the endpoint, -1 until enough calls were recorded
+	//	recomputed at most once a second
+	private long hedgeDelayMicros(String endpoint){
+		long now = System.currentTimeMillis();
+		long[] delay = hedgeDelays.get(endpoint);
+
+		if(delay == null || now - delay[1] > hedgeDelayRefreshMillis){
+			RestMetrics metrics = getMetrics();
+			long micros = -1;
+
+			if(metrics != null){
+				LatencyHistogram.Snapshot latency = metrics.getEndpoint(endpoint).snapshot().getLatency();
+				if(latency.getCount() >= defaultMinHedgeSamples){
+					micros = latency.getPercentile(hedgePercentile);
+				}
+			}
+
+			delay = new long[]{micros, now};
+			hedgeDelays.put(endpoint, delay);
+		}
+
+		return delay[0];
+	}
+
+	//	the whole body, for the readers which are not Replayable
+	private static class BodyReader implements EntityReader<byte[]>, EntityReader.Replayable {
+		@Override
+		public byte[] read(InputStream content) throws IOException {
+			ByteArrayOutputStream body = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int count;
+
+			while((count = content.read(buffer)) >= 0){
+				body.write(buffer, 0, count);
+			}
+			return body.toByteArray();
+		}
+	}
+}
@@ -0,0 +1,303 @@
+package jOpendaylight;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/*
+ * Read-through cache for northbound GET responses, used by OpendaylightClient.
+ * Entries are keyed by mount point, expire after a per-endpoint TTL and the
+ * least recently used ones are evicted once maxEntries is reached.
+ * Concurrent misses for the same key share a single HTTP call; a caller joining it waits
+ * no longer than the Deadline bound to its thread.
+ * Cached JsonNode instances are shared between callers and must not be modified.
+ */
+public class ResponseCache {
+	//	endpoints cached by OpendaylightClient
+	public final static String TOPOLOGY = "topology";
+	public final static String USER_LINKS = "userLinks";
+	public final static String NODES = "nodes";
+	public final static String NODE_CONNECTORS = "nodeConnectors";
+
+	private final static int defaultMaxEntries = 1024;
+	private final static long defaultTtlMillis = 1000;
+
+	//	Fetches the value on a miss
+	public interface Loader {
+		public JsonNode load() throws IOException;
+	}
+
+	private int maxEntries;
+	private long defaultTtl;
+	private Map<String, Long> ttlByEndpoint;
+	private LinkedHashMap<String, CacheEntry> entries;
+	private ConcurrentHashMap<String, Load> inFlight;
+
+	//	Bumped by the invalidations, a load started before one which covers it is not stored.
+	//	Kept per (endpoint, container), per container and for the whole cache, so that a write
+	//	only discards the loads of what it changed
+	private ConcurrentHashMap<String, AtomicLong> generations;
+	private ConcurrentHashMap<String, AtomicLong> containerGenerations;
+	private AtomicLong generation;
+
+	//	constructor with nothing
+	public ResponseCache(){
+		this(defaultMaxEntries, defaultTtlMillis);
+	}
+
+	//	base constructor
+	public ResponseCache(int maxEntries, long defaultTtlMillis){
+		this.maxEntries = maxEntries;
+		this.defaultTtl = defaultTtlMillis;
+		this.ttlByEndpoint = new ConcurrentHashMap<String, Long>();
+		this.inFlight = new ConcurrentHashMap<String, Load>();
+		this.generations = new ConcurrentHashMap<String, AtomicLong>();
+		this.containerGenerations = new ConcurrentHashMap<String, AtomicLong>();
+		this.generation = new AtomicLong();
+
+		//	access order, so the eldest entry is the least recently used one
+		this.entries = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true){
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+				return size() > ResponseCache.this.maxEntries;
+			}
+		};
+	}
+
+	//	Set the TTL of one endpoint, 0 disables caching of it
+	public void setTtl(String endpoint, long ttlMillis){
+		ttlByEndpoint.put(endpoint, ttlMillis);
+	}
+
+	//	Return the cached value of key, or load it
+	public JsonNode get(String endpoint, String containerName, String key, final Loader loader) throws IOException{
+		final long ttl = getTtl(endpoint);
+		final long[] generationsAtStart;
+		Load load;
+		Load running;
+		CacheEntry entry;
+
+		if(ttl <= 0){
+			return loader.load();
+		}
+
+		synchronized(entries){
+			entry = entries.get(key);
+
+			if(entry != null && entry.expiresAt > System.currentTimeMillis()){
+				return entry.value;
+			}
+		}
+
+		//	miss, join the load already running for this key if any
+		generationsAtStart = generations(endpoint, containerName);
+		load = new Load(endpoint, containerName, new Callable<JsonNode>(){
+			@Override
+			public JsonNode call() throws Exception {
+				return loader.load();
+			}
+		});
+
+		running = inFlight.putIfAbsent(key, load);
+		if(running != null){
+			try{
+				return await(running, Deadline.current());
+			}
+			catch(DeadlineExceededException e){
+				if(running.isDone()){
+					//	the load ran out of the deadline of the caller which started it,
+					//	which may be earlier than ours
+					return loader.load();
+				}
+				throw e;
+			}
+		}
+
+		try{
+			load.run();
+			JsonNode value = await(load, null);
+
+			synchronized(entries){
+				//	do not store what may have been read before a write invalidated it
+				if(Arrays.equals(generations(endpoint, containerName), generationsAtStart)){
+					entries.put(key, new CacheEntry(endpoint, containerName, value, System.currentTimeMillis() + ttl));
+				}
+			}
+
+			return value;
+		}
+		finally{
+			inFlight.remove(key, load);
+		}
+	}
+
+	//	Drop the entries of one endpoint in one container
+	public void invalidate(String endpoint, String containerName){
+		counter(generations, endpoint + " " + containerName).incrementAndGet();
+
+		synchronized(entries){
+			Iterator<CacheEntry> iterator = entries.values().iterator();
+
+			while(iterator.hasNext()){
+				CacheEntry entry = iterator.next();
+
+				if(entry.endpoint.equals(endpoint) && entry.containerName.equals(containerName)){
+					iterator.remove();
+				}
+			}
+		}
+
+		//	later misses do not join the loads started before
+		Iterator<Load> loads = inFlight.values().iterator();
+		while(loads.hasNext()){
+			Load load = loads.next();
+
+			if(load.endpoint.equals(endpoint) && load.containerName.equals(containerName)){
+				loads.remove();
+			}
+		}
+	}
+
+	//	Drop every entry of one container
+	public void invalidateContainer(String containerName){
+		counter(containerGenerations, containerName).incrementAndGet();
+
+		synchronized(entries){
+			Iterator<CacheEntry> iterator = entries.values().iterator();
+
+			while(iterator.hasNext()){
+				if(iterator.next().containerName.equals(containerName)){
+					iterator.remove();
+				}
+			}
+		}
+
+		Iterator<Load> loads = inFlight.values().iterator();
+		while(loads.hasNext()){
+			if(loads.next().containerName.equals(containerName)){
+				loads.remove();
+			}
+		}
+	}
+
+	public void invalidateAll(){
+		generation.incrementAndGet();
+
+		synchronized(entries){
+			entries.clear();
+		}
+		inFlight.clear();
+	}
+
+	//	number of entries per endpoint, expired ones included
+	public Map<String, Integer> getEntryCounts(){
+		Map<String, Integer> counts = new HashMap<String, Integer>();
+
+		synchronized(entries){
+			for(CacheEntry entry: entries.values()){
+				Integer count = counts.get(entry.endpoint);
+				counts.put(entry.endpoint, (count == null) ? 1 : count + 1);
+			}
+		}
+
+		return counts;
+	}
+
+	private long getTtl(String endpoint){
+		Long ttl = ttlByEndpoint.get(endpoint);
+		return (ttl != null) ? ttl : defaultTtl;
+	}
+
+	//	{whole cache, container, endpoint in container}, compared before storing a load
+	private long[] generations(String endpoint, String containerName){
+		return new long[]{
+			generation.get(),
+			counter(containerGenerations, containerName).get(),
+			counter(generations, endpoint + " " + containerName).get()
+		};
+	}
+
+	private static AtomicLong counter(ConcurrentHashMap<String, AtomicLong> counters, String key){
+		AtomicLong counter = counters.get(key);
+
+		if(counter == null){
+			AtomicLong created = new AtomicLong();
+
+			counter = counters.putIfAbsent(key, created);
+			if(counter == null){
+				counter = created;
+			}
+		}
+		return counter;
+	}
+
+	//	waits no longer than deadline, if there is one
+	private static JsonNode await(Load load, Deadline deadline) throws IOException{
+		try{
+			if(deadline == null){
+				return load.get();
+			}
+			return load.get(Math.max(0, deadline.remainingNanos()), TimeUnit.NANOSECONDS);
+		}
+		catch(TimeoutException e){
+			throw new DeadlineExceededException("Deadline exceeded while waiting for a response being loaded", e);
+		}
+		catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for a response being loaded", e);
+		}
+		catch(ExecutionException e){
+			Throwable cause = e.getCause();
+
+			if(cause instanceof IOException){
+				throw (IOException) cause;
+			}
+			else if(cause instanceof RuntimeException){
+				throw (RuntimeException) cause;
+			}
+			else{
+				throw new IOException(cause);
+			}
+		}
+	}
+
+	//	a running load, with what it reads
+	private static class Load extends FutureTask<JsonNode> {
+		final String endpoint;
+		final String containerName;
+
+		Load(String endpoint, String containerName, Callable<JsonNode> loader){
+			super(loader);
+			this.endpoint = endpoint;
+			this.containerName = containerName;
+		}
+	}
+
+	private static class CacheEntry {
+		final String endpoint;
+		final String containerName;
+		final JsonNode value;
+		final long expiresAt;
+
+		CacheEntry(String endpoint, String containerName, JsonNode value, long expiresAt){
+			this.endpoint = endpoint;
+			this.containerName = containerName;
+			this.value = value;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package jOpendaylight;
+
+//	Thrown when the controller answers with a non-successful HTTP status.
+//	Still a RuntimeException, so existing callers catching that keep working.
+public class RestException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+	
+	private int statusCode;
+	private String responseBody;
+	
+	public RestException(String message, int statusCode, String responseBody){
+		super(message);
+		this.statusCode = statusCode;
+		this.responseBody = responseBody;
+	}
+	
+	public int getStatusCode(){
+		return statusCode;
+	}
+	
+	//	may be null if the controller sent no body or it was not read
+	public String getResponseBody(){
+		return responseBody;
+	}
+}
@@ -0,0 +1,171 @@
+package jOpendaylight;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/*
+ * Metrics of the REST calls of one or more RestTransports, by logical endpoint.
+ * An endpoint is the HTTP method, the northbound module and the resource below the container,
+ * e.g. "GET statistics/flow" or "PUT flowprogrammer/node", so node ids and names do not
+ * create new endpoints.
+ * Read with snapshot(), or over JMX after registerMBeans(...).
+ */
+public class RestMetrics {
+	private final static String northboundPrefix = "/nb/v2/";
+	private final static String jmxDomain = "jOpendaylight";
+
+	private final ConcurrentHashMap<String, EndpointMetrics> endpoints;
+	private List<ObjectName> registeredNames;
+	private String jmxName;
+
+	public RestMetrics(){
+		endpoints = new ConcurrentHashMap<String, EndpointMetrics>();
+		registeredNames = new ArrayList<ObjectName>();
+	}
+
+	//	Record one call, statusCode 0 if no response was received
+	public void record(String method, String url, long nanos, int statusCode, long requestBytes, long responseBytes){
+		getEndpoint(endpointName(method, url)).record(nanos, statusCode, requestBytes, responseBytes);
+	}
+
+	//	Metrics of an endpoint, created on first use
+	public EndpointMetrics getEndpoint(String endpoint){
+		EndpointMetrics metrics = endpoints.get(endpoint);
+
+		if(metrics == null){
+			EndpointMetrics newMetrics = new EndpointMetrics(endpoint);
+
+			metrics = endpoints.putIfAbsent(endpoint, newMetrics);
+			if(metrics == null){
+				metrics = newMetrics;
+				register(metrics);
+			}
+		}
+
+		return metrics;
+	}
+
+	//	endpoint -> values, sorted by endpoint
+	public Map<String, EndpointMetrics.Snapshot> snapshot(){
+		Map<String, EndpointMetrics.Snapshot> result = new TreeMap<String, EndpointMetrics.Snapshot>();
+
+		for(EndpointMetrics metrics: endpoints.values()){
+			result.put(metrics.getEndpoint(), metrics.snapshot());
+		}
+
+		return result;
+	}
+
+	//	-------------------
+	//	JMX
+	//	-------------------
+
+	//	Register one MXBean per endpoint, present and future, in the platform MBean server
+	//	as jOpendaylight:type=RestMetrics,name=<name>,endpoint=<endpoint>
+	public synchronized void registerMBeans(String name) throws JMException{
+		if(jmxName != null){
+			unregisterMBeans();
+		}
+
+		jmxName = name;
+		for(EndpointMetrics metrics: endpoints.values()){
+			register(metrics);
+		}
+	}
+
+	public synchronized void unregisterMBeans(){
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+		for(ObjectName objectName: registeredNames){
+			try{
+				server.unregisterMBean(objectName);
+			}
+			catch(InstanceNotFoundException e){
+				//	already gone
+			}
+			catch(JMException e){
+				//	nothing else to do
+			}
+		}
+
+		registeredNames.clear();
+		jmxName = null;
+	}
+
+	private synchronized void register(EndpointMetrics metrics){
+		if(jmxName == null){
+			return;
+		}
+
+		try{
+			ObjectName objectName = new ObjectName(jmxDomain + ":type=RestMetrics,name=" + ObjectName.quote(jmxName)
+					+ ",endpoint=" + ObjectName.quote(metrics.getEndpoint()));
+
+			if(!registeredNames.contains(objectName)){
+				ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, objectName);
+				registeredNames.add(objectName);
+			}
+		}
+		catch(InstanceAlreadyExistsException e){
+			//	registered by another RestMetrics under the same name
+		}
+		catch(JMException e){
+			//	metrics are still available from snapshot()
+		}
+	}
+
+	//	-------------------
+	//	Endpoint names
+	//	-------------------
+
+	//	"PUT", ".../controller/nb/v2/flowprogrammer/default/node/OF/00:..:01/staticFlow/f1" -> "PUT flowprogrammer/node"
+	//	called on every request, so the url is scanned in place instead of split
+	static String endpointName(String method, String url){
+		int start = url.indexOf(northboundPrefix);
+
+		if(start < 0){
+			return method + " other";
+		}
+		start += northboundPrefix.length();
+
+		int end = url.indexOf('?', start);
+		if(end < 0){
+			end = url.length();
+		}
+
+		int moduleEnd = segmentEnd(url, start, end);
+		StringBuilder result = new StringBuilder(method.length() + 32).append(method).append(' ').append(url, start, moduleEnd);
+
+		//	these two modules have no container in their path
+		int resourceStart = moduleEnd + 1;
+		if(!url.regionMatches(start, "containermanager/", 0, 17) && !url.regionMatches(start, "connectionmanager/", 0, 18)){
+			resourceStart = segmentEnd(url, resourceStart, end) + 1;
+		}
+
+		if(resourceStart < end){
+			result.append('/').append(url, resourceStart, segmentEnd(url, resourceStart, end));
+		}
+
+		return result.toString();
+	}
+
+	//	index of the '/' ending the segment starting at start, or end
+	private static int segmentEnd(String url, int start, int end){
+		if(start >= end){
+			return end;
+		}
+
+		int slash = url.indexOf('/', start);
+		return (slash < 0 || slash > end) ? end : slash;
+	}
+}
@@ -0,0 +1,817 @@
+package jOpendaylight;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.codec.binary.Base64;
+import org.apache.http.Consts;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/*
+ * Shared HTTP transport for the northbound REST calls.
+ * Keeps a pool of keep-alive connections so that consecutive requests
+ * to the same controller reuse sockets instead of opening a new one each time.
+ * One instance is meant to be owned per controller (see OpendaylightClient),
+ * call shutdown() when it is no longer needed.
+ * Every call is recorded in a RestMetrics, see getMetrics(), and goes through
+ * an AdaptiveLimiter which keeps the requests in flight below what the controller handles.
+ * Connect, read and pool timeouts are always set; withDeadline(...) gives a view of the
+ * transport whose calls also fit in a Deadline, as do calls of a thread bound to one.
+ */
+public class RestTransport {
+	private final static int defaultMaxTotalConnections = 200;
+	private final static int defaultMaxConnectionsPerRoute = 50;
+	private final static long defaultKeepAliveMillis = 30000;
+	private final static long defaultIdleTimeoutMillis = 60000;
+	private final static int defaultInitialConcurrency = 20;
+	private final static long defaultMaxQueueMillis = 30000;
+	private final static int defaultConnectTimeoutMillis = 5000;
+	private final static int defaultReadTimeoutMillis = 30000;
+	private final static long defaultPoolTimeoutMillis = 10000;
+
+	private long keepAliveMillis;
+	private long idleTimeoutMillis;
+
+	private PoolingClientConnectionManager connectionManager;
+	private DefaultHttpClient httpClient;
+	private IdleConnectionEvictor idleConnectionEvictor;
+	private volatile RestMetrics metrics;
+	private volatile AdaptiveLimiter limiter;
+	private Deadline deadline;
+	private boolean view;
+
+	//	constructor with nothing
+	public RestTransport(){
+		this(defaultMaxTotalConnections, defaultMaxConnectionsPerRoute, defaultKeepAliveMillis, defaultIdleTimeoutMillis);
+	}
+
+	//	constructor with pool size only
+	public RestTransport(int maxTotalConnections, int maxConnectionsPerRoute){
+		this(maxTotalConnections, maxConnectionsPerRoute, defaultKeepAliveMillis, defaultIdleTimeoutMillis);
+	}
+
+	//	base constructor
+	//	keepAliveMillis is used when the controller does not send a Keep-Alive header
+	//	idleTimeoutMillis is how long a pooled connection may stay unused before it is evicted
+	public RestTransport(int maxTotalConnections, int maxConnectionsPerRoute, long keepAliveMillis, long idleTimeoutMillis){
+		this.keepAliveMillis = keepAliveMillis;
+		this.idleTimeoutMillis = idleTimeoutMillis;
+
+		connectionManager = new PoolingClientConnectionManager(SchemeRegistryFactory.createDefault());
+		connectionManager.setMaxTotal(maxTotalConnections);
+		connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+
+		httpClient = new DefaultHttpClient(connectionManager);
+		httpClient.setKeepAliveStrategy(new DefaultConnectionKeepAliveStrategy(){
+			@Override
+			public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+				long duration = super.getKeepAliveDuration(response, context);
+
+				//	controller did not tell us, use our own value
+				return (duration > 0) ? duration : RestTransport.this.keepAliveMillis;
+			}
+		});
+
+		idleConnectionEvictor = new IdleConnectionEvictor();
+		idleConnectionEvictor.start();
+
+		metrics = new RestMetrics();
+		limiter = new AdaptiveLimiter(Math.min(defaultInitialConcurrency, maxConnectionsPerRoute), 1, maxConnectionsPerRoute, defaultMaxQueueMillis);
+		setTimeouts(defaultConnectTimeoutMillis, defaultReadTimeoutMillis, defaultPoolTimeoutMillis);
+	}
+
+	//	view constructor, shares the pool, metrics and limiter of transport
+	protected RestTransport(RestTransport transport, Deadline deadline){
+		this.keepAliveMillis = transport.keepAliveMillis;
+		this.idleTimeoutMillis = transport.idleTimeoutMillis;
+		this.connectionManager = transport.connectionManager;
+		this.httpClient = transport.httpClient;
+		this.idleConnectionEvictor = transport.idleConnectionEvictor;
+		this.metrics = transport.metrics;
+		this.limiter = transport.limiter;
+		this.deadline = deadline.earliest(transport.deadline);
+		this.view = true;
+	}
+
+	//	View of this transport whose calls must be done by the deadline
+	//	shutdown() of the view does nothing, the pool belongs to this transport
+	public RestTransport withDeadline(Deadline deadline){
+		return new RestTransport(this, deadline);
+	}
+
+	//	Timeouts of every request, 0 waits forever
+	//	connect: TCP connect, read: silence between two reads, pool: wait for a pooled connection
+	public void setTimeouts(int connectTimeoutMillis, int readTimeoutMillis, long poolTimeoutMillis){
+		HttpParams params = httpClient.getParams();
+
+		HttpConnectionParams.setConnectionTimeout(params, connectTimeoutMillis);
+		HttpConnectionParams.setSoTimeout(params, readTimeoutMillis);
+		params.setLongParameter(ClientPNames.CONN_MANAGER_TIMEOUT, poolTimeoutMillis);
+	}
+
+	//	Override the max connections for a single controller (host and port)
+	public void setMaxConnectionsPerRoute(String host, int port, int maxConnections){
+		connectionManager.setMaxPerRoute(new HttpRoute(new HttpHost(host, port)), maxConnections);
+	}
+
+	public RestMetrics getMetrics(){
+		return metrics;
+	}
+
+	//	Record into another RestMetrics, e.g. one shared by several transports
+	//	null stops recording
+	public void setMetrics(RestMetrics metrics){
+		this.metrics = metrics;
+	}
+
+	public AdaptiveLimiter getLimiter(){
+		return limiter;
+	}
+
+	//	Replace the concurrency limiter, null lets every request through
+	//	requests already in flight give their slot back to the previous one
+	public void setLimiter(AdaptiveLimiter limiter){
+		this.limiter = limiter;
+	}
+
+	//	Close all pooled connections and stop the idle connection evictor
+	public void shutdown(){
+		if(view){
+			return;
+		}
+		idleConnectionEvictor.shutdown();
+		connectionManager.shutdown();
+	}
+
+	//	-------------------
+	//		GET Method
+	//	-------------------
+
+	//	base GET method
+	public String doGet(String urlString, String account, String password) throws ClientProtocolException, IOException{
+		HttpResponse response;
+		HttpEntity responseEntity;
+		HttpGet getRequest;
+		int statusCode = 0;
+		boolean noResponse = false;
+		long responseBytes = 0;
+		long start = System.nanoTime();
+
+		//	set request
+		getRequest = new HttpGet(urlString);
+		getRequest.setHeader("Accept", "application/json");
+		setAuthorization(getRequest, account, password);
+
+		Deadline deadline = applyDeadline(getRequest);
+		AdaptiveLimiter limiter = this.limiter;
+		long permit = acquire(limiter, "GET", deadline);
+		ScheduledFuture<?> abort = scheduleAbort(getRequest, deadline);
+
+		try{
+			//	get response
+			response = httpClient.execute(getRequest);
+			responseEntity = response.getEntity();
+			statusCode = response.getStatusLine().getStatusCode();
+			responseBytes = contentLength(responseEntity);
+
+			if(statusCode == HttpURLConnection.HTTP_OK){
+				byte[] responseBody = bodyBytes(responseEntity);
+				responseBytes = responseBody.length;
+				return new String(responseBody, Consts.UTF_8);
+			}
+			else if(statusCode == HttpURLConnection.HTTP_NO_CONTENT){
+				//	no content but OK, just no response entity
+				//	for clear static flow entries
+				EntityUtils.consume(responseEntity);
+				return "";
+			}
+			else{
+				//	NOT OK, release the connection before leaving
+				EntityUtils.consume(responseEntity);
+				throw new RestException("Failed: HTTP error code : "+ statusCode, statusCode, null);
+			}
+		}
+		catch(IOException e){
+			IOException failure = timeout(deadline, e);
+
+			noResponse = statusCode == 0 && isNoResponse(failure);
+			throw failure;
+		}
+		finally{
+			cancelAbort(abort);
+			release(limiter, "GET", urlString, permit, statusCode, noResponse);
+			record("GET", urlString, start, statusCode, 0, responseBytes);
+		}
+	}
+
+	public String doGet(String urlString, Map<String, String> paraMap, String account, String password) throws ClientProtocolException, IOException{
+		return doGet(urlString + "?" + prepareGetParameterString(paraMap), account, password);
+	}
+	
+	//	base streaming GET method
+	//	The response body is handed to the reader as it comes off the socket,
+	//	no intermediate String is built.
+	public <T> T doGet(String urlString, String account, String password, EntityReader<T> reader) throws ClientProtocolException, IOException{
+		HttpResponse response;
+		HttpEntity responseEntity;
+		HttpGet getRequest;
+		InputStream content;
+		CountingInputStream countingContent = null;
+		int statusCode = 0;
+		boolean noResponse = false;
+		long responseBytes = 0;
+		long start = System.nanoTime();
+		
+		//	set request
+		getRequest = new HttpGet(urlString);
+		getRequest.setHeader("Accept", "application/json");
+		setAuthorization(getRequest, account, password);
+		
+		Deadline deadline = applyDeadline(getRequest);
+		AdaptiveLimiter limiter = this.limiter;
+		long permit = acquire(limiter, "GET", deadline);
+		ScheduledFuture<?> abort = scheduleAbort(getRequest, deadline);
+		
+		try{
+			//	get response
+			response = httpClient.execute(getRequest);
+			responseEntity = response.getEntity();
+			statusCode = response.getStatusLine().getStatusCode();
+			responseBytes = contentLength(responseEntity);
+			
+			if(statusCode == HttpURLConnection.HTTP_OK || statusCode == HttpURLConnection.HTTP_NO_CONTENT){
+				//	no content but OK, the reader sees an empty body
+				if(statusCode == HttpURLConnection.HTTP_NO_CONTENT || responseEntity == null){
+					EntityUtils.consume(responseEntity);
+					content = new ByteArrayInputStream(new byte[0]);
+				}
+				else if(responseEntity.getContentLength() < 0){
+					//	chunked, count what goes through
+					content = countingContent = new CountingInputStream(responseEntity.getContent());
+				}
+				else{
+					content = responseEntity.getContent();
+				}
+				
+				//	closing the content stream drains what the reader left
+				//	and releases the connection back to the pool
+				try{
+					return reader.read(content);
+				}
+				finally{
+					content.close();
+					if(countingContent != null){
+						responseBytes = countingContent.count;
+					}
+				}
+			}
+			else{
+				//	NOT OK, release the connection before leaving
+				EntityUtils.consume(responseEntity);
+				throw new RestException("Failed: HTTP error code : "+ statusCode, statusCode, null);
+			}
+		}
+		catch(IOException e){
+			IOException failure = timeout(deadline, e);
+
+			noResponse = statusCode == 0 && isNoResponse(failure);
+			throw failure;
+		}
+		finally{
+			cancelAbort(abort);
+			release(limiter, "GET", urlString, permit, statusCode, noResponse);
+			record("GET", urlString, start, statusCode, 0, responseBytes);
+		}
+	}
+	
+	public <T> T doGet(String urlString, Map<String, String> paraMap, String account, String password, EntityReader<T> reader) throws ClientProtocolException, IOException{
+		return doGet(urlString + "?" + prepareGetParameterString(paraMap), account, password, reader);
+	}
+	
+	//	GET and decode the JSON body with the given mapper, straight from the stream
+	public JsonNode doGetJson(String urlString, String account, String password, ObjectMapper mapper) throws ClientProtocolException, IOException{
+		return doGet(urlString, account, password, new JsonTreeReader(mapper));
+	}
+	
+	public JsonNode doGetJson(String urlString, Map<String, String> paraMap, String account, String password, ObjectMapper mapper) throws ClientProtocolException, IOException{
+		return doGet(urlString, paraMap, account, password, new JsonTreeReader(mapper));
+	}
+
+	static String prepareGetParameterString(Map<String, String> paraMap){
+		StringBuilder result = new StringBuilder();
+
+		for(Map.Entry<String, String> entry: paraMap.entrySet()){
+			if(entry.getValue() != null){
+				//	prefix
+				if(result.length() > 0){
+					result.append('&');
+				}
+
+				//	content append
+				result.append(entry.getKey()).append('=').append(entry.getValue());
+			}
+		}
+
+		return result.toString();
+	}
+
+	//	--------------------
+	//		POST method
+	//	--------------------
+
+	//	base Post method
+	public String doPost(String urlString, String paraString, String account, String password) throws ClientProtocolException, IOException{
+		HttpResponse response;
+		HttpEntity responseEntity;
+		HttpPost postRequest;
+		int statusCode = 0;
+		boolean noResponse = false;
+		long requestBytes = 0;
+		long responseBytes = 0;
+		long start = System.nanoTime();
+
+		//	set request
+		postRequest = new HttpPost(urlString);
+		postRequest.setHeader("Accept", "application/json");
+		setAuthorization(postRequest, account, password);
+
+		if(paraString != null && !paraString.equals("")){
+			postRequest.setEntity(createJsonEntity(paraString));
+			requestBytes = contentLength(postRequest.getEntity());
+		}
+
+		Deadline deadline = applyDeadline(postRequest);
+		AdaptiveLimiter limiter = this.limiter;
+		long permit = acquire(limiter, "POST", deadline);
+		ScheduledFuture<?> abort = scheduleAbort(postRequest, deadline);
+
+		try{
+			//	get response
+			response = httpClient.execute(postRequest);
+			responseEntity = response.getEntity();
+			statusCode = response.getStatusLine().getStatusCode();
+			responseBytes = contentLength(responseEntity);
+
+			//	FIXME: maybe more status codes?
+			if(statusCode == HttpURLConnection.HTTP_OK ||
+					statusCode == HttpURLConnection.HTTP_CREATED){
+				byte[] responseBody = bodyBytes(responseEntity);
+				responseBytes = responseBody.length;
+				return new String(responseBody, Consts.UTF_8);
+			}
+			else{
+				//	NOT OK, release the connection before leaving
+				EntityUtils.consume(responseEntity);
+				throw new RestException("Failed: HTTP error code : "+ statusCode, statusCode, null);
+			}
+		}
+		catch(IOException e){
+			IOException failure = timeout(deadline, e);
+
+			noResponse = statusCode == 0 && isNoResponse(failure);
+			throw failure;
+		}
+		finally{
+			cancelAbort(abort);
+			release(limiter, "POST", urlString, permit, statusCode, noResponse);
+			record("POST", urlString, start, statusCode, requestBytes, responseBytes);
+		}
+	}
+
+	//	----------------------
+	//		DELETE method
+	//	----------------------
+
+	//	HTTP DELETE with source id in URI version(Normal Delete), base method
+	public String doDelete(String urlString, String account, String password) throws ClientProtocolException, IOException{
+		HttpDelete deleteRequest;
+
+		//	set request
+		deleteRequest = new HttpDelete(urlString);
+		deleteRequest.setHeader("Accept", "application/json");
+		setAuthorization(deleteRequest, account, password);
+
+		return executeDelete(deleteRequest);
+	}
+
+	//	base method
+	//	HTTP DELTE with String entity
+	public String doDelete(String urlString, String paraString, String account, String password) throws ClientProtocolException, IOException{
+		HttpResponse response;
+		HttpEntity responseEntity;
+		HttpDeleteWithEntity deleteRequest;
+
+		int statusCode = 0;
+		boolean noResponse = false;
+		long responseBytes = 0;
+		long start = System.nanoTime();
+
+		//	set request
+		deleteRequest = new HttpDeleteWithEntity(urlString);
+		deleteRequest.setHeader("Accept", "application/json");
+		deleteRequest.setEntity(createJsonEntity(paraString));
+		setAuthorization(deleteRequest, account, password);
+
+		Deadline deadline = applyDeadline(deleteRequest);
+		AdaptiveLimiter limiter = this.limiter;
+		long permit = acquire(limiter, "DELETE", deadline);
+		ScheduledFuture<?> abort = scheduleAbort(deleteRequest, deadline);
+
+		try{
+			//	get response
+			response = httpClient.execute(deleteRequest);
+			responseEntity = response.getEntity();
+			statusCode = response.getStatusLine().getStatusCode();
+			responseBytes = contentLength(responseEntity);
+
+			//	return content
+			if(responseEntity != null)
+				return EntityUtils.toString(responseEntity, Consts.UTF_8);
+			else
+				return null;
+		}
+		catch(IOException e){
+			IOException failure = timeout(deadline, e);
+
+			noResponse = statusCode == 0 && isNoResponse(failure);
+			throw failure;
+		}
+		finally{
+			cancelAbort(abort);
+			release(limiter, "DELETE", urlString, permit, statusCode, noResponse);
+			record("DELETE", urlString, start, statusCode, contentLength(deleteRequest.getEntity()), responseBytes);
+		}
+	}
+
+	private String executeDelete(HttpRequestBase deleteRequest) throws ClientProtocolException, IOException{
+		HttpResponse response;
+		HttpEntity responseEntity;
+		int statusCode = 0;
+		boolean noResponse = false;
+		long responseBytes = 0;
+		long start = System.nanoTime();
+
+		Deadline deadline = applyDeadline(deleteRequest);
+		AdaptiveLimiter limiter = this.limiter;
+		long permit = acquire(limiter, "DELETE", deadline);
+		ScheduledFuture<?> abort = scheduleAbort(deleteRequest, deadline);
+
+		try{
+			//	get response
+			response = httpClient.execute(deleteRequest);
+			responseEntity = response.getEntity();
+			statusCode = response.getStatusLine().getStatusCode();
+			responseBytes = contentLength(responseEntity);
+
+			//	return content
+			if(responseEntity != null){
+				//	FIXME: add more HTTP OK codes if needed
+				if(statusCode == HttpURLConnection.HTTP_NO_CONTENT
+						|| statusCode == HttpURLConnection.HTTP_OK){
+					return EntityUtils.toString(responseEntity, Consts.UTF_8);
+				}
+				else{
+					//	NOT OK
+					String responseBody = EntityUtils.toString(responseEntity, Consts.UTF_8);
+					throw new RestException("Failed: HTTP error code: " + statusCode + " - " + responseBody, statusCode, responseBody);
+				}
+			}
+			else
+				return null;
+		}
+		catch(IOException e){
+			IOException failure = timeout(deadline, e);
+
+			noResponse = statusCode == 0 && isNoResponse(failure);
+			throw failure;
+		}
+		finally{
+			cancelAbort(abort);
+			release(limiter, "DELETE", deleteRequest.getURI().toString(), permit, statusCode, noResponse);
+			record("DELETE", deleteRequest.getURI().toString(), start, statusCode, 0, responseBytes);
+		}
+	}
+
+	//	-------------------
+	//		PUT method
+	//	-------------------
+
+	//	base PUT method
+	public String doPut(String urlString, String paraString, String account, String password) throws ClientProtocolException, IOException{
+		HttpResponse response;
+		HttpEntity responseEntity;
+		HttpPut putRequest;
+		int statusCode = 0;
+		boolean noResponse = false;
+		long responseBytes = 0;
+		long start = System.nanoTime();
+
+		//	set request
+		putRequest = new HttpPut(urlString);
+		putRequest.setHeader("Accept", "application/json");
+		putRequest.setEntity(createJsonEntity(paraString));
+		setAuthorization(putRequest, account, password);
+
+		Deadline deadline = applyDeadline(putRequest);
+		AdaptiveLimiter limiter = this.limiter;
+		long permit = acquire(limiter, "PUT", deadline);
+		ScheduledFuture<?> abort = scheduleAbort(putRequest, deadline);
+
+		try{
+			//	get response
+			response = httpClient.execute(putRequest);
+			responseEntity = response.getEntity();
+			statusCode = response.getStatusLine().getStatusCode();
+			responseBytes = contentLength(responseEntity);
+
+			//	return content
+			if(responseEntity != null){
+				//	FIXME: add more HTTP OK codes if needed
+				if(statusCode == HttpURLConnection.HTTP_OK ||
+						statusCode == HttpURLConnection.HTTP_CREATED){
+					return EntityUtils.toString(responseEntity, Consts.UTF_8);
+				}
+				else{
+					//	NOT OK
+					String responseBody = EntityUtils.toString(responseEntity, Consts.UTF_8);
+					throw new RestException("Failed: HTTP error code: " + statusCode + " - " + responseBody, statusCode, responseBody);
+				}
+			}
+			else
+				return null;
+		}
+		catch(IOException e){
+			IOException failure = timeout(deadline, e);
+
+			noResponse = statusCode == 0 && isNoResponse(failure);
+			throw failure;
+		}
+		finally{
+			cancelAbort(abort);
+			release(limiter, "PUT", urlString, permit, statusCode, noResponse);
+			record("PUT", urlString, start, statusCode, contentLength(putRequest.getEntity()), responseBytes);
+		}
+	}
+
+	//	----------------
+	//		helpers
+	//	----------------
+
+	private static StringEntity createJsonEntity(String paraString) throws IOException{
+		return new StringEntity(paraString, ContentType.APPLICATION_JSON);
+	}
+
+	boolean isView(){
+		return view;
+	}
+
+	//	deadline of this transport or of the current thread, whichever comes first, null if none
+	Deadline effectiveDeadline(){
+		Deadline bound = Deadline.current();
+		return (deadline != null) ? deadline.earliest(bound) : bound;
+	}
+
+	//	Fit the timeouts of the request in the time left, returns the deadline or null
+	private Deadline applyDeadline(HttpRequestBase request) throws DeadlineExceededException{
+		Deadline deadline = effectiveDeadline();
+
+		if(deadline == null){
+			return null;
+		}
+
+		long remaining = deadline.remainingMillis();
+		if(remaining <= 0){
+			throw new DeadlineExceededException("Deadline exceeded before " + request.getMethod() + " " + request.getURI());
+		}
+
+		HttpParams clientParams = httpClient.getParams();
+		HttpParams params = request.getParams();
+
+		HttpConnectionParams.setConnectionTimeout(params, (int) bounded(HttpConnectionParams.getConnectionTimeout(clientParams), remaining));
+		HttpConnectionParams.setSoTimeout(params, (int) bounded(HttpConnectionParams.getSoTimeout(clientParams), remaining));
+		params.setLongParameter(ClientPNames.CONN_MANAGER_TIMEOUT, bounded(clientParams.getLongParameter(ClientPNames.CONN_MANAGER_TIMEOUT, 0), remaining));
+
+		return deadline;
+	}
+
+	//	timeout no longer than the time left, 0 being no timeout
+	private static long bounded(long timeoutMillis, long remainingMillis){
+		return (timeoutMillis <= 0) ? remainingMillis : Math.min(timeoutMillis, remainingMillis);
+	}
+
+	//	the read timeout does not stop a controller sending slowly, abort the request at the deadline
+	private static ScheduledFuture<?> scheduleAbort(final HttpRequestBase request, Deadline deadline){
+		if(deadline == null){
+			return null;
+		}
+
+		return Aborter.executor.schedule(new Runnable(){
+			@Override
+			public void run() {
+				request.abort();
+			}
+		}, deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+	}
+
+	private static void cancelAbort(ScheduledFuture<?> abort){
+		if(abort != null){
+			abort.cancel(false);
+		}
+	}
+
+	//	an IOException of an expired call is reported as a DeadlineExceededException
+	private static IOException timeout(Deadline deadline, IOException e){
+		if(deadline != null && deadline.isExpired() && !(e instanceof DeadlineExceededException)){
+			return new DeadlineExceededException("Deadline exceeded: " + e.getMessage(), e);
+		}
+
+		return e;
+	}
+
+	private static long acquire(AdaptiveLimiter limiter, String method, Deadline deadline) throws IOException{
+		if(limiter == null){
+			return 0;
+		}
+		else if(deadline == null){
+			return limiter.acquire(AdaptiveLimiter.priority(method));
+		}
+
+		try{
+			return limiter.acquire(AdaptiveLimiter.priority(method), deadline.remainingNanos());
+		}
+		catch(ConcurrencyLimitException e){
+			throw timeout(deadline, e);
+		}
+	}
+
+	//	noResponse: the request failed for want of an answer, see isNoResponse(...)
+	private static void release(AdaptiveLimiter limiter, String method, String urlString, long permit, int statusCode, boolean noResponse){
+		if(limiter != null){
+			limiter.release(AdaptiveLimiter.priority(method), RestMetrics.endpointName(method, urlString), permit,
+					noResponse || statusCode == 429 || statusCode >= 500);
+		}
+	}
+
+	//	The controller did not answer: refused or reset connections, connect and read timeouts.
+	//	An expired deadline, an interrupt, a malformed request or a request held back by this
+	//	client says nothing of its load
+	static boolean isNoResponse(IOException failure){
+		if(failure instanceof ConnectTimeoutException || failure instanceof SocketTimeoutException){
+			return true;
+		}
+		return !(failure instanceof InterruptedIOException) && !(failure instanceof ClientProtocolException)
+				&& !(failure instanceof ConcurrencyLimitException) && !(failure instanceof CircuitOpenException);
+	}
+
+	private void record(String method, String urlString, long start, int statusCode, long requestBytes, long responseBytes){
+		RestMetrics metrics = this.metrics;
+
+		if(metrics != null){
+			metrics.record(method, urlString, System.nanoTime() - start, statusCode, requestBytes, responseBytes);
+		}
+	}
+
+	//	0 if unknown
+	private static long contentLength(HttpEntity entity){
+		return (entity == null) ? 0 : Math.max(0, entity.getContentLength());
+	}
+
+	//	whole body, empty if there is none
+	private static byte[] bodyBytes(HttpEntity entity) throws IOException{
+		byte[] bytes = (entity != null) ? EntityUtils.toByteArray(entity) : null;
+		return (bytes != null) ? bytes : new byte[0];
+	}
+
+	//	handle HTTP Basic authentication if any
+	private static void setAuthorization(HttpRequestBase request, String account, String password){
+		if(account != null && password != null){
+			String encoding = Base64.encodeBase64String((account + ":" + password).getBytes());
+			request.setHeader("Authorization", "Basic " + encoding);
+		}
+	}
+
+	//	Builds a JsonNode tree directly from the response stream
+	private static class JsonTreeReader implements EntityReader<JsonNode>, EntityReader.Replayable {
+		private ObjectMapper mapper;
+		
+		JsonTreeReader(ObjectMapper mapper){
+			this.mapper = mapper;
+		}
+		
+		@Override
+		public JsonNode read(InputStream content) throws IOException {
+			return mapper.readTree(content);
+		}
+	}
+	
+	//	Counts the bytes of a response body without a Content-Length
+	private static class CountingInputStream extends FilterInputStream {
+		private long count;
+		
+		CountingInputStream(InputStream in){
+			super(in);
+		}
+		
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if(b >= 0){
+				count++;
+			}
+			return b;
+		}
+		
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int n = super.read(b, off, len);
+			if(n > 0){
+				count += n;
+			}
+			return n;
+		}
+		
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = super.skip(n);
+			count += skipped;
+			return skipped;
+		}
+	}
+	
+	//	Shared timer aborting the requests which outlive their deadline
+	private static class Aborter {
+		final static ScheduledThreadPoolExecutor executor;
+
+		static{
+			executor = new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory("RestTransport-aborter"));
+			executor.setRemoveOnCancelPolicy(true);
+		}
+	}
+	
+	//	Background thread which closes expired and idle pooled connections,
+	//	so that sockets the controller already dropped are not handed out again
+	private class IdleConnectionEvictor extends Thread {
+		private volatile boolean running = true;
+
+		IdleConnectionEvictor(){
+			super("RestTransport-idle-evictor");
+			setDaemon(true);
+		}
+
+		@Override
+		public void run() {
+			long interval = Math.max(1000, idleTimeoutMillis / 2);
+
+			while(running){
+				try{
+					Thread.sleep(interval);
+				}
+				catch(InterruptedException e){
+					//	shutdown requested
+					return;
+				}
+
+				connectionManager.closeExpiredConnections();
+				connectionManager.closeIdleConnections(idleTimeoutMillis, TimeUnit.MILLISECONDS);
+			}
+		}
+
+		void shutdown(){
+			running = false;
+			interrupt();
+		}
+	}
+}
@@ -0,0 +1,456 @@
+package jOpendaylight;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/*
+ * Reads a snapshot written by SnapshotWriter through a memory mapped file.
+ * Opening reads the trailer and the section list only; values are read from the
+ * mapped file when they are accessed, strings are decoded once on first use,
+ * and the integer columns of a table are returned as LongBuffers over the file.
+ * Safe to use from several threads.
+ */
+public class SnapshotReader implements Closeable {
+	//	value types
+	public final static int NULL = 0;
+	public final static int BOOLEAN = 1;
+	public final static int LONG = 2;
+	public final static int DOUBLE = 3;
+	public final static int STRING = 4;
+	public final static int ARRAY = 5;
+	public final static int OBJECT = 6;
+
+	//	a row of a table, found by table offset and row index
+	private final static byte ROW = 100;
+
+	private final File file;
+	private volatile ByteBuffer buffer;
+	private final long createdMillis;
+	private final int stringCount;
+	private final int stringOffsetsStart;
+	private final int stringBytesStart;
+	private final String[] strings;
+	private final Map<String, Node> sections;
+
+	public SnapshotReader(File file) throws IOException{
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+		MappedByteBuffer mapped;
+
+		try{
+			long size = randomAccessFile.length();
+
+			if(size < SnapshotWriter.HEADER_SIZE + SnapshotWriter.TRAILER_SIZE || size > Integer.MAX_VALUE){
+				throw new IOException("Not a snapshot: " + file);
+			}
+			mapped = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, size);
+		}
+		finally{
+			//	the mapping stays valid after the file is closed
+			randomAccessFile.close();
+		}
+
+		int size = mapped.capacity();
+		if(mapped.getInt(0) != SnapshotWriter.MAGIC || mapped.getInt(size - 4) != SnapshotWriter.MAGIC){
+			throw new IOException("Not a snapshot: " + file);
+		}
+		if(mapped.getInt(4) != SnapshotWriter.VERSION){
+			throw new IOException("Unsupported snapshot version " + mapped.getInt(4) + ": " + file);
+		}
+
+		this.file = file;
+		this.buffer = mapped;
+		this.createdMillis = mapped.getLong(8);
+
+		int stringsOffset = mapped.getInt(size - SnapshotWriter.TRAILER_SIZE);
+		int sectionsOffset = mapped.getInt(size - SnapshotWriter.TRAILER_SIZE + 4);
+
+		this.stringCount = mapped.getInt(stringsOffset);
+		this.stringOffsetsStart = stringsOffset + 4;
+		this.stringBytesStart = stringOffsetsStart + (stringCount + 1) * 4;
+		this.strings = new String[stringCount];
+
+		int sectionCount = mapped.getInt(sectionsOffset);
+		Map<String, Node> sectionMap = new LinkedHashMap<String, Node>(sectionCount * 2);
+		for(int i = 0, position = sectionsOffset + 4; i < sectionCount; i++, position += 4 + SnapshotWriter.SLOT_SIZE){
+			sectionMap.put(string(mapped.getInt(position)), slot(position + 4));
+		}
+		this.sections = Collections.unmodifiableMap(sectionMap);
+	}
+
+	public File getFile(){
+		return file;
+	}
+
+	//	when the snapshot was written
+	public long getCreatedMillis(){
+		return createdMillis;
+	}
+
+	//	distinct strings of the snapshot
+	public int getStringCount(){
+		return stringCount;
+	}
+
+	//	section names in the order they were written
+	public List<String> getSectionNames(){
+		return new ArrayList<String>(sections.keySet());
+	}
+
+	//	value of a section, null if there is none
+	public Node getSection(String sectionName){
+		return sections.get(sectionName);
+	}
+
+	//	Release the mapping, the nodes of this reader must not be used afterwards
+	//	the file is unmapped when the buffer is garbage collected
+	@Override
+	public void close(){
+		buffer = null;
+	}
+
+	//	-------------------
+	//	Decoding
+	//	-------------------
+
+	private ByteBuffer buffer(){
+		ByteBuffer buffer = this.buffer;
+
+		if(buffer == null){
+			throw new IllegalStateException("Snapshot closed: " + file);
+		}
+		return buffer;
+	}
+
+	private Node slot(int position){
+		ByteBuffer buffer = buffer();
+		return new Node(buffer.get(position), buffer.getLong(position + 1), -1);
+	}
+
+	//	racing threads decode the same immutable String
+	private String string(int id){
+		String string = strings[id];
+
+		if(string == null){
+			ByteBuffer buffer = buffer();
+			int start = buffer.getInt(stringOffsetsStart + id * 4);
+			int end = buffer.getInt(stringOffsetsStart + id * 4 + 4);
+			byte[] bytes = new byte[end - start];
+
+			ByteBuffer view = buffer.duplicate();
+			view.position(stringBytesStart + start);
+			view.get(bytes);
+
+			string = new String(bytes, SnapshotWriter.UTF8);
+			strings[id] = string;
+		}
+		return string;
+	}
+
+	//	One value of the snapshot, read from the mapped file on access
+	public class Node {
+		private final byte tag;
+		//	the long, the double bits, the string id, or the offset of the value
+		private final long value;
+		//	row of a table, -1 otherwise
+		private final int row;
+
+		private Node(byte tag, long value, int row){
+			this.tag = tag;
+			this.value = value;
+			this.row = row;
+		}
+
+		//	NULL, BOOLEAN, LONG, DOUBLE, STRING, ARRAY or OBJECT
+		public int getType(){
+			switch(tag){
+			case SnapshotWriter.FALSE:
+			case SnapshotWriter.TRUE:
+				return BOOLEAN;
+			case SnapshotWriter.LONG:
+				return LONG;
+			case SnapshotWriter.DOUBLE:
+				return DOUBLE;
+			case SnapshotWriter.STRING:
+				return STRING;
+			case SnapshotWriter.ARRAY:
+			case SnapshotWriter.TABLE:
+				return ARRAY;
+			case SnapshotWriter.OBJECT:
+			case ROW:
+				return OBJECT;
+			default:
+				return NULL;
+			}
+		}
+
+		public boolean isNull(){
+			return tag == SnapshotWriter.NULL;
+		}
+
+		public boolean isArray(){
+			return getType() == ARRAY;
+		}
+
+		public boolean isObject(){
+			return getType() == OBJECT;
+		}
+
+		//	elements of an array, fields of an object, 0 otherwise
+		public int size(){
+			switch(tag){
+			case SnapshotWriter.ARRAY:
+			case SnapshotWriter.OBJECT:
+			case SnapshotWriter.TABLE:
+				return buffer().getInt((int) value);
+			case ROW:
+				return columnCount();
+			default:
+				return 0;
+			}
+		}
+
+		//	element of an array, null if out of range
+		public Node get(int index){
+			if(index < 0 || index >= size()){
+				return null;
+			}
+
+			int offset = (int) value;
+			if(tag == SnapshotWriter.ARRAY){
+				return slot(offset + 4 + index * SnapshotWriter.SLOT_SIZE);
+			}
+			else if(tag == SnapshotWriter.TABLE){
+				return new Node(ROW, value, index);
+			}
+			return null;
+		}
+
+		//	field of an object, null if there is none
+		public Node get(String fieldName){
+			int offset = (int) value;
+
+			if(tag == SnapshotWriter.OBJECT){
+				int count = buffer().getInt(offset);
+
+				for(int i = 0, position = offset + 4; i < count; i++, position += 4 + SnapshotWriter.SLOT_SIZE){
+					if(string(buffer().getInt(position)).equals(fieldName)){
+						return slot(position + 4);
+					}
+				}
+			}
+			else if(tag == ROW){
+				int column = column(fieldName);
+
+				if(column >= 0){
+					return cell(column);
+				}
+			}
+			return null;
+		}
+
+		//	field names of an object, in order
+		public List<String> fieldNames(){
+			int count = size();
+			List<String> names = new ArrayList<String>(count);
+
+			if(tag == SnapshotWriter.OBJECT){
+				for(int i = 0; i < count; i++){
+					names.add(string(buffer().getInt((int) value + 4 + i * (4 + SnapshotWriter.SLOT_SIZE))));
+				}
+			}
+			else if(tag == ROW){
+				for(int i = 0; i < count; i++){
+					names.add(string(buffer().getInt(columnPosition(i))));
+				}
+			}
+			return names;
+		}
+
+		//	elements of an array
+		public List<Node> elements(){
+			int count = isArray() ? size() : 0;
+			List<Node> elements = new ArrayList<Node>(count);
+
+			for(int i = 0; i < count; i++){
+				elements.add(get(i));
+			}
+			return elements;
+		}
+
+		//	-------------------
+		//	Scalars
+		//	-------------------
+
+		//	text of a string, or of a number or boolean, null for others
+		public String asText(){
+			switch(tag){
+			case SnapshotWriter.STRING:
+				return string((int) value);
+			case SnapshotWriter.LONG:
+				return Long.toString(value);
+			case SnapshotWriter.DOUBLE:
+				return Double.toString(asDouble());
+			case SnapshotWriter.TRUE:
+				return "true";
+			case SnapshotWriter.FALSE:
+				return "false";
+			default:
+				return null;
+			}
+		}
+
+		//	value of a number, or of a string holding one, 0 otherwise
+		public long asLong(){
+			switch(tag){
+			case SnapshotWriter.LONG:
+				return value;
+			case SnapshotWriter.DOUBLE:
+				return (long) Double.longBitsToDouble(value);
+			case SnapshotWriter.STRING:
+				try{
+					return Long.parseLong(string((int) value));
+				}
+				catch(NumberFormatException e){
+					return 0;
+				}
+			default:
+				return 0;
+			}
+		}
+
+		public double asDouble(){
+			switch(tag){
+			case SnapshotWriter.DOUBLE:
+				return Double.longBitsToDouble(value);
+			case SnapshotWriter.LONG:
+				return value;
+			case SnapshotWriter.STRING:
+				try{
+					return Double.parseDouble(string((int) value));
+				}
+				catch(NumberFormatException e){
+					return 0;
+				}
+			default:
+				return 0;
+			}
+		}
+
+		public boolean asBoolean(){
+			return tag == SnapshotWriter.TRUE || (tag == SnapshotWriter.STRING && "true".equals(string((int) value)));
+		}
+
+		//	-------------------
+		//	Columns
+		//	-------------------
+
+		//	Values of a field over all the objects of an array, without copy,
+		//	null if the array is not stored as a table or the field is not an integer column
+		//	e.g. getLongColumn("receivePackets") of the portStatistic array of a node
+		public LongBuffer getLongColumn(String fieldName){
+			if(tag != SnapshotWriter.TABLE){
+				return null;
+			}
+
+			int column = column(fieldName);
+			if(column < 0 || buffer().get(columnPosition(column) + 4) != SnapshotWriter.LONG_COLUMN){
+				return null;
+			}
+
+			ByteBuffer view = buffer().duplicate();
+			int start = buffer().getInt(columnPosition(column) + 5);
+			view.limit(start + size() * 8);
+			view.position(start);
+			return view.slice().asLongBuffer();
+		}
+
+		//	table or row, -1 if the table has no such column
+		private int column(String fieldName){
+			int columns = columnCount();
+
+			for(int i = 0; i < columns; i++){
+				if(string(buffer().getInt(columnPosition(i))).equals(fieldName)){
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		private int columnCount(){
+			return buffer().getInt((int) value + 4);
+		}
+
+		//	name id, type, data offset
+		private int columnPosition(int column){
+			return (int) value + 8 + column * 9;
+		}
+
+		private Node cell(int column){
+			int position = columnPosition(column);
+			int data = buffer().getInt(position + 5);
+
+			if(buffer().get(position + 4) == SnapshotWriter.LONG_COLUMN){
+				return new Node(SnapshotWriter.LONG, buffer().getLong(data + row * 8), -1);
+			}
+			return slot(data + row * SnapshotWriter.SLOT_SIZE);
+		}
+
+		//	-------------------
+		//	Conversion
+		//	-------------------
+
+		//	Copy of the value as a Jackson tree, e.g. for FlowReconciler.plan(...)
+		public JsonNode toJsonNode(){
+			JsonNodeFactory factory = JsonNodeFactory.instance;
+
+			switch(tag){
+			case SnapshotWriter.FALSE:
+			case SnapshotWriter.TRUE:
+				return factory.booleanNode(tag == SnapshotWriter.TRUE);
+			case SnapshotWriter.LONG:
+				return factory.numberNode(value);
+			case SnapshotWriter.DOUBLE:
+				return factory.numberNode(asDouble());
+			case SnapshotWriter.STRING:
+				return factory.textNode(asText());
+			case SnapshotWriter.ARRAY:
+			case SnapshotWriter.TABLE:
+				ArrayNode array = factory.arrayNode();
+				for(Node element: elements()){
+					array.add(element.toJsonNode());
+				}
+				return array;
+			case SnapshotWriter.OBJECT:
+			case ROW:
+				ObjectNode object = factory.objectNode();
+				for(String fieldName: fieldNames()){
+					object.put(fieldName, get(fieldName).toJsonNode());
+				}
+				return object;
+			default:
+				return factory.nullNode();
+			}
+		}
+
+		@Override
+		public String toString() {
+			return isArray() || isObject() ? toJsonNode().toString() : String.valueOf(asText());
+		}
+	}
+}
@@ -0,0 +1,462 @@
+package jOpendaylight;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/*
+ * Writes northbound responses (topology, flows, hosts, statistics...) to a compact binary
+ * snapshot, read back without parsing by a SnapshotReader.
+ * - Every string, field names included, is stored once and referenced by id.
+ * - Identical objects and arrays, e.g. the node of every port of a switch, are stored once.
+ * - An array of objects which all have the same fields, e.g. the port statistics of a node,
+ *   is stored as a table: one column per field, and integer fields as plain long columns.
+ * Layout, big endian, offsets from the start of the file:
+ *   header     magic, version, created millis
+ *   values     nested values first, each array, object or table refers to its children by slot
+ *   strings    count, count + 1 offsets, UTF-8 bytes
+ *   sections   count, (name id, slot) per section
+ *   trailer    strings offset, sections offset, magic
+ * A slot is a tag byte and 8 bytes: the long or double, the string id, or the offset of the value.
+ * Snapshots are limited to 2 GB, the size of one mapped buffer.
+ */
+public class SnapshotWriter {
+	final static int MAGIC = 0x4F444C53;	//	"ODLS"
+	final static int VERSION = 1;
+	final static int HEADER_SIZE = 16;
+	final static int TRAILER_SIZE = 12;
+	final static int SLOT_SIZE = 9;
+
+	//	slot tags
+	final static byte NULL = 0;
+	final static byte FALSE = 1;
+	final static byte TRUE = 2;
+	final static byte LONG = 3;
+	final static byte DOUBLE = 4;
+	final static byte STRING = 5;
+	final static byte ARRAY = 6;
+	final static byte OBJECT = 7;
+	final static byte TABLE = 8;
+
+	//	table column types
+	final static byte LONG_COLUMN = 0;
+	final static byte SLOT_COLUMN = 1;
+
+	final static Charset UTF8 = Charset.forName("UTF-8");
+
+	private Map<String, JsonNode> sections;
+
+	//	constructor with nothing
+	public SnapshotWriter(){
+		sections = new LinkedHashMap<String, JsonNode>();
+	}
+
+	//	Add a response under a section name, e.g. "topology"
+	public void add(String sectionName, JsonNode node){
+		sections.put(sectionName, node);
+	}
+
+	//	Add the topology, flows, hosts, routes, subnets and statistics of a container,
+	//	each section is named after the container, e.g. "default/portStatistics"
+	public void capture(OpendaylightClient client, String containerName) throws IOException{
+		String prefix = containerName + "/";
+
+		add(prefix + "topology", client.getTopology(containerName));
+		add(prefix + "userLinks", client.getUserLinks(containerName));
+		add(prefix + "staticFlows", client.getAllStaticFlowEntries(containerName));
+		add(prefix + "activeHosts", client.getActiveHosts(containerName));
+		add(prefix + "inactiveHosts", client.getInactiveHosts(containerName));
+		add(prefix + "staticRoutes", client.getStaticRoutes(containerName));
+		add(prefix + "subnets", client.listSubnets(containerName));
+		add(prefix + "nodes", client.getNodePropertiesOfContainer(containerName));
+		add(prefix + "flowStatistics", client.getFlowStatistics(containerName));
+		add(prefix + "portStatistics", client.getPortStatistics(containerName));
+		add(prefix + "tableStatistics", client.getTableStatistics(containerName));
+	}
+
+	//	Write all sections, returns the size of the file
+	public long write(File file) throws IOException{
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+
+		try{
+			Encoder encoder = new Encoder(out);
+			long size = encoder.write(sections);
+
+			out.flush();
+			return size;
+		}
+		finally{
+			out.close();
+		}
+	}
+
+	//	-------------------
+	//	Encoding
+	//	-------------------
+
+	private static class Encoder {
+		private final DataOutputStream out;
+		private long position;
+		private final Map<String, Integer> stringIds;
+		private final List<String> strings;
+		//	objects, arrays and tables already written -> offset, one map per tag.
+		//	Keyed by ExactNode: JsonNode.equals ignores field order, which a snapshot keeps
+		private final Map<ExactNode, Integer> writtenObjects;
+		private final Map<ExactNode, Integer> writtenArrays;
+		private final Map<ExactNode, Integer> writtenTables;
+
+		Encoder(DataOutputStream out){
+			this.out = out;
+			this.stringIds = new HashMap<String, Integer>();
+			this.strings = new ArrayList<String>();
+			this.writtenObjects = new HashMap<ExactNode, Integer>();
+			this.writtenArrays = new HashMap<ExactNode, Integer>();
+			this.writtenTables = new HashMap<ExactNode, Integer>();
+		}
+
+		long write(Map<String, JsonNode> sections) throws IOException{
+			byte[] tags = new byte[sections.size()];
+			long[] values = new long[sections.size()];
+			int[] names = new int[sections.size()];
+			int i = 0;
+
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(System.currentTimeMillis());
+			position = HEADER_SIZE;
+
+			for(Map.Entry<String, JsonNode> section: sections.entrySet()){
+				names[i] = intern(section.getKey());
+				encode(section.getValue(), tags, values, i);
+				i++;
+			}
+
+			int stringsOffset = offset();
+			writeStrings();
+
+			int sectionsOffset = offset();
+			writeInt(sections.size());
+			for(i = 0; i < names.length; i++){
+				writeInt(names[i]);
+				writeSlot(tags[i], values[i]);
+			}
+
+			writeInt(stringsOffset);
+			writeInt(sectionsOffset);
+			writeInt(MAGIC);
+
+			return position;
+		}
+
+		//	Write the children of node, then node, and fill its slot
+		private void encode(JsonNode node, byte[] tags, long[] values, int index) throws IOException{
+			if(node == null || node.isNull() || node.isMissingNode()){
+				tags[index] = NULL;
+			}
+			else if(node.isBoolean()){
+				tags[index] = node.booleanValue() ? TRUE : FALSE;
+			}
+			else if(node.isIntegralNumber() && node.canConvertToLong()){
+				tags[index] = LONG;
+				values[index] = node.longValue();
+			}
+			else if(node.isNumber()){
+				tags[index] = DOUBLE;
+				values[index] = Double.doubleToRawLongBits(node.doubleValue());
+			}
+			else if(node.isContainerNode()){
+				byte tag = node.isObject() ? OBJECT : isTable(node) ? TABLE : ARRAY;
+				Map<ExactNode, Integer> written = (tag == OBJECT) ? writtenObjects : (tag == TABLE) ? writtenTables : writtenArrays;
+				ExactNode key = new ExactNode(node);
+				Integer offset = written.get(key);
+
+				if(offset == null){
+					offset = (tag == OBJECT) ? encodeObject(node) : (tag == TABLE) ? encodeTable(node) : encodeArray(node);
+					written.put(key, offset);
+				}
+				tags[index] = tag;
+				values[index] = offset;
+			}
+			else{
+				tags[index] = STRING;
+				values[index] = intern(node.asText());
+			}
+		}
+
+		private int encodeArray(JsonNode array) throws IOException{
+			int size = array.size();
+			byte[] tags = new byte[size];
+			long[] values = new long[size];
+
+			for(int i = 0; i < size; i++){
+				encode(array.get(i), tags, values, i);
+			}
+
+			int offset = offset();
+			writeInt(size);
+			for(int i = 0; i < size; i++){
+				writeSlot(tags[i], values[i]);
+			}
+			return offset;
+		}
+
+		private int encodeObject(JsonNode object) throws IOException{
+			int size = object.size();
+			int[] names = new int[size];
+			byte[] tags = new byte[size];
+			long[] values = new long[size];
+			Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+
+			for(int i = 0; fields.hasNext(); i++){
+				Map.Entry<String, JsonNode> field = fields.next();
+
+				names[i] = intern(field.getKey());
+				encode(field.getValue(), tags, values, i);
+			}
+
+			int offset = offset();
+			writeInt(size);
+			for(int i = 0; i < size; i++){
+				writeInt(names[i]);
+				writeSlot(tags[i], values[i]);
+			}
+			return offset;
+		}
+
+		//	rows, columns, then per column: name id, type, offset of its data
+		private int encodeTable(JsonNode array) throws IOException{
+			int rows = array.size();
+			List<String> columns = fieldNames(array.get(0));
+			int[] columnOffsets = new int[columns.size()];
+			byte[] columnTypes = new byte[columns.size()];
+
+			for(int c = 0; c < columns.size(); c++){
+				String column = columns.get(c);
+
+				if(isLongColumn(array, column)){
+					columnTypes[c] = LONG_COLUMN;
+					columnOffsets[c] = offset();
+					for(int r = 0; r < rows; r++){
+						writeLong(array.get(r).get(column).longValue());
+					}
+				}
+				else{
+					byte[] tags = new byte[rows];
+					long[] values = new long[rows];
+
+					for(int r = 0; r < rows; r++){
+						encode(array.get(r).get(column), tags, values, r);
+					}
+
+					columnTypes[c] = SLOT_COLUMN;
+					columnOffsets[c] = offset();
+					for(int r = 0; r < rows; r++){
+						writeSlot(tags[r], values[r]);
+					}
+				}
+			}
+
+			int offset = offset();
+			writeInt(rows);
+			writeInt(columns.size());
+			for(int c = 0; c < columns.size(); c++){
+				writeInt(intern(columns.get(c)));
+				writeByte(columnTypes[c]);
+				writeInt(columnOffsets[c]);
+			}
+			return offset;
+		}
+
+		//	two or more objects with the same fields in the same order
+		private static boolean isTable(JsonNode array){
+			if(!array.isArray() || array.size() < 2 || !array.get(0).isObject()){
+				return false;
+			}
+
+			List<String> columns = fieldNames(array.get(0));
+			for(int r = 1; r < array.size(); r++){
+				JsonNode row = array.get(r);
+
+				if(!row.isObject() || row.size() != columns.size()){
+					return false;
+				}
+
+				Iterator<String> names = row.fieldNames();
+				for(String column: columns){
+					if(!column.equals(names.next())){
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+
+		private static boolean isLongColumn(JsonNode array, String column){
+			for(JsonNode row: array){
+				JsonNode value = row.get(column);
+
+				if(!value.isIntegralNumber() || !value.canConvertToLong()){
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private static List<String> fieldNames(JsonNode object){
+			List<String> names = new ArrayList<String>(object.size());
+			Iterator<String> iterator = object.fieldNames();
+
+			while(iterator.hasNext()){
+				names.add(iterator.next());
+			}
+			return names;
+		}
+
+		private int intern(String string){
+			Integer id = stringIds.get(string);
+
+			if(id == null){
+				id = strings.size();
+				stringIds.put(string, id);
+				strings.add(string);
+			}
+			return id;
+		}
+
+		//	count, count + 1 offsets from the start of the bytes, bytes
+		private void writeStrings() throws IOException{
+			List<byte[]> encoded = new ArrayList<byte[]>(strings.size());
+			int end = 0;
+
+			writeInt(strings.size());
+			writeInt(0);
+			for(String string: strings){
+				byte[] bytes = string.getBytes(UTF8);
+
+				encoded.add(bytes);
+				end += bytes.length;
+				writeInt(end);
+			}
+
+			for(byte[] bytes: encoded){
+				out.write(bytes);
+				position += bytes.length;
+			}
+		}
+
+		//	current position, as an offset a slot can refer to
+		private int offset() throws IOException{
+			if(position > Integer.MAX_VALUE - TRAILER_SIZE){
+				throw new IOException("Snapshot over 2 GB");
+			}
+			return (int) position;
+		}
+
+		private void writeSlot(byte tag, long value) throws IOException{
+			out.writeByte(tag);
+			out.writeLong(value);
+			position += SLOT_SIZE;
+		}
+
+		private void writeByte(byte value) throws IOException{
+			out.writeByte(value);
+			position += 1;
+		}
+
+		private void writeInt(int value) throws IOException{
+			out.writeInt(value);
+			position += 4;
+		}
+
+		private void writeLong(long value) throws IOException{
+			out.writeLong(value);
+			position += 8;
+		}
+	}
+
+	//	A JsonNode compared as it is written: object fields in order
+	private static class ExactNode {
+		private final JsonNode node;
+		private final int hash;
+
+		ExactNode(JsonNode node){
+			this.node = node;
+			this.hash = hash(node);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof ExactNode && hash == ((ExactNode) other).hash && equal(node, ((ExactNode) other).node);
+		}
+
+		private static int hash(JsonNode node){
+			if(!node.isContainerNode()){
+				return node.hashCode();
+			}
+
+			int hash = node.isObject() ? 1 : 2;
+			if(node.isObject()){
+				Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+
+				while(fields.hasNext()){
+					Map.Entry<String, JsonNode> field = fields.next();
+					hash = hash * 31 + field.getKey().hashCode();
+					hash = hash * 31 + hash(field.getValue());
+				}
+			}
+			else{
+				for(JsonNode element: node){
+					hash = hash * 31 + hash(element);
+				}
+			}
+			return hash;
+		}
+
+		private static boolean equal(JsonNode a, JsonNode b){
+			if(!a.isContainerNode() || !b.isContainerNode()){
+				return a.equals(b);
+			}
+			if(a.isObject() != b.isObject() || a.size() != b.size()){
+				return false;
+			}
+
+			if(a.isObject()){
+				Iterator<Map.Entry<String, JsonNode>> aFields = a.fields();
+				Iterator<Map.Entry<String, JsonNode>> bFields = b.fields();
+
+				while(aFields.hasNext()){
+					Map.Entry<String, JsonNode> aField = aFields.next();
+					Map.Entry<String, JsonNode> bField = bFields.next();
+
+					if(!aField.getKey().equals(bField.getKey()) || !equal(aField.getValue(), bField.getValue())){
+						return false;
+					}
+				}
+			}
+			else{
+				for(int i = 0; i < a.size(); i++){
+					if(!equal(a.get(i), b.get(i))){
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+	}
+}
@@ -0,0 +1,544 @@
+package jOpendaylight;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/*
+ * Local copy of the static routes of one container, loaded from getStaticRoutes(...).
+ * Routes are kept in a path compressed binary trie over their IPv4 prefixes,
+ * so the route serving an address is found by longest prefix match in at most 32 steps,
+ * without asking the controller.
+ * apply(...) pushes a whole route set: only the routes that differ are removed and added,
+ * concurrently through a BatchExecutor.
+ */
+public class StaticRouteTable {
+	private final static int defaultThreads = 16;
+	private final static int defaultParallelism = 16;
+
+	private OpendaylightClient client;
+	private String containerName;
+	private ExecutorService executor;
+	private BatchExecutor batchExecutor;
+	private int parallelism;
+	private boolean ownExecutor;
+
+	private Map<String, Route> routes;
+	private TrieNode root;
+	private ReentrantReadWriteLock lock;
+
+	//	constructor with default threads and parallelism
+	public StaticRouteTable(OpendaylightClient client, String containerName){
+		this(client, containerName, defaultThreads, defaultParallelism);
+	}
+
+	//	constructor with its own executor, sized as told in BatchExecutor
+	public StaticRouteTable(OpendaylightClient client, String containerName, int threads, int parallelism){
+		this(client, containerName, Executors.newFixedThreadPool(threads, new DaemonThreadFactory("StaticRouteTable")), parallelism);
+		this.ownExecutor = true;
+	}
+
+	//	base constructor
+	//	parallelism is the number of route requests in flight during apply(...)
+	//	executor of the caller (see BatchExecutor)
+	public StaticRouteTable(OpendaylightClient client, String containerName, ExecutorService executor, int parallelism){
+		this.client = client;
+		this.containerName = containerName;
+		this.executor = executor;
+		this.batchExecutor = new BatchExecutor(executor);
+		this.parallelism = parallelism;
+		this.ownExecutor = false;
+		this.routes = new HashMap<String, Route>();
+		this.lock = new ReentrantReadWriteLock();
+	}
+
+	public void shutdown(){
+		if(ownExecutor){
+			executor.shutdown();
+		}
+	}
+
+	//	-------------------
+	//	Loading
+	//	-------------------
+
+	//	Reload the routes from the controller
+	//	returns the number of routes added, changed or removed
+	public int refresh() throws IOException{
+		return refresh(client.getStaticRoutes(containerName));
+	}
+
+	//	Load the routes of a getStaticRoutes(...) response
+	//	returns the number of routes added, changed or removed
+	public int refresh(JsonNode staticRoutes){
+		Map<String, Route> loaded = new LinkedHashMap<String, Route>();
+		int changes = 0;
+
+		for(JsonNode staticRoute: JsonUtils.elements(staticRoutes, "staticRoute")){
+			String name = JsonUtils.text(staticRoute, "name");
+			String prefix = JsonUtils.text(staticRoute, "prefix");
+
+			//	routes the trie cannot hold, e.g. IPv6 ones, are skipped
+			if(name != null && prefix != null && isIpv4Prefix(prefix)){
+				loaded.put(name, new Route(name, prefix, JsonUtils.text(staticRoute, "nextHop")));
+			}
+		}
+
+		lock.writeLock().lock();
+		try{
+			for(Route route: new ArrayList<Route>(routes.values())){
+				if(!route.equals(loaded.get(route.name))){
+					remove(route);
+					changes++;
+				}
+			}
+			for(Route route: loaded.values()){
+				if(!routes.containsKey(route.name)){
+					add(route);
+					changes++;
+				}
+			}
+		}
+		finally{
+			lock.writeLock().unlock();
+		}
+
+		//	a changed route was counted as removed and added
+		return changes;
+	}
+
+	//	-------------------
+	//	Lookups
+	//	-------------------
+
+	//	Route with the longest prefix containing the address, null if none
+	public Route lookup(String address){
+		return lookup(AddressUtils.parseIpv4(address));
+	}
+
+	public Route lookup(int address){
+		lock.readLock().lock();
+		try{
+			TrieNode node = root;
+			TrieNode best = null;
+
+			while(node != null && (address & mask(node.length)) == node.prefix){
+				if(node.routes != null){
+					best = node;
+				}
+				if(node.length == 32){
+					break;
+				}
+				node = node.children[bit(address, node.length)];
+			}
+
+			return (best != null) ? best.routes.get(0) : null;
+		}
+		finally{
+			lock.readLock().unlock();
+		}
+	}
+
+	//	Next hop of the route serving the address, null if none
+	public String getNextHop(String address){
+		Route route = lookup(address);
+		return (route != null) ? route.nextHop : null;
+	}
+
+	public Route getRoute(String name){
+		lock.readLock().lock();
+		try{
+			return routes.get(name);
+		}
+		finally{
+			lock.readLock().unlock();
+		}
+	}
+
+	public List<Route> getRoutes(){
+		lock.readLock().lock();
+		try{
+			return new ArrayList<Route>(routes.values());
+		}
+		finally{
+			lock.readLock().unlock();
+		}
+	}
+
+	public int size(){
+		lock.readLock().lock();
+		try{
+			return routes.size();
+		}
+		finally{
+			lock.readLock().unlock();
+		}
+	}
+
+	//	-------------------
+	//	Bulk update
+	//	-------------------
+
+	//	Make the controller hold exactly the desired routes.
+	//	The difference with the local table is computed, refresh() first if it may be stale;
+	//	changed and extra routes are removed, then missing and changed routes are added,
+	//	each step concurrently. The table follows the operations that succeeded.
+	//	A changed route whose removal failed is not added, its result carries the removal error.
+	public List<BatchResult<RouteChange>> apply(Collection<Route> desired) throws InterruptedException{
+		Map<String, Route> wanted = new LinkedHashMap<String, Route>();
+		List<RouteChange> removals = new ArrayList<RouteChange>();
+		List<RouteChange> additions = new ArrayList<RouteChange>();
+		List<BatchResult<RouteChange>> results = new ArrayList<BatchResult<RouteChange>>();
+		Map<String, Throwable> failedRemovals = new HashMap<String, Throwable>();
+
+		for(Route route: desired){
+			wanted.put(route.name, route);
+		}
+
+		lock.readLock().lock();
+		try{
+			for(Route route: routes.values()){
+				if(!route.equals(wanted.get(route.name))){
+					removals.add(new RouteChange(RouteChange.REMOVE, route));
+				}
+			}
+			for(Route route: wanted.values()){
+				if(!route.equals(routes.get(route.name))){
+					additions.add(new RouteChange(RouteChange.ADD, route));
+				}
+			}
+		}
+		finally{
+			lock.readLock().unlock();
+		}
+
+		for(BatchResult<RouteChange> result: batchExecutor.execute(removals, new RouteOperation(){
+			@Override
+			public String apply(RouteChange change) throws Exception {
+				return client.removeStaticRoute(containerName, change.route.name);
+			}
+		}, parallelism)){
+			if(!result.isSuccess()){
+				failedRemovals.put(result.getItem().route.name, result.getError());
+			}
+			results.add(result);
+		}
+		update(results);
+
+		//	a route whose previous version is still there would be refused
+		List<RouteChange> sent = new ArrayList<RouteChange>(additions.size());
+		for(RouteChange change: additions){
+			Throwable error = failedRemovals.get(change.route.name);
+
+			if(error != null){
+				results.add(BatchResult.failure(change, error));
+			}
+			else{
+				sent.add(change);
+			}
+		}
+
+		List<BatchResult<RouteChange>> addResults = batchExecutor.execute(sent, new RouteOperation(){
+			@Override
+			public String apply(RouteChange change) throws Exception {
+				return client.addStaticRoute(containerName, change.route.name, change.route.prefix, change.route.nextHop);
+			}
+		}, parallelism);
+		update(addResults);
+		results.addAll(addResults);
+
+		return results;
+	}
+
+	//	apply the successful changes to the local table
+	private void update(List<BatchResult<RouteChange>> results){
+		lock.writeLock().lock();
+		try{
+			for(BatchResult<RouteChange> result: results){
+				RouteChange change = result.getItem();
+
+				if(!result.isSuccess()){
+					continue;
+				}
+
+				Route current = routes.get(change.route.name);
+				if(change.type == RouteChange.REMOVE && current != null && current.equals(change.route)){
+					remove(current);
+				}
+				else if(change.type == RouteChange.ADD && current == null){
+					add(change.route);
+				}
+			}
+		}
+		finally{
+			lock.writeLock().unlock();
+		}
+	}
+
+	//	all route requests share one partition, bounded by the parallelism
+	private static abstract class RouteOperation implements BatchExecutor.Operation<RouteChange> {
+		@Override
+		public String partitionKey(RouteChange change) {
+			return "";
+		}
+	}
+
+	//	-------------------
+	//	Trie
+	//	-------------------
+
+	//	write lock held
+	private void add(Route route){
+		TrieNode parent = null;
+		TrieNode node = root;
+
+		routes.put(route.name, route);
+
+		while(true){
+			if(node == null){
+				setChild(parent, route.address, new TrieNode(route.address, route.length, route));
+				return;
+			}
+
+			int common = commonLength(node.prefix, node.length, route.address, route.length);
+
+			if(common < node.length){
+				//	the route diverges inside this node's prefix, split it
+				TrieNode branch = new TrieNode(route.address & mask(common), common, null);
+
+				branch.children[bit(node.prefix, common)] = node;
+				if(common == route.length){
+					branch.routes = new ArrayList<Route>(1);
+					branch.routes.add(route);
+				}
+				else{
+					branch.children[bit(route.address, common)] = new TrieNode(route.address, route.length, route);
+				}
+				setChild(parent, branch.prefix, branch);
+				return;
+			}
+			else if(node.length == route.length){
+				if(node.routes == null){
+					node.routes = new ArrayList<Route>(1);
+				}
+				node.routes.add(route);
+				return;
+			}
+
+			parent = node;
+			node = node.children[bit(route.address, node.length)];
+		}
+	}
+
+	//	write lock held
+	private void remove(Route route){
+		TrieNode grandParent = null;
+		TrieNode parent = null;
+		TrieNode node = root;
+
+		routes.remove(route.name);
+
+		while(node != null && node.length < route.length && (route.address & mask(node.length)) == node.prefix){
+			grandParent = parent;
+			parent = node;
+			node = node.children[bit(route.address, node.length)];
+		}
+
+		if(node == null || node.length != route.length || node.prefix != route.address || node.routes == null || !node.routes.remove(route)){
+			return;
+		}
+		if(!node.routes.isEmpty()){
+			return;
+		}
+		node.routes = null;
+
+		//	drop or splice out the nodes that no longer branch
+		if(node.children[0] != null && node.children[1] != null){
+			return;
+		}
+
+		TrieNode child = (node.children[0] != null) ? node.children[0] : node.children[1];
+		replaceChild(parent, node, child);
+
+		if(child == null && parent != null && parent.routes == null){
+			TrieNode sibling = (parent.children[0] != null) ? parent.children[0] : parent.children[1];
+			replaceChild(grandParent, parent, sibling);
+		}
+	}
+
+	private void setChild(TrieNode parent, int address, TrieNode child){
+		if(parent == null){
+			root = child;
+		}
+		else{
+			parent.children[bit(address, parent.length)] = child;
+		}
+	}
+
+	private void replaceChild(TrieNode parent, TrieNode oldChild, TrieNode newChild){
+		if(parent == null){
+			root = newChild;
+		}
+		else if(parent.children[0] == oldChild){
+			parent.children[0] = newChild;
+		}
+		else{
+			parent.children[1] = newChild;
+		}
+	}
+
+	//	bit i of the address, 0 being the most significant one
+	private static int bit(int address, int i){
+		return (address >>> (31 - i)) & 1;
+	}
+
+	private static int mask(int length){
+		return (length == 0) ? 0 : -1 << (32 - length);
+	}
+
+	private static int commonLength(int a, int aLength, int b, int bLength){
+		return Math.min(Math.min(aLength, bLength), Integer.numberOfLeadingZeros(a ^ b));
+	}
+
+	private static boolean isIpv4Prefix(String prefix){
+		try{
+			parsePrefix(prefix);
+			return true;
+		}
+		catch(IllegalArgumentException e){
+			return false;
+		}
+	}
+
+	//	"10.0.0.0/8" -> {address, length}, a plain address is a /32
+	private static int[] parsePrefix(String prefix){
+		int slash = prefix.indexOf('/');
+		int length = 32;
+
+		if(slash >= 0){
+			try{
+				length = Integer.parseInt(prefix.substring(slash + 1).trim());
+			}
+			catch(NumberFormatException e){
+				throw new IllegalArgumentException("Not an IPv4 prefix: " + prefix);
+			}
+			if(length < 0 || length > 32){
+				throw new IllegalArgumentException("Not an IPv4 prefix: " + prefix);
+			}
+		}
+
+		int address = AddressUtils.parseIpv4((slash >= 0) ? prefix.substring(0, slash).trim() : prefix.trim());
+		return new int[]{address & mask(length), length};
+	}
+
+	private static class TrieNode {
+		final int prefix;
+		final int length;
+		final TrieNode[] children;
+		List<Route> routes;		//	null on nodes that only branch
+
+		TrieNode(int prefix, int length, Route route){
+			this.prefix = prefix;
+			this.length = length;
+			this.children = new TrieNode[2];
+			if(route != null){
+				this.routes = new ArrayList<Route>(1);
+				this.routes.add(route);
+			}
+		}
+	}
+
+	//	One static route, as configured in the staticroute northbound
+	public static class Route {
+		private final String name;
+		private final String prefix;
+		private final String nextHop;
+		private final int address;
+		private final int length;
+
+		//	throws IllegalArgumentException if the prefix is not an IPv4 prefix
+		public Route(String name, String prefix, String nextHop){
+			int[] parsed = parsePrefix(prefix);
+
+			this.name = name;
+			this.prefix = prefix;
+			this.nextHop = nextHop;
+			this.address = parsed[0];
+			this.length = parsed[1];
+		}
+
+		public String getName(){
+			return name;
+		}
+
+		public String getPrefix(){
+			return prefix;
+		}
+
+		public String getNextHop(){
+			return nextHop;
+		}
+
+		public int getPrefixLength(){
+			return length;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(!(obj instanceof Route)){
+				return false;
+			}
+
+			Route other = (Route) obj;
+			return name.equals(other.name) && address == other.address && length == other.length
+					&& ((nextHop == null) ? other.nextHop == null : nextHop.equals(other.nextHop));
+		}
+
+		@Override
+		public int hashCode() {
+			return name.hashCode() * 31 + address * 33 + length;
+		}
+
+		@Override
+		public String toString() {
+			return name + " " + AddressUtils.formatIpv4(address) + "/" + length + " via " + nextHop;
+		}
+	}
+
+	//	One route request of apply(...)
+	public static class RouteChange {
+		public final static int ADD = 0;
+		public final static int REMOVE = 1;
+
+		private final int type;
+		private final Route route;
+
+		RouteChange(int type, Route route){
+			this.type = type;
+			this.route = route;
+		}
+
+		//	ADD or REMOVE
+		public int getType(){
+			return type;
+		}
+
+		public Route getRoute(){
+			return route;
+		}
+
+		@Override
+		public String toString() {
+			return ((type == ADD) ? "add " : "remove ") + route;
+		}
+	}
+}
@@ -0,0 +1,419 @@
+package jOpendaylight;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/*
+ * Polls the statistics northbound on a schedule and turns the raw counters
+ * into per-interval deltas and per-second rates.
+ * Every counter series (a node connector, a flow or a table) keeps its last raw values
+ * in a long array and the deltas of the last historySize intervals in a ring buffer.
+ * Listeners get the deltas of each poll, not the JSON.
+ */
+public class StatisticsPoller {
+	private final static int defaultHistorySize = 60;
+
+	//	What is polled and which counters are tracked
+	public enum Kind {
+		PORT("portStatistics", "portStatistic", new String[]{
+			"receivePackets", "transmitPackets", "receiveBytes", "transmitBytes",
+			"receiveDrops", "transmitDrops", "receiveErrors", "transmitErrors",
+			"receiveFrameError", "receiveOverRunError", "receiveCrcError", "collisionCount"
+		}),
+		FLOW("flowStatistics", "flowStatistic", new String[]{
+			"packetCount", "byteCount"
+		}),
+		TABLE("tableStatistics", "tableStatistic", new String[]{
+			"lookupCount", "matchedCount"
+		});
+
+		private final String listField;
+		private final String entryField;
+		private final String[] counterNames;
+
+		private Kind(String listField, String entryField, String[] counterNames){
+			this.listField = listField;
+			this.entryField = entryField;
+			this.counterNames = counterNames;
+		}
+
+		public List<String> getCounterNames(){
+			return Collections.unmodifiableList(Arrays.asList(counterNames));
+		}
+
+		//	index of a counter in the delta arrays, -1 if it is not tracked
+		public int counterIndex(String counterName){
+			for(int i = 0; i < counterNames.length; i++){
+				if(counterNames[i].equals(counterName)){
+					return i;
+				}
+			}
+			return -1;
+		}
+	}
+
+	//	Gets the deltas of every series that changed during a poll
+	public interface Listener {
+		public void onDeltas(Kind kind, String containerName, List<CounterDelta> deltas);
+
+		//	a poll failed, the series are left untouched
+		public void onError(Kind kind, String containerName, Exception error);
+	}
+
+	private OpendaylightClient client;
+	private ScheduledExecutorService scheduler;
+	private int historySize;
+	private ConcurrentHashMap<String, CounterSeries> series;
+	private List<Listener> listeners;
+	private List<ScheduledFuture<?>> scheduledPolls;
+	private AtomicInteger pollCount;
+
+	//	one per kind and container, updates of the same series are applied one at a time
+	private ConcurrentHashMap<String, Object> updateLocks;
+
+	//	constructor with default history size
+	public StatisticsPoller(OpendaylightClient client){
+		this(client, defaultHistorySize);
+	}
+
+	//	base constructor
+	//	historySize is the number of intervals kept per counter
+	public StatisticsPoller(OpendaylightClient client, int historySize){
+		this.client = client;
+		this.historySize = historySize;
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("StatisticsPoller"));
+		this.series = new ConcurrentHashMap<String, CounterSeries>();
+		this.listeners = new CopyOnWriteArrayList<Listener>();
+		this.scheduledPolls = new CopyOnWriteArrayList<ScheduledFuture<?>>();
+		this.pollCount = new AtomicInteger();
+		this.updateLocks = new ConcurrentHashMap<String, Object>();
+	}
+
+	public void addListener(Listener listener){
+		listeners.add(listener);
+	}
+
+	public void removeListener(Listener listener){
+		listeners.remove(listener);
+	}
+
+	//	Poll the container wide statistics every periodMillis
+	public void schedule(Kind kind, String containerName, long periodMillis){
+		schedule(kind, containerName, null, null, periodMillis);
+	}
+
+	//	Poll the statistics of one node every periodMillis, nodeType and nodeId null for the whole container
+	public void schedule(final Kind kind, final String containerName, final String nodeType, final String nodeId, long periodMillis){
+		scheduledPolls.add(scheduler.scheduleWithFixedDelay(new Runnable(){
+			@Override
+			public void run() {
+				try{
+					poll(kind, containerName, nodeType, nodeId);
+				}
+				catch(Exception e){
+					for(Listener listener: listeners){
+						listener.onError(kind, containerName, e);
+					}
+				}
+			}
+		}, 0, periodMillis, TimeUnit.MILLISECONDS));
+	}
+
+	//	Stop all scheduled polls
+	public void shutdown(){
+		for(ScheduledFuture<?> scheduledPoll: scheduledPolls){
+			scheduledPoll.cancel(false);
+		}
+		scheduler.shutdown();
+	}
+
+	//	Poll once now, nodeType and nodeId null for the whole container
+	//	returns the deltas, which are also given to the listeners
+	public List<CounterDelta> poll(Kind kind, String containerName, String nodeType, String nodeId) throws IOException{
+		JsonNode response;
+
+		switch(kind){
+		case PORT:
+			response = (nodeId == null) ? client.getPortStatistics(containerName) : client.getPortStatistics(containerName, nodeType, nodeId);
+			break;
+		case FLOW:
+			response = (nodeId == null) ? client.getFlowStatistics(containerName) : client.getFlowStatistics(containerName, nodeType, nodeId);
+			break;
+		default:
+			response = (nodeId == null) ? client.getTableStatistics(containerName) : client.getTableStatistics(containerName, nodeType, nodeId);
+			break;
+		}
+
+		List<CounterDelta> deltas = update(kind, containerName, (nodeId == null) ? null : nodeType + "|" + nodeId, response, System.currentTimeMillis());
+
+		if(!deltas.isEmpty()){
+			for(Listener listener: listeners){
+				listener.onDeltas(kind, containerName, deltas);
+			}
+		}
+
+		return deltas;
+	}
+
+	//	Apply one statistics response taken at timestamp
+	//	nodeScope limits which series may be dropped as gone, null for the whole container
+	List<CounterDelta> update(Kind kind, String containerName, String nodeScope, JsonNode response, long timestamp){
+		String prefix = kind.name() + "/" + containerName + "/";
+		Object lock = updateLocks.get(prefix);
+
+		if(lock == null){
+			Object created = new Object();
+
+			lock = updateLocks.putIfAbsent(prefix, created);
+			if(lock == null){
+				lock = created;
+			}
+		}
+
+		//	a scheduled and a manual poll of the same container must not interleave,
+		//	or each would drop the series the other just recorded
+		synchronized(lock){
+			return update(kind, prefix, nodeScope, response, timestamp, pollCount.incrementAndGet());
+		}
+	}
+
+	private List<CounterDelta> update(Kind kind, String prefix, String nodeScope, JsonNode response, long timestamp, int pollId){
+		List<CounterDelta> deltas = new ArrayList<CounterDelta>();
+		List<JsonNode> nodeStatistics;
+		long[] values = new long[kind.counterNames.length];
+
+		//	per node responses are not wrapped in a list
+		nodeStatistics = response.has(kind.listField) ? JsonUtils.elements(response, kind.listField) : Collections.singletonList(response);
+
+		for(JsonNode nodeStatistic: nodeStatistics){
+			String node = JsonUtils.text(nodeStatistic, "node", "type") + "|" + JsonUtils.text(nodeStatistic, "node", "id");
+
+			for(JsonNode entry: JsonUtils.elements(nodeStatistic, kind.entryField)){
+				String key = prefix + node + "/" + entryKey(kind, entry);
+				CounterSeries counterSeries = series.get(key);
+
+				for(int i = 0; i < values.length; i++){
+					values[i] = JsonUtils.longValue(entry, kind.counterNames[i]);
+				}
+
+				if(counterSeries == null){
+					//	first sample only sets the base line
+					CounterSeries created = new CounterSeries(kind, key, node, values.length, historySize);
+
+					counterSeries = series.putIfAbsent(key, created);
+					if(counterSeries == null){
+						counterSeries = created;
+					}
+				}
+
+				CounterDelta delta = counterSeries.record(values, timestamp, pollId);
+				if(delta != null){
+					deltas.add(delta);
+				}
+			}
+		}
+
+		//	drop the series that were not in this response, e.g. removed flows
+		Iterator<CounterSeries> iterator = series.values().iterator();
+		while(iterator.hasNext()){
+			CounterSeries counterSeries = iterator.next();
+
+			if(counterSeries.key.startsWith(prefix)
+					&& (nodeScope == null || counterSeries.node.equals(nodeScope))
+					&& counterSeries.lastPollId != pollId){
+				iterator.remove();
+			}
+		}
+
+		return deltas;
+	}
+
+	//	what identifies one series within a node
+	private static String entryKey(Kind kind, JsonNode entry){
+		switch(kind){
+		case PORT:
+			return JsonUtils.text(entry, "nodeConnector", "id");
+		case FLOW:
+			JsonNode flow = entry.get("flow");
+			return JsonUtils.text(entry, "tableId") + "/" + JsonUtils.text(flow, "priority") + "/" + ((flow != null) ? flow.get("match") : null);
+		default:
+			return JsonUtils.text(entry, "nodeTable", "id");
+		}
+	}
+
+	//	Series of one node connector, e.g. key "PORT/default/OF|00:00:00:00:00:00:00:01/1"
+	public CounterSeries getSeries(String key){
+		return series.get(key);
+	}
+
+	//	Series of one node connector
+	public CounterSeries getPortSeries(String containerName, String nodeType, String nodeId, String portId){
+		return series.get(Kind.PORT.name() + "/" + containerName + "/" + nodeType + "|" + nodeId + "/" + portId);
+	}
+
+	//	Series of one table
+	public CounterSeries getTableSeries(String containerName, String nodeType, String nodeId, String tableId){
+		return series.get(Kind.TABLE.name() + "/" + containerName + "/" + nodeType + "|" + nodeId + "/" + tableId);
+	}
+
+	//	all series keys currently tracked
+	public List<String> getSeriesKeys(){
+		return new ArrayList<String>(series.keySet());
+	}
+
+	//	Deltas of one series over one interval
+	public static class CounterDelta {
+		private final Kind kind;
+		private final String key;
+		private final long intervalMillis;
+		private final long[] deltas;
+
+		CounterDelta(Kind kind, String key, long intervalMillis, long[] deltas){
+			this.kind = kind;
+			this.key = key;
+			this.intervalMillis = intervalMillis;
+			this.deltas = deltas;
+		}
+
+		public Kind getKind(){
+			return kind;
+		}
+
+		public String getKey(){
+			return key;
+		}
+
+		public long getIntervalMillis(){
+			return intervalMillis;
+		}
+
+		//	indexed like Kind.getCounterNames()
+		public long getDelta(int counter){
+			return deltas[counter];
+		}
+
+		public long getDelta(String counterName){
+			return deltas[kind.counterIndex(counterName)];
+		}
+
+		//	per second over the interval
+		public double getRate(String counterName){
+			return (intervalMillis > 0) ? getDelta(counterName) * 1000.0 / intervalMillis : 0;
+		}
+	}
+
+	//	Last raw values and delta history of one node connector, flow or table
+	public static class CounterSeries {
+		private final Kind kind;
+		private final String key;
+		private final String node;
+		private final long[] last;
+		private long lastTimestamp;
+		private int lastPollId;
+
+		//	ring buffers, intervals[slot] and deltas[slot * counters + counter]
+		private final long[] intervals;
+		private final long[] deltas;
+		private int next;
+		private int size;
+
+		CounterSeries(Kind kind, String key, String node, int counters, int historySize){
+			this.kind = kind;
+			this.key = key;
+			this.node = node;
+			this.last = new long[counters];
+			this.intervals = new long[historySize];
+			this.deltas = new long[historySize * counters];
+			this.lastTimestamp = -1;
+		}
+
+		//	returns null on the first sample or when nothing changed
+		synchronized CounterDelta record(long[] values, long timestamp, int pollId){
+			int counters = last.length;
+			boolean changed = false;
+			long[] delta;
+
+			lastPollId = pollId;
+
+			if(lastTimestamp < 0){
+				System.arraycopy(values, 0, last, 0, counters);
+				lastTimestamp = timestamp;
+				return null;
+			}
+
+			delta = new long[counters];
+			for(int i = 0; i < counters; i++){
+				//	counter went backwards, the switch was reset
+				delta[i] = (values[i] >= last[i]) ? values[i] - last[i] : values[i];
+				changed |= (delta[i] != 0);
+				last[i] = values[i];
+			}
+
+			intervals[next] = timestamp - lastTimestamp;
+			System.arraycopy(delta, 0, deltas, next * counters, counters);
+			next = (next + 1) % intervals.length;
+			size = Math.min(size + 1, intervals.length);
+			lastTimestamp = timestamp;
+
+			return changed ? new CounterDelta(kind, key, intervals[(next + intervals.length - 1) % intervals.length], delta) : null;
+		}
+
+		public String getKey(){
+			return key;
+		}
+
+		//	last raw value of a counter
+		public synchronized long getLastValue(String counterName){
+			return last[kind.counterIndex(counterName)];
+		}
+
+		//	deltas of a counter, oldest interval first
+		public synchronized long[] getDeltas(String counterName){
+			int counter = kind.counterIndex(counterName);
+			long[] result = new long[size];
+
+			for(int i = 0; i < size; i++){
+				int slot = (next - size + i + intervals.length) % intervals.length;
+				result[i] = deltas[slot * last.length + counter];
+			}
+
+			return result;
+		}
+
+		//	per second rates of a counter, oldest interval first
+		public synchronized double[] getRates(String counterName){
+			int counter = kind.counterIndex(counterName);
+			double[] result = new double[size];
+
+			for(int i = 0; i < size; i++){
+				int slot = (next - size + i + intervals.length) % intervals.length;
+				result[i] = (intervals[slot] > 0) ? deltas[slot * last.length + counter] * 1000.0 / intervals[slot] : 0;
+			}
+
+			return result;
+		}
+
+		//	per second rate of a counter over the last interval
+		public synchronized double getRate(String counterName){
+			if(size == 0){
+				return 0;
+			}
+
+			int slot = (next - 1 + intervals.length) % intervals.length;
+			return (intervals[slot] > 0) ? deltas[slot * last.length + kind.counterIndex(counterName)] * 1000.0 / intervals[slot] : 0;
+		}
+	}
+}
@@ -0,0 +1,367 @@
+package jOpendaylight;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+//	Decodes a statistics response into typed entries token by token, no JsonNode tree is built.
+//	Reads both the container wide form {"portStatistics": [{"node": ..., "portStatistic": [...]}, ...]}
+//	and the per node form {"node": ..., "portStatistic": [...]}; a list of one may be a single object.
+//	Unknown fields are skipped. Stateless, one instance per kind is shared.
+abstract class StatisticsReader<T> implements EntityReader<List<T>>, EntityReader.Replayable {
+	private final static JsonFactory factory = new JsonFactory();
+
+	final static StatisticsReader<PortStatistic> PORT = new StatisticsReader<PortStatistic>("portStatistics", "portStatistic"){
+		@Override
+		PortStatistic readEntry(JsonParser parser) throws IOException {
+			PortStatistic entry = new PortStatistic();
+
+			while(parser.nextToken() == JsonToken.FIELD_NAME){
+				String name = parser.getCurrentName();
+				JsonToken value = parser.nextToken();
+
+				if(name.equals("nodeConnector") && value == JsonToken.START_OBJECT){
+					String[] nodeConnector = readTypeAndId(parser);
+					entry.nodeConnectorType = nodeConnector[0];
+					entry.nodeConnectorId = nodeConnector[1];
+				}
+				else if(name.equals("receivePackets")){
+					entry.receivePackets = longValue(parser);
+				}
+				else if(name.equals("transmitPackets")){
+					entry.transmitPackets = longValue(parser);
+				}
+				else if(name.equals("receiveBytes")){
+					entry.receiveBytes = longValue(parser);
+				}
+				else if(name.equals("transmitBytes")){
+					entry.transmitBytes = longValue(parser);
+				}
+				else if(name.equals("receiveDrops")){
+					entry.receiveDrops = longValue(parser);
+				}
+				else if(name.equals("transmitDrops")){
+					entry.transmitDrops = longValue(parser);
+				}
+				else if(name.equals("receiveErrors")){
+					entry.receiveErrors = longValue(parser);
+				}
+				else if(name.equals("transmitErrors")){
+					entry.transmitErrors = longValue(parser);
+				}
+				else if(name.equals("receiveFrameError")){
+					entry.receiveFrameError = longValue(parser);
+				}
+				else if(name.equals("receiveOverRunError")){
+					entry.receiveOverRunError = longValue(parser);
+				}
+				else if(name.equals("receiveCrcError")){
+					entry.receiveCrcError = longValue(parser);
+				}
+				else if(name.equals("collisionCount")){
+					entry.collisionCount = longValue(parser);
+				}
+				else{
+					parser.skipChildren();
+				}
+			}
+			return entry;
+		}
+
+		@Override
+		void setNode(PortStatistic entry, String nodeType, String nodeId) {
+			entry.nodeType = nodeType;
+			entry.nodeId = nodeId;
+		}
+	};
+
+	final static StatisticsReader<FlowStatistic> FLOW = new StatisticsReader<FlowStatistic>("flowStatistics", "flowStatistic"){
+		@Override
+		FlowStatistic readEntry(JsonParser parser) throws IOException {
+			FlowStatistic entry = new FlowStatistic();
+
+			while(parser.nextToken() == JsonToken.FIELD_NAME){
+				String name = parser.getCurrentName();
+				JsonToken value = parser.nextToken();
+
+				if(name.equals("flow") && value == JsonToken.START_OBJECT){
+					readFlow(parser, entry);
+				}
+				else if(name.equals("tableId")){
+					entry.tableId = (int) longValue(parser);
+				}
+				else if(name.equals("durationSeconds")){
+					entry.durationSeconds = longValue(parser);
+				}
+				else if(name.equals("durationNanoseconds")){
+					entry.durationNanoseconds = longValue(parser);
+				}
+				else if(name.equals("packetCount")){
+					entry.packetCount = longValue(parser);
+				}
+				else if(name.equals("byteCount")){
+					entry.byteCount = longValue(parser);
+				}
+				else{
+					parser.skipChildren();
+				}
+			}
+			return entry;
+		}
+
+		private void readFlow(JsonParser parser, FlowStatistic entry) throws IOException{
+			while(parser.nextToken() == JsonToken.FIELD_NAME){
+				String name = parser.getCurrentName();
+				JsonToken value = parser.nextToken();
+
+				if(name.equals("match") && value == JsonToken.START_OBJECT){
+					readMatch(parser, entry);
+				}
+				else if(name.equals("priority")){
+					entry.priority = (int) longValue(parser);
+				}
+				else if(name.equals("idleTimeout")){
+					entry.idleTimeout = (int) longValue(parser);
+				}
+				else if(name.equals("hardTimeout")){
+					entry.hardTimeout = (int) longValue(parser);
+				}
+				else if(name.equals("id")){
+					entry.cookie = longValue(parser);
+				}
+				else{
+					parser.skipChildren();
+				}
+			}
+		}
+
+		//	{"matchField": [{"type": "NW_DST", "value": "10.0.0.1"}, ...]}
+		private void readMatch(JsonParser parser, FlowStatistic entry) throws IOException{
+			List<String> matchFields = new ArrayList<String>();
+
+			while(parser.nextToken() == JsonToken.FIELD_NAME){
+				JsonToken value = parser.nextToken();
+
+				if(parser.getCurrentName().equals("matchField") && (value == JsonToken.START_ARRAY || value == JsonToken.START_OBJECT)){
+					boolean single = value == JsonToken.START_OBJECT;
+
+					while(single || parser.nextToken() == JsonToken.START_OBJECT){
+						String[] matchField = readFields(parser, "type", "value");
+
+						if(matchField[0] != null){
+							matchFields.add(matchField[0]);
+							matchFields.add(matchField[1]);
+						}
+						if(single){
+							break;
+						}
+					}
+				}
+				else{
+					parser.skipChildren();
+				}
+			}
+			entry.matchFields = matchFields.toArray(new String[matchFields.size()]);
+		}
+
+		@Override
+		void setNode(FlowStatistic entry, String nodeType, String nodeId) {
+			entry.nodeType = nodeType;
+			entry.nodeId = nodeId;
+		}
+	};
+
+	final static StatisticsReader<TableStatistic> TABLE = new StatisticsReader<TableStatistic>("tableStatistics", "tableStatistic"){
+		@Override
+		TableStatistic readEntry(JsonParser parser) throws IOException {
+			TableStatistic entry = new TableStatistic();
+
+			while(parser.nextToken() == JsonToken.FIELD_NAME){
+				String name = parser.getCurrentName();
+				JsonToken value = parser.nextToken();
+
+				if(name.equals("nodeTable") && value == JsonToken.START_OBJECT){
+					entry.tableId = readTypeAndId(parser)[1];
+				}
+				else if(name.equals("activeCount")){
+					entry.activeCount = longValue(parser);
+				}
+				else if(name.equals("lookupCount")){
+					entry.lookupCount = longValue(parser);
+				}
+				else if(name.equals("matchedCount")){
+					entry.matchedCount = longValue(parser);
+				}
+				else if(name.equals("maximumEntries")){
+					entry.maximumEntries = longValue(parser);
+				}
+				else{
+					parser.skipChildren();
+				}
+			}
+			return entry;
+		}
+
+		@Override
+		void setNode(TableStatistic entry, String nodeType, String nodeId) {
+			entry.nodeType = nodeType;
+			entry.nodeId = nodeId;
+		}
+	};
+
+	private final String listField;
+	private final String entryField;
+
+	private StatisticsReader(String listField, String entryField){
+		this.listField = listField;
+		this.entryField = entryField;
+	}
+
+	//	parser on the START_OBJECT of an entry, returns on its END_OBJECT
+	abstract T readEntry(JsonParser parser) throws IOException;
+
+	abstract void setNode(T entry, String nodeType, String nodeId);
+
+	//	Receives the entries as they are decoded
+	interface Sink<T> {
+		public void accept(T entry);
+	}
+
+	@Override
+	public List<T> read(InputStream content) throws IOException {
+		List<T> result = new ArrayList<T>();
+
+		read(content, result, null);
+		return result;
+	}
+
+	//	Passes the entries to sink node by node, only the entries of one node are held at once.
+	//	Returns the number of entries
+	int read(InputStream content, Sink<T> sink) throws IOException{
+		return read(content, new ArrayList<T>(), sink);
+	}
+
+	//	base method
+	private int read(InputStream content, List<T> result, Sink<T> sink) throws IOException{
+		JsonParser parser = factory.createParser(content);
+
+		try{
+			if(parser.nextToken() == JsonToken.START_OBJECT){
+				return readNodeStatistics(parser, result, true, sink);
+			}
+			return 0;
+		}
+		finally{
+			parser.close();
+		}
+	}
+
+	//	parser on the START_OBJECT of a node's statistics, or of the whole response when top.
+	//	Returns the number of entries read
+	private int readNodeStatistics(JsonParser parser, List<T> result, boolean top, Sink<T> sink) throws IOException{
+		int count = 0;
+		int first = result.size();
+		String[] node = null;
+
+		while(parser.nextToken() == JsonToken.FIELD_NAME){
+			String name = parser.getCurrentName();
+			JsonToken value = parser.nextToken();
+
+			if(top && name.equals(listField) && (value == JsonToken.START_ARRAY || value == JsonToken.START_OBJECT)){
+				boolean single = value == JsonToken.START_OBJECT;
+
+				while(single || parser.nextToken() == JsonToken.START_OBJECT){
+					count += readNodeStatistics(parser, result, false, sink);
+					if(single){
+						break;
+					}
+				}
+			}
+			else if(name.equals("node") && value == JsonToken.START_OBJECT){
+				node = readTypeAndId(parser);
+			}
+			else if(name.equals(entryField) && (value == JsonToken.START_ARRAY || value == JsonToken.START_OBJECT)){
+				boolean single = value == JsonToken.START_OBJECT;
+
+				while(single || parser.nextToken() == JsonToken.START_OBJECT){
+					result.add(readEntry(parser));
+					count++;
+					if(single){
+						break;
+					}
+				}
+			}
+			else{
+				parser.skipChildren();
+			}
+		}
+
+		//	the node may come after its entries, its strings are shared by all of them
+		if(node != null){
+			for(int i = first; i < result.size(); i++){
+				setNode(result.get(i), node[0], node[1]);
+			}
+		}
+
+		if(sink != null){
+			List<T> entries = result.subList(first, result.size());
+
+			for(T entry: entries){
+				sink.accept(entry);
+			}
+			entries.clear();
+		}
+		return count;
+	}
+
+	//	{"type": ..., "id": ...} -> {type, id}, other fields skipped
+	static String[] readTypeAndId(JsonParser parser) throws IOException{
+		return readFields(parser, "type", "id");
+	}
+
+	//	values of two scalar fields of the object the parser is on, null if missing
+	static String[] readFields(JsonParser parser, String first, String second) throws IOException{
+		String[] values = new String[2];
+
+		while(parser.nextToken() == JsonToken.FIELD_NAME){
+			String name = parser.getCurrentName();
+			JsonToken value = parser.nextToken();
+
+			if(value.isScalarValue() && name.equals(first)){
+				values[0] = parser.getText();
+			}
+			else if(value.isScalarValue() && name.equals(second)){
+				values[1] = parser.getText();
+			}
+			else{
+				parser.skipChildren();
+			}
+		}
+		return values;
+	}
+
+	//	number, or string holding one, 0 otherwise
+	static long longValue(JsonParser parser) throws IOException{
+		switch(parser.getCurrentToken()){
+		case VALUE_NUMBER_INT:
+			return parser.getLongValue();
+		case VALUE_NUMBER_FLOAT:
+			return (long) parser.getDoubleValue();
+		case VALUE_STRING:
+			try{
+				return Long.parseLong(parser.getText().trim());
+			}
+			catch(NumberFormatException e){
+				return 0;
+			}
+		default:
+			parser.skipChildren();
+			return 0;
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package jOpendaylight;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+//	Counter spread over one cache line per stripe, picked by thread id,
+//	so threads recording at the same time rarely hit the same slot.
+//	sum() is not an atomic view of concurrent adds.
+class StripedCounter {
+	//	longs per stripe, 64 bytes apart
+	private final static int padding = 8;
+	final static int stripes = stripeCount(16);
+
+	private final AtomicLongArray slots;
+
+	StripedCounter(){
+		slots = new AtomicLongArray(stripes * padding);
+	}
+
+	void increment(){
+		add(1);
+	}
+
+	void add(long value){
+		slots.getAndAdd(stripe() * padding, value);
+	}
+
+	long sum(){
+		long result = 0;
+
+		for(int i = 0; i < stripes; i++){
+			result += slots.get(i * padding);
+		}
+
+		return result;
+	}
+
+	//	stripe of the current thread, below stripes
+	static int stripe(){
+		long id = Thread.currentThread().getId();
+		return (int) (id ^ (id >>> 8)) & (stripes - 1);
+	}
+
+	//	power of two close to the number of processors, at most max
+	static int stripeCount(int max){
+		int processors = Runtime.getRuntime().availableProcessors();
+		int count = 1;
+
+		while(count < processors && count < max){
+			count <<= 1;
+		}
+
+		return count;
+	}
+}
@@ -0,0 +1,51 @@
+package jOpendaylight;
+
+//	Counters of one flow table, as reported by the statistics northbound.
+//	Decoded from the response stream by getTableStatisticList(...), without a JsonNode tree.
+public class TableStatistic {
+	String nodeType;
+	String nodeId;
+	String tableId;
+	long activeCount;
+	long lookupCount;
+	long matchedCount;
+	long maximumEntries;
+	
+	//	filled by StatisticsReader
+	TableStatistic(){
+	}
+	
+	public String getNodeType(){
+		return nodeType;
+	}
+	
+	public String getNodeId(){
+		return nodeId;
+	}
+	
+	public String getTableId(){
+		return tableId;
+	}
+	
+	//	flows in the table
+	public long getActiveCount(){
+		return activeCount;
+	}
+	
+	public long getLookupCount(){
+		return lookupCount;
+	}
+	
+	public long getMatchedCount(){
+		return matchedCount;
+	}
+	
+	public long getMaximumEntries(){
+		return maximumEntries;
+	}
+	
+	@Override
+	public String toString() {
+		return nodeType + "|" + nodeId + "/" + tableId + " active " + activeCount + " lookup " + lookupCount + " matched " + matchedCount;
+	}
+}
@@ -0,0 +1,541 @@
+package jOpendaylight;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/*
+ * In-memory view of a container topology, built from getTopology(...) and getUserLinks(...).
+ * Node ids and ports are interned to int indexes and the adjacency is kept in int arrays,
+ * so path queries do not touch the JSON or allocate per edge.
+ * refresh(...) only applies the edges that were added or removed since the last refresh.
+ * Paths are computed by hop count.
+ */
+public class TopologyGraph {
+	private final static String TYPE_OPENFLOW = "OF";
+	private final static int initialCapacity = 64;
+
+	//	nodes, interned by node id
+	private Map<String, Integer> nodeIndex;
+	private List<String> nodeIds;
+	private List<String> nodeTypes;
+	private int[][] adjacency;		//	node -> ids of its outgoing edges
+	private int[] adjacencySize;
+
+	//	ports, interned by name
+	private Map<String, Integer> portIndex;
+	private List<String> portNames;
+
+	//	directed edges, a removed edge has tail -1 and its id is reused
+	private Map<String, Integer> edgeIndex;
+	private String[] edgeKeys;
+	private int[] edgeTail;
+	private int[] edgeHead;
+	private int[] edgeTailPort;
+	private int[] edgeHeadPort;
+	private int[] edgeSeen;
+	private int edgeHighWater;
+	private int[] freeEdges;
+	private int freeEdgeCount;
+	private int refreshCount;
+
+	private ReentrantReadWriteLock lock;
+
+	public TopologyGraph(){
+		nodeIndex = new HashMap<String, Integer>();
+		nodeIds = new ArrayList<String>();
+		nodeTypes = new ArrayList<String>();
+		adjacency = new int[initialCapacity][];
+		adjacencySize = new int[initialCapacity];
+
+		portIndex = new HashMap<String, Integer>();
+		portNames = new ArrayList<String>();
+
+		edgeIndex = new HashMap<String, Integer>();
+		edgeKeys = new String[initialCapacity];
+		edgeTail = new int[initialCapacity];
+		edgeHead = new int[initialCapacity];
+		edgeTailPort = new int[initialCapacity];
+		edgeHeadPort = new int[initialCapacity];
+		edgeSeen = new int[initialCapacity];
+		freeEdges = new int[initialCapacity];
+
+		lock = new ReentrantReadWriteLock();
+	}
+
+	//	--------------
+	//		update
+	//	--------------
+
+	//	Fetch topology and user links of the container and apply the changes
+	//	returns the number of edges added plus removed
+	public int refresh(OpendaylightClient client, String containerName) throws IOException{
+		return refresh(client.getTopology(containerName), client.getUserLinks(containerName));
+	}
+
+	//	Apply the edges of a topology response and a user links response (may be null)
+	//	User links are added in both directions.
+	//	returns the number of edges added plus removed
+	public int refresh(JsonNode topology, JsonNode userLinks){
+		List<String[]> edges = new ArrayList<String[]>();
+		int changes = 0;
+
+		//	parse outside of the lock
+		for(JsonNode edgeProperty: JsonUtils.elements(topology, "edgeProperties")){
+			JsonNode edge = edgeProperty.get("edge");
+			JsonNode tail = (edge != null) ? edge.get("tailNodeConnector") : null;
+			JsonNode head = (edge != null) ? edge.get("headNodeConnector") : null;
+
+			if(tail != null && head != null){
+				edges.add(new String[]{
+					JsonUtils.text(tail, "node", "type"), JsonUtils.text(tail, "node", "id"), JsonUtils.text(tail, "id"),
+					JsonUtils.text(head, "node", "type"), JsonUtils.text(head, "node", "id"), JsonUtils.text(head, "id")
+				});
+			}
+		}
+
+		for(JsonNode userLink: JsonUtils.elements(userLinks, "userLinks")){
+			String[] src = parseNodeConnector(JsonUtils.text(userLink, "srcNodeConnector"));
+			String[] dst = parseNodeConnector(JsonUtils.text(userLink, "dstNodeConnector"));
+
+			if(src != null && dst != null){
+				edges.add(new String[]{ src[0], src[1], src[2], dst[0], dst[1], dst[2] });
+				edges.add(new String[]{ dst[0], dst[1], dst[2], src[0], src[1], src[2] });
+			}
+		}
+
+		lock.writeLock().lock();
+		try{
+			int stamp = ++refreshCount;
+
+			//	add the new ones
+			for(String[] edge: edges){
+				String key = edge[1] + "/" + edge[2] + ">" + edge[4] + "/" + edge[5];
+				Integer id = edgeIndex.get(key);
+
+				if(id == null){
+					id = addEdge(key, edge);
+					changes++;
+				}
+				edgeSeen[id] = stamp;
+			}
+
+			//	remove what is gone
+			for(int id = 0; id < edgeHighWater; id++){
+				if(edgeTail[id] >= 0 && edgeSeen[id] != stamp){
+					removeEdge(id);
+					changes++;
+				}
+			}
+		}
+		finally{
+			lock.writeLock().unlock();
+		}
+
+		return changes;
+	}
+
+	//	"OF|2@OF|00:00:00:00:00:00:00:02" -> {nodeType, nodeId, port}
+	private static String[] parseNodeConnector(String nodeConnector){
+		int portSeparator, nodeSeparator, nodeTypeSeparator;
+
+		if(nodeConnector == null
+				|| (portSeparator = nodeConnector.indexOf('|')) < 0
+				|| (nodeSeparator = nodeConnector.indexOf('@', portSeparator)) < 0
+				|| (nodeTypeSeparator = nodeConnector.indexOf('|', nodeSeparator)) < 0){
+			return null;
+		}
+
+		return new String[]{
+			nodeConnector.substring(nodeSeparator + 1, nodeTypeSeparator),
+			nodeConnector.substring(nodeTypeSeparator + 1),
+			nodeConnector.substring(portSeparator + 1, nodeSeparator)
+		};
+	}
+
+	private int addEdge(String key, String[] edge){
+		int id;
+		int tail = internNode(edge[0], edge[1]);
+		int head = internNode(edge[3], edge[4]);
+
+		if(freeEdgeCount > 0){
+			id = freeEdges[--freeEdgeCount];
+		}
+		else{
+			if(edgeHighWater == edgeTail.length){
+				int capacity = edgeTail.length * 2;
+				edgeKeys = Arrays.copyOf(edgeKeys, capacity);
+				edgeTail = Arrays.copyOf(edgeTail, capacity);
+				edgeHead = Arrays.copyOf(edgeHead, capacity);
+				edgeTailPort = Arrays.copyOf(edgeTailPort, capacity);
+				edgeHeadPort = Arrays.copyOf(edgeHeadPort, capacity);
+				edgeSeen = Arrays.copyOf(edgeSeen, capacity);
+			}
+			id = edgeHighWater++;
+		}
+
+		edgeKeys[id] = key;
+		edgeTail[id] = tail;
+		edgeHead[id] = head;
+		edgeTailPort[id] = internPort(edge[2]);
+		edgeHeadPort[id] = internPort(edge[5]);
+		edgeIndex.put(key, id);
+
+		//	append to the adjacency of the tail
+		if(adjacency[tail] == null){
+			adjacency[tail] = new int[4];
+		}
+		else if(adjacencySize[tail] == adjacency[tail].length){
+			adjacency[tail] = Arrays.copyOf(adjacency[tail], adjacency[tail].length * 2);
+		}
+		adjacency[tail][adjacencySize[tail]++] = id;
+
+		return id;
+	}
+
+	private void removeEdge(int id){
+		int tail = edgeTail[id];
+		int[] edges = adjacency[tail];
+
+		//	swap remove from the adjacency of the tail
+		for(int i = 0; i < adjacencySize[tail]; i++){
+			if(edges[i] == id){
+				edges[i] = edges[--adjacencySize[tail]];
+				break;
+			}
+		}
+
+		edgeIndex.remove(edgeKeys[id]);
+		edgeKeys[id] = null;
+		edgeTail[id] = -1;
+		edgeHead[id] = -1;
+
+		if(freeEdgeCount == freeEdges.length){
+			freeEdges = Arrays.copyOf(freeEdges, freeEdges.length * 2);
+		}
+		freeEdges[freeEdgeCount++] = id;
+	}
+
+	private int internNode(String nodeType, String nodeId){
+		Integer index = nodeIndex.get(nodeId);
+
+		if(index == null){
+			index = nodeIds.size();
+			nodeIndex.put(nodeId, index);
+			nodeIds.add(nodeId);
+			nodeTypes.add((nodeType != null) ? nodeType : TYPE_OPENFLOW);
+
+			if(index == adjacency.length){
+				adjacency = Arrays.copyOf(adjacency, adjacency.length * 2);
+				adjacencySize = Arrays.copyOf(adjacencySize, adjacencySize.length * 2);
+			}
+		}
+
+		return index;
+	}
+
+	private int internPort(String port){
+		Integer index = portIndex.get(port);
+
+		if(index == null){
+			index = portNames.size();
+			portIndex.put(port, index);
+			portNames.add(port);
+		}
+
+		return index;
+	}
+
+	//	---------------
+	//		queries
+	//	---------------
+
+	public int getNodeCount(){
+		lock.readLock().lock();
+		try{
+			return nodeIds.size();
+		}
+		finally{
+			lock.readLock().unlock();
+		}
+	}
+
+	public int getEdgeCount(){
+		lock.readLock().lock();
+		try{
+			return edgeIndex.size();
+		}
+		finally{
+			lock.readLock().unlock();
+		}
+	}
+
+	//	every node seen so far, including nodes whose edges are all gone
+	public List<String> getNodeIds(){
+		lock.readLock().lock();
+		try{
+			return new ArrayList<String>(nodeIds);
+		}
+		finally{
+			lock.readLock().unlock();
+		}
+	}
+
+	//	Nodes reachable over one outgoing edge
+	public List<String> getNeighbours(String nodeId){
+		lock.readLock().lock();
+		try{
+			Integer node = nodeIndex.get(nodeId);
+			List<String> result = new ArrayList<String>();
+
+			if(node != null){
+				for(int i = 0; i < adjacencySize[node]; i++){
+					String neighbour = nodeIds.get(edgeHead[adjacency[node][i]]);
+
+					//	parallel links give the same neighbour more than once
+					if(!result.contains(neighbour)){
+						result.add(neighbour);
+					}
+				}
+			}
+
+			return result;
+		}
+		finally{
+			lock.readLock().unlock();
+		}
+	}
+
+	//	Path with the fewest hops, null if dst cannot be reached
+	public Path getShortestPath(String srcNodeId, String dstNodeId){
+		lock.readLock().lock();
+		try{
+			Integer src = nodeIndex.get(srcNodeId);
+			Integer dst = nodeIndex.get(dstNodeId);
+
+			if(src == null || dst == null){
+				return null;
+			}
+
+			int[] edges = findPath(src, dst, null, null);
+			return (edges != null) ? toPath(src, edges) : null;
+		}
+		finally{
+			lock.readLock().unlock();
+		}
+	}
+
+	//	Up to k loop-free paths ordered by hop count (Yen's algorithm)
+	public List<Path> getShortestPaths(String srcNodeId, String dstNodeId, int k){
+		lock.readLock().lock();
+		try{
+			Integer src = nodeIndex.get(srcNodeId);
+			Integer dst = nodeIndex.get(dstNodeId);
+			List<int[]> accepted = new ArrayList<int[]>();
+			List<int[]> candidates = new ArrayList<int[]>();
+			List<Path> result = new ArrayList<Path>();
+
+			if(src == null || dst == null || k <= 0){
+				return result;
+			}
+
+			int[] first = findPath(src, dst, null, null);
+			if(first == null){
+				return result;
+			}
+			accepted.add(first);
+
+			boolean[] bannedEdges = new boolean[edgeHighWater];
+			boolean[] bannedNodes = new boolean[nodeIds.size()];
+
+			while(accepted.size() < k){
+				int[] previous = accepted.get(accepted.size() - 1);
+				int spurNode = src;
+
+				for(int i = 0; i < previous.length; i++){
+					//	ban the next edge of every accepted path sharing this root
+					for(int[] path: accepted){
+						if(path.length > i && samePrefix(path, previous, i)){
+							bannedEdges[path[i]] = true;
+						}
+					}
+
+					int[] spur = findPath(spurNode, dst, bannedEdges, bannedNodes);
+
+					if(spur != null){
+						int[] candidate = Arrays.copyOf(previous, i + spur.length);
+						System.arraycopy(spur, 0, candidate, i, spur.length);
+
+						if(!containsPath(accepted, candidate) && !containsPath(candidates, candidate)){
+							candidates.add(candidate);
+						}
+					}
+
+					//	the root may not go back through its own nodes
+					bannedNodes[spurNode] = true;
+					spurNode = edgeHead[previous[i]];
+				}
+
+				Arrays.fill(bannedEdges, false);
+				Arrays.fill(bannedNodes, false);
+
+				if(candidates.isEmpty()){
+					break;
+				}
+
+				//	shortest candidate is the next path
+				int best = 0;
+				for(int i = 1; i < candidates.size(); i++){
+					if(candidates.get(i).length < candidates.get(best).length){
+						best = i;
+					}
+				}
+				accepted.add(candidates.remove(best));
+			}
+
+			for(int[] edges: accepted){
+				result.add(toPath(src, edges));
+			}
+
+			return result;
+		}
+		finally{
+			lock.readLock().unlock();
+		}
+	}
+
+	//	Breadth first search over the int adjacency, returns the edge ids of the path
+	private int[] findPath(int src, int dst, boolean[] bannedEdges, boolean[] bannedNodes){
+		int nodeCount = nodeIds.size();
+		int[] previousEdge = new int[nodeCount];
+		int[] queue = new int[nodeCount];
+		int queueHead = 0, queueTail = 0;
+
+		if(src == dst){
+			return new int[0];
+		}
+
+		Arrays.fill(previousEdge, -1);
+		previousEdge[src] = Integer.MAX_VALUE;
+		queue[queueTail++] = src;
+
+		while(queueHead < queueTail){
+			int node = queue[queueHead++];
+			int[] edges = adjacency[node];
+
+			for(int i = 0; i < adjacencySize[node]; i++){
+				int edge = edges[i];
+				int next = edgeHead[edge];
+
+				if(previousEdge[next] != -1
+						|| (bannedEdges != null && bannedEdges[edge])
+						|| (bannedNodes != null && bannedNodes[next])){
+					continue;
+				}
+
+				previousEdge[next] = edge;
+
+				if(next == dst){
+					//	walk back to the source
+					int length = 0;
+					for(int n = dst; n != src; n = edgeTail[previousEdge[n]]){
+						length++;
+					}
+
+					int[] path = new int[length];
+					for(int n = dst; n != src; n = edgeTail[previousEdge[n]]){
+						path[--length] = previousEdge[n];
+					}
+
+					return path;
+				}
+
+				queue[queueTail++] = next;
+			}
+		}
+
+		return null;
+	}
+
+	private static boolean samePrefix(int[] a, int[] b, int length){
+		for(int i = 0; i < length; i++){
+			if(a[i] != b[i]){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean containsPath(List<int[]> paths, int[] path){
+		for(int[] other: paths){
+			if(Arrays.equals(other, path)){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private Path toPath(int src, int[] edges){
+		String[] nodes = new String[edges.length + 1];
+		String[] outputPorts = new String[edges.length];
+		String[] inputPorts = new String[edges.length];
+
+		nodes[0] = nodeIds.get(src);
+		for(int i = 0; i < edges.length; i++){
+			nodes[i + 1] = nodeIds.get(edgeHead[edges[i]]);
+			outputPorts[i] = portNames.get(edgeTailPort[edges[i]]);
+			inputPorts[i] = portNames.get(edgeHeadPort[edges[i]]);
+		}
+
+		return new Path(nodes, outputPorts, inputPorts);
+	}
+
+	//	A path through the topology
+	//	hop i leaves getNodeIds().get(i) on getOutputPorts().get(i)
+	//	and enters getNodeIds().get(i + 1) on getInputPorts().get(i)
+	public static class Path {
+		private final List<String> nodeIds;
+		private final List<String> outputPorts;
+		private final List<String> inputPorts;
+
+		Path(String[] nodeIds, String[] outputPorts, String[] inputPorts){
+			this.nodeIds = Collections.unmodifiableList(Arrays.asList(nodeIds));
+			this.outputPorts = Collections.unmodifiableList(Arrays.asList(outputPorts));
+			this.inputPorts = Collections.unmodifiableList(Arrays.asList(inputPorts));
+		}
+
+		public List<String> getNodeIds(){
+			return nodeIds;
+		}
+
+		public List<String> getOutputPorts(){
+			return outputPorts;
+		}
+
+		public List<String> getInputPorts(){
+			return inputPorts;
+		}
+
+		public int getHopCount(){
+			return outputPorts.size();
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder result = new StringBuilder(nodeIds.get(0));
+
+			for(int i = 0; i < outputPorts.size(); i++){
+				result.append(" -").append(outputPorts.get(i)).append("-> ").append(nodeIds.get(i + 1));
+			}
+
+			return result.toString();
+		}
+	}
+}